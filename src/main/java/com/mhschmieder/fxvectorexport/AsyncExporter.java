@@ -0,0 +1,584 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxConverter Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxConverter Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxconverter
+ */
+package com.mhschmieder.fxvectorexport;
+
+import com.mhschmieder.fxvectorexport.capture.SceneCapture;
+import com.mhschmieder.fxvectorexport.capture.SceneSnapshot;
+import com.mhschmieder.fxvectorexport.eps.EpsExportUtilities;
+import com.mhschmieder.fxvectorexport.pdf.PdfReportUtilities;
+import com.mhschmieder.fxvectorexport.ppt.PptExportUtilities;
+import com.mhschmieder.fxvectorexport.pptx.PptxExportUtilities;
+import com.mhschmieder.fxvectorexport.svg.SvgExportUtilities;
+import javafx.scene.Node;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * {@code AsyncExporter} is an asynchronous facade over the export utilities,
+ * which returns a {@link CompletableFuture} for each export instead of
+ * blocking the caller.
+ * <p>
+ * The Scene Graph is captured on the JavaFX Application Thread, as required by
+ * JFXConverter, and everything else is done on the executor supplied at
+ * construction time. Progress is reported in terms of Nodes processed out of
+ * the total, and cancelling the returned future cooperatively stops the export
+ * at the next Node of the traversal or the next chunk of output, whichever
+ * comes first. Several formats may also be exported from a single capture, in
+ * which case they are encoded in parallel. Files are written to a temporary
+ * file that only replaces the target on success, so a failed or cancelled
+ * export leaves nothing behind.
+ *
+ * @version 1.0
+ *
+ * @author Mark Schmieder
+ */
+public final class AsyncExporter {
+
+    /**
+     * The executor that does the encoding and writing of the documents.
+     */
+    private final Executor executor;
+
+    /**
+     * Constructs an asynchronous exporter that encodes on the given executor.
+     *
+     * @param executor
+     *            The {@link Executor} to encode and write the documents on
+     */
+    public AsyncExporter( final Executor executor ) {
+        this.executor = executor;
+    }
+
+    /**
+     * Exports the provided {@link Node} to a file in the given format.
+     *
+     * @param node
+     *            The {@link Node} to export
+     * @param format
+     *            The {@link ExportFormat} to write
+     * @param file
+     *            The {@link File} destination for the document
+     * @param options
+     *            The {@link ExportOptions} for the document
+     * @param progressListener
+     *            The listener to notify of progress ({@code null} permitted)
+     * @return A future that completes with the summary of the export, and that
+     *         cancels the export if it is itself cancelled
+     *
+     * @since 1.0
+     */
+    public CompletableFuture< ExportResult > export( final Node node,
+                                                     final ExportFormat format,
+                                                     final File file,
+                                                     final ExportOptions options,
+                                                     final ExportProgressListener progressListener ) {
+        final ExportMonitor monitor = new ExportMonitor( progressListener );
+        final CompletableFuture< ExportResult > resultFuture = SceneCapture
+                .captureOnFxThread( node, monitor )
+                .thenApplyAsync( snapshot -> exportToFile( snapshot, format, file.toPath(), options, monitor ),
+                                 executor );
+        return cancelOnCompletion( resultFuture, monitor );
+    }
+
+    /**
+     * Exports a previously captured {@link SceneSnapshot} to a file in the
+     * given format. This never involves the JavaFX Application Thread.
+     *
+     * @param snapshot
+     *            The {@link SceneSnapshot} to export
+     * @param format
+     *            The {@link ExportFormat} to write
+     * @param file
+     *            The {@link File} destination for the document
+     * @param options
+     *            The {@link ExportOptions} for the document
+     * @param progressListener
+     *            The listener to notify of progress ({@code null} permitted)
+     * @return A future that completes with the summary of the export, and that
+     *         cancels the export if it is itself cancelled
+     *
+     * @since 1.0
+     */
+    public CompletableFuture< ExportResult > export( final SceneSnapshot snapshot,
+                                                     final ExportFormat format,
+                                                     final File file,
+                                                     final ExportOptions options,
+                                                     final ExportProgressListener progressListener ) {
+        final ExportMonitor monitor = new ExportMonitor( progressListener );
+        final CompletableFuture< ExportResult > resultFuture = CompletableFuture
+                .supplyAsync( () -> exportToFile( snapshot, format, file.toPath(), options, monitor ),
+                              executor );
+        return cancelOnCompletion( resultFuture, monitor );
+    }
+
+    /**
+     * Exports the provided {@link Node} to an {@link OutputStream} in the given
+     * format. The stream is flushed but not closed, as it is owned by the
+     * caller, who must not touch it until the returned future completes.
+     *
+     * @param node
+     *            The {@link Node} to export
+     * @param format
+     *            The {@link ExportFormat} to write
+     * @param outputStream
+     *            The {@link OutputStream} destination for the document
+     * @param options
+     *            The {@link ExportOptions} for the document
+     * @param progressListener
+     *            The listener to notify of progress ({@code null} permitted)
+     * @return A future that completes with the summary of the export, and that
+     *         cancels the export if it is itself cancelled
+     *
+     * @since 1.0
+     */
+    public CompletableFuture< ExportResult > export( final Node node,
+                                                     final ExportFormat format,
+                                                     final OutputStream outputStream,
+                                                     final ExportOptions options,
+                                                     final ExportProgressListener progressListener ) {
+        final ExportMonitor monitor = new ExportMonitor( progressListener );
+        final CompletableFuture< ExportResult > resultFuture = SceneCapture
+                .captureOnFxThread( node, monitor )
+                .thenApplyAsync( snapshot -> exportToStream( snapshot,
+                                                             format,
+                                                             outputStream,
+                                                             options,
+                                                             monitor ),
+                                 executor );
+        return cancelOnCompletion( resultFuture, monitor );
+    }
+
+    /**
+     * Exports the provided {@link Node} to several formats at once. The Scene
+     * Graph is traversed only once, on the JavaFX Application Thread, and the
+     * resulting snapshot is then encoded to each format in parallel on the
+     * executor, so that the total time is close to that of the slowest format
+     * rather than the sum of all of them, given enough threads.
+     * <p>
+     * Progress is reported across all of the formats together. If any format
+     * fails, the formats that are still being encoded are cancelled, leaving
+     * their target files untouched.
+     *
+     * @param node
+     *            The {@link Node} to export
+     * @param destinations
+     *            The {@link Path} destination for each {@link ExportFormat} to
+     *            write
+     * @param options
+     *            The {@link ExportOptions} for the documents
+     * @param progressListener
+     *            The listener to notify of progress ({@code null} permitted)
+     * @return A future that completes with the summary of the export of each
+     *         format, and that cancels all of them if it is itself cancelled
+     *
+     * @since 1.0
+     */
+    public CompletableFuture< Map< ExportFormat, ExportResult > > exportAll( final Node node,
+                                                                              final Map< ExportFormat, Path > destinations,
+                                                                              final ExportOptions options,
+                                                                              final ExportProgressListener progressListener ) {
+        final ExportMonitor captureMonitor = new ExportMonitor();
+        final Map< ExportFormat, ExportMonitor > monitors = createMonitors( destinations,
+                                                                             progressListener );
+        final CompletableFuture< Map< ExportFormat, ExportResult > > resultFuture = SceneCapture
+                .captureOnFxThread( node, captureMonitor )
+                .thenCompose( snapshot -> exportAllFormats( snapshot,
+                                                            destinations,
+                                                            options,
+                                                            monitors ) );
+        resultFuture.whenComplete( ( results, throwable ) -> {
+            if ( resultFuture.isCancelled() ) {
+                captureMonitor.cancel();
+                monitors.values().forEach( ExportMonitor::cancel );
+            }
+        } );
+        return resultFuture;
+    }
+
+    /**
+     * Exports a previously captured {@link SceneSnapshot} to several formats
+     * at once, encoding each format in parallel on the executor. This never
+     * involves the JavaFX Application Thread.
+     *
+     * @param snapshot
+     *            The {@link SceneSnapshot} to export
+     * @param destinations
+     *            The {@link Path} destination for each {@link ExportFormat} to
+     *            write
+     * @param options
+     *            The {@link ExportOptions} for the documents
+     * @param progressListener
+     *            The listener to notify of progress ({@code null} permitted)
+     * @return A future that completes with the summary of the export of each
+     *         format, and that cancels all of them if it is itself cancelled
+     *
+     * @since 1.0
+     */
+    public CompletableFuture< Map< ExportFormat, ExportResult > > exportAll( final SceneSnapshot snapshot,
+                                                                              final Map< ExportFormat, Path > destinations,
+                                                                              final ExportOptions options,
+                                                                              final ExportProgressListener progressListener ) {
+        final Map< ExportFormat, ExportMonitor > monitors = createMonitors( destinations,
+                                                                             progressListener );
+        final CompletableFuture< Map< ExportFormat, ExportResult > > resultFuture =
+                                                                                 exportAllFormats( snapshot,
+                                                                                                   destinations,
+                                                                                                   options,
+                                                                                                   monitors );
+        resultFuture.whenComplete( ( results, throwable ) -> {
+            if ( resultFuture.isCancelled() ) {
+                monitors.values().forEach( ExportMonitor::cancel );
+            }
+        } );
+        return resultFuture;
+    }
+
+    /**
+     * Synchronously exports a previously captured {@link SceneSnapshot} to an
+     * {@link OutputStream} in the given format. This is the common core of all
+     * of the asynchronous exports, and is exposed for clients that manage their
+     * own threads.
+     *
+     * @param snapshot
+     *            The {@link SceneSnapshot} to export
+     * @param format
+     *            The {@link ExportFormat} to write
+     * @param outputStream
+     *            The {@link OutputStream} destination for the document
+     * @param options
+     *            The {@link ExportOptions} for the document
+     * @param monitor
+     *            The {@link ExportMonitor} for progress and cancellation
+     * @return The summary of the export
+     * @throws IOException
+     *             If the document could not be written
+     * @throws ExportCancelledException
+     *             If the monitor was cancelled during the export
+     *
+     * @since 1.0
+     */
+    public static ExportResult exportSnapshot( final SceneSnapshot snapshot,
+                                               final ExportFormat format,
+                                               final OutputStream outputStream,
+                                               final ExportOptions options,
+                                               final ExportMonitor monitor )
+            throws IOException {
+        monitor.checkCancelled();
+
+        final long startTime = System.nanoTime();
+
+        switch ( format ) {
+        case EPS:
+            EpsExportUtilities.writeDocument( outputStream,
+                                              snapshot,
+                                              options.getTitle(),
+                                              options.getAuthor(),
+                                              options.getPageWidth(),
+                                              options.getPageHeight(),
+                                              options.getColorMode(),
+                                              options.isUseVectorizedText(),
+                                              options.isUseStreaming(),
+                                              monitor );
+            break;
+        case PDF:
+            PdfReportUtilities.writeDocument( outputStream,
+                                              snapshot,
+                                              options.getTitle(),
+                                              options.getAuthor(),
+                                              options.getPageWidth(),
+                                              options.getPageHeight(),
+                                              options.getColorMode(),
+                                              options.isUseVectorizedText(),
+                                              options.isUseStreaming(),
+                                              monitor );
+            break;
+        case PPT:
+            PptExportUtilities.writeDocument( outputStream,
+                                              snapshot,
+                                              options.getTitle(),
+                                              options.isUseExtendedConversion(),
+                                              monitor );
+            break;
+        case PPTX:
+            PptxExportUtilities.writeDocument( outputStream,
+                                               snapshot,
+                                               options.getTitle(),
+                                               options.isUseExtendedConversion(),
+                                               monitor );
+            break;
+        case SVG:
+            SvgExportUtilities.writeDocument( outputStream,
+                                              snapshot,
+                                              options.getTitle(),
+                                              options.getPageWidth(),
+                                              options.getPageHeight(),
+                                              options.getColorMode(),
+                                              options.isUseVectorizedText(),
+                                              options.isUseStreaming(),
+                                              monitor );
+            break;
+        default:
+            throw new IllegalArgumentException( "Unsupported export format: " + format ); //$NON-NLS-1$
+        }
+
+        final long endTime = System.nanoTime();
+        final long renderFinishedTime = monitor.getRenderFinishedTime();
+
+        return new ExportResult( format,
+                                 snapshot.getNodeCount(),
+                                 snapshot.getCaptureNanos(),
+                                 renderFinishedTime - startTime,
+                                 endTime - renderFinishedTime,
+                                 monitor.getBytesWritten(),
+                                 monitor.getImageBytesAllocated() );
+    }
+
+    /**
+     * Synchronously exports a previously captured {@link SceneSnapshot} to a
+     * file in the given format, through a temporary file that only replaces
+     * the target once the export succeeds, so that no truncated documents are
+     * left behind if the export fails or is cancelled.
+     *
+     * @param snapshot
+     *            The {@link SceneSnapshot} to export
+     * @param format
+     *            The {@link ExportFormat} to write
+     * @param path
+     *            The {@link Path} destination for the document
+     * @param options
+     *            The {@link ExportOptions} for the document
+     * @param monitor
+     *            The {@link ExportMonitor} for progress and cancellation
+     * @return The summary of the export
+     * @throws IOException
+     *             If the document could not be written
+     * @throws ExportCancelledException
+     *             If the monitor was cancelled during the export
+     *
+     * @since 1.0
+     */
+    public static ExportResult exportSnapshot( final SceneSnapshot snapshot,
+                                               final ExportFormat format,
+                                               final Path path,
+                                               final ExportOptions options,
+                                               final ExportMonitor monitor )
+            throws IOException {
+        try ( final FileChannelOutputStream fileChannelOutputStream =
+                                                                    new FileChannelOutputStream( path ) ) {
+            final ExportResult result = exportSnapshot( snapshot,
+                                                        format,
+                                                        fileChannelOutputStream,
+                                                        options,
+                                                        monitor );
+            fileChannelOutputStream.commit();
+            return result;
+        }
+    }
+
+    /**
+     * Exports a snapshot to a file, converting the checked exception to an
+     * unchecked one so that it can be carried by a {@link CompletableFuture}.
+     *
+     * @param snapshot
+     *            The {@link SceneSnapshot} to export
+     * @param format
+     *            The {@link ExportFormat} to write
+     * @param path
+     *            The {@link Path} destination for the document
+     * @param options
+     *            The {@link ExportOptions} for the document
+     * @param monitor
+     *            The {@link ExportMonitor} for progress and cancellation
+     * @return The summary of the export
+     */
+    private static ExportResult exportToFile( final SceneSnapshot snapshot,
+                                              final ExportFormat format,
+                                              final Path path,
+                                              final ExportOptions options,
+                                              final ExportMonitor monitor ) {
+        try {
+            return exportSnapshot( snapshot, format, path, options, monitor );
+        }
+        catch ( final IOException ioe ) {
+            throw new UncheckedIOException( ioe );
+        }
+    }
+
+    /**
+     * Exports a snapshot to a stream, converting the checked exception to an
+     * unchecked one so that it can be carried by a {@link CompletableFuture}.
+     *
+     * @param snapshot
+     *            The {@link SceneSnapshot} to export
+     * @param format
+     *            The {@link ExportFormat} to write
+     * @param outputStream
+     *            The {@link OutputStream} destination for the document
+     * @param options
+     *            The {@link ExportOptions} for the document
+     * @param monitor
+     *            The {@link ExportMonitor} for progress and cancellation
+     * @return The summary of the export
+     */
+    private static ExportResult exportToStream( final SceneSnapshot snapshot,
+                                                final ExportFormat format,
+                                                final OutputStream outputStream,
+                                                final ExportOptions options,
+                                                final ExportMonitor monitor ) {
+        try {
+            return exportSnapshot( snapshot, format, outputStream, options, monitor );
+        }
+        catch ( final IOException ioe ) {
+            throw new UncheckedIOException( ioe );
+        }
+    }
+
+    /**
+     * Creates a monitor for each format of a multi-format export, each of
+     * which reports to the client the progress summed over all of the formats.
+     *
+     * @param destinations
+     *            The {@link Path} destination for each {@link ExportFormat} to
+     *            write
+     * @param progressListener
+     *            The listener to notify of progress ({@code null} permitted)
+     * @return The {@link ExportMonitor} for each format
+     */
+    private static Map< ExportFormat, ExportMonitor > createMonitors( final Map< ExportFormat, Path > destinations,
+                                                                      final ExportProgressListener progressListener ) {
+        final Map< ExportFormat, ExportMonitor > monitors = new EnumMap<>( ExportFormat.class );
+        final int formatCount = destinations.size();
+        final long[] nodesProcessed = new long[ formatCount ];
+
+        int formatIndex = 0;
+        for ( final ExportFormat format : destinations.keySet() ) {
+            final int index = formatIndex++;
+            final ExportProgressListener formatProgressListener = ( progressListener == null )
+                ? null
+                : ( processed, total ) -> {
+                    // The formats are encoded on different threads, so their
+                    // progress is summed under a lock.
+                    synchronized ( nodesProcessed ) {
+                        nodesProcessed[ index ] = processed;
+                        long processedSum = 0L;
+                        for ( final long formatProcessed : nodesProcessed ) {
+                            processedSum += formatProcessed;
+                        }
+                        progressListener.progressChanged( processedSum, total * formatCount );
+                    }
+                };
+            monitors.put( format, new ExportMonitor( formatProgressListener ) );
+        }
+
+        return monitors;
+    }
+
+    /**
+     * Encodes a snapshot to each format of a multi-format export in parallel on
+     * the executor, cancelling the other formats as soon as any one fails.
+     *
+     * @param snapshot
+     *            The {@link SceneSnapshot} to export
+     * @param destinations
+     *            The {@link Path} destination for each {@link ExportFormat} to
+     *            write
+     * @param options
+     *            The {@link ExportOptions} for the documents
+     * @param monitors
+     *            The {@link ExportMonitor} for each format
+     * @return A future that completes with the summary of the export of each
+     *         format
+     */
+    private CompletableFuture< Map< ExportFormat, ExportResult > > exportAllFormats( final SceneSnapshot snapshot,
+                                                                                      final Map< ExportFormat, Path > destinations,
+                                                                                      final ExportOptions options,
+                                                                                      final Map< ExportFormat, ExportMonitor > monitors ) {
+        final Map< ExportFormat, CompletableFuture< ExportResult > > formatFutures =
+                                                                                   new EnumMap<>( ExportFormat.class );
+        for ( final Map.Entry< ExportFormat, Path > destination : destinations.entrySet() ) {
+            final ExportFormat format = destination.getKey();
+            final ExportMonitor monitor = monitors.get( format );
+            final CompletableFuture< ExportResult > formatFuture = CompletableFuture
+                    .supplyAsync( () -> exportToFile( snapshot,
+                                                      format,
+                                                      destination.getValue(),
+                                                      options,
+                                                      monitor ),
+                                  executor );
+            formatFuture.whenComplete( ( result, throwable ) -> {
+                if ( throwable != null ) {
+                    monitors.values().forEach( ExportMonitor::cancel );
+                }
+            } );
+            formatFutures.put( format, formatFuture );
+        }
+
+        return CompletableFuture
+                .allOf( formatFutures.values().toArray( new CompletableFuture< ? >[ 0 ] ) )
+                .thenApply( ignored -> {
+                    final Map< ExportFormat, ExportResult > results =
+                                                                    new EnumMap<>( ExportFormat.class );
+                    formatFutures.forEach( ( format, formatFuture ) -> results
+                            .put( format, formatFuture.join() ) );
+                    return results;
+                } );
+    }
+
+    /**
+     * Propagates cancellation of the future returned to the client back to the
+     * monitor, as {@link CompletableFuture#cancel(boolean)} doesn't interrupt
+     * the work that is in progress, nor does it reach earlier stages.
+     *
+     * @param resultFuture
+     *            The future that is returned to the client
+     * @param monitor
+     *            The {@link ExportMonitor} to cancel along with the future
+     * @return The future that is returned to the client
+     */
+    private static CompletableFuture< ExportResult > cancelOnCompletion( final CompletableFuture< ExportResult > resultFuture,
+                                                                         final ExportMonitor monitor ) {
+        resultFuture.whenComplete( ( result, throwable ) -> {
+            if ( resultFuture.isCancelled() ) {
+                monitor.cancel();
+            }
+        } );
+        return resultFuture;
+    }
+
+}
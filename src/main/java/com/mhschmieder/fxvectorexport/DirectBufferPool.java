@@ -0,0 +1,96 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxConverter Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxConverter Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxconverter
+ */
+package com.mhschmieder.fxvectorexport;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * {@code DirectBufferPool} keeps a bounded number of direct {@link ByteBuffer}
+ * instances for reuse by the file output of all exporters, as direct buffers
+ * are expensive to allocate and are only released by the garbage collector.
+ * <p>
+ * This class is thread-safe; a buffer is owned by one thread at a time between
+ * {@link #acquire()} and {@link #release(ByteBuffer)}.
+ *
+ * @version 1.0
+ *
+ * @author Mark Schmieder
+ */
+final class DirectBufferPool {
+
+    /**
+     * The capacity of each pooled buffer, which matches the chunk size of
+     * {@link ExportMonitor} so that a monitored chunk fills a buffer exactly.
+     */
+    static final int                           BUFFER_SIZE         = 64 * 1024;
+
+    /**
+     * The maximum number of idle buffers kept in the pool; any more than that
+     * are left to the garbage collector when they are released.
+     */
+    private static final int                   MAX_POOLED_BUFFERS  = 16;
+
+    /**
+     * The idle buffers, ready for reuse.
+     */
+    private static final BlockingQueue< ByteBuffer > IDLE_BUFFERS =
+                                                                new ArrayBlockingQueue<>( MAX_POOLED_BUFFERS );
+
+    /**
+     * The default constructor is disabled, as this is a static utilities class.
+     */
+    private DirectBufferPool() {}
+
+    /**
+     * Returns a cleared direct buffer from the pool, allocating a new one if
+     * the pool is empty.
+     *
+     * @return A cleared direct buffer of {@link #BUFFER_SIZE} bytes
+     */
+    static ByteBuffer acquire() {
+        final ByteBuffer buffer = IDLE_BUFFERS.poll();
+        return ( buffer != null ) ? buffer : ByteBuffer.allocateDirect( BUFFER_SIZE );
+    }
+
+    /**
+     * Returns a buffer to the pool. The buffer must not be used afterwards.
+     *
+     * @param buffer
+     *            The buffer to return, as obtained from {@link #acquire()}
+     */
+    static void release( final ByteBuffer buffer ) {
+        buffer.clear();
+        IDLE_BUFFERS.offer( buffer );
+    }
+
+}
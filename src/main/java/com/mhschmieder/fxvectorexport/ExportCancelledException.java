@@ -0,0 +1,56 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxConverter Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxConverter Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxconverter
+ */
+package com.mhschmieder.fxvectorexport;
+
+/**
+ * {@code ExportCancelledException} is thrown from within an export when its
+ * {@link ExportMonitor} has been cancelled, in order to unwind the Scene Graph
+ * traversal or the output writing as soon as possible.
+ *
+ * @version 1.0
+ *
+ * @author Mark Schmieder
+ */
+public final class ExportCancelledException extends RuntimeException {
+
+    /**
+     * Unique Identifier for serialization, as required by the base class.
+     */
+    private static final long serialVersionUID = -6219806411239447305L;
+
+    /**
+     * Constructs a cancellation exception with the default message.
+     */
+    public ExportCancelledException() {
+        super( "The export was cancelled" ); //$NON-NLS-1$
+    }
+
+}
@@ -0,0 +1,81 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxConverter Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxConverter Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxconverter
+ */
+package com.mhschmieder.fxvectorexport;
+
+/**
+ * {@code ExportFormat} is an enumeration of the vector graphics formats that
+ * the asynchronous and batch exporters can write.
+ *
+ * @version 1.0
+ *
+ * @author Mark Schmieder
+ */
+public enum ExportFormat {
+    /** Encapsulated PostScript, via EpsToolkit. */
+    EPS( "eps" ), //$NON-NLS-1$
+
+    /** Portable Document Format, via OrsonPDF. */
+    PDF( "pdf" ), //$NON-NLS-1$
+
+    /** Microsoft PowerPoint 97-2003, via Apache POI HSLF. */
+    PPT( "ppt" ), //$NON-NLS-1$
+
+    /** Microsoft PowerPoint Open XML, via Apache POI XSLF. */
+    PPTX( "pptx" ), //$NON-NLS-1$
+
+    /** Scalable Vector Graphics, via JFreeSVG. */
+    SVG( "svg" ); //$NON-NLS-1$
+
+    /**
+     * The conventional file extension for this format, without the dot.
+     */
+    private final String fileExtension;
+
+    /**
+     * Constructs a format with its conventional file extension.
+     *
+     * @param fileExtension
+     *            The conventional file extension, without the dot
+     */
+    ExportFormat( final String fileExtension ) {
+        this.fileExtension = fileExtension;
+    }
+
+    /**
+     * Returns the conventional file extension for this format, without the dot.
+     *
+     * @return The conventional file extension for this format
+     */
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+}
@@ -0,0 +1,293 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxConverter Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxConverter Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxconverter
+ */
+package com.mhschmieder.fxvectorexport;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * {@code ExportMonitor} tracks the state of a single export, so that it can be
+ * cancelled cooperatively and so that its progress and output size can be
+ * reported. It is checked during the JFXConverter traversal of the Scene Graph,
+ * during the replay of a snapshot, and for every chunk of output written.
+ * <p>
+ * Cancellation may be requested from any thread; everything else is expected
+ * to be called from the one thread that is doing the work at the time.
+ *
+ * @version 1.0
+ *
+ * @author Mark Schmieder
+ */
+public final class ExportMonitor {
+
+    /**
+     * The largest chunk of output written between two cancellation checks.
+     */
+    private static final int             CHUNK_SIZE = 64 * 1024;
+
+    /**
+     * The listener to notify of progress, or {@code null} if there is none.
+     */
+    private final ExportProgressListener progressListener;
+
+    /**
+     * Flag for whether the export has been cancelled.
+     */
+    private volatile boolean             cancelled;
+
+    /**
+     * The total number of Nodes that the export will process.
+     */
+    private long                         nodesTotal;
+
+    /**
+     * The number of Nodes processed so far.
+     */
+    private long                         nodesProcessed;
+
+    /**
+     * The last progress percentage that was reported to the listener.
+     */
+    private int                          lastPercentReported;
+
+    /**
+     * The number of bytes written so far to monitored output streams.
+     */
+    private volatile long                bytesWritten;
+
+    /**
+     * The number of bytes allocated for scratch images while rendering.
+     */
+    private long                         imageBytesAllocated;
+
+    /**
+     * The time at which the content was fully rendered to the target format,
+     * in nanoseconds; everything after it is serialization and writing.
+     */
+    private long                         renderFinishedTime;
+
+    /**
+     * Constructs a monitor that doesn't report progress to anyone.
+     */
+    public ExportMonitor() {
+        this( null );
+    }
+
+    /**
+     * Constructs a monitor that reports progress to the provided listener.
+     *
+     * @param progressListener
+     *            The listener to notify of progress ({@code null} permitted)
+     */
+    public ExportMonitor( final ExportProgressListener progressListener ) {
+        this.progressListener = progressListener;
+
+        cancelled = false;
+        nodesTotal = 0L;
+        nodesProcessed = 0L;
+        lastPercentReported = -1;
+        bytesWritten = 0L;
+        imageBytesAllocated = 0L;
+        renderFinishedTime = 0L;
+    }
+
+    /**
+     * Requests cooperative cancellation of the export. The export stops the
+     * next time it checks this monitor, by throwing an
+     * {@link ExportCancelledException}.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Returns whether cancellation has been requested.
+     *
+     * @return {@code true} if cancellation has been requested
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Throws an {@link ExportCancelledException} if cancellation has been
+     * requested; otherwise does nothing.
+     *
+     * @throws ExportCancelledException
+     *             If cancellation has been requested
+     */
+    public void checkCancelled() {
+        if ( cancelled ) {
+            throw new ExportCancelledException();
+        }
+    }
+
+    /**
+     * Resets the progress count for a pass over the given number of Nodes.
+     *
+     * @param total
+     *            The total number of Nodes that the pass will process
+     */
+    public void startNodes( final long total ) {
+        nodesTotal = total;
+        nodesProcessed = 0L;
+        lastPercentReported = -1;
+    }
+
+    /**
+     * Counts one more processed Node, and notifies the listener whenever the
+     * percentage of completion changes, so that huge Scene Graphs do not flood
+     * the listener (and the JavaFX event queue behind it) with notifications.
+     */
+    public void nodeProcessed() {
+        nodesProcessed++;
+
+        if ( ( progressListener != null ) && ( nodesTotal > 0L ) ) {
+            final int percent = ( int ) ( ( 100L * nodesProcessed ) / nodesTotal );
+            if ( percent != lastPercentReported ) {
+                lastPercentReported = percent;
+                progressListener.progressChanged( nodesProcessed, nodesTotal );
+            }
+        }
+    }
+
+    /**
+     * Returns the number of Nodes processed so far.
+     *
+     * @return The number of Nodes processed so far
+     */
+    public long getNodesProcessed() {
+        return nodesProcessed;
+    }
+
+    /**
+     * Marks the point where the content has been fully rendered to the
+     * target format, and all that remains is serialization and writing.
+     */
+    public void renderFinished() {
+        renderFinishedTime = System.nanoTime();
+    }
+
+    /**
+     * Returns the time at which the content was fully rendered, as returned
+     * by {@link System#nanoTime()}, or zero if that point hasn't been reached.
+     *
+     * @return The time at which the content was fully rendered
+     */
+    public long getRenderFinishedTime() {
+        return renderFinishedTime;
+    }
+
+    /**
+     * Returns the number of bytes written so far to monitored output streams.
+     *
+     * @return The number of bytes written so far
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * Counts bytes allocated for scratch images while rendering, for the
+     * formats that rasterize part of the content.
+     *
+     * @param bytes
+     *            The number of bytes allocated
+     */
+    public void addImageBytesAllocated( final long bytes ) {
+        imageBytesAllocated += bytes;
+    }
+
+    /**
+     * Returns the number of bytes allocated for scratch images while
+     * rendering.
+     *
+     * @return The number of bytes allocated for scratch images
+     */
+    public long getImageBytesAllocated() {
+        return imageBytesAllocated;
+    }
+
+    /**
+     * Wraps an output stream so that every chunk written to it is counted and
+     * is preceded by a cancellation check.
+     *
+     * @param outputStream
+     *            The {@link OutputStream} to monitor
+     * @return The monitored {@link OutputStream}
+     */
+    public OutputStream monitor( final OutputStream outputStream ) {
+        return new MonitoredOutputStream( outputStream );
+    }
+
+    /**
+     * {@code MonitoredOutputStream} counts the bytes written through it and
+     * checks for cancellation before each write.
+     */
+    private final class MonitoredOutputStream extends FilterOutputStream {
+
+        /**
+         * Constructs a monitored stream on top of the provided stream.
+         *
+         * @param outputStream
+         *            The {@link OutputStream} to monitor
+         */
+        MonitoredOutputStream( final OutputStream outputStream ) {
+            super( outputStream );
+        }
+
+        @Override
+        public void write( final int b ) throws IOException {
+            checkCancelled();
+            out.write( b );
+            bytesWritten++;
+        }
+
+        @Override
+        public void write( final byte[] b, final int off, final int len ) throws IOException {
+            // The base class writes one byte at a time, so we forward bounded
+            // chunks to the underlying stream instead, so that even a document
+            // that is written in one go can still be cancelled along the way.
+            int offset = off;
+            final int end = off + len;
+            while ( offset < end ) {
+                checkCancelled();
+                final int chunkLength = Math.min( CHUNK_SIZE, end - offset );
+                out.write( b, offset, chunkLength );
+                bytesWritten += chunkLength;
+                offset += chunkLength;
+            }
+        }
+
+    }
+
+}
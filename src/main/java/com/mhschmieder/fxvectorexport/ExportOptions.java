@@ -0,0 +1,229 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxConverter Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxConverter Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxconverter
+ */
+package com.mhschmieder.fxvectorexport;
+
+import com.mhschmieder.jgraphics.color.ColorMode;
+import javafx.print.Paper;
+
+/**
+ * {@code ExportOptions} is an immutable bundle of the document settings that
+ * the various export utilities take as individual parameters, so that they can
+ * be handed to the asynchronous and batch exporters as a whole.
+ * <p>
+ * Settings that don't apply to a given format are ignored by that format; for
+ * instance, PPT and PPTX slides are sized to the content rather than to the
+ * page.
+ *
+ * @version 1.0
+ *
+ * @author Mark Schmieder
+ */
+public final class ExportOptions {
+
+    /**
+     * The title of the document ({@code null} permitted).
+     */
+    private final String    title;
+
+    /**
+     * The author or creator of the document ({@code null} permitted).
+     */
+    private final String    author;
+
+    /**
+     * The target page width, always in points (1/72 inch).
+     */
+    private final double    pageWidth;
+
+    /**
+     * The target page height, always in points (1/72 inch).
+     */
+    private final double    pageHeight;
+
+    /**
+     * The Color Mode to use, for the formats that support it.
+     */
+    private final ColorMode colorMode;
+
+    /**
+     * Flag for whether text is to be vectorized rather than written as strings.
+     */
+    private final boolean   useVectorizedText;
+
+    /**
+     * Flag for whether to use the extended (grouping and effects) conversion,
+     * for the formats that support it.
+     */
+    private final boolean   useExtendedConversion;
+
+    /**
+     * Flag for whether to stream the output as it is drawn, for the formats
+     * that support it, rather than building the whole document in memory.
+     */
+    private final boolean   useStreaming;
+
+    /**
+     * Constructs options that don't stream the output.
+     *
+     * @param title
+     *            The title of the document ({@code null} permitted)
+     * @param author
+     *            The author or creator of the document ({@code null}
+     *            permitted)
+     * @param pageWidth
+     *            The target page width, always in points (1/72 inch)
+     * @param pageHeight
+     *            The target page height, always in points (1/72 inch)
+     * @param colorMode
+     *            The {@link ColorMode} to use, for the formats that support it
+     * @param useVectorizedText
+     *            Set to {@code true} if Vectorized Text Mode is desired;
+     *            {@code false} otherwise (that is, if text is to be rendered as
+     *            strings, sometimes referred to as Basic Text Mode)
+     * @param useExtendedConversion
+     *            Set to {@code true} for an extended conversion, for the
+     *            formats that support it
+     */
+    public ExportOptions( final String title,
+                          final String author,
+                          final double pageWidth,
+                          final double pageHeight,
+                          final ColorMode colorMode,
+                          final boolean useVectorizedText,
+                          final boolean useExtendedConversion ) {
+        this( title,
+              author,
+              pageWidth,
+              pageHeight,
+              colorMode,
+              useVectorizedText,
+              useExtendedConversion,
+              false );
+    }
+
+    /**
+     * Fully qualified constructor.
+     *
+     * @param title
+     *            The title of the document ({@code null} permitted)
+     * @param author
+     *            The author or creator of the document ({@code null}
+     *            permitted)
+     * @param pageWidth
+     *            The target page width, always in points (1/72 inch)
+     * @param pageHeight
+     *            The target page height, always in points (1/72 inch)
+     * @param colorMode
+     *            The {@link ColorMode} to use, for the formats that support it
+     * @param useVectorizedText
+     *            Set to {@code true} if Vectorized Text Mode is desired;
+     *            {@code false} otherwise (that is, if text is to be rendered as
+     *            strings, sometimes referred to as Basic Text Mode)
+     * @param useExtendedConversion
+     *            Set to {@code true} for an extended conversion, for the
+     *            formats that support it
+     * @param useStreaming
+     *            Set to {@code true} to stream the output as it is drawn, for
+     *            the formats that support it
+     */
+    public ExportOptions( final String title,
+                          final String author,
+                          final double pageWidth,
+                          final double pageHeight,
+                          final ColorMode colorMode,
+                          final boolean useVectorizedText,
+                          final boolean useExtendedConversion,
+                          final boolean useStreaming ) {
+        this.title = title;
+        this.author = author;
+        this.pageWidth = pageWidth;
+        this.pageHeight = pageHeight;
+        this.colorMode = colorMode;
+        this.useVectorizedText = useVectorizedText;
+        this.useExtendedConversion = useExtendedConversion;
+        this.useStreaming = useStreaming;
+    }
+
+    /**
+     * Returns the default options for a document with the given title and
+     * author: US Letter paper, RGB color, vectorized text, and no extended
+     * conversion.
+     *
+     * @param title
+     *            The title of the document ({@code null} permitted)
+     * @param author
+     *            The author or creator of the document ({@code null}
+     *            permitted)
+     * @return The default options for a document with the given title
+     */
+    public static ExportOptions defaultOptions( final String title, final String author ) {
+        return new ExportOptions( title,
+                                  author,
+                                  Paper.NA_LETTER.getWidth(),
+                                  Paper.NA_LETTER.getHeight(),
+                                  ColorMode.RGB,
+                                  true,
+                                  false );
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public double getPageWidth() {
+        return pageWidth;
+    }
+
+    public double getPageHeight() {
+        return pageHeight;
+    }
+
+    public ColorMode getColorMode() {
+        return colorMode;
+    }
+
+    public boolean isUseVectorizedText() {
+        return useVectorizedText;
+    }
+
+    public boolean isUseExtendedConversion() {
+        return useExtendedConversion;
+    }
+
+    public boolean isUseStreaming() {
+        return useStreaming;
+    }
+
+}
@@ -0,0 +1,58 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxConverter Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxConverter Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxconverter
+ */
+package com.mhschmieder.fxvectorexport;
+
+/**
+ * {@code ExportProgressListener} is notified of the progress of an export, in
+ * terms of Scene Graph Nodes processed out of the total number of Nodes.
+ * <p>
+ * Notifications are delivered on the thread that does the work, which is
+ * usually a background thread, so GUI clients should forward them to the
+ * JavaFX Application Thread via {@code Platform.runLater()}.
+ *
+ * @version 1.0
+ *
+ * @author Mark Schmieder
+ */
+@FunctionalInterface
+public interface ExportProgressListener {
+
+    /**
+     * Notifies the listener that more Nodes have been processed.
+     *
+     * @param nodesProcessed
+     *            The number of Nodes processed so far
+     * @param nodesTotal
+     *            The total number of Nodes to process
+     */
+    void progressChanged( final long nodesProcessed, final long nodesTotal );
+
+}
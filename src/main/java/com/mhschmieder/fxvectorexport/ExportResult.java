@@ -0,0 +1,165 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxConverter Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxConverter Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxconverter
+ */
+package com.mhschmieder.fxvectorexport;
+
+/**
+ * {@code ExportResult} is an immutable summary of a successful export, with
+ * the time spent in each phase and the number of bytes written.
+ * <p>
+ * The phases are: capture (the JFXConverter traversal of the Scene Graph on
+ * the JavaFX Application Thread), render (the replay of the capture through
+ * the format-specific Graphics Context), and write (the serialization of the
+ * finished document to the output).
+ *
+ * @version 1.0
+ *
+ * @author Mark Schmieder
+ */
+public final class ExportResult {
+
+    /**
+     * The format that was written.
+     */
+    private final ExportFormat format;
+
+    /**
+     * The number of Scene Graph Nodes that were exported.
+     */
+    private final int          nodeCount;
+
+    /**
+     * The time spent capturing the Scene Graph, in nanoseconds.
+     */
+    private final long         captureNanos;
+
+    /**
+     * The time spent rendering to the target format, in nanoseconds.
+     */
+    private final long         renderNanos;
+
+    /**
+     * The time spent serializing and writing the document, in nanoseconds.
+     */
+    private final long         writeNanos;
+
+    /**
+     * The number of bytes written to the output.
+     */
+    private final long         bytesWritten;
+
+    /**
+     * The number of bytes allocated for scratch images while rendering.
+     */
+    private final long         imageBytesAllocated;
+
+    /**
+     * Fully qualified constructor.
+     *
+     * @param format
+     *            The format that was written
+     * @param nodeCount
+     *            The number of Scene Graph Nodes that were exported
+     * @param captureNanos
+     *            The time spent capturing the Scene Graph, in nanoseconds
+     * @param renderNanos
+     *            The time spent rendering to the target format, in nanoseconds
+     * @param writeNanos
+     *            The time spent serializing and writing, in nanoseconds
+     * @param bytesWritten
+     *            The number of bytes written to the output
+     * @param imageBytesAllocated
+     *            The number of bytes allocated for scratch images while
+     *            rendering
+     */
+    public ExportResult( final ExportFormat format,
+                         final int nodeCount,
+                         final long captureNanos,
+                         final long renderNanos,
+                         final long writeNanos,
+                         final long bytesWritten,
+                         final long imageBytesAllocated ) {
+        this.format = format;
+        this.nodeCount = nodeCount;
+        this.captureNanos = captureNanos;
+        this.renderNanos = renderNanos;
+        this.writeNanos = writeNanos;
+        this.bytesWritten = bytesWritten;
+        this.imageBytesAllocated = imageBytesAllocated;
+    }
+
+    public ExportFormat getFormat() {
+        return format;
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    public long getCaptureNanos() {
+        return captureNanos;
+    }
+
+    public long getRenderNanos() {
+        return renderNanos;
+    }
+
+    public long getWriteNanos() {
+        return writeNanos;
+    }
+
+    /**
+     * Returns the total time spent in all phases of the export, in nanoseconds,
+     * not counting any time spent waiting in an executor queue.
+     *
+     * @return The total time spent in all phases of the export
+     */
+    public long getTotalNanos() {
+        return captureNanos + renderNanos + writeNanos;
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    public long getImageBytesAllocated() {
+        return imageBytesAllocated;
+    }
+
+    @SuppressWarnings("nls")
+    @Override
+    public String toString() {
+        return format + ": " + nodeCount + " nodes, " + bytesWritten + " bytes, capture "
+                + ( captureNanos / 1000000L ) + " ms, render " + ( renderNanos / 1000000L )
+                + " ms, write " + ( writeNanos / 1000000L ) + " ms, " + imageBytesAllocated
+                + " image bytes allocated";
+    }
+
+}
@@ -0,0 +1,233 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxConverter Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxConverter Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxconverter
+ */
+package com.mhschmieder.fxvectorexport;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * {@code FileChannelOutputStream} writes a file through a {@link FileChannel},
+ * using a pooled direct {@link ByteBuffer} so that the bytes are copied once
+ * into native memory and handed to the operating system from there, rather
+ * than being copied again by each layer of a buffered stream chain.
+ * <p>
+ * The content goes to a temporary file next to the target, which only replaces
+ * the target when {@link #commit()} is called, using an atomic rename where
+ * the file system supports it. Closing the stream without committing it
+ * deletes the temporary file, so a failed or cancelled export never leaves a
+ * truncated document behind, nor destroys a previous version of the document.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @version 1.0
+ *
+ * @author Mark Schmieder
+ */
+public final class FileChannelOutputStream extends OutputStream {
+
+    /**
+     * The file to create or replace when the stream is committed.
+     */
+    private final Path        targetFile;
+
+    /**
+     * The temporary file that receives the content until it is committed.
+     */
+    private final Path        temporaryFile;
+
+    /**
+     * The channel for writing to the temporary file.
+     */
+    private final FileChannel fileChannel;
+
+    /**
+     * The pooled direct buffer, or {@code null} once the stream is closed.
+     */
+    private ByteBuffer        buffer;
+
+    /**
+     * Opens a stream whose content will replace the provided file once it is
+     * committed. The parent directory must already exist.
+     *
+     * @param targetFile
+     *            The {@link Path} of the file to create or replace
+     * @throws IOException
+     *             If the temporary file could not be created
+     */
+    public FileChannelOutputStream( final Path targetFile ) throws IOException {
+        this.targetFile = targetFile.toAbsolutePath();
+
+        // We don't use Files.createTempFile(), as that restricts the access
+        // permissions of the file, and they would carry over to the target.
+        final Path directory = this.targetFile.getParent();
+        final String prefix = "." + this.targetFile.getFileName() + "."; //$NON-NLS-1$ //$NON-NLS-2$
+        Path file;
+        FileChannel channel;
+        for ( ;; ) {
+            file = directory.resolve( prefix
+                    + Long.toHexString( ThreadLocalRandom.current().nextLong() ) + ".tmp" ); //$NON-NLS-1$
+            try {
+                channel = FileChannel.open( file,
+                                            StandardOpenOption.CREATE_NEW,
+                                            StandardOpenOption.WRITE );
+                break;
+            }
+            catch ( final FileAlreadyExistsException faee ) {
+                // Try again with another name.
+            }
+        }
+        temporaryFile = file;
+        fileChannel = channel;
+
+        buffer = DirectBufferPool.acquire();
+    }
+
+    @Override
+    public void write( final int b ) throws IOException {
+        ensureOpen();
+        if ( !buffer.hasRemaining() ) {
+            drain();
+        }
+        buffer.put( ( byte ) b );
+    }
+
+    @Override
+    public void write( final byte[] b, final int off, final int len ) throws IOException {
+        ensureOpen();
+        int offset = off;
+        int remaining = len;
+        while ( remaining > 0 ) {
+            if ( !buffer.hasRemaining() ) {
+                drain();
+            }
+            final int chunkLength = Math.min( buffer.remaining(), remaining );
+            buffer.put( b, offset, chunkLength );
+            offset += chunkLength;
+            remaining -= chunkLength;
+        }
+    }
+
+    /**
+     * Hands the buffered bytes to the operating system. This doesn't force
+     * them to the storage device, nor does it make them visible under the
+     * target file name; only {@link #commit()} does that.
+     */
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        drain();
+    }
+
+    /**
+     * Writes the remaining buffered bytes, closes the temporary file and moves
+     * it over the target file, atomically if the file system supports it.
+     * The stream is closed afterwards.
+     *
+     * @throws IOException
+     *             If the content could not be written or the file could not be
+     *             moved, in which case the temporary file is deleted
+     */
+    public void commit() throws IOException {
+        ensureOpen();
+        try {
+            drain();
+            fileChannel.close();
+            try {
+                Files.move( temporaryFile,
+                            targetFile,
+                            StandardCopyOption.ATOMIC_MOVE,
+                            StandardCopyOption.REPLACE_EXISTING );
+            }
+            catch ( final AtomicMoveNotSupportedException amnse ) {
+                Files.move( temporaryFile, targetFile, StandardCopyOption.REPLACE_EXISTING );
+            }
+        }
+        finally {
+            close();
+        }
+    }
+
+    /**
+     * Closes the stream, discarding the content unless it was committed.
+     */
+    @Override
+    public void close() throws IOException {
+        if ( buffer == null ) {
+            return;
+        }
+
+        DirectBufferPool.release( buffer );
+        buffer = null;
+
+        try {
+            fileChannel.close();
+        }
+        finally {
+            Files.deleteIfExists( temporaryFile );
+        }
+    }
+
+    /**
+     * Writes the buffered bytes to the channel and clears the buffer.
+     *
+     * @throws IOException
+     *             If the bytes could not be written
+     */
+    private void drain() throws IOException {
+        buffer.flip();
+        while ( buffer.hasRemaining() ) {
+            fileChannel.write( buffer );
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Makes sure that the stream hasn't been closed yet.
+     *
+     * @throws IOException
+     *             If the stream has been closed
+     */
+    private void ensureOpen() throws IOException {
+        if ( buffer == null ) {
+            throw new IOException( "Stream closed" ); //$NON-NLS-1$
+        }
+    }
+
+}
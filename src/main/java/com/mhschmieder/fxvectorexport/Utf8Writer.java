@@ -0,0 +1,259 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxConverter Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxConverter Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxconverter
+ */
+package com.mhschmieder.fxvectorexport;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+/**
+ * {@code Utf8Writer} encodes characters to UTF-8 on the way to an
+ * {@link OutputStream}, with a fast path for runs of ASCII characters, which
+ * make up almost all of the content of vector graphics documents. It replaces
+ * the usual chain of a {@link java.io.BufferedWriter} on top of an
+ * {@link java.io.OutputStreamWriter}, which copies every character into a
+ * buffer before encoding it through a general purpose charset encoder.
+ * <p>
+ * Unpaired surrogate characters are written as question marks, as the
+ * standard UTF-8 encoder does. This class is not thread-safe.
+ *
+ * @version 1.0
+ *
+ * @author Mark Schmieder
+ */
+public final class Utf8Writer extends Writer {
+
+    /**
+     * The size of the byte buffer that characters are encoded into.
+     */
+    private static final int   BUFFER_SIZE          = 8192;
+
+    /**
+     * The most bytes that a single character or surrogate pair can take.
+     */
+    private static final int   MAX_BYTES_PER_CHAR   = 4;
+
+    /**
+     * The byte that replaces unpaired surrogate characters.
+     */
+    private static final byte  REPLACEMENT          = '?';
+
+    /**
+     * The stream that receives the encoded bytes.
+     */
+    private final OutputStream outputStream;
+
+    /**
+     * The buffer that characters are encoded into.
+     */
+    private final byte[]       buffer;
+
+    /**
+     * The number of encoded bytes in the buffer.
+     */
+    private int                position;
+
+    /**
+     * The high surrogate that is waiting for its low surrogate, or zero.
+     */
+    private char               highSurrogate;
+
+    /**
+     * Constructs a writer that encodes characters to the provided stream.
+     *
+     * @param outputStream
+     *            The {@link OutputStream} that receives the encoded bytes
+     */
+    public Utf8Writer( final OutputStream outputStream ) {
+        this.outputStream = outputStream;
+
+        buffer = new byte[ BUFFER_SIZE ];
+        position = 0;
+        highSurrogate = 0;
+    }
+
+    @Override
+    public void write( final int c ) throws IOException {
+        encode( ( char ) c );
+    }
+
+    @Override
+    public void write( final char[] cbuf, final int off, final int len ) throws IOException {
+        int index = off;
+        final int end = off + len;
+        while ( index < end ) {
+            if ( highSurrogate == 0 ) {
+                // Copy the longest run of ASCII characters that fits.
+                final byte[] bytes = buffer;
+                int bytePosition = position;
+                final int limit = Math.min( end, index + ( bytes.length - bytePosition ) );
+                char c;
+                while ( ( index < limit ) && ( ( c = cbuf[ index ] ) < 0x80 ) ) {
+                    bytes[ bytePosition++ ] = ( byte ) c;
+                    index++;
+                }
+                position = bytePosition;
+                if ( index == end ) {
+                    break;
+                }
+                if ( index == limit ) {
+                    drain();
+                    continue;
+                }
+            }
+            encode( cbuf[ index++ ] );
+        }
+    }
+
+    @Override
+    public void write( final String str, final int off, final int len ) throws IOException {
+        int index = off;
+        final int end = off + len;
+        while ( index < end ) {
+            if ( highSurrogate == 0 ) {
+                // Copy the longest run of ASCII characters that fits.
+                final byte[] bytes = buffer;
+                int bytePosition = position;
+                final int limit = Math.min( end, index + ( bytes.length - bytePosition ) );
+                char c;
+                while ( ( index < limit ) && ( ( c = str.charAt( index ) ) < 0x80 ) ) {
+                    bytes[ bytePosition++ ] = ( byte ) c;
+                    index++;
+                }
+                position = bytePosition;
+                if ( index == end ) {
+                    break;
+                }
+                if ( index == limit ) {
+                    drain();
+                    continue;
+                }
+            }
+            encode( str.charAt( index++ ) );
+        }
+    }
+
+    @Override
+    public Writer append( final CharSequence csq ) throws IOException {
+        final String str = String.valueOf( csq );
+        write( str, 0, str.length() );
+        return this;
+    }
+
+    @Override
+    public Writer append( final CharSequence csq, final int start, final int end )
+            throws IOException {
+        return append( ( csq == null ) ? "null".subSequence( start, end ) //$NON-NLS-1$
+                                       : csq.subSequence( start, end ) );
+    }
+
+    @Override
+    public void flush() throws IOException {
+        drain();
+        outputStream.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if ( highSurrogate != 0 ) {
+                highSurrogate = 0;
+                encode( ( char ) REPLACEMENT );
+            }
+            flush();
+        }
+        finally {
+            outputStream.close();
+        }
+    }
+
+    /**
+     * Encodes a single character, pairing surrogates up as needed.
+     *
+     * @param c
+     *            The character to encode
+     * @throws IOException
+     *             If the buffer had to be drained and that failed
+     */
+    private void encode( final char c ) throws IOException {
+        if ( ( buffer.length - position ) < MAX_BYTES_PER_CHAR ) {
+            drain();
+        }
+
+        if ( highSurrogate != 0 ) {
+            if ( Character.isLowSurrogate( c ) ) {
+                final int codePoint = Character.toCodePoint( highSurrogate, c );
+                highSurrogate = 0;
+                buffer[ position++ ] = ( byte ) ( 0xf0 | ( codePoint >> 18 ) );
+                buffer[ position++ ] = ( byte ) ( 0x80 | ( ( codePoint >> 12 ) & 0x3f ) );
+                buffer[ position++ ] = ( byte ) ( 0x80 | ( ( codePoint >> 6 ) & 0x3f ) );
+                buffer[ position++ ] = ( byte ) ( 0x80 | ( codePoint & 0x3f ) );
+                return;
+            }
+
+            highSurrogate = 0;
+            buffer[ position++ ] = REPLACEMENT;
+        }
+
+        if ( c < 0x80 ) {
+            buffer[ position++ ] = ( byte ) c;
+        }
+        else if ( c < 0x800 ) {
+            buffer[ position++ ] = ( byte ) ( 0xc0 | ( c >> 6 ) );
+            buffer[ position++ ] = ( byte ) ( 0x80 | ( c & 0x3f ) );
+        }
+        else if ( Character.isHighSurrogate( c ) ) {
+            highSurrogate = c;
+        }
+        else if ( Character.isLowSurrogate( c ) ) {
+            buffer[ position++ ] = REPLACEMENT;
+        }
+        else {
+            buffer[ position++ ] = ( byte ) ( 0xe0 | ( c >> 12 ) );
+            buffer[ position++ ] = ( byte ) ( 0x80 | ( ( c >> 6 ) & 0x3f ) );
+            buffer[ position++ ] = ( byte ) ( 0x80 | ( c & 0x3f ) );
+        }
+    }
+
+    /**
+     * Writes the encoded bytes to the stream and empties the buffer.
+     *
+     * @throws IOException
+     *             If the bytes could not be written
+     */
+    private void drain() throws IOException {
+        if ( position > 0 ) {
+            outputStream.write( buffer, 0, position );
+            position = 0;
+        }
+    }
+
+}
@@ -0,0 +1,312 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxConverter Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxConverter Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxconverter
+ */
+package com.mhschmieder.fxvectorexport.batch;
+
+import com.mhschmieder.fxvectorexport.ExportMonitor;
+import com.mhschmieder.fxvectorexport.ExportResult;
+import com.mhschmieder.fxvectorexport.session.ExportSession;
+import com.mhschmieder.fxvectorexport.session.ExportSessionPool;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@code BatchExporter} runs a batch of {@link ExportJob} instances with a
+ * bounded number of jobs in flight at once, so that a nightly export of
+ * thousands of documents scales across all of the cores of the host instead
+ * of running one document at a time.
+ * <p>
+ * Each job runs on its own thread. On a Java runtime that has virtual threads,
+ * those are used, so that the blocking file I/O of a job doesn't tie up a
+ * platform thread; otherwise daemon platform threads are used. Either way, the
+ * number of jobs in flight never exceeds the configured maximum.
+ * <p>
+ * Before each job is started, the free heap is checked, and if it is below the
+ * configured reserve, no new job is started until another one has finished and
+ * released its memory. A job is always started if none are in flight, so that
+ * a batch always makes progress.
+ * <p>
+ * Jobs export through sessions checked out of a pool that is sized to the
+ * maximum number of jobs in flight, so that the conversion caches stay warm
+ * from one job to the next rather than being built up again for each one.
+ * <p>
+ * A failed job doesn't stop the batch; its failure is recorded in its
+ * {@link ExportJobResult}, and the other jobs carry on.
+ *
+ * @version 1.0
+ *
+ * @author Mark Schmieder
+ */
+public final class BatchExporter {
+
+    /**
+     * The default fraction of the maximum heap size to keep free, below which
+     * no new job is started while others are still in flight.
+     */
+    private static final double        DEFAULT_MEMORY_RESERVE_FRACTION = 0.25d;
+
+    /**
+     * The factory for the threads that run the jobs, shared by all batches.
+     */
+    private static final ThreadFactory JOB_THREAD_FACTORY              = createThreadFactory();
+
+    /**
+     * The maximum number of jobs in flight at once.
+     */
+    private final int                  maxConcurrentJobs;
+
+    /**
+     * The amount of free heap memory below which no new job is started while
+     * others are still in flight, in bytes.
+     */
+    private final long                 memoryReserve;
+
+    /**
+     * The pool of sessions that the jobs export through.
+     */
+    private final ExportSessionPool    sessionPool;
+
+    /**
+     * The lock that guards the count of jobs in flight, and that is notified
+     * each time a job finishes.
+     */
+    private final Object               lock                            = new Object();
+
+    /**
+     * The number of jobs currently in flight.
+     */
+    private int                        jobsInFlight;
+
+    /**
+     * The number of jobs of the current batch that have finished.
+     */
+    private int                        jobsFinished;
+
+    /**
+     * Constructs a batch exporter that runs as many jobs at once as there are
+     * processors, and keeps a quarter of the maximum heap size in reserve.
+     */
+    public BatchExporter() {
+        this( Runtime.getRuntime().availableProcessors(),
+              ( long ) ( Runtime.getRuntime().maxMemory() * DEFAULT_MEMORY_RESERVE_FRACTION ) );
+    }
+
+    /**
+     * Fully qualified constructor.
+     *
+     * @param maxConcurrentJobs
+     *            The maximum number of jobs in flight at once
+     * @param memoryReserve
+     *            The amount of free heap memory below which no new job is
+     *            started while others are still in flight, in bytes
+     */
+    public BatchExporter( final int maxConcurrentJobs, final long memoryReserve ) {
+        if ( maxConcurrentJobs < 1 ) {
+            throw new IllegalArgumentException( "At least one concurrent job is needed" ); //$NON-NLS-1$
+        }
+
+        this.maxConcurrentJobs = maxConcurrentJobs;
+        this.memoryReserve = memoryReserve;
+
+        sessionPool = new ExportSessionPool( maxConcurrentJobs );
+
+        jobsInFlight = 0;
+        jobsFinished = 0;
+    }
+
+    /**
+     * Runs the provided jobs, and waits for all of them to finish. Only one
+     * batch may run at a time on a given instance.
+     *
+     * @param jobs
+     *            The jobs to run, in the order they should be started
+     * @param progressListener
+     *            The listener to notify as each job finishes ({@code null}
+     *            permitted)
+     * @return The outcome of each job, in the order submitted, along with the
+     *         throughput of the batch
+     * @throws InterruptedException
+     *             If the calling thread is interrupted while waiting; the jobs
+     *             already started are left to finish on their own
+     *
+     * @since 1.0
+     */
+    public BatchResult exportAll( final List< ExportJob > jobs,
+                                  final BatchProgressListener progressListener )
+            throws InterruptedException {
+        final int jobsTotal = jobs.size();
+        final ExportJobResult[] jobResults = new ExportJobResult[ jobsTotal ];
+        final long startTime = System.nanoTime();
+
+        synchronized ( lock ) {
+            jobsFinished = 0;
+        }
+
+        for ( int jobIndex = 0; jobIndex < jobsTotal; jobIndex++ ) {
+            awaitCapacity();
+
+            final int index = jobIndex;
+            final ExportJob job = jobs.get( index );
+            try {
+                JOB_THREAD_FACTORY.newThread( () -> finishJob( jobResults,
+                                                               index,
+                                                               runJob( job ),
+                                                               progressListener ) )
+                        .start();
+            }
+            catch ( final Throwable t ) {
+                // Record the failure as for any other job, and release its slot.
+                finishJob( jobResults, index, new ExportJobResult( job, null, t ), progressListener );
+            }
+        }
+
+        synchronized ( lock ) {
+            while ( jobsInFlight > 0 ) {
+                lock.wait();
+            }
+        }
+
+        final List< ExportJobResult > results = new ArrayList<>( Arrays.asList( jobResults ) );
+        return new BatchResult( results, System.nanoTime() - startTime );
+    }
+
+    /**
+     * Records the outcome of a job, releases its slot, and notifies the
+     * listener and the threads waiting for a slot.
+     *
+     * @param jobResults
+     *            The outcomes of the jobs of the batch, in submission order
+     * @param index
+     *            The index of the job in the batch
+     * @param jobResult
+     *            The outcome of the job
+     * @param progressListener
+     *            The listener to notify ({@code null} permitted)
+     */
+    private void finishJob( final ExportJobResult[] jobResults,
+                            final int index,
+                            final ExportJobResult jobResult,
+                            final BatchProgressListener progressListener ) {
+        synchronized ( lock ) {
+            jobResults[ index ] = jobResult;
+            jobsInFlight--;
+            jobsFinished++;
+            if ( progressListener != null ) {
+                progressListener.jobFinished( jobResult, jobsFinished, jobResults.length );
+            }
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Waits until there is room for another job in flight, both in terms of
+     * the maximum count and of the memory reserve, and then claims it.
+     *
+     * @throws InterruptedException
+     *             If the calling thread is interrupted while waiting
+     */
+    private void awaitCapacity() throws InterruptedException {
+        synchronized ( lock ) {
+            while ( ( jobsInFlight >= maxConcurrentJobs )
+                    || ( ( jobsInFlight > 0 ) && isMemoryLow() ) ) {
+                lock.wait();
+            }
+            jobsInFlight++;
+        }
+    }
+
+    /**
+     * Returns whether the free heap memory, counting what the heap may still
+     * grow by, is below the reserve.
+     *
+     * @return {@code true} if the free heap memory is below the reserve
+     */
+    private boolean isMemoryLow() {
+        final Runtime runtime = Runtime.getRuntime();
+        final long usedMemory = runtime.totalMemory() - runtime.freeMemory();
+        return ( runtime.maxMemory() - usedMemory ) < memoryReserve;
+    }
+
+    /**
+     * Runs a single job through a pooled session, capturing its outcome
+     * whether it succeeds or fails.
+     *
+     * @param job
+     *            The job to run
+     * @return The outcome of the job
+     */
+    private ExportJobResult runJob( final ExportJob job ) {
+        final ExportMonitor monitor = new ExportMonitor();
+        try ( final ExportSession session = sessionPool.acquire() ) {
+            final ExportResult exportResult = session.export( job.capture( monitor ),
+                                                              job.getFormat(),
+                                                              job.getDestination(),
+                                                              job.getOptions(),
+                                                              monitor );
+            return new ExportJobResult( job, exportResult, null );
+        }
+        catch ( final Throwable t ) {
+            return new ExportJobResult( job, null, t );
+        }
+    }
+
+    /**
+     * Returns a factory for virtual threads if the Java runtime has them, or
+     * for daemon platform threads otherwise. Reflection is used so that this
+     * library still builds and runs on Java 8.
+     *
+     * @return A factory for the threads that run the jobs
+     */
+    @SuppressWarnings("nls")
+    private static ThreadFactory createThreadFactory() {
+        try {
+            final Object builder = Thread.class.getMethod( "ofVirtual" ).invoke( null );
+            final Class< ? > builderClass = Class.forName( "java.lang.Thread$Builder" );
+            final Object namedBuilder = builderClass
+                    .getMethod( "name", String.class, long.class )
+                    .invoke( builder, "batch-export-", 1L );
+            return ( ThreadFactory ) builderClass.getMethod( "factory" ).invoke( namedBuilder );
+        }
+        catch ( final ReflectiveOperationException | RuntimeException e ) {
+            final AtomicInteger threadNumber = new AtomicInteger( 1 );
+            return runnable -> {
+                final Thread thread = new Thread( runnable,
+                                                  "batch-export-" + threadNumber.getAndIncrement() );
+                thread.setDaemon( true );
+                return thread;
+            };
+        }
+    }
+
+}
@@ -0,0 +1,63 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxConverter Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxConverter Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxconverter
+ */
+package com.mhschmieder.fxvectorexport.batch;
+
+/**
+ * {@code BatchProgressListener} is notified each time a job of a batch
+ * finishes, whether it succeeded or failed, so that failures can be reported
+ * as they happen rather than only at the end of a long batch.
+ * <p>
+ * Notifications are delivered one at a time on the worker threads, so they
+ * should be brief; GUI clients should forward them to the JavaFX Application
+ * Thread via {@code Platform.runLater()}.
+ *
+ * @version 1.0
+ *
+ * @author Mark Schmieder
+ */
+@FunctionalInterface
+public interface BatchProgressListener {
+
+    /**
+     * Notifies the listener that a job has finished.
+     *
+     * @param jobResult
+     *            The outcome of the job that finished
+     * @param jobsFinished
+     *            The number of jobs finished so far, including this one
+     * @param jobsTotal
+     *            The total number of jobs in the batch
+     */
+    void jobFinished( final ExportJobResult jobResult,
+                      final int jobsFinished,
+                      final int jobsTotal );
+
+}
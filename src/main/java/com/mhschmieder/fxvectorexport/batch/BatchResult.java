@@ -0,0 +1,120 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxConverter Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxConverter Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxconverter
+ */
+package com.mhschmieder.fxvectorexport.batch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * {@code BatchResult} is the immutable outcome of a whole batch of exports,
+ * with the outcome of each job in submission order, and the throughput.
+ *
+ * @version 1.0
+ *
+ * @author Mark Schmieder
+ */
+public final class BatchResult {
+
+    /**
+     * The outcome of each job, in submission order.
+     */
+    private final List< ExportJobResult > jobResults;
+
+    /**
+     * The wall clock time taken by the whole batch, in nanoseconds.
+     */
+    private final long                    elapsedNanos;
+
+    /**
+     * Fully qualified constructor.
+     *
+     * @param jobResults
+     *            The outcome of each job, in submission order
+     * @param elapsedNanos
+     *            The wall clock time taken by the whole batch, in nanoseconds
+     */
+    BatchResult( final List< ExportJobResult > jobResults, final long elapsedNanos ) {
+        this.jobResults = Collections.unmodifiableList( jobResults );
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public List< ExportJobResult > getJobResults() {
+        return jobResults;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Returns the outcomes of the jobs that failed, in submission order.
+     *
+     * @return The outcomes of the jobs that failed
+     */
+    public List< ExportJobResult > getFailures() {
+        final List< ExportJobResult > failures = new ArrayList<>();
+        for ( final ExportJobResult jobResult : jobResults ) {
+            if ( !jobResult.isSucceeded() ) {
+                failures.add( jobResult );
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * Returns the number of jobs that succeeded.
+     *
+     * @return The number of jobs that succeeded
+     */
+    public int getSucceededCount() {
+        return jobResults.size() - getFailures().size();
+    }
+
+    /**
+     * Returns the throughput of the batch, as the number of documents written
+     * successfully per second of wall clock time.
+     *
+     * @return The throughput of the batch, in documents per second
+     */
+    public double getDocumentsPerSecond() {
+        return ( elapsedNanos > 0L ) ? ( getSucceededCount() * 1.0e9d ) / elapsedNanos : 0.0d;
+    }
+
+    @SuppressWarnings("nls")
+    @Override
+    public String toString() {
+        return getSucceededCount() + " of " + jobResults.size() + " documents in "
+                + ( elapsedNanos / 1000000L ) + " ms ("
+                + String.format( "%.1f", getDocumentsPerSecond() ) + " docs/sec)";
+    }
+
+}
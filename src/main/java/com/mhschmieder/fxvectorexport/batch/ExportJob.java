@@ -0,0 +1,239 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxConverter Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxConverter Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxconverter
+ */
+package com.mhschmieder.fxvectorexport.batch;
+
+import com.mhschmieder.fxdxfparser.reader.DxfLoader;
+import com.mhschmieder.fxvectorexport.ExportFormat;
+import com.mhschmieder.fxvectorexport.ExportMonitor;
+import com.mhschmieder.fxvectorexport.ExportOptions;
+import com.mhschmieder.fxvectorexport.capture.SceneCapture;
+import com.mhschmieder.fxvectorexport.capture.SceneSnapshot;
+import com.mhschmieder.fxvectorexport.dxf.DxfConverterUtilities;
+import javafx.scene.Node;
+
+import java.nio.file.Path;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionException;
+
+/**
+ * {@code ExportJob} is an immutable description of one document to be written
+ * by a {@link BatchExporter}: where its content comes from, what format to
+ * write, where to write it, and with which options.
+ * <p>
+ * The content is only captured when the job runs, so that a batch of thousands
+ * of jobs doesn't hold thousands of snapshots in memory at once.
+ *
+ * @version 1.0
+ *
+ * @author Mark Schmieder
+ */
+public final class ExportJob {
+
+    /**
+     * {@code ContentSource} captures the content of a job when it runs.
+     */
+    @FunctionalInterface
+    private interface ContentSource {
+
+        /**
+         * Captures the content to export.
+         *
+         * @param monitor
+         *            The {@link ExportMonitor} to check for cancellation
+         * @return The snapshot of the content to export
+         * @throws Exception
+         *             If the content could not be loaded or captured
+         */
+        SceneSnapshot capture( final ExportMonitor monitor ) throws Exception;
+
+    }
+
+    /**
+     * The source of the content to export.
+     */
+    private final ContentSource contentSource;
+
+    /**
+     * The format to write.
+     */
+    private final ExportFormat  format;
+
+    /**
+     * The destination of the document.
+     */
+    private final Path          destination;
+
+    /**
+     * The options for the document.
+     */
+    private final ExportOptions options;
+
+    /**
+     * Constructs a job from its parts; clients use the factory methods.
+     *
+     * @param contentSource
+     *            The source of the content to export
+     * @param format
+     *            The {@link ExportFormat} to write
+     * @param destination
+     *            The {@link Path} destination of the document
+     * @param options
+     *            The {@link ExportOptions} for the document
+     */
+    private ExportJob( final ContentSource contentSource,
+                       final ExportFormat format,
+                       final Path destination,
+                       final ExportOptions options ) {
+        this.contentSource = contentSource;
+        this.format = format;
+        this.destination = destination;
+        this.options = options;
+    }
+
+    /**
+     * Returns a job that exports a Scene Graph {@link Node}. The Node is
+     * captured on the JavaFX Application Thread when the job runs, so it may
+     * be part of a live Scene.
+     *
+     * @param node
+     *            The {@link Node} to export
+     * @param format
+     *            The {@link ExportFormat} to write
+     * @param destination
+     *            The {@link Path} destination of the document
+     * @param options
+     *            The {@link ExportOptions} for the document
+     * @return A job that exports the Node
+     *
+     * @since 1.0
+     */
+    public static ExportJob forNode( final Node node,
+                                     final ExportFormat format,
+                                     final Path destination,
+                                     final ExportOptions options ) {
+        return new ExportJob( monitor -> {
+            try {
+                return SceneCapture.captureOnFxThread( node, monitor ).join();
+            }
+            catch ( final CompletionException ce ) {
+                throw ( ce.getCause() instanceof Exception ) ? ( Exception ) ce.getCause() : ce;
+            }
+        }, format, destination, options );
+    }
+
+    /**
+     * Returns a job that exports a previously captured {@link SceneSnapshot}.
+     *
+     * @param snapshot
+     *            The {@link SceneSnapshot} to export
+     * @param format
+     *            The {@link ExportFormat} to write
+     * @param destination
+     *            The {@link Path} destination of the document
+     * @param options
+     *            The {@link ExportOptions} for the document
+     * @return A job that exports the snapshot
+     *
+     * @since 1.0
+     */
+    public static ExportJob forSnapshot( final SceneSnapshot snapshot,
+                                         final ExportFormat format,
+                                         final Path destination,
+                                         final ExportOptions options ) {
+        return new ExportJob( monitor -> snapshot, format, destination, options );
+    }
+
+    /**
+     * Returns a job that exports the geometry of a DXF file. The DXF Loader is
+     * obtained from the provided source when the job runs, and is expected to
+     * have read and parsed the DXF file by then; parsing on the worker thread
+     * is what lets a batch of DXF files be read in parallel.
+     * <p>
+     * The converted geometry is never part of a live Scene, so it is captured
+     * directly on the worker thread rather than on the JavaFX Application
+     * Thread.
+     *
+     * @param dxfLoaderSource
+     *            The source of the populated {@link DxfLoader}
+     * @param format
+     *            The {@link ExportFormat} to write
+     * @param destination
+     *            The {@link Path} destination of the document
+     * @param options
+     *            The {@link ExportOptions} for the document
+     * @return A job that exports the DXF geometry
+     *
+     * @since 1.0
+     */
+    public static ExportJob forDxf( final Callable< DxfLoader > dxfLoaderSource,
+                                    final ExportFormat format,
+                                    final Path destination,
+                                    final ExportOptions options ) {
+        return new ExportJob( monitor -> {
+            final DxfLoader dxfLoader = dxfLoaderSource.call();
+            monitor.checkCancelled();
+            final Node dxfShapeGroup = DxfConverterUtilities.convertToFxShapes( dxfLoader );
+            return SceneCapture.capture( dxfShapeGroup, monitor );
+        }, format, destination, options );
+    }
+
+    /**
+     * Captures the content of this job.
+     *
+     * @param monitor
+     *            The {@link ExportMonitor} to check for cancellation
+     * @return The snapshot of the content to export
+     * @throws Exception
+     *             If the content could not be loaded or captured
+     */
+    SceneSnapshot capture( final ExportMonitor monitor ) throws Exception {
+        return contentSource.capture( monitor );
+    }
+
+    public ExportFormat getFormat() {
+        return format;
+    }
+
+    public Path getDestination() {
+        return destination;
+    }
+
+    public ExportOptions getOptions() {
+        return options;
+    }
+
+    @SuppressWarnings("nls")
+    @Override
+    public String toString() {
+        return format + " -> " + destination;
+    }
+
+}
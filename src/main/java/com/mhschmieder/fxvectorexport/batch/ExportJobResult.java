@@ -0,0 +1,100 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxConverter Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxConverter Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxconverter
+ */
+package com.mhschmieder.fxvectorexport.batch;
+
+import com.mhschmieder.fxvectorexport.ExportResult;
+
+/**
+ * {@code ExportJobResult} is the immutable outcome of one {@link ExportJob} of
+ * a batch: either the summary of the export, or the reason it failed.
+ *
+ * @version 1.0
+ *
+ * @author Mark Schmieder
+ */
+public final class ExportJobResult {
+
+    /**
+     * The job that this is the outcome of.
+     */
+    private final ExportJob    job;
+
+    /**
+     * The summary of the export, or {@code null} if it failed.
+     */
+    private final ExportResult exportResult;
+
+    /**
+     * The reason the export failed, or {@code null} if it succeeded.
+     */
+    private final Throwable    failure;
+
+    /**
+     * Fully qualified constructor.
+     *
+     * @param job
+     *            The job that this is the outcome of
+     * @param exportResult
+     *            The summary of the export, or {@code null} if it failed
+     * @param failure
+     *            The reason the export failed, or {@code null} if it succeeded
+     */
+    ExportJobResult( final ExportJob job,
+                     final ExportResult exportResult,
+                     final Throwable failure ) {
+        this.job = job;
+        this.exportResult = exportResult;
+        this.failure = failure;
+    }
+
+    public ExportJob getJob() {
+        return job;
+    }
+
+    public ExportResult getExportResult() {
+        return exportResult;
+    }
+
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    public boolean isSucceeded() {
+        return failure == null;
+    }
+
+    @SuppressWarnings("nls")
+    @Override
+    public String toString() {
+        return job + ": " + ( isSucceeded() ? exportResult.toString() : "failed, " + failure );
+    }
+
+}
@@ -0,0 +1,749 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxConverter Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxConverter Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxconverter
+ */
+package com.mhschmieder.fxvectorexport.capture;
+
+import java.awt.Color;
+import java.awt.Composite;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.Paint;
+import java.awt.Polygon;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.Stroke;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Area;
+import java.awt.geom.CubicCurve2D;
+import java.awt.geom.Line2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.QuadCurve2D;
+import java.awt.geom.RectangularShape;
+import java.awt.image.BufferedImage;
+import java.awt.image.BufferedImageOp;
+import java.awt.image.ImageObserver;
+import java.awt.image.RenderedImage;
+import java.awt.image.renderable.RenderableImage;
+import java.text.AttributedCharacterIterator;
+import java.text.AttributedString;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * {@code RecordingGraphics2D} is a {@link Graphics2D} that records every state
+ * change and drawing call made by JFXConverter as a list of immutable commands,
+ * instead of rendering them, so that they can be replayed later on any thread.
+ * <p>
+ * Queries such as font metrics, transforms and clips are answered by a scratch
+ * Graphics Context backed by a tiny off-screen image, so that JFXConverter sees
+ * the same state it would see with a real output device. Mutable arguments are
+ * copied at record time, so that later changes to them cannot alter the
+ * recording. Images are kept by reference, as JFXConverter creates a private
+ * AWT copy of each JavaFX Image that nothing else holds on to.
+ *
+ * @version 1.0
+ *
+ * @author Mark Schmieder
+ */
+public final class RecordingGraphics2D extends Graphics2D {
+
+    /**
+     * The shared recording state for this Graphics Context and its children.
+     */
+    private final Recording  recording;
+
+    /**
+     * The scratch Graphics Context that tracks the state of this context.
+     */
+    private final Graphics2D state;
+
+    /**
+     * The index of this Graphics Context in the context table of the replay.
+     */
+    private final int        contextIndex;
+
+    /**
+     * Constructs a root recorder with an empty recording.
+     */
+    public RecordingGraphics2D() {
+        recording = new Recording();
+
+        // The scratch image only needs to exist in order to get a Graphics
+        // Context with a proper Font Render Context; it is never drawn to.
+        final BufferedImage scratchImage = new BufferedImage( 1, 1, BufferedImage.TYPE_INT_ARGB );
+        state = scratchImage.createGraphics();
+        contextIndex = recording.contextCount++;
+    }
+
+    /**
+     * Constructs a child recorder that shares the recording of its parent.
+     *
+     * @param parent
+     *            The recorder that is being copied
+     */
+    private RecordingGraphics2D( final RecordingGraphics2D parent ) {
+        recording = parent.recording;
+
+        // This cast is safe, as Graphics2D.create() always returns the same
+        // class as the Graphics Context it was invoked on.
+        state = ( Graphics2D ) parent.state.create();
+        contextIndex = recording.contextCount++;
+    }
+
+    /**
+     * Returns the commands recorded so far, by this recorder and all of the
+     * recorders that were created from it.
+     *
+     * @return A copy of the recorded commands
+     */
+    List< GraphicsCommand > getCommands() {
+        return new ArrayList<>( recording.commands );
+    }
+
+    /**
+     * Returns the number of Graphics Contexts involved in the recording.
+     *
+     * @return The number of Graphics Contexts involved in the recording
+     */
+    int getContextCount() {
+        return recording.contextCount;
+    }
+
+    /**
+     * Records a command that is independent of any particular Graphics
+     * Context, such as the start or end of a group.
+     *
+     * @param command
+     *            The command to record
+     */
+    void record( final GraphicsCommand command ) {
+        recording.commands.add( command );
+    }
+
+    /**
+     * Records an operation to be replayed on the target Graphics Context that
+     * mirrors this recorder.
+     *
+     * @param operation
+     *            The operation to replay on the mirrored target
+     */
+    private void recordOperation( final Consumer< Graphics2D > operation ) {
+        final int index = contextIndex;
+        recording.commands.add( context -> operation.accept( context.getGraphics( index ) ) );
+    }
+
+    /**
+     * Records a drawing operation to be replayed on the target Graphics Context
+     * that mirrors this recorder, unless it is replayed inside a culled group.
+     *
+     * @param operation
+     *            The drawing operation to replay on the mirrored target
+     */
+    private void recordDrawing( final Consumer< Graphics2D > operation ) {
+        final int index = contextIndex;
+        recording.commands.add( context -> {
+            if ( !context.isCulling() ) {
+                operation.accept( context.getGraphics( index ) );
+            }
+        } );
+    }
+
+    /**
+     * Makes a defensive copy of a shape, preserving its class where the target
+     * Graphics Context may specialize on it (rectangles, ellipses, lines, etc.).
+     *
+     * @param shape
+     *            The shape to copy
+     * @return A copy of the shape that is not shared with the caller
+     */
+    static Shape copyShape( final Shape shape ) {
+        if ( shape == null ) {
+            return null;
+        }
+        else if ( shape instanceof RectangularShape ) {
+            return ( Shape ) ( ( RectangularShape ) shape ).clone();
+        }
+        else if ( shape instanceof Line2D ) {
+            return ( Shape ) ( ( Line2D ) shape ).clone();
+        }
+        else if ( shape instanceof Path2D ) {
+            return ( Shape ) ( ( Path2D ) shape ).clone();
+        }
+        else if ( shape instanceof Area ) {
+            return ( Shape ) ( ( Area ) shape ).clone();
+        }
+        else if ( shape instanceof Polygon ) {
+            final Polygon polygon = ( Polygon ) shape;
+            return new Polygon( Arrays.copyOf( polygon.xpoints, polygon.npoints ),
+                                Arrays.copyOf( polygon.ypoints, polygon.npoints ),
+                                polygon.npoints );
+        }
+        else if ( shape instanceof CubicCurve2D ) {
+            return ( Shape ) ( ( CubicCurve2D ) shape ).clone();
+        }
+        else if ( shape instanceof QuadCurve2D ) {
+            return ( Shape ) ( ( QuadCurve2D ) shape ).clone();
+        }
+        else {
+            return new Path2D.Double( shape );
+        }
+    }
+
+    ////////////////////// Graphics2D method overrides ///////////////////////
+
+    @Override
+    public Graphics create() {
+        final RecordingGraphics2D child = new RecordingGraphics2D( this );
+        final int parentIndex = contextIndex;
+        final int childIndex = child.contextIndex;
+        recording.commands.add( context -> context.createGraphics( parentIndex, childIndex ) );
+        return child;
+    }
+
+    @Override
+    public void dispose() {
+        final int index = contextIndex;
+        recording.commands.add( context -> context.disposeGraphics( index ) );
+        state.dispose();
+    }
+
+    @Override
+    public void draw( final Shape shape ) {
+        final Shape shapeCopy = copyShape( shape );
+        recordDrawing( g -> g.draw( shapeCopy ) );
+    }
+
+    @Override
+    public void fill( final Shape shape ) {
+        final Shape shapeCopy = copyShape( shape );
+        recordDrawing( g -> g.fill( shapeCopy ) );
+    }
+
+    @Override
+    public void drawLine( final int x1, final int y1, final int x2, final int y2 ) {
+        recordDrawing( g -> g.drawLine( x1, y1, x2, y2 ) );
+    }
+
+    @Override
+    public void drawRect( final int x, final int y, final int width, final int height ) {
+        recordDrawing( g -> g.drawRect( x, y, width, height ) );
+    }
+
+    @Override
+    public void fillRect( final int x, final int y, final int width, final int height ) {
+        recordDrawing( g -> g.fillRect( x, y, width, height ) );
+    }
+
+    @Override
+    public void clearRect( final int x, final int y, final int width, final int height ) {
+        recordDrawing( g -> g.clearRect( x, y, width, height ) );
+    }
+
+    @Override
+    public void drawRoundRect( final int x,
+                               final int y,
+                               final int width,
+                               final int height,
+                               final int arcWidth,
+                               final int arcHeight ) {
+        recordDrawing( g -> g.drawRoundRect( x, y, width, height, arcWidth, arcHeight ) );
+    }
+
+    @Override
+    public void fillRoundRect( final int x,
+                               final int y,
+                               final int width,
+                               final int height,
+                               final int arcWidth,
+                               final int arcHeight ) {
+        recordDrawing( g -> g.fillRoundRect( x, y, width, height, arcWidth, arcHeight ) );
+    }
+
+    @Override
+    public void drawOval( final int x, final int y, final int width, final int height ) {
+        recordDrawing( g -> g.drawOval( x, y, width, height ) );
+    }
+
+    @Override
+    public void fillOval( final int x, final int y, final int width, final int height ) {
+        recordDrawing( g -> g.fillOval( x, y, width, height ) );
+    }
+
+    @Override
+    public void drawArc( final int x,
+                         final int y,
+                         final int width,
+                         final int height,
+                         final int startAngle,
+                         final int arcAngle ) {
+        recordDrawing( g -> g.drawArc( x, y, width, height, startAngle, arcAngle ) );
+    }
+
+    @Override
+    public void fillArc( final int x,
+                         final int y,
+                         final int width,
+                         final int height,
+                         final int startAngle,
+                         final int arcAngle ) {
+        recordDrawing( g -> g.fillArc( x, y, width, height, startAngle, arcAngle ) );
+    }
+
+    @Override
+    public void drawPolyline( final int[] xPoints, final int[] yPoints, final int nPoints ) {
+        final int[] xCopy = Arrays.copyOf( xPoints, nPoints );
+        final int[] yCopy = Arrays.copyOf( yPoints, nPoints );
+        recordDrawing( g -> g.drawPolyline( xCopy, yCopy, nPoints ) );
+    }
+
+    @Override
+    public void drawPolygon( final int[] xPoints, final int[] yPoints, final int nPoints ) {
+        final int[] xCopy = Arrays.copyOf( xPoints, nPoints );
+        final int[] yCopy = Arrays.copyOf( yPoints, nPoints );
+        recordDrawing( g -> g.drawPolygon( xCopy, yCopy, nPoints ) );
+    }
+
+    @Override
+    public void fillPolygon( final int[] xPoints, final int[] yPoints, final int nPoints ) {
+        final int[] xCopy = Arrays.copyOf( xPoints, nPoints );
+        final int[] yCopy = Arrays.copyOf( yPoints, nPoints );
+        recordDrawing( g -> g.fillPolygon( xCopy, yCopy, nPoints ) );
+    }
+
+    @Override
+    public void drawString( final String str, final int x, final int y ) {
+        recordDrawing( g -> g.drawString( str, x, y ) );
+    }
+
+    @Override
+    public void drawString( final String str, final float x, final float y ) {
+        recordDrawing( g -> g.drawString( str, x, y ) );
+    }
+
+    @Override
+    public void drawString( final AttributedCharacterIterator iterator,
+                            final int x,
+                            final int y ) {
+        final AttributedString text = new AttributedString( iterator );
+        recordDrawing( g -> g.drawString( text.getIterator(), x, y ) );
+    }
+
+    @Override
+    public void drawString( final AttributedCharacterIterator iterator,
+                            final float x,
+                            final float y ) {
+        final AttributedString text = new AttributedString( iterator );
+        recordDrawing( g -> g.drawString( text.getIterator(), x, y ) );
+    }
+
+    @Override
+    public void drawGlyphVector( final GlyphVector glyphVector, final float x, final float y ) {
+        recordDrawing( g -> g.drawGlyphVector( glyphVector, x, y ) );
+    }
+
+    @Override
+    public boolean drawImage( final Image image,
+                              final AffineTransform transform,
+                              final ImageObserver observer ) {
+        final AffineTransform transformCopy = ( transform != null )
+            ? new AffineTransform( transform )
+            : null;
+        recordDrawing( g -> g.drawImage( image, transformCopy, null ) );
+        return true;
+    }
+
+    @Override
+    public void drawImage( final BufferedImage image,
+                           final BufferedImageOp imageOp,
+                           final int x,
+                           final int y ) {
+        recordDrawing( g -> g.drawImage( image, imageOp, x, y ) );
+    }
+
+    @Override
+    public void drawRenderedImage( final RenderedImage image, final AffineTransform transform ) {
+        final AffineTransform transformCopy = new AffineTransform( transform );
+        recordDrawing( g -> g.drawRenderedImage( image, transformCopy ) );
+    }
+
+    @Override
+    public void drawRenderableImage( final RenderableImage image,
+                                     final AffineTransform transform ) {
+        final AffineTransform transformCopy = new AffineTransform( transform );
+        recordDrawing( g -> g.drawRenderableImage( image, transformCopy ) );
+    }
+
+    @Override
+    public boolean drawImage( final Image image,
+                              final int x,
+                              final int y,
+                              final ImageObserver observer ) {
+        recordDrawing( g -> g.drawImage( image, x, y, null ) );
+        return true;
+    }
+
+    @Override
+    public boolean drawImage( final Image image,
+                              final int x,
+                              final int y,
+                              final int width,
+                              final int height,
+                              final ImageObserver observer ) {
+        recordDrawing( g -> g.drawImage( image, x, y, width, height, null ) );
+        return true;
+    }
+
+    @Override
+    public boolean drawImage( final Image image,
+                              final int x,
+                              final int y,
+                              final Color bgcolor,
+                              final ImageObserver observer ) {
+        recordDrawing( g -> g.drawImage( image, x, y, bgcolor, null ) );
+        return true;
+    }
+
+    @Override
+    public boolean drawImage( final Image image,
+                              final int x,
+                              final int y,
+                              final int width,
+                              final int height,
+                              final Color bgcolor,
+                              final ImageObserver observer ) {
+        recordDrawing( g -> g.drawImage( image, x, y, width, height, bgcolor, null ) );
+        return true;
+    }
+
+    @Override
+    public boolean drawImage( final Image image,
+                              final int dx1,
+                              final int dy1,
+                              final int dx2,
+                              final int dy2,
+                              final int sx1,
+                              final int sy1,
+                              final int sx2,
+                              final int sy2,
+                              final ImageObserver observer ) {
+        recordDrawing( g -> g.drawImage( image, dx1, dy1, dx2, dy2, sx1, sy1, sx2, sy2, null ) );
+        return true;
+    }
+
+    @Override
+    public boolean drawImage( final Image image,
+                              final int dx1,
+                              final int dy1,
+                              final int dx2,
+                              final int dy2,
+                              final int sx1,
+                              final int sy1,
+                              final int sx2,
+                              final int sy2,
+                              final Color bgcolor,
+                              final ImageObserver observer ) {
+        recordDrawing( g -> g.drawImage( image,
+                                         dx1,
+                                         dy1,
+                                         dx2,
+                                         dy2,
+                                         sx1,
+                                         sy1,
+                                         sx2,
+                                         sy2,
+                                         bgcolor,
+                                         null ) );
+        return true;
+    }
+
+    @Override
+    public void copyArea( final int x,
+                          final int y,
+                          final int width,
+                          final int height,
+                          final int dx,
+                          final int dy ) {
+        recordDrawing( g -> g.copyArea( x, y, width, height, dx, dy ) );
+    }
+
+    @Override
+    public boolean hit( final Rectangle rect, final Shape shape, final boolean onStroke ) {
+        return state.hit( rect, shape, onStroke );
+    }
+
+    @Override
+    public GraphicsConfiguration getDeviceConfiguration() {
+        return state.getDeviceConfiguration();
+    }
+
+    @Override
+    public void setComposite( final Composite composite ) {
+        state.setComposite( composite );
+        recordOperation( g -> g.setComposite( composite ) );
+    }
+
+    @Override
+    public Composite getComposite() {
+        return state.getComposite();
+    }
+
+    @Override
+    public void setPaint( final Paint paint ) {
+        state.setPaint( paint );
+        recordOperation( g -> g.setPaint( paint ) );
+    }
+
+    @Override
+    public Paint getPaint() {
+        return state.getPaint();
+    }
+
+    @Override
+    public void setColor( final Color color ) {
+        state.setColor( color );
+        recordOperation( g -> g.setColor( color ) );
+    }
+
+    @Override
+    public Color getColor() {
+        return state.getColor();
+    }
+
+    @Override
+    public void setPaintMode() {
+        state.setPaintMode();
+        recordOperation( g -> g.setPaintMode() );
+    }
+
+    @Override
+    public void setXORMode( final Color color ) {
+        state.setXORMode( color );
+        recordOperation( g -> g.setXORMode( color ) );
+    }
+
+    @Override
+    public void setBackground( final Color color ) {
+        state.setBackground( color );
+        recordOperation( g -> g.setBackground( color ) );
+    }
+
+    @Override
+    public Color getBackground() {
+        return state.getBackground();
+    }
+
+    @Override
+    public void setStroke( final Stroke stroke ) {
+        state.setStroke( stroke );
+        recordOperation( g -> g.setStroke( stroke ) );
+    }
+
+    @Override
+    public Stroke getStroke() {
+        return state.getStroke();
+    }
+
+    @Override
+    public void setFont( final Font font ) {
+        state.setFont( font );
+        recordOperation( g -> g.setFont( font ) );
+    }
+
+    @Override
+    public Font getFont() {
+        return state.getFont();
+    }
+
+    @Override
+    public FontMetrics getFontMetrics( final Font font ) {
+        return state.getFontMetrics( font );
+    }
+
+    @Override
+    public FontRenderContext getFontRenderContext() {
+        return state.getFontRenderContext();
+    }
+
+    @Override
+    public void setRenderingHint( final RenderingHints.Key hintKey, final Object hintValue ) {
+        state.setRenderingHint( hintKey, hintValue );
+        recordOperation( g -> g.setRenderingHint( hintKey, hintValue ) );
+    }
+
+    @Override
+    public Object getRenderingHint( final RenderingHints.Key hintKey ) {
+        return state.getRenderingHint( hintKey );
+    }
+
+    @Override
+    public void setRenderingHints( final Map< ?, ? > hints ) {
+        final Map< ?, ? > hintsCopy = new HashMap<>( hints );
+        state.setRenderingHints( hintsCopy );
+        recordOperation( g -> g.setRenderingHints( hintsCopy ) );
+    }
+
+    @Override
+    public void addRenderingHints( final Map< ?, ? > hints ) {
+        final Map< ?, ? > hintsCopy = new HashMap<>( hints );
+        state.addRenderingHints( hintsCopy );
+        recordOperation( g -> g.addRenderingHints( hintsCopy ) );
+    }
+
+    @Override
+    public RenderingHints getRenderingHints() {
+        return state.getRenderingHints();
+    }
+
+    @Override
+    public void translate( final int x, final int y ) {
+        state.translate( x, y );
+        recordOperation( g -> g.translate( x, y ) );
+    }
+
+    @Override
+    public void translate( final double tx, final double ty ) {
+        state.translate( tx, ty );
+        recordOperation( g -> g.translate( tx, ty ) );
+    }
+
+    @Override
+    public void rotate( final double theta ) {
+        state.rotate( theta );
+        recordOperation( g -> g.rotate( theta ) );
+    }
+
+    @Override
+    public void rotate( final double theta, final double x, final double y ) {
+        state.rotate( theta, x, y );
+        recordOperation( g -> g.rotate( theta, x, y ) );
+    }
+
+    @Override
+    public void scale( final double sx, final double sy ) {
+        state.scale( sx, sy );
+        recordOperation( g -> g.scale( sx, sy ) );
+    }
+
+    @Override
+    public void shear( final double shx, final double shy ) {
+        state.shear( shx, shy );
+        recordOperation( g -> g.shear( shx, shy ) );
+    }
+
+    @Override
+    public void transform( final AffineTransform transform ) {
+        final AffineTransform transformCopy = new AffineTransform( transform );
+        state.transform( transformCopy );
+        recordOperation( g -> g.transform( transformCopy ) );
+    }
+
+    @Override
+    public void setTransform( final AffineTransform transform ) {
+        final AffineTransform transformCopy = new AffineTransform( transform );
+        state.setTransform( transformCopy );
+
+        // Absolute transforms are relative to the identity transform of the
+        // scratch context, so they must be re-based on the target's transform.
+        final int index = contextIndex;
+        recording.commands.add( context -> context.getGraphics( index )
+                .setTransform( context.toTargetTransform( transformCopy ) ) );
+    }
+
+    @Override
+    public AffineTransform getTransform() {
+        return state.getTransform();
+    }
+
+    @Override
+    public void clip( final Shape shape ) {
+        final Shape shapeCopy = copyShape( shape );
+        state.clip( shapeCopy );
+        recordOperation( g -> g.clip( shapeCopy ) );
+    }
+
+    @Override
+    public void clipRect( final int x, final int y, final int width, final int height ) {
+        state.clipRect( x, y, width, height );
+        recordOperation( g -> g.clipRect( x, y, width, height ) );
+    }
+
+    @Override
+    public void setClip( final int x, final int y, final int width, final int height ) {
+        state.setClip( x, y, width, height );
+        recordOperation( g -> g.setClip( x, y, width, height ) );
+    }
+
+    @Override
+    public void setClip( final Shape shape ) {
+        final Shape shapeCopy = copyShape( shape );
+        state.setClip( shapeCopy );
+        recordOperation( g -> g.setClip( shapeCopy ) );
+    }
+
+    @Override
+    public Shape getClip() {
+        return state.getClip();
+    }
+
+    @Override
+    public Rectangle getClipBounds() {
+        return state.getClipBounds();
+    }
+
+    /**
+     * {@code Recording} is the state shared between a root recorder and all of
+     * the child recorders created from it.
+     */
+    private static final class Recording {
+
+        /**
+         * The recorded commands, in the order they were issued.
+         */
+        final List< GraphicsCommand > commands     = new ArrayList<>( 1024 );
+
+        /**
+         * The number of Graphics Contexts created so far, including the root.
+         */
+        int                           contextCount = 0;
+
+    }
+
+}
@@ -0,0 +1,246 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxConverter Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxConverter Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxconverter
+ */
+package com.mhschmieder.fxvectorexport.capture;
+
+import com.mhschmieder.fxvectorexport.ExportMonitor;
+import javafx.geometry.Bounds;
+import javafx.scene.effect.Effect;
+import org.jfxconverter.drivers.ppt.GroupingGraphics;
+
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+
+/**
+ * {@code ReplayContext} holds the mutable state of a single replay of a
+ * {@link SceneSnapshot}, which is mostly the table of target Graphics Contexts
+ * that mirrors the Graphics Contexts that were created during the capture.
+ * <p>
+ * Recorded absolute transforms are relative to the identity transform of the
+ * capture, so they are concatenated with the base transform of the target in
+ * order to preserve any global page transform that the exporter applied.
+ * <p>
+ * Groups that the target reports as invisible are culled: the drawing
+ * commands recorded inside them are skipped, while the state commands are
+ * still replayed so that the Graphics Contexts stay in sync with the capture.
+ *
+ * @version 1.0
+ *
+ * @author Mark Schmieder
+ */
+final class ReplayContext {
+
+    /**
+     * The target Graphics Contexts, indexed the same way as during capture.
+     */
+    private final Graphics2D[]    contexts;
+
+    /**
+     * The transform of the root target before any command was replayed.
+     */
+    private final AffineTransform baseTransform;
+
+    /**
+     * The monitor that receives the progress of the replay.
+     */
+    private final ExportMonitor   monitor;
+
+    /**
+     * The depth of the current group inside the outermost culled group, or
+     * zero when no group is being culled.
+     */
+    private int                   culledDepth;
+
+    /**
+     * Constructs a replay context for the given root target.
+     *
+     * @param target
+     *            The root {@link Graphics2D} target of the replay
+     * @param contextCount
+     *            The number of Graphics Contexts created during the capture
+     * @param monitor
+     *            The {@link ExportMonitor} that receives the replay progress
+     */
+    ReplayContext( final Graphics2D target,
+                   final int contextCount,
+                   final ExportMonitor monitor ) {
+        contexts = new Graphics2D[ contextCount ];
+        contexts[ 0 ] = target;
+        baseTransform = target.getTransform();
+        this.monitor = monitor;
+    }
+
+    /**
+     * Returns the target Graphics Context that mirrors the captured one.
+     *
+     * @param index
+     *            The index of the captured Graphics Context
+     * @return The target Graphics Context for the given index
+     */
+    Graphics2D getGraphics( final int index ) {
+        return contexts[ index ];
+    }
+
+    /**
+     * Returns the root target Graphics Context of this replay.
+     *
+     * @return The root target Graphics Context
+     */
+    Graphics2D getTarget() {
+        return contexts[ 0 ];
+    }
+
+    /**
+     * Mirrors a {@link Graphics2D#create()} call made during the capture.
+     *
+     * @param parentIndex
+     *            The index of the Graphics Context that was copied
+     * @param childIndex
+     *            The index of the newly created Graphics Context
+     */
+    void createGraphics( final int parentIndex, final int childIndex ) {
+        // This cast is safe, as Graphics2D.create() always returns the same
+        // class as the Graphics Context it was invoked on.
+        contexts[ childIndex ] = ( Graphics2D ) contexts[ parentIndex ].create();
+    }
+
+    /**
+     * Mirrors a {@link Graphics2D#dispose()} call made during the capture. The
+     * root target is owned by the caller, so it is never disposed here.
+     *
+     * @param index
+     *            The index of the disposed Graphics Context
+     */
+    void disposeGraphics( final int index ) {
+        if ( ( index > 0 ) && ( contexts[ index ] != null ) ) {
+            contexts[ index ].dispose();
+            contexts[ index ] = null;
+        }
+    }
+
+    /**
+     * Converts a transform recorded relative to the capture's identity, to the
+     * equivalent absolute transform for the target.
+     *
+     * @param transform
+     *            The recorded transform
+     * @return The absolute transform to apply to the target
+     */
+    AffineTransform toTargetTransform( final AffineTransform transform ) {
+        final AffineTransform targetTransform = new AffineTransform( baseTransform );
+        targetTransform.concatenate( transform );
+        return targetTransform;
+    }
+
+    /**
+     * Mirrors the start of a captured group on the root target. If the target
+     * reports the group as invisible, the group and all of its content are
+     * culled until the matching {@link #endGroup()}.
+     *
+     * @param name
+     *            The group name (usually the Node ID, which may be null)
+     * @param bounds
+     *            The bounds in parent of the Node that was grouped
+     */
+    void startGroup( final String name, final Bounds bounds ) {
+        if ( culledDepth > 0 ) {
+            culledDepth++;
+            return;
+        }
+
+        final Graphics2D target = getTarget();
+        if ( target instanceof GroupingGraphics ) {
+            final GroupingGraphics groupingTarget = ( GroupingGraphics ) target;
+            if ( groupingTarget.isGroupVisible( bounds ) ) {
+                groupingTarget.startGroup( name, bounds );
+            }
+            else {
+                culledDepth = 1;
+            }
+        }
+    }
+
+    /**
+     * Mirrors the end of a captured group on the root target.
+     */
+    void endGroup() {
+        if ( culledDepth > 0 ) {
+            culledDepth--;
+            return;
+        }
+
+        final Graphics2D target = getTarget();
+        if ( target instanceof GroupingGraphics ) {
+            ( ( GroupingGraphics ) target ).endGroup();
+        }
+    }
+
+    /**
+     * Mirrors the application of a captured effect on the root target, unless
+     * the effect belongs to a culled group.
+     *
+     * @param effect
+     *            The snapshot copy of the effect, or {@code null} to clear it
+     */
+    void applyEffect( final Effect effect ) {
+        final Graphics2D target = getTarget();
+        if ( ( culledDepth == 0 ) && ( target instanceof GroupingGraphics ) ) {
+            ( ( GroupingGraphics ) target ).applyEffect( effect );
+        }
+    }
+
+    /**
+     * Returns whether the commands being replayed belong to a culled group,
+     * in which case nothing should be drawn.
+     *
+     * @return {@code true} if drawing commands should be skipped
+     */
+    boolean isCulling() {
+        return culledDepth > 0;
+    }
+
+    /**
+     * Marks the end of the replay of one of the captured Nodes.
+     */
+    void nodeProcessed() {
+        monitor.nodeProcessed();
+    }
+
+    /**
+     * Disposes of any Graphics Context created during the replay that was not
+     * explicitly disposed by a recorded command.
+     */
+    void disposeAll() {
+        for ( int i = 1; i < contexts.length; i++ ) {
+            disposeGraphics( i );
+        }
+    }
+
+}
@@ -0,0 +1,334 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxConverter Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxConverter Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxconverter
+ */
+package com.mhschmieder.fxvectorexport.capture;
+
+import com.mhschmieder.fxvectorexport.ExportMonitor;
+import javafx.application.Platform;
+import javafx.geometry.Bounds;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.effect.DropShadow;
+import javafx.scene.effect.Effect;
+import javafx.scene.effect.InnerShadow;
+import org.jfxconverter.JFXConverter;
+import org.jfxconverter.converters.ConverterListener;
+
+import java.awt.Graphics2D;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * {@code SceneCapture} is a utility class for methods that capture a JavaFX
+ * Scene Graph {@link Node} into an immutable {@link SceneSnapshot}, so that
+ * exporting it can be split into a short capture on the JavaFX Application
+ * Thread, and a long encoding phase that runs on a background thread.
+ * <p>
+ * JFXConverter queries live Node properties while it transcodes to AWT, so the
+ * transcoding itself is part of the capture. What is deferred to the background
+ * is everything the format-specific Graphics Contexts do with the AWT calls,
+ * plus the serialization of the finished document.
+ *
+ * @version 1.0
+ *
+ * @author Mark Schmieder
+ */
+public final class SceneCapture {
+
+    /**
+     * The default constructor is disabled, as this is a static utilities class.
+     */
+    private SceneCapture() {}
+
+    /**
+     * Captures the AWT transcoding of the provided {@link Node}. This should be
+     * called on the JavaFX Application Thread if the Node is part of a live
+     * Scene, as the Scene Graph must not change while it is being traversed.
+     *
+     * @param node
+     *            The {@link Node} to capture
+     * @return An immutable snapshot of the AWT transcoding of the Node
+     *
+     * @since 1.0
+     */
+    public static SceneSnapshot capture( final Node node ) {
+        return capture( node, new ExportMonitor() );
+    }
+
+    /**
+     * Captures the AWT transcoding of the provided {@link Node}, checking the
+     * provided monitor for cancellation as each Node is visited. This should be
+     * called on the JavaFX Application Thread if the Node is part of a live
+     * Scene, as the Scene Graph must not change while it is being traversed.
+     * <p>
+     * Progress is not reported during the capture, as it blocks the very thread
+     * that would have to display it; it is reported as the snapshot is replayed.
+     *
+     * @param node
+     *            The {@link Node} to capture
+     * @param monitor
+     *            The {@link ExportMonitor} to check for cancellation
+     * @return An immutable snapshot of the AWT transcoding of the Node
+     * @throws com.mhschmieder.fxvectorexport.ExportCancelledException
+     *             If the monitor was cancelled during the capture
+     *
+     * @since 1.0
+     */
+    public static SceneSnapshot capture( final Node node, final ExportMonitor monitor ) {
+        return capture( node, monitor, new JFXConverter() );
+    }
+
+    /**
+     * Captures the AWT transcoding of the provided {@link Node} with the
+     * provided converter, so that a long-lived caller can reuse one converter
+     * and its configuration across captures. The converter's listener is
+     * replaced for the duration of the capture, so the converter must not be
+     * used for anything else at the same time.
+     *
+     * @param node
+     *            The {@link Node} to capture
+     * @param monitor
+     *            The {@link ExportMonitor} to check for cancellation
+     * @param converter
+     *            The {@link JFXConverter} to transcode the Node with
+     * @return An immutable snapshot of the AWT transcoding of the Node
+     * @throws com.mhschmieder.fxvectorexport.ExportCancelledException
+     *             If the monitor was cancelled during the capture
+     *
+     * @since 1.0
+     */
+    public static SceneSnapshot capture( final Node node,
+                                         final ExportMonitor monitor,
+                                         final JFXConverter converter ) {
+        final long startTime = System.nanoTime();
+
+        // We need bounds in parent vs. bounds in local, so that all transforms
+        // are applied; these are captured now so that the exporters don't need
+        // to query the live Node later on.
+        final Bounds bounds = node.getBoundsInParent();
+
+        // Record the AWT transcoding of the Node, along with the grouping and
+        // effect notifications that only the extended drivers care about.
+        final RecordingGraphics2D recorder = new RecordingGraphics2D();
+        final CaptureListener listener = new CaptureListener( recorder, monitor );
+        converter.setListener( listener );
+        converter.convert( recorder, node );
+
+        return new SceneSnapshot( recorder,
+                                  bounds,
+                                  listener.nodeCount,
+                                  System.nanoTime() - startTime );
+    }
+
+    /**
+     * Captures the AWT transcoding of the provided {@link Node} on the JavaFX
+     * Application Thread. If this is invoked from that thread, the capture is
+     * done immediately; otherwise it is scheduled via
+     * {@link Platform#runLater(Runnable)}.
+     *
+     * @param node
+     *            The {@link Node} to capture
+     * @return A future that completes with the snapshot once it is captured
+     *
+     * @since 1.0
+     */
+    public static CompletableFuture< SceneSnapshot > captureOnFxThread( final Node node ) {
+        return captureOnFxThread( node, new ExportMonitor() );
+    }
+
+    /**
+     * Captures the AWT transcoding of the provided {@link Node} on the JavaFX
+     * Application Thread, checking the provided monitor for cancellation as
+     * each Node is visited. If the monitor is already cancelled by the time the
+     * capture is due to run, the Scene Graph is not traversed at all.
+     *
+     * @param node
+     *            The {@link Node} to capture
+     * @param monitor
+     *            The {@link ExportMonitor} to check for cancellation
+     * @return A future that completes with the snapshot once it is captured
+     *
+     * @since 1.0
+     */
+    public static CompletableFuture< SceneSnapshot > captureOnFxThread( final Node node,
+                                                                        final ExportMonitor monitor ) {
+        final CompletableFuture< SceneSnapshot > snapshotFuture = new CompletableFuture<>();
+        final Runnable captureTask = () -> {
+            try {
+                monitor.checkCancelled();
+                snapshotFuture.complete( capture( node, monitor ) );
+            }
+            catch ( final Throwable t ) {
+                snapshotFuture.completeExceptionally( t );
+            }
+        };
+
+        if ( Platform.isFxApplicationThread() ) {
+            captureTask.run();
+        }
+        else {
+            Platform.runLater( captureTask );
+        }
+
+        return snapshotFuture;
+    }
+
+    /**
+     * Captures the provided {@link Node} on the JavaFX Application Thread, and
+     * then hands the snapshot to the provided encoder on the given executor,
+     * so that the GUI is only blocked for the duration of the capture.
+     *
+     * @param node
+     *            The {@link Node} to capture
+     * @param encoder
+     *            The function that encodes the snapshot to its target format
+     * @param executor
+     *            The {@link Executor} to run the encoder on
+     * @param <T>
+     *            The type of result produced by the encoder
+     * @return A future that completes with the result of the encoder
+     *
+     * @since 1.0
+     */
+    public static < T > CompletableFuture< T > captureThenEncode( final Node node,
+                                                                  final Function< SceneSnapshot, T > encoder,
+                                                                  final Executor executor ) {
+        return captureOnFxThread( node ).thenApplyAsync( encoder, executor );
+    }
+
+    /**
+     * Makes a copy of an effect that is safe to hold on to after the capture.
+     * Only the shadow effects that the extended drivers support are copied;
+     * anything else is recorded as {@code null}, which clears the effect.
+     *
+     * @param effect
+     *            The live effect of a Node
+     * @return A detached copy of the effect, or {@code null} if not supported
+     */
+    static Effect copyEffect( final Effect effect ) {
+        if ( effect instanceof DropShadow ) {
+            final DropShadow dropShadow = ( DropShadow ) effect;
+            final DropShadow dropShadowCopy = new DropShadow( dropShadow.getBlurType(),
+                                                              dropShadow.getColor(),
+                                                              dropShadow.getRadius(),
+                                                              dropShadow.getSpread(),
+                                                              dropShadow.getOffsetX(),
+                                                              dropShadow.getOffsetY() );
+            dropShadowCopy.setWidth( dropShadow.getWidth() );
+            dropShadowCopy.setHeight( dropShadow.getHeight() );
+            return dropShadowCopy;
+        }
+        else if ( effect instanceof InnerShadow ) {
+            final InnerShadow innerShadow = ( InnerShadow ) effect;
+            final InnerShadow innerShadowCopy = new InnerShadow( innerShadow.getBlurType(),
+                                                                 innerShadow.getColor(),
+                                                                 innerShadow.getRadius(),
+                                                                 innerShadow.getChoke(),
+                                                                 innerShadow.getOffsetX(),
+                                                                 innerShadow.getOffsetY() );
+            innerShadowCopy.setWidth( innerShadow.getWidth() );
+            innerShadowCopy.setHeight( innerShadow.getHeight() );
+            return innerShadowCopy;
+        }
+        else {
+            return null;
+        }
+    }
+
+    /**
+     * {@code CaptureListener} records the grouping and effect notifications of
+     * JFXConverter into the snapshot, in place of a
+     * {@link org.jfxconverter.converters.DefaultConverterListener}, counts the
+     * Nodes that were visited, and checks for cancellation along the way.
+     */
+    private static final class CaptureListener implements ConverterListener {
+
+        /**
+         * The recorder that receives the grouping and effect commands.
+         */
+        private final RecordingGraphics2D recorder;
+
+        /**
+         * The monitor to check for cancellation.
+         */
+        private final ExportMonitor       monitor;
+
+        /**
+         * The number of Nodes visited so far.
+         */
+        int                               nodeCount = 0;
+
+        /**
+         * Constructs a listener that records into the provided recorder.
+         *
+         * @param recorder
+         *            The recorder that receives the grouping commands
+         * @param monitor
+         *            The monitor to check for cancellation
+         */
+        CaptureListener( final RecordingGraphics2D recorder, final ExportMonitor monitor ) {
+            this.recorder = recorder;
+            this.monitor = monitor;
+        }
+
+        @Override
+        public void startNode( final Graphics2D g, final Node node ) {
+            // Unwind the traversal as soon as possible if we were cancelled.
+            monitor.checkCancelled();
+
+            nodeCount++;
+
+            if ( node instanceof Parent ) {
+                final String name = node.getId();
+                final Bounds bounds = node.getBoundsInParent();
+                recorder.record( context -> context.startGroup( name, bounds ) );
+            }
+        }
+
+        @Override
+        public void endNode( final Graphics2D g, final Node node ) {
+            if ( node instanceof Parent ) {
+                recorder.record( ReplayContext::endGroup );
+            }
+
+            // Mark the end of the Node, so that the replay can report progress.
+            recorder.record( ReplayContext::nodeProcessed );
+        }
+
+        @Override
+        public void applyEffect( final Graphics2D g, final Node node, final Effect effect ) {
+            final Effect effectCopy = copyEffect( effect );
+            recorder.record( context -> context.applyEffect( effectCopy ) );
+        }
+
+    }
+
+}
@@ -0,0 +1,180 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxConverter Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxConverter Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxconverter
+ */
+package com.mhschmieder.fxvectorexport.capture;
+
+import com.mhschmieder.fxvectorexport.ExportMonitor;
+import javafx.geometry.Bounds;
+
+import java.awt.Graphics2D;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * {@code SceneSnapshot} is an immutable recording of the AWT transcoding of a
+ * JavaFX Scene Graph {@link javafx.scene.Node}, as captured by
+ * {@link SceneCapture} on the JavaFX Application Thread.
+ * <p>
+ * A snapshot holds no reference to the live Scene Graph, so it can be replayed
+ * on any thread, any number of times, against any {@link Graphics2D} target
+ * such as the SVG, EPS, PDF and PPT wrappers used by the export utilities.
+ *
+ * @version 1.0
+ *
+ * @author Mark Schmieder
+ */
+public final class SceneSnapshot {
+
+    /**
+     * The recorded commands, in the order they were issued during capture.
+     */
+    private final List< GraphicsCommand > commands;
+
+    /**
+     * The number of Graphics Contexts that were created during capture.
+     */
+    private final int                     contextCount;
+
+    /**
+     * The bounds in parent of the captured Node, with all transforms applied.
+     */
+    private final Bounds                  bounds;
+
+    /**
+     * The number of Scene Graph Nodes that were visited during capture.
+     */
+    private final int                     nodeCount;
+
+    /**
+     * The time it took to capture the Node, in nanoseconds.
+     */
+    private final long                    captureNanos;
+
+    /**
+     * Constructs a snapshot from a finished recording.
+     *
+     * @param recorder
+     *            The recorder that was used for the capture
+     * @param bounds
+     *            The bounds in parent of the captured Node
+     * @param nodeCount
+     *            The number of Nodes visited during capture
+     * @param captureNanos
+     *            The time it took to capture the Node, in nanoseconds
+     */
+    SceneSnapshot( final RecordingGraphics2D recorder,
+                   final Bounds bounds,
+                   final int nodeCount,
+                   final long captureNanos ) {
+        commands = Collections.unmodifiableList( recorder.getCommands() );
+        contextCount = recorder.getContextCount();
+        this.bounds = bounds;
+        this.nodeCount = nodeCount;
+        this.captureNanos = captureNanos;
+    }
+
+    /**
+     * Returns the bounds in parent of the captured Node. These are the bounds
+     * that the exporters use to fit the content to the target page.
+     *
+     * @return The bounds in parent of the captured Node
+     */
+    public Bounds getBounds() {
+        return bounds;
+    }
+
+    /**
+     * Returns the number of Scene Graph Nodes that were visited during capture.
+     *
+     * @return The number of Scene Graph Nodes that were visited during capture
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Returns the number of recorded commands.
+     *
+     * @return The number of recorded commands
+     */
+    public int getCommandCount() {
+        return commands.size();
+    }
+
+    /**
+     * Returns the time it took to capture the Node on the JavaFX Application
+     * Thread, which is the only part of an export that blocks the GUI.
+     *
+     * @return The time it took to capture the Node, in nanoseconds
+     */
+    public long getCaptureNanos() {
+        return captureNanos;
+    }
+
+    /**
+     * Replays the recorded commands against the provided Graphics Context, in
+     * the same order as they were issued during capture. Any global transform
+     * already set on the target (such as a page fitting transform) is kept.
+     *
+     * @param target
+     *            The {@link Graphics2D} to replay the recorded commands on
+     */
+    public void replay( final Graphics2D target ) {
+        replay( target, new ExportMonitor() );
+    }
+
+    /**
+     * Replays the recorded commands against the provided Graphics Context,
+     * reporting progress to the provided monitor as each captured Node is
+     * replayed, and stopping as soon as the monitor is cancelled.
+     *
+     * @param target
+     *            The {@link Graphics2D} to replay the recorded commands on
+     * @param monitor
+     *            The {@link ExportMonitor} for progress and cancellation
+     * @throws com.mhschmieder.fxvectorexport.ExportCancelledException
+     *             If the monitor was cancelled during the replay
+     */
+    public void replay( final Graphics2D target, final ExportMonitor monitor ) {
+        monitor.startNodes( nodeCount );
+
+        final ReplayContext context = new ReplayContext( target, contextCount, monitor );
+        try {
+            for ( final GraphicsCommand command : commands ) {
+                monitor.checkCancelled();
+                command.replay( context );
+            }
+        }
+        finally {
+            context.disposeAll();
+        }
+    }
+
+}
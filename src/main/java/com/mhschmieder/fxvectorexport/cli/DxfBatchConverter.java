@@ -0,0 +1,466 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxConverter Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxConverter Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxconverter
+ */
+package com.mhschmieder.fxvectorexport.cli;
+
+import com.mhschmieder.fxvectorexport.ExportFormat;
+import com.mhschmieder.fxvectorexport.ExportOptions;
+import com.mhschmieder.fxvectorexport.ExportResult;
+import com.mhschmieder.fxvectorexport.batch.BatchExporter;
+import com.mhschmieder.fxvectorexport.batch.BatchResult;
+import com.mhschmieder.fxvectorexport.batch.ExportJob;
+import com.mhschmieder.fxvectorexport.batch.ExportJobResult;
+import com.mhschmieder.fxvectorexport.dxf.DxfLoaderFactory;
+import com.mhschmieder.jgraphics.color.ColorMode;
+import javafx.print.Paper;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * {@code DxfBatchConverter} is the headless command-line entry point for
+ * converting DXF files in bulk to SVG, PDF, EPS, PPT and/or PPTX, on servers
+ * that have no display. Run it without arguments for the usage summary.
+ * <p>
+ * Inputs are DXF files, glob patterns such as {@code drawings/**.dxf}, or
+ * manifest files prefixed with {@code @} that list one input per line. Each
+ * file is converted to each requested format by a {@link BatchExporter}, and a
+ * per-file timing summary is printed at the end.
+ * <p>
+ * The DXF files are read by the {@link DxfLoaderFactory} named on the command
+ * line, or else by the first one found via {@link ServiceLoader}.
+ * <p>
+ * The exit status is 0 if every document was written, 1 if any failed, and 2
+ * if the command line was invalid.
+ *
+ * @version 1.0
+ *
+ * @author Mark Schmieder
+ */
+public final class DxfBatchConverter {
+
+    /**
+     * The exit status when every document was written.
+     */
+    private static final int    EXIT_SUCCESS = 0;
+
+    /**
+     * The exit status when any document failed.
+     */
+    private static final int    EXIT_FAILURE = 1;
+
+    /**
+     * The exit status when the command line was invalid.
+     */
+    private static final int    EXIT_USAGE   = 2;
+
+    /**
+     * The command-line usage summary.
+     */
+    @SuppressWarnings("nls")
+    private static final String USAGE        =
+                                      "Usage: DxfBatchConverter [options] <input>...\n"
+                                              + "  <input>                 A DXF file, a glob such as drawings/**.dxf, or\n"
+                                              + "                          @manifest for a file listing one input per line\n"
+                                              + "  -f, --format <format>   svg, pdf, eps, ppt or pptx (default svg); repeatable\n"
+                                              + "  -o, --output <dir>      Output directory (default: next to each input)\n"
+                                              + "  -j, --jobs <count>      Parallel workers (default: number of processors)\n"
+                                              + "  -l, --loader <class>    DxfLoaderFactory implementation to read DXF with\n"
+                                              + "  -s, --streaming         Stream the output, for the formats that support it\n"
+                                              + "  -t, --text-as-strings   Write text as strings instead of outlines\n"
+                                              + "  -h, --help              Print this summary";
+
+    /**
+     * The default constructor is disabled, as this is a static entry point.
+     */
+    private DxfBatchConverter() {}
+
+    /**
+     * Converts the DXF files named on the command line, and exits with a
+     * status that tells whether all of them were converted.
+     *
+     * @param args
+     *            The command-line arguments
+     */
+    public static void main( final String[] args ) {
+        int exitStatus;
+        try {
+            exitStatus = run( args, System.out, System.err );
+        }
+        catch ( final InterruptedException ie ) {
+            Thread.currentThread().interrupt();
+            exitStatus = EXIT_FAILURE;
+        }
+
+        // The JavaFX Platform may have non-daemon threads left, so exit
+        // explicitly.
+        System.exit( exitStatus );
+    }
+
+    /**
+     * Converts the DXF files named on the command line.
+     *
+     * @param args
+     *            The command-line arguments
+     * @param out
+     *            The stream for the summary
+     * @param err
+     *            The stream for errors
+     * @return The exit status
+     * @throws InterruptedException
+     *             If the calling thread is interrupted while waiting
+     */
+    @SuppressWarnings("nls")
+    public static int run( final String[] args, final PrintStream out, final PrintStream err )
+            throws InterruptedException {
+        final Set< ExportFormat > formats = new LinkedHashSet<>();
+        final List< String > inputs = new ArrayList<>();
+        Path outputDirectory = null;
+        int jobCount = Runtime.getRuntime().availableProcessors();
+        String loaderClassName = null;
+        boolean useStreaming = false;
+        boolean useVectorizedText = true;
+
+        try {
+            for ( int i = 0; i < args.length; i++ ) {
+                final String arg = args[ i ];
+                switch ( arg ) {
+                case "-f":
+                case "--format":
+                    formats.add( ExportFormat
+                            .valueOf( nextArgument( args, ++i, arg ).toUpperCase( Locale.ENGLISH ) ) );
+                    break;
+                case "-o":
+                case "--output":
+                    outputDirectory = Paths.get( nextArgument( args, ++i, arg ) );
+                    break;
+                case "-j":
+                case "--jobs":
+                    jobCount = Integer.parseInt( nextArgument( args, ++i, arg ) );
+                    break;
+                case "-l":
+                case "--loader":
+                    loaderClassName = nextArgument( args, ++i, arg );
+                    break;
+                case "-s":
+                case "--streaming":
+                    useStreaming = true;
+                    break;
+                case "-t":
+                case "--text-as-strings":
+                    useVectorizedText = false;
+                    break;
+                case "-h":
+                case "--help":
+                    out.println( USAGE );
+                    return EXIT_SUCCESS;
+                default:
+                    if ( arg.startsWith( "-" ) ) {
+                        throw new IllegalArgumentException( "Unknown option: " + arg );
+                    }
+                    inputs.add( arg );
+                    break;
+                }
+            }
+            if ( inputs.isEmpty() ) {
+                throw new IllegalArgumentException( "No input files" );
+            }
+            if ( jobCount < 1 ) {
+                throw new IllegalArgumentException( "The job count must be positive" );
+            }
+        }
+        catch ( final IllegalArgumentException iae ) {
+            err.println( iae.getMessage() );
+            err.println( USAGE );
+            return EXIT_USAGE;
+        }
+        if ( formats.isEmpty() ) {
+            formats.add( ExportFormat.SVG );
+        }
+
+        final DxfLoaderFactory loaderFactory;
+        final Set< Path > dxfFiles = new LinkedHashSet<>();
+        try {
+            loaderFactory = getLoaderFactory( loaderClassName );
+            for ( final String input : inputs ) {
+                expandInput( input, Paths.get( "" ), dxfFiles );
+            }
+            if ( outputDirectory != null ) {
+                Files.createDirectories( outputDirectory );
+            }
+        }
+        catch ( final IOException | ReflectiveOperationException | IllegalStateException e ) {
+            err.println( e );
+            return EXIT_USAGE;
+        }
+        if ( dxfFiles.isEmpty() ) {
+            err.println( "No DXF files matched the inputs" );
+            return EXIT_USAGE;
+        }
+
+        final List< ExportJob > jobs = new ArrayList<>( dxfFiles.size() * formats.size() );
+        for ( final Path dxfFile : dxfFiles ) {
+            final String fileName = dxfFile.getFileName().toString();
+            final int extensionIndex = fileName.lastIndexOf( '.' );
+            final String baseName = ( extensionIndex > 0 )
+                ? fileName.substring( 0, extensionIndex )
+                : fileName;
+            final Path directory = ( outputDirectory != null )
+                ? outputDirectory
+                : dxfFile.toAbsolutePath().getParent();
+            final ExportOptions options = new ExportOptions( baseName,
+                                                             null,
+                                                             Paper.NA_LETTER.getWidth(),
+                                                             Paper.NA_LETTER.getHeight(),
+                                                             ColorMode.RGB,
+                                                             useVectorizedText,
+                                                             false,
+                                                             useStreaming );
+            for ( final ExportFormat format : formats ) {
+                jobs.add( ExportJob.forDxf( () -> loaderFactory.load( dxfFile ),
+                                            format,
+                                            directory.resolve( baseName + "."
+                                                    + format.getFileExtension() ),
+                                            options ) );
+            }
+        }
+
+        try {
+            HeadlessFxPlatform.start();
+        }
+        catch ( final IllegalStateException ise ) {
+            err.println( ise.getMessage() + ": " + ise.getCause() );
+            return EXIT_FAILURE;
+        }
+        try {
+            final BatchExporter batchExporter =
+                                              new BatchExporter( jobCount,
+                                                                 ( long ) ( Runtime.getRuntime()
+                                                                         .maxMemory() * 0.25d ) );
+            final BatchResult batchResult = batchExporter
+                    .exportAll( jobs, ( jobResult, jobsFinished, jobsTotal ) -> {
+                        if ( !jobResult.isSucceeded() ) {
+                            err.println( "[" + jobsFinished + "/" + jobsTotal + "] "
+                                    + jobResult.getJob().getDestination() + ": "
+                                    + jobResult.getFailure() );
+                        }
+                    } );
+
+            printSummary( batchResult, out );
+            return batchResult.getFailures().isEmpty() ? EXIT_SUCCESS : EXIT_FAILURE;
+        }
+        finally {
+            HeadlessFxPlatform.exit();
+        }
+    }
+
+    /**
+     * Returns the argument that follows an option.
+     *
+     * @param args
+     *            The command-line arguments
+     * @param index
+     *            The index of the argument to return
+     * @param option
+     *            The option that the argument belongs to
+     * @return The argument that follows the option
+     */
+    private static String nextArgument( final String[] args, final int index, final String option ) {
+        if ( index >= args.length ) {
+            throw new IllegalArgumentException( "Missing value for " + option ); //$NON-NLS-1$
+        }
+        return args[ index ];
+    }
+
+    /**
+     * Returns the DXF Loader factory with the provided class name, or the
+     * first one found via {@link ServiceLoader} if no name is provided.
+     *
+     * @param loaderClassName
+     *            The class name of the factory ({@code null} permitted)
+     * @return The DXF Loader factory
+     * @throws ReflectiveOperationException
+     *             If the named factory could not be instantiated
+     */
+    @SuppressWarnings("nls")
+    private static DxfLoaderFactory getLoaderFactory( final String loaderClassName )
+            throws ReflectiveOperationException {
+        if ( loaderClassName != null ) {
+            return Class.forName( loaderClassName )
+                    .asSubclass( DxfLoaderFactory.class )
+                    .getConstructor()
+                    .newInstance();
+        }
+
+        final Iterator< DxfLoaderFactory > loaderFactories = ServiceLoader
+                .load( DxfLoaderFactory.class ).iterator();
+        if ( !loaderFactories.hasNext() ) {
+            throw new IllegalStateException( "No DxfLoaderFactory found; use --loader" );
+        }
+        return loaderFactories.next();
+    }
+
+    /**
+     * Expands an input into the DXF files it stands for: a manifest is read
+     * line by line, a glob pattern is matched against the file tree under its
+     * longest literal prefix, and anything else is taken as a file name.
+     *
+     * @param input
+     *            The input, as given on the command line or in a manifest
+     * @param baseDirectory
+     *            The directory that relative inputs are resolved against
+     * @param dxfFiles
+     *            The set to add the DXF files to, as absolute paths so that
+     *            a file matched by several inputs is only converted once
+     * @throws IOException
+     *             If a manifest or directory could not be read
+     */
+    @SuppressWarnings("nls")
+    private static void expandInput( final String input,
+                                     final Path baseDirectory,
+                                     final Set< Path > dxfFiles )
+            throws IOException {
+        if ( input.startsWith( "@" ) ) {
+            final Path manifest = baseDirectory.resolve( input.substring( 1 ) );
+            final Path manifestDirectory = manifest.toAbsolutePath().getParent();
+            for ( final String line : Files.readAllLines( manifest, StandardCharsets.UTF_8 ) ) {
+                final String entry = line.trim();
+                if ( !entry.isEmpty() && !entry.startsWith( "#" ) ) {
+                    expandInput( entry, manifestDirectory, dxfFiles );
+                }
+            }
+            return;
+        }
+
+        // Split the pattern at the first path segment with a glob character.
+        final String pattern = input.replace( '\\', '/' );
+        final int globIndex = indexOfGlob( pattern );
+        if ( globIndex < 0 ) {
+            dxfFiles.add( baseDirectory.resolve( input ).toAbsolutePath().normalize() );
+            return;
+        }
+
+        final int rootEnd = pattern.lastIndexOf( '/', globIndex );
+        final Path root = baseDirectory
+                .resolve( ( rootEnd < 0 ) ? "" : pattern.substring( 0, Math.max( rootEnd, 1 ) ) );
+        final String relativePattern = pattern.substring( rootEnd + 1 );
+        final PathMatcher matcher = FileSystems.getDefault()
+                .getPathMatcher( "glob:" + relativePattern );
+        final int maxDepth = relativePattern.contains( "**" )
+            ? Integer.MAX_VALUE
+            : relativePattern.split( "/" ).length;
+        try ( final Stream< Path > paths = Files.walk( root, maxDepth ) ) {
+            dxfFiles.addAll( paths.filter( Files::isRegularFile )
+                    .filter( path -> matcher.matches( root.relativize( path ) ) )
+                    .map( path -> path.toAbsolutePath().normalize() )
+                    .sorted()
+                    .collect( Collectors.toList() ) );
+        }
+    }
+
+    /**
+     * Returns the index of the first glob character in a pattern.
+     *
+     * @param pattern
+     *            The pattern to search
+     * @return The index of the first glob character, or -1 if there is none
+     */
+    private static int indexOfGlob( final String pattern ) {
+        for ( int i = 0; i < pattern.length(); i++ ) {
+            switch ( pattern.charAt( i ) ) {
+            case '*':
+            case '?':
+            case '[':
+            case '{':
+                return i;
+            default:
+                break;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Prints one line per document with its timings, then the totals.
+     *
+     * @param batchResult
+     *            The outcome of the batch
+     * @param out
+     *            The stream for the summary
+     */
+    @SuppressWarnings("nls")
+    private static void printSummary( final BatchResult batchResult, final PrintStream out ) {
+        out.printf( "%-48s %9s %9s %9s %12s  %s%n",
+                    "Document",
+                    "capture",
+                    "render",
+                    "write",
+                    "bytes",
+                    "status" );
+        for ( final ExportJobResult jobResult : batchResult.getJobResults() ) {
+            final String document = jobResult.getJob().getDestination().toString();
+            if ( jobResult.isSucceeded() ) {
+                final ExportResult exportResult = jobResult.getExportResult();
+                out.printf( "%-48s %6d ms %6d ms %6d ms %12d  ok%n",
+                            document,
+                            exportResult.getCaptureNanos() / 1000000L,
+                            exportResult.getRenderNanos() / 1000000L,
+                            exportResult.getWriteNanos() / 1000000L,
+                            exportResult.getBytesWritten() );
+            }
+            else {
+                out.printf( "%-48s %9s %9s %9s %12s  failed: %s%n",
+                            document,
+                            "-",
+                            "-",
+                            "-",
+                            "-",
+                            jobResult.getFailure() );
+            }
+        }
+        out.println( batchResult );
+    }
+
+}
@@ -0,0 +1,147 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxConverter Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxConverter Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxconverter
+ */
+package com.mhschmieder.fxvectorexport.cli;
+
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.stage.Stage;
+
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * {@code HeadlessFxPlatform} starts the JavaFX Platform without showing any
+ * Stage, so that Scene Graph Nodes (and the fonts that text Nodes need) can be
+ * created by command-line tools.
+ * <p>
+ * Unless the caller has already chosen otherwise via system properties, the
+ * Monocle headless Glass platform and the software Prism pipeline are
+ * selected, so that no display is needed; Monocle must then be on the class
+ * path. On a desktop, set {@code glass.platform} to the native platform to
+ * skip Monocle.
+ * <p>
+ * {@code Application.launch()} is used rather than {@code Platform.startup()},
+ * as the latter doesn't exist in JavaFX 8.
+ *
+ * @version 1.0
+ *
+ * @author Mark Schmieder
+ */
+public final class HeadlessFxPlatform {
+
+    /**
+     * The latch that is released once the JavaFX Platform has started, or
+     * failed to start.
+     */
+    private static final CountDownLatch STARTED = new CountDownLatch( 1 );
+
+    /**
+     * The reason the JavaFX Platform failed to start, if it did.
+     */
+    private static volatile Throwable   startFailure;
+
+    /**
+     * The default constructor is disabled, as this is a static utilities class.
+     */
+    private HeadlessFxPlatform() {}
+
+    /**
+     * Starts the JavaFX Platform, and waits until it is running. The platform
+     * is kept alive until {@link #exit()} is called, even though no Stage is
+     * ever shown.
+     *
+     * @throws IllegalStateException
+     *             If the JavaFX Platform could not be started
+     * @throws InterruptedException
+     *             If the calling thread is interrupted while waiting
+     */
+    @SuppressWarnings("nls")
+    public static void start() throws InterruptedException {
+        setDefaultProperty( "glass.platform", "Monocle" );
+        setDefaultProperty( "monocle.platform", "Headless" );
+        setDefaultProperty( "prism.order", "sw" );
+        setDefaultProperty( "java.awt.headless", "true" );
+
+        final Thread launcherThread = new Thread( () -> {
+            try {
+                Application.launch( LauncherApplication.class );
+            }
+            catch ( final Throwable t ) {
+                startFailure = t;
+                STARTED.countDown();
+            }
+        }, "fx-launcher" );
+        launcherThread.setDaemon( true );
+        launcherThread.start();
+
+        STARTED.await();
+        if ( startFailure != null ) {
+            throw new IllegalStateException( "The JavaFX Platform could not be started", startFailure );
+        }
+    }
+
+    /**
+     * Shuts the JavaFX Platform down.
+     */
+    public static void exit() {
+        Platform.exit();
+    }
+
+    /**
+     * Sets a system property, unless it was already set on the command line.
+     *
+     * @param key
+     *            The name of the system property
+     * @param value
+     *            The value to set
+     */
+    private static void setDefaultProperty( final String key, final String value ) {
+        if ( System.getProperty( key ) == null ) {
+            System.setProperty( key, value );
+        }
+    }
+
+    /**
+     * {@code LauncherApplication} is the minimal Application that the JavaFX
+     * Platform needs in order to start; it never shows its Stage. It has to be
+     * public, for the launcher to be able to instantiate it.
+     */
+    public static final class LauncherApplication extends Application {
+
+        @Override
+        public void start( final Stage primaryStage ) {
+            // Keep the platform running even though no window is ever open.
+            Platform.setImplicitExit( false );
+            STARTED.countDown();
+        }
+
+    }
+
+}
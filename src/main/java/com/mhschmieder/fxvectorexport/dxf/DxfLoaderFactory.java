@@ -0,0 +1,64 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxConverter Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxConverter Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxconverter
+ */
+package com.mhschmieder.fxvectorexport.dxf;
+
+import com.mhschmieder.fxdxfparser.reader.DxfLoader;
+
+import java.nio.file.Path;
+
+/**
+ * {@code DxfLoaderFactory} reads and parses a DXF file into a populated
+ * {@link DxfLoader}, ready for {@link DxfConverterUtilities#convertToFxShapes}.
+ * <p>
+ * How a DXF file is read (character set, error recovery, which entities to
+ * keep) is application specific, so the headless converter finds the
+ * implementation to use via {@link java.util.ServiceLoader}, or by class name.
+ * Implementations must be thread-safe, as files are loaded in parallel.
+ *
+ * @version 1.0
+ *
+ * @author Mark Schmieder
+ */
+@FunctionalInterface
+public interface DxfLoaderFactory {
+
+    /**
+     * Reads and parses the provided DXF file.
+     *
+     * @param dxfFile
+     *            The {@link Path} of the DXF file to read
+     * @return A {@link DxfLoader} populated with the parsed DXF entities
+     * @throws Exception
+     *             If the DXF file could not be read or parsed
+     */
+    DxfLoader load( final Path dxfFile ) throws Exception;
+
+}
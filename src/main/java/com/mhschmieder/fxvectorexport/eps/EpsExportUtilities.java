@@ -30,20 +30,30 @@
  */
 package com.mhschmieder.fxvectorexport.eps;
 
+import com.mhschmieder.fxvectorexport.ExportMonitor;
+import com.mhschmieder.fxvectorexport.FileChannelOutputStream;
+import com.mhschmieder.fxvectorexport.Utf8Writer;
+import com.mhschmieder.fxvectorexport.capture.SceneSnapshot;
 import com.mhschmieder.jepswriter.EpsDocument;
 import com.mhschmieder.jepswriter.graphics.EpsGraphics2D;
 import com.mhschmieder.jepswriter.graphics.EpsRenderingHints;
+import com.mhschmieder.jgraphics.GraphicsUtilities;
 import com.mhschmieder.jgraphics.color.ColorMode;
 import javafx.geometry.Bounds;
 import javafx.print.Paper;
 import javafx.scene.Node;
 import org.jfxconverter.JFXConverter;
 
-import java.io.BufferedWriter;
+import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
 import java.io.File;
-import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
 import java.io.Writer;
+import java.nio.file.Path;
+import java.util.function.Consumer;
 
 /**
  * {@code EpsExportUtilities} is a utility class for methods that export a
@@ -133,7 +143,6 @@ public final class EpsExportUtilities {
      *
      * @since 1.0
      */
-    @SuppressWarnings("nls")
     public static boolean createDocument( final File file,
                                           final Node node,
                                           final String title,
@@ -142,28 +151,300 @@ public final class EpsExportUtilities {
                                           final double pageHeight,
                                           final ColorMode colorMode,
                                           final boolean useVectorizedText ) {
+        return createDocument( file.toPath(),
+                               node.getBoundsInParent(),
+                               epsGraphics -> new JFXConverter().convert( epsGraphics, node ),
+                               title,
+                               creator,
+                               pageWidth,
+                               pageHeight,
+                               colorMode,
+                               useVectorizedText,
+                               false );
+    }
+
+    /**
+     * Creates the EPS Document corresponding to the {@link Node}, and writes it
+     * to the provided {@link File}, optionally streaming the PostScript to it as it
+     * is drawn rather than building the whole EPS Document in memory first.
+     * <p>
+     * Streaming brings the peak memory use down from the size of the document
+     * to the size of the output buffer, which matters for multi-hundred
+     * megabyte PostScript output. The bounding box is known from the bounds of
+     * the Node before anything is drawn, so the header is still written first.
+     *
+     * @param file
+     *            The {@link File} destination for writing the EPS content
+     * @param node
+     *            The {@link Node} to convert to AWT and then export to EPS
+     * @param title
+     *            The {@link String} to use as the EPS Document's title
+     * @param creator
+     *            The {@link String} to use as the EPS Document's creator
+     * @param pageWidth
+     *            The target page width, always in points (1/72 inch)
+     * @param pageHeight
+     *            The target page height, always in points (1/72 inch)
+     * @param colorMode
+     *            The {@link ColorMode} to use, compatible with EPS specs
+     * @param useVectorizedText
+     *            Set to {@code true} if Vectorized Text Mode is desired;
+     *            {@code false} otherwise (that is, if text is to be rendered as
+     *            strings, sometimes referred to as Basic Text Mode)
+     * @param useStreaming
+     *            Set to {@code true} to write the EPS content as it is drawn
+     * @return The status of whether EPS Document creation succeeded or not
+     *
+     * @since 1.0
+     */
+    public static boolean createDocument( final File file,
+                                          final Node node,
+                                          final String title,
+                                          final String creator,
+                                          final double pageWidth,
+                                          final double pageHeight,
+                                          final ColorMode colorMode,
+                                          final boolean useVectorizedText,
+                                          final boolean useStreaming ) {
+        return createDocument( file.toPath(),
+                               node.getBoundsInParent(),
+                               epsGraphics -> new JFXConverter().convert( epsGraphics, node ),
+                               title,
+                               creator,
+                               pageWidth,
+                               pageHeight,
+                               colorMode,
+                               useVectorizedText,
+                               useStreaming );
+    }
+
+    /**
+     * Creates the EPS Document corresponding to a previously captured
+     * {@link SceneSnapshot}, and writes it to the provided {@link File}, using
+     * UTF-8 encoding due to the need to handle locale sensitive characters for
+     * the EPS Title and content.
+     * <p>
+     * As the snapshot holds no reference to the live Scene Graph, this can be
+     * invoked from a background thread so that the JavaFX Application Thread
+     * is only blocked for the duration of the capture.
+     *
+     * @param file
+     *            The {@link File} destination for writing the EPS content
+     * @param snapshot
+     *            The {@link SceneSnapshot} to replay and then export to EPS
+     * @param title
+     *            The {@link String} to use as the EPS Document's title
+     * @param creator
+     *            The {@link String} to use as the EPS Document's creator
+     * @param pageWidth
+     *            The target page width, in points (1/72 inch)
+     * @param pageHeight
+     *            The target page height, in points (1/72 inch)
+     * @param colorMode
+     *            The {@link ColorMode} to use, compatible with EPS specs
+     * @param useVectorizedText
+     *            Set to {@code true} if Vectorized Text Mode is desired;
+     *            {@code false} otherwise (that is, if text is to be rendered as
+     *            strings, sometimes referred to as Basic Text Mode)
+     * @return The status of whether EPS Document creation succeeded or not
+     *
+     * @since 1.0
+     */
+    public static boolean createDocument( final File file,
+                                          final SceneSnapshot snapshot,
+                                          final String title,
+                                          final String creator,
+                                          final double pageWidth,
+                                          final double pageHeight,
+                                          final ColorMode colorMode,
+                                          final boolean useVectorizedText ) {
+        return createDocument( file.toPath(),
+                               snapshot.getBounds(),
+                               snapshot::replay,
+                               title,
+                               creator,
+                               pageWidth,
+                               pageHeight,
+                               colorMode,
+                               useVectorizedText,
+                               false );
+    }
+
+    /**
+     * Creates the EPS Document corresponding to the {@link Node}, and writes it
+     * to the provided {@link Path}, using UTF-8 encoding due to the need to
+     * handle locale sensitive characters for the EPS Title and content.
+     * <p>
+     * The EPS content goes through a {@link java.nio.channels.FileChannel} to
+     * a temporary file, which replaces the target file only once the EPS
+     * Document is complete, so that a failed export leaves any previous
+     * version of the file intact.
+     *
+     * @param path
+     *            The {@link Path} destination for writing the EPS content
+     * @param node
+     *            The {@link Node} to convert to AWT and then export to EPS
+     * @param title
+     *            The {@link String} to use as the EPS Document's title
+     * @param creator
+     *            The {@link String} to use as the EPS Document's creator
+     * @param pageWidth
+     *            The target page width, always in points (1/72 inch)
+     * @param pageHeight
+     *            The target page height, always in points (1/72 inch)
+     * @param colorMode
+     *            The {@link ColorMode} to use, compatible with EPS specs
+     * @param useVectorizedText
+     *            Set to {@code true} if Vectorized Text Mode is desired;
+     *            {@code false} otherwise (that is, if text is to be rendered as
+     *            strings, sometimes referred to as Basic Text Mode)
+     * @param useStreaming
+     *            Set to {@code true} to write the EPS content as it is drawn
+     * @return The status of whether EPS Document creation succeeded or not
+     *
+     * @since 1.0
+     */
+    public static boolean createDocument( final Path path,
+                                          final Node node,
+                                          final String title,
+                                          final String creator,
+                                          final double pageWidth,
+                                          final double pageHeight,
+                                          final ColorMode colorMode,
+                                          final boolean useVectorizedText,
+                                          final boolean useStreaming ) {
+        return createDocument( path,
+                               node.getBoundsInParent(),
+                               epsGraphics -> new JFXConverter().convert( epsGraphics, node ),
+                               title,
+                               creator,
+                               pageWidth,
+                               pageHeight,
+                               colorMode,
+                               useVectorizedText,
+                               useStreaming );
+    }
+
+    /**
+     * Creates the EPS Document corresponding to a previously captured
+     * {@link SceneSnapshot}, and writes it to the provided {@link Path}, using
+     * UTF-8 encoding due to the need to handle locale sensitive characters for
+     * the EPS Title and content.
+     * <p>
+     * The EPS content goes through a {@link java.nio.channels.FileChannel} to
+     * a temporary file, which replaces the target file only once the EPS
+     * Document is complete, so that a failed export leaves any previous
+     * version of the file intact.
+     *
+     * @param path
+     *            The {@link Path} destination for writing the EPS content
+     * @param snapshot
+     *            The {@link SceneSnapshot} to replay and then export to EPS
+     * @param title
+     *            The {@link String} to use as the EPS Document's title
+     * @param creator
+     *            The {@link String} to use as the EPS Document's creator
+     * @param pageWidth
+     *            The target page width, always in points (1/72 inch)
+     * @param pageHeight
+     *            The target page height, always in points (1/72 inch)
+     * @param colorMode
+     *            The {@link ColorMode} to use, compatible with EPS specs
+     * @param useVectorizedText
+     *            Set to {@code true} if Vectorized Text Mode is desired;
+     *            {@code false} otherwise (that is, if text is to be rendered as
+     *            strings, sometimes referred to as Basic Text Mode)
+     * @param useStreaming
+     *            Set to {@code true} to write the EPS content as it is drawn
+     * @return The status of whether EPS Document creation succeeded or not
+     *
+     * @since 1.0
+     */
+    public static boolean createDocument( final Path path,
+                                          final SceneSnapshot snapshot,
+                                          final String title,
+                                          final String creator,
+                                          final double pageWidth,
+                                          final double pageHeight,
+                                          final ColorMode colorMode,
+                                          final boolean useVectorizedText,
+                                          final boolean useStreaming ) {
+        return createDocument( path,
+                               snapshot.getBounds(),
+                               snapshot::replay,
+                               title,
+                               creator,
+                               pageWidth,
+                               pageHeight,
+                               colorMode,
+                               useVectorizedText,
+                               useStreaming );
+    }
+
+    /**
+     * Creates the EPS Document whose content is painted by the provided
+     * painter, and writes it to the provided {@link Path} using UTF-8.
+     *
+     * @param path
+     *            The {@link Path} destination for writing the EPS content
+     * @param bounds
+     *            The bounds of the content, with all transforms applied
+     * @param painter
+     *            The painter that issues the AWT calls for the content
+     * @param title
+     *            The {@link String} to use as the EPS Document's title
+     * @param creator
+     *            The {@link String} to use as the EPS Document's creator
+     * @param pageWidth
+     *            The target page width, in points (1/72 inch)
+     * @param pageHeight
+     *            The target page height, in points (1/72 inch)
+     * @param colorMode
+     *            The {@link ColorMode} to use, compatible with EPS specs
+     * @param useVectorizedText
+     *            Set to {@code true} if Vectorized Text Mode is desired
+     * @param useStreaming
+     *            Set to {@code true} to stream the EPS content as it is drawn
+     * @return The status of whether EPS Document creation succeeded or not
+     */
+    private static boolean createDocument( final Path path,
+                                           final Bounds bounds,
+                                           final Consumer< Graphics2D > painter,
+                                           final String title,
+                                           final String creator,
+                                           final double pageWidth,
+                                           final double pageHeight,
+                                           final ColorMode colorMode,
+                                           final boolean useVectorizedText,
+                                           final boolean useStreaming ) {
         boolean fileSaved = false;
 
-        // Using a safe try-with-resources clause, chain a BufferedWriter to an
-        // OutputStreamWriter to a FileOutputStream using UTF-8, for better
-        // performance and to guarantee platform-independence of newlines and
-        // overall system-neutrality and locale-sensitivity of text data. As EPS
-        // does not support UTF-16, which is the default character set for Java,
-        // we must use {@link OutputStreamWriter} instead of {@link FileWriter}.
-        try ( final FileOutputStream fileOutputStream = new FileOutputStream( file );
-                final OutputStreamWriter outputStreamWriter =
-                                                            new OutputStreamWriter( fileOutputStream,
-                                                                                    "UTF-8" );
-                final BufferedWriter bufferedWriter = new BufferedWriter( outputStreamWriter ) ) {
-            // Write the EPS contents indirectly via JFXConverter.
-            fileSaved = createDocument( bufferedWriter,
-                                        node,
-                                        title,
-                                        creator,
-                                        pageWidth,
-                                        pageHeight,
-                                        colorMode,
-                                        useVectorizedText );
+        // Using a safe try-with-resources clause, chain a UTF-8 Writer to a
+        // FileChannel based stream, for better performance and to guarantee
+        // platform-independence of newlines and overall system-neutrality and
+        // locale-sensitivity of text data. As EPS does not support UTF-16,
+        // which is the default character set for Java, we encode to UTF-8,
+        // with a fast path for the ASCII runs that make up nearly all of it.
+        try ( final FileChannelOutputStream fileChannelOutputStream =
+                                                                    new FileChannelOutputStream( path ) ) {
+            // Write the EPS contents indirectly via the painter.
+            final Utf8Writer utf8Writer = new Utf8Writer( fileChannelOutputStream );
+            writeDocument( utf8Writer,
+                           bounds,
+                           painter,
+                           title,
+                           creator,
+                           pageWidth,
+                           pageHeight,
+                           colorMode,
+                           useVectorizedText,
+                           useStreaming,
+                           new ExportMonitor() );
+            utf8Writer.flush();
+
+            // Only replace the target file once the document is complete.
+            fileChannelOutputStream.commit();
+            fileSaved = true;
         }
         catch ( final Exception e ) {
             e.printStackTrace();
@@ -207,14 +488,316 @@ public final class EpsExportUtilities {
                                           final double pageHeight,
                                           final ColorMode colorMode,
                                           final boolean useVectorizedText ) {
-        boolean fileSaved = false;
-
         // We need bounds in parent vs. bounds in local, so that all transforms
         // are applied and we don't get anomalies such as vertically clipped or
         // offset output (if for instance the Node corresponds to a Layout Pane
         // doesn't include the Tool Bar or the Menu Bar and thus has a non-zero
         // minX and/or minY, causing an unwanted gap at top of document).
-        final Bounds bounds = node.getBoundsInParent();
+        return createDocument( writer,
+                               node.getBoundsInParent(),
+                               epsGraphics -> new JFXConverter().convert( epsGraphics, node ),
+                               title,
+                               creator,
+                               pageWidth,
+                               pageHeight,
+                               colorMode,
+                               useVectorizedText,
+                               false );
+    }
+
+    /**
+     * Creates the EPS Document corresponding to the {@link Node}, and writes it
+     * to the provided {@link Writer}, optionally streaming the PostScript to it as it
+     * is drawn rather than building the whole EPS Document in memory first.
+     * <p>
+     * Streaming brings the peak memory use down from the size of the document
+     * to the size of the output buffer, which matters for multi-hundred
+     * megabyte PostScript output. The bounding box is known from the bounds of
+     * the Node before anything is drawn, so the header is still written first.
+     *
+     * @param writer
+     *            The wrapped {@link Writer} for channeling the EPS content
+     * @param node
+     *            The {@link Node} to convert to AWT and then export to EPS
+     * @param title
+     *            The {@link String} to use as the EPS Document's title
+     * @param creator
+     *            The {@link String} to use as the EPS Document's creator
+     * @param pageWidth
+     *            The target page width, always in points (1/72 inch)
+     * @param pageHeight
+     *            The target page height, always in points (1/72 inch)
+     * @param colorMode
+     *            The {@link ColorMode} to use, compatible with EPS specs
+     * @param useVectorizedText
+     *            Set to {@code true} if Vectorized Text Mode is desired;
+     *            {@code false} otherwise (that is, if text is to be rendered as
+     *            strings, sometimes referred to as Basic Text Mode)
+     * @param useStreaming
+     *            Set to {@code true} to write the EPS content as it is drawn
+     * @return The status of whether EPS Document creation succeeded or not
+     *
+     * @since 1.0
+     */
+    public static boolean createDocument( final Writer writer,
+                                          final Node node,
+                                          final String title,
+                                          final String creator,
+                                          final double pageWidth,
+                                          final double pageHeight,
+                                          final ColorMode colorMode,
+                                          final boolean useVectorizedText,
+                                          final boolean useStreaming ) {
+        return createDocument( writer,
+                               node.getBoundsInParent(),
+                               epsGraphics -> new JFXConverter().convert( epsGraphics, node ),
+                               title,
+                               creator,
+                               pageWidth,
+                               pageHeight,
+                               colorMode,
+                               useVectorizedText,
+                               useStreaming );
+    }
+
+    /**
+     * Creates the EPS Document corresponding to a previously captured
+     * {@link SceneSnapshot}, and writes it to the provided {@link Writer}
+     * (usually a Character Stream based {@link OutputStreamWriter} class) using
+     * EpsToolkit.
+     * <p>
+     * As the snapshot holds no reference to the live Scene Graph, this can be
+     * invoked from a background thread so that the JavaFX Application Thread
+     * is only blocked for the duration of the capture.
+     *
+     * @param writer
+     *            The wrapped {@link Writer} for channeling the EPS content
+     * @param snapshot
+     *            The {@link SceneSnapshot} to replay and then export to EPS
+     * @param title
+     *            The {@link String} to use as the EPS Document's title
+     * @param creator
+     *            The {@link String} to use as the EPS Document's creator
+     * @param pageWidth
+     *            The target page width, always in points (1/72 inch)
+     * @param pageHeight
+     *            The target page height, always in points (1/72 inch)
+     * @param colorMode
+     *            The {@link ColorMode} to use, compatible with EPS specs
+     * @param useVectorizedText
+     *            Set to {@code true} if Vectorized Text Mode is desired;
+     *            {@code false} otherwise (that is, if text is to be rendered as
+     *            strings, sometimes referred to as Basic Text Mode)
+     * @return The status of whether EPS Document creation succeeded or not
+     *
+     * @since 1.0
+     */
+    public static boolean createDocument( final Writer writer,
+                                          final SceneSnapshot snapshot,
+                                          final String title,
+                                          final String creator,
+                                          final double pageWidth,
+                                          final double pageHeight,
+                                          final ColorMode colorMode,
+                                          final boolean useVectorizedText ) {
+        return createDocument( writer,
+                               snapshot.getBounds(),
+                               snapshot::replay,
+                               title,
+                               creator,
+                               pageWidth,
+                               pageHeight,
+                               colorMode,
+                               useVectorizedText,
+                               false );
+    }
+
+    /**
+     * Creates the EPS Document corresponding to a previously captured
+     * {@link SceneSnapshot}, and writes it to the provided {@link OutputStream}
+     * using EpsToolkit, reporting progress to the provided monitor and stopping
+     * as soon as the monitor is cancelled.
+     * <p>
+     * Unlike the other methods, this one propagates errors to the caller, as it
+     * is meant for asynchronous clients that need to know why an export failed.
+     * The stream is flushed but not closed, as it is owned by the caller.
+     *
+     * @param outputStream
+     *            The {@link OutputStream} for channeling the EPS content
+     * @param snapshot
+     *            The {@link SceneSnapshot} to replay and then export to EPS
+     * @param title
+     *            The {@link String} to use as the EPS Document's title
+     * @param creator
+     *            The {@link String} to use as the EPS Document's creator
+     * @param pageWidth
+     *            The target page width, always in points (1/72 inch)
+     * @param pageHeight
+     *            The target page height, always in points (1/72 inch)
+     * @param colorMode
+     *            The {@link ColorMode} to use, compatible with EPS specs
+     * @param useVectorizedText
+     *            Set to {@code true} if Vectorized Text Mode is desired;
+     *            {@code false} otherwise (that is, if text is to be rendered as
+     *            strings, sometimes referred to as Basic Text Mode)
+     * @param useStreaming
+     *            Set to {@code true} to write the EPS content as it is drawn,
+     *            rather than building the whole EPS Document in memory first
+     * @param monitor
+     *            The {@link ExportMonitor} for progress, cancellation and
+     *            counting of the bytes written
+     * @throws IOException
+     *             If the EPS Document could not be written
+     * @throws com.mhschmieder.fxvectorexport.ExportCancelledException
+     *             If the monitor was cancelled during the export
+     *
+     * @since 1.0
+     */
+    public static void writeDocument( final OutputStream outputStream,
+                                      final SceneSnapshot snapshot,
+                                      final String title,
+                                      final String creator,
+                                      final double pageWidth,
+                                      final double pageHeight,
+                                      final ColorMode colorMode,
+                                      final boolean useVectorizedText,
+                                      final boolean useStreaming,
+                                      final ExportMonitor monitor )
+            throws IOException {
+        // Encode to UTF-8 with an ASCII fast path, on top of a monitored stream
+        // so that every buffer flushed to the caller's stream is counted and
+        // checked for cancellation.
+        final Utf8Writer utf8Writer = new Utf8Writer( monitor.monitor( outputStream ) );
+        writeDocument( utf8Writer,
+                       snapshot.getBounds(),
+                       epsGraphics -> snapshot.replay( epsGraphics, monitor ),
+                       title,
+                       creator,
+                       pageWidth,
+                       pageHeight,
+                       colorMode,
+                       useVectorizedText,
+                       useStreaming,
+                       monitor );
+        utf8Writer.flush();
+    }
+
+    /**
+     * Creates the EPS Document whose content is painted by the provided
+     * painter, and writes it to the provided {@link Writer} using EpsToolkit.
+     *
+     * @param writer
+     *            The wrapped {@link Writer} for channeling the EPS content
+     * @param bounds
+     *            The bounds of the content, with all transforms applied
+     * @param painter
+     *            The painter that issues the AWT calls for the content
+     * @param title
+     *            The {@link String} to use as the EPS Document's title
+     * @param creator
+     *            The {@link String} to use as the EPS Document's creator
+     * @param pageWidth
+     *            The target page width, always in points (1/72 inch)
+     * @param pageHeight
+     *            The target page height, always in points (1/72 inch)
+     * @param colorMode
+     *            The {@link ColorMode} to use, compatible with EPS specs
+     * @param useVectorizedText
+     *            Set to {@code true} if Vectorized Text Mode is desired
+     * @param useStreaming
+     *            Set to {@code true} to stream the EPS content as it is drawn
+     * @return The status of whether EPS Document creation succeeded or not
+     */
+    private static boolean createDocument( final Writer writer,
+                                           final Bounds bounds,
+                                           final Consumer< Graphics2D > painter,
+                                           final String title,
+                                           final String creator,
+                                           final double pageWidth,
+                                           final double pageHeight,
+                                           final ColorMode colorMode,
+                                           final boolean useVectorizedText,
+                                           final boolean useStreaming ) {
+        boolean fileSaved = false;
+
+        try {
+            writeDocument( writer,
+                           bounds,
+                           painter,
+                           title,
+                           creator,
+                           pageWidth,
+                           pageHeight,
+                           colorMode,
+                           useVectorizedText,
+                           useStreaming,
+                           new ExportMonitor() );
+
+            // If we got this far without exceptions, the file was saved.
+            fileSaved = true;
+        }
+        catch ( final Exception e ) {
+            e.printStackTrace();
+        }
+
+        return fileSaved;
+    }
+
+    /**
+     * Writes the EPS Document whose content is painted by the provided painter
+     * to the provided {@link Writer} using EpsToolkit, propagating any errors.
+     *
+     * @param writer
+     *            The wrapped {@link Writer} for channeling the EPS content
+     * @param bounds
+     *            The bounds of the content, with all transforms applied
+     * @param painter
+     *            The painter that issues the AWT calls for the content
+     * @param title
+     *            The {@link String} to use as the EPS Document's title
+     * @param creator
+     *            The {@link String} to use as the EPS Document's creator
+     * @param pageWidth
+     *            The target page width, always in points (1/72 inch)
+     * @param pageHeight
+     *            The target page height, always in points (1/72 inch)
+     * @param colorMode
+     *            The {@link ColorMode} to use, compatible with EPS specs
+     * @param useVectorizedText
+     *            Set to {@code true} if Vectorized Text Mode is desired
+     * @param useStreaming
+     *            Set to {@code true} to stream the EPS content as it is drawn
+     * @param monitor
+     *            The {@link ExportMonitor} that is told when rendering ends
+     * @throws IOException
+     *             If the EPS Document could not be written
+     */
+    private static void writeDocument( final Writer writer,
+                                       final Bounds bounds,
+                                       final Consumer< Graphics2D > painter,
+                                       final String title,
+                                       final String creator,
+                                       final double pageWidth,
+                                       final double pageHeight,
+                                       final ColorMode colorMode,
+                                       final boolean useVectorizedText,
+                                       final boolean useStreaming,
+                                       final ExportMonitor monitor )
+            throws IOException {
+        if ( useStreaming ) {
+            streamDocument( writer,
+                            bounds,
+                            painter,
+                            title,
+                            creator,
+                            pageWidth,
+                            pageHeight,
+                            colorMode,
+                            useVectorizedText,
+                            monitor );
+            return;
+        }
+
         final double minX = bounds.getMinX();
         final double minY = bounds.getMinY();
         final double maxX = bounds.getMaxX();
@@ -243,32 +826,96 @@ public final class EpsExportUtilities {
         epsGraphics.setRenderingHint( EpsRenderingHints.KEY_TEXT_RENDERING_MODE,
                                       textRenderingHint );
 
-        try {
-            // Write the EPS contents to memory indirectly via JFXConverter.
-            final JFXConverter converter = new JFXConverter();
-            converter.convert( epsGraphics, node );
-
-            // Get the full EPS Document (header, content, footer, etc.).
-            final String epsContent = epsDocument.getEpsDocument( title,
-                                                                  creator,
-                                                                  ( float ) pageWidth,
-                                                                  ( float ) pageHeight,
-                                                                  ( float ) minX,
-                                                                  ( float ) minY,
-                                                                  ( float ) maxX,
-                                                                  ( float ) maxY );
-
-            // Save the EPS Document from memory to disc.
-            writer.write( epsContent );
+        // Write the EPS contents to memory indirectly via the painter.
+        painter.accept( epsGraphics );
+        monitor.renderFinished();
 
-            // If we got this far without exceptions, the file was saved.
-            fileSaved = true;
+        // Get the full EPS Document (header, content, footer, etc.).
+        final String epsContent = epsDocument.getEpsDocument( title,
+                                                              creator,
+                                                              ( float ) pageWidth,
+                                                              ( float ) pageHeight,
+                                                              ( float ) minX,
+                                                              ( float ) minY,
+                                                              ( float ) maxX,
+                                                              ( float ) maxY );
+
+        // Save the EPS Document from memory to disc.
+        writer.write( epsContent );
+    }
+
+    /**
+     * Writes the EPS Document whose content is painted by the provided painter
+     * to the provided {@link Writer}, streaming the PostScript as it is drawn
+     * so that memory use stays bounded regardless of the size of the drawing.
+     *
+     * @param writer
+     *            The wrapped {@link Writer} for channeling the EPS content
+     * @param bounds
+     *            The bounds of the content, with all transforms applied
+     * @param painter
+     *            The painter that issues the AWT calls for the content
+     * @param title
+     *            The {@link String} to use as the EPS Document's title
+     * @param creator
+     *            The {@link String} to use as the EPS Document's creator
+     * @param pageWidth
+     *            The target page width, always in points (1/72 inch)
+     * @param pageHeight
+     *            The target page height, always in points (1/72 inch)
+     * @param colorMode
+     *            The {@link ColorMode} to use, compatible with EPS specs
+     * @param useVectorizedText
+     *            Set to {@code true} if Vectorized Text Mode is desired
+     * @param monitor
+     *            The {@link ExportMonitor} that is told when rendering ends
+     * @throws IOException
+     *             If the EPS Document could not be written
+     */
+    private static void streamDocument( final Writer writer,
+                                        final Bounds bounds,
+                                        final Consumer< Graphics2D > painter,
+                                        final String title,
+                                        final String creator,
+                                        final double pageWidth,
+                                        final double pageHeight,
+                                        final ColorMode colorMode,
+                                        final boolean useVectorizedText,
+                                        final ExportMonitor monitor )
+            throws IOException {
+        final StreamingEpsGraphics2D epsGraphics = new StreamingEpsGraphics2D( writer,
+                                                                               pageWidth,
+                                                                               pageHeight,
+                                                                               colorMode,
+                                                                               useVectorizedText );
+
+        // As the streaming Graphics Context flips the page itself, so that
+        // fonts are not upside-down, we can use the same global transform from
+        // source coordinates to page coordinates as for PDF and SVG.
+        GraphicsUtilities.applySourceToDestinationTransform( epsGraphics,
+                                                             bounds.getMinX(),
+                                                             bounds.getMinY(),
+                                                             bounds.getMaxX(),
+                                                             bounds.getMaxY(),
+                                                             pageWidth,
+                                                             pageHeight );
+
+        try {
+            // The bounding box is known before anything is drawn, so the header
+            // goes out first and the body follows as it is drawn.
+            epsGraphics.startDocument( title,
+                                       creator,
+                                       new Rectangle2D.Double( bounds.getMinX(),
+                                                               bounds.getMinY(),
+                                                               bounds.getWidth(),
+                                                               bounds.getHeight() ) );
+            painter.accept( epsGraphics );
+            monitor.renderFinished();
+            epsGraphics.endDocument();
         }
-        catch ( final Exception e ) {
-            e.printStackTrace();
+        catch ( final UncheckedIOException uioe ) {
+            throw uioe.getCause();
         }
-
-        return fileSaved;
     }
 
 }// class EpsExportUtilities
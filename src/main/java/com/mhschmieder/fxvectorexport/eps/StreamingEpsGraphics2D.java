@@ -0,0 +1,715 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxConverter Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxConverter Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxconverter
+ */
+package com.mhschmieder.fxvectorexport.eps;
+
+import com.mhschmieder.fxvectorexport.graphics.VectorGraphics2D;
+import com.mhschmieder.jgraphics.color.ColorMode;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.GradientPaint;
+import java.awt.Graphics;
+import java.awt.LinearGradientPaint;
+import java.awt.MultipleGradientPaint;
+import java.awt.Paint;
+import java.awt.RadialGradientPaint;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * {@code StreamingEpsGraphics2D} is a {@link java.awt.Graphics2D} that writes
+ * each drawing call to a {@link Writer} as PostScript as soon as it arrives,
+ * rather than building the whole EPS Document in memory first. The bounding
+ * box is computed from the content bounds before anything is drawn, so the
+ * DSC header can be written up front and peak memory is bounded by the largest
+ * single drawing call rather than by the size of the document.
+ * <p>
+ * The page is set up with a flipped y-axis so that PostScript coordinates match
+ * Java2D coordinates, and each drawing call is written with its own transform
+ * inside a {@code gsave}/{@code grestore} pair. Consecutive calls that share a
+ * clip also share one clipping {@code gsave} level.
+ * <p>
+ * I/O errors are thrown as {@link UncheckedIOException}, as the
+ * {@link java.awt.Graphics2D} API doesn't allow for checked exceptions.
+ *
+ * @version 1.0
+ *
+ * @author Mark Schmieder
+ */
+public final class StreamingEpsGraphics2D extends VectorGraphics2D {
+
+    /**
+     * The number of image samples written per line of hexadecimal image data.
+     */
+    private static final int HEX_SAMPLES_PER_LINE = 36;
+
+    /**
+     * The output state that is shared with all child Graphics Contexts.
+     */
+    private final EpsOutput  output;
+
+    /**
+     * Constructs a streaming EPS Graphics Context for a page of the given
+     * size, writing to the provided {@link Writer}.
+     *
+     * @param writer
+     *            The {@link Writer} for channeling the EPS content
+     * @param pageWidth
+     *            The page width, always in points (1/72 inch)
+     * @param pageHeight
+     *            The page height, always in points (1/72 inch)
+     * @param colorMode
+     *            The {@link ColorMode} to use, compatible with EPS specs
+     * @param useVectorizedText
+     *            Set to {@code true} if Vectorized Text Mode is desired;
+     *            {@code false} otherwise (that is, if text is to be rendered as
+     *            strings, sometimes referred to as Basic Text Mode)
+     */
+    public StreamingEpsGraphics2D( final Writer writer,
+                                   final double pageWidth,
+                                   final double pageHeight,
+                                   final ColorMode colorMode,
+                                   final boolean useVectorizedText ) {
+        super( useVectorizedText );
+
+        output = new EpsOutput( writer, pageHeight, colorMode );
+    }
+
+    /**
+     * Constructs a child Graphics Context that shares the parent's output.
+     *
+     * @param parent
+     *            The Graphics Context to copy the state from
+     */
+    private StreamingEpsGraphics2D( final StreamingEpsGraphics2D parent ) {
+        super( parent );
+
+        output = parent.output;
+    }
+
+    /**
+     * Writes the DSC header, the prolog and the page setup. This must be called
+     * before any drawing is done, and after the global transform has been set,
+     * as the bounding box is the content bounds mapped through that transform.
+     *
+     * @param title
+     *            The {@link String} to use as the EPS Document's title
+     * @param creator
+     *            The {@link String} to use as the EPS Document's creator
+     * @param contentBounds
+     *            The bounds of the content, in user space
+     */
+    @SuppressWarnings("nls")
+    public void startDocument( final String title,
+                               final String creator,
+                               final Rectangle2D contentBounds ) {
+        // Map the content bounds to the page, then flip them to PostScript's
+        // bottom-up coordinates.
+        final Rectangle2D pageBounds = getTransform().createTransformedShape( contentBounds )
+                .getBounds2D();
+        final double lowerLeftX = pageBounds.getMinX();
+        final double lowerLeftY = output.pageHeight - pageBounds.getMaxY();
+        final double upperRightX = pageBounds.getMaxX();
+        final double upperRightY = output.pageHeight - pageBounds.getMinY();
+
+        final StringBuilder header = output.element;
+        header.setLength( 0 );
+        header.append( "%!PS-Adobe-3.0 EPSF-3.0\n" );
+        header.append( "%%BoundingBox: " ).append( ( long ) Math.floor( lowerLeftX ) ).append( ' ' )
+                .append( ( long ) Math.floor( lowerLeftY ) ).append( ' ' )
+                .append( ( long ) Math.ceil( upperRightX ) ).append( ' ' )
+                .append( ( long ) Math.ceil( upperRightY ) ).append( '\n' );
+        header.append( "%%HiResBoundingBox: " );
+        appendNumber( header, lowerLeftX );
+        header.append( ' ' );
+        appendNumber( header, lowerLeftY );
+        header.append( ' ' );
+        appendNumber( header, upperRightX );
+        header.append( ' ' );
+        appendNumber( header, upperRightY );
+        header.append( '\n' );
+        if ( title != null ) {
+            header.append( "%%Title: " ).append( toDscText( title ) ).append( '\n' );
+        }
+        if ( creator != null ) {
+            header.append( "%%Creator: " ).append( toDscText( creator ) ).append( '\n' );
+        }
+        header.append( "%%CreationDate: " )
+                .append( new SimpleDateFormat( "yyyy-MM-dd HH:mm:ss" ).format( new Date() ) )
+                .append( '\n' );
+        header.append( "%%LanguageLevel: 3\n" );
+        header.append( "%%EndComments\n" );
+        header.append( "%%BeginProlog\n" );
+        header.append( "/m {moveto} bind def\n" );
+        header.append( "/l {lineto} bind def\n" );
+        header.append( "/c {curveto} bind def\n" );
+        header.append( "/h {closepath} bind def\n" );
+        header.append( "/q {gsave} bind def\n" );
+        header.append( "/Q {grestore} bind def\n" );
+        header.append( "/cm {concat} bind def\n" );
+        header.append( "%%EndProlog\n" );
+        header.append( "%%Page: 1 1\n" );
+
+        // Flip the y-axis so that PostScript coordinates match Java2D's.
+        header.append( "0 " );
+        appendNumber( header, output.pageHeight );
+        header.append( " translate 1 -1 scale\n" );
+        output.write( header );
+    }
+
+    /**
+     * Closes any open clipping level, writes the trailer, and flushes the
+     * {@link Writer}. Nothing may be drawn after this is called.
+     */
+    @SuppressWarnings("nls")
+    public void endDocument() {
+        output.closeClip();
+        output.write( "showpage\n%%Trailer\n%%EOF\n" );
+        try {
+            output.writer.flush();
+        }
+        catch ( final IOException ioe ) {
+            throw new UncheckedIOException( ioe );
+        }
+    }
+
+    @Override
+    public Graphics create() {
+        return new StreamingEpsGraphics2D( this );
+    }
+
+    @SuppressWarnings("nls")
+    @Override
+    protected void writeShape( final Shape shape, final boolean fill ) {
+        final Paint paint = getPaint();
+
+        final StringBuilder element = output.element;
+        element.setLength( 0 );
+        element.append( "q\n" );
+        appendTransform( element, getTransform() );
+        final int windingRule = appendPath( element, shape );
+
+        if ( fill && ( ( paint instanceof GradientPaint )
+                || ( paint instanceof LinearGradientPaint )
+                || ( paint instanceof RadialGradientPaint ) ) ) {
+            // Gradients are drawn as a smooth shading through the shape.
+            element.append( ( windingRule == PathIterator.WIND_EVEN_ODD ) ? "eoclip\n" : "clip\n" );
+            appendShading( element, paint );
+        }
+        else {
+            appendColor( element, ( paint instanceof Color ) ? ( Color ) paint : getColor() );
+            if ( fill ) {
+                element.append( ( windingRule == PathIterator.WIND_EVEN_ODD ) ? "eofill\n" : "fill\n" );
+            }
+            else {
+                appendStroke( element, ( BasicStroke ) getStroke() );
+                element.append( "stroke\n" );
+            }
+        }
+
+        element.append( "Q\n" );
+        output.writeElement( getDeviceClip(), element );
+    }
+
+    @SuppressWarnings("nls")
+    @Override
+    protected void writeImage( final BufferedImage image, final AffineTransform imageTransform ) {
+        final int width = image.getWidth();
+        final int height = image.getHeight();
+
+        final AffineTransform transform = getTransform();
+        transform.concatenate( imageTransform );
+
+        final StringBuilder element = output.element;
+        element.setLength( 0 );
+        element.append( "q\n" );
+        appendTransform( element, transform );
+        element.append( width ).append( ' ' ).append( height ).append( " scale\n" );
+        element.append( width ).append( ' ' ).append( height ).append( " 8 [" ).append( width )
+                .append( " 0 0 " ).append( height ).append( " 0 0]\n" );
+        element.append( "currentfile /ASCIIHexDecode filter false 3 colorimage\n" );
+        output.writeElement( getDeviceClip(), element );
+
+        // Stream the samples a row at a time, blending any transparency with
+        // white as PostScript has no notion of alpha.
+        final int[] row = new int[ width ];
+        final StringBuilder hexLine = new StringBuilder( ( HEX_SAMPLES_PER_LINE * 6 ) + 1 );
+        int samplesOnLine = 0;
+        for ( int y = 0; y < height; y++ ) {
+            image.getRGB( 0, y, width, 1, row, 0, width );
+            for ( int x = 0; x < width; x++ ) {
+                final int argb = row[ x ];
+                final int alpha = ( argb >>> 24 ) & 0xff;
+                appendHexSample( hexLine, ( argb >> 16 ) & 0xff, alpha );
+                appendHexSample( hexLine, ( argb >> 8 ) & 0xff, alpha );
+                appendHexSample( hexLine, argb & 0xff, alpha );
+                if ( ++samplesOnLine == HEX_SAMPLES_PER_LINE ) {
+                    hexLine.append( '\n' );
+                    output.write( hexLine );
+                    hexLine.setLength( 0 );
+                    samplesOnLine = 0;
+                }
+            }
+        }
+        hexLine.append( ">\nQ\n" );
+        output.write( hexLine );
+    }
+
+    @SuppressWarnings("nls")
+    @Override
+    protected void writeString( final String text, final float x, final float y ) {
+        final Font font = getFont();
+
+        final StringBuilder element = output.element;
+        element.setLength( 0 );
+        element.append( "q\n" );
+        appendTransform( element, getTransform() );
+        appendColor( element, getColor() );
+        element.append( '/' ).append( getStandardFontName( font ) ).append( " findfont " );
+        appendNumber( element, font.getSize2D() );
+        element.append( " scalefont setfont\n" );
+        appendNumber( element, x );
+        element.append( ' ' );
+        appendNumber( element, y );
+
+        // Undo the page flip locally, or the glyphs would be upside-down.
+        element.append( " m 1 -1 scale (" );
+        for ( int i = 0, n = text.length(); i < n; i++ ) {
+            final char c = text.charAt( i );
+            if ( ( c == '(' ) || ( c == ')' ) || ( c == '\\' ) ) {
+                element.append( '\\' ).append( c );
+            }
+            else if ( ( c < 32 ) || ( c > 126 ) ) {
+                // Non-ASCII characters are written as Latin-1 octal escapes.
+                final int code = ( c <= 255 ) ? c : '?';
+                element.append( '\\' ).append( ( char ) ( '0' + ( ( code >> 6 ) & 7 ) ) )
+                        .append( ( char ) ( '0' + ( ( code >> 3 ) & 7 ) ) )
+                        .append( ( char ) ( '0' + ( code & 7 ) ) );
+            }
+            else {
+                element.append( c );
+            }
+        }
+        element.append( ") show\nQ\n" );
+        output.writeElement( getDeviceClip(), element );
+    }
+
+    /**
+     * Appends a {@code concat} of the given transform, unless it is the
+     * identity.
+     *
+     * @param buffer
+     *            The buffer to append the operator to
+     * @param transform
+     *            The transform to append
+     */
+    @SuppressWarnings("nls")
+    private static void appendTransform( final StringBuilder buffer,
+                                         final AffineTransform transform ) {
+        if ( transform.isIdentity() ) {
+            return;
+        }
+
+        buffer.append( '[' );
+        appendNumber( buffer, transform.getScaleX() );
+        buffer.append( ' ' );
+        appendNumber( buffer, transform.getShearY() );
+        buffer.append( ' ' );
+        appendNumber( buffer, transform.getShearX() );
+        buffer.append( ' ' );
+        appendNumber( buffer, transform.getScaleY() );
+        buffer.append( ' ' );
+        appendNumber( buffer, transform.getTranslateX() );
+        buffer.append( ' ' );
+        appendNumber( buffer, transform.getTranslateY() );
+        buffer.append( "] cm\n" );
+    }
+
+    /**
+     * Appends a new path with the construction operators for a shape.
+     *
+     * @param buffer
+     *            The buffer to append the path to
+     * @param shape
+     *            The shape to append
+     * @return The winding rule of the shape
+     */
+    @SuppressWarnings("nls")
+    private static int appendPath( final StringBuilder buffer, final Shape shape ) {
+        buffer.append( "newpath\n" );
+        return appendPathOperators( buffer, shape );
+    }
+
+    /**
+     * Appends the color setting operator for the current Color Mode.
+     *
+     * @param buffer
+     *            The buffer to append the operator to
+     * @param color
+     *            The color to set
+     */
+    @SuppressWarnings("nls")
+    private void appendColor( final StringBuilder buffer, final Color color ) {
+        final float[] components = toColorComponents( color, output.colorComponents );
+        for ( final float component : components ) {
+            appendNumber( buffer, component );
+            buffer.append( ' ' );
+        }
+        buffer.append( ( components.length == 1 )
+            ? "setgray\n"
+            : ( components.length == 4 ) ? "setcmykcolor\n" : "setrgbcolor\n" );
+    }
+
+    /**
+     * Appends the stroke setting operators for a basic stroke.
+     *
+     * @param buffer
+     *            The buffer to append the operators to
+     * @param stroke
+     *            The stroke to set
+     */
+    @SuppressWarnings("nls")
+    private static void appendStroke( final StringBuilder buffer, final BasicStroke stroke ) {
+        appendNumber( buffer, stroke.getLineWidth() );
+        buffer.append( " setlinewidth " ).append( stroke.getEndCap() ).append( " setlinecap " )
+                .append( stroke.getLineJoin() ).append( " setlinejoin " );
+        appendNumber( buffer, Math.max( 1.0f, stroke.getMiterLimit() ) );
+        buffer.append( " setmiterlimit\n" );
+
+        final float[] dashArray = stroke.getDashArray();
+        if ( ( dashArray != null ) && ( dashArray.length > 0 ) ) {
+            buffer.append( '[' );
+            for ( int i = 0; i < dashArray.length; i++ ) {
+                if ( i > 0 ) {
+                    buffer.append( ' ' );
+                }
+                appendNumber( buffer, dashArray[ i ] );
+            }
+            buffer.append( "] " );
+            appendNumber( buffer, stroke.getDashPhase() );
+            buffer.append( " setdash\n" );
+        }
+    }
+
+    /**
+     * Appends a LanguageLevel 3 smooth shading for a gradient paint, which is
+     * painted through the current clip path.
+     *
+     * @param buffer
+     *            The buffer to append the shading to
+     * @param paint
+     *            The gradient paint
+     */
+    @SuppressWarnings("nls")
+    private void appendShading( final StringBuilder buffer, final Paint paint ) {
+        // The gradient transform applies to the shading space only.
+        if ( paint instanceof MultipleGradientPaint ) {
+            appendTransform( buffer, ( ( MultipleGradientPaint ) paint ).getTransform() );
+        }
+
+        final float[] fractions;
+        final Color[] colors;
+        buffer.append( "<< /ShadingType " );
+        if ( paint instanceof GradientPaint ) {
+            final GradientPaint gradientPaint = ( GradientPaint ) paint;
+            fractions = new float[] { 0.0f, 1.0f };
+            colors = new Color[] { gradientPaint.getColor1(), gradientPaint.getColor2() };
+            buffer.append( "2 /Coords [" );
+            appendCoordinates( buffer, gradientPaint.getPoint1(), gradientPaint.getPoint2() );
+            buffer.append( ']' );
+        }
+        else {
+            final MultipleGradientPaint multipleGradientPaint = ( MultipleGradientPaint ) paint;
+            fractions = multipleGradientPaint.getFractions();
+            colors = multipleGradientPaint.getColors();
+
+            if ( paint instanceof LinearGradientPaint ) {
+                final LinearGradientPaint linearGradientPaint = ( LinearGradientPaint ) paint;
+                buffer.append( "2 /Coords [" );
+                appendCoordinates( buffer,
+                                   linearGradientPaint.getStartPoint(),
+                                   linearGradientPaint.getEndPoint() );
+                buffer.append( ']' );
+            }
+            else {
+                final RadialGradientPaint radialGradientPaint = ( RadialGradientPaint ) paint;
+                final Point2D focus = radialGradientPaint.getFocusPoint();
+                final Point2D center = radialGradientPaint.getCenterPoint();
+                buffer.append( "3 /Coords [" );
+                appendNumber( buffer, focus.getX() );
+                buffer.append( ' ' );
+                appendNumber( buffer, focus.getY() );
+                buffer.append( " 0 " );
+                appendNumber( buffer, center.getX() );
+                buffer.append( ' ' );
+                appendNumber( buffer, center.getY() );
+                buffer.append( ' ' );
+                appendNumber( buffer, radialGradientPaint.getRadius() );
+                buffer.append( ']' );
+            }
+        }
+
+        buffer.append( " /ColorSpace /" ).append( getColorSpaceName( output.colorComponents ) );
+        buffer.append( " /Extend [true true] /Function " );
+        if ( colors.length == 2 ) {
+            appendInterpolation( buffer, colors[ 0 ], colors[ 1 ] );
+        }
+        else {
+            // Stitch one interpolation function per pair of adjacent stops.
+            buffer.append( "<< /FunctionType 3 /Domain [0 1] /Functions [" );
+            for ( int i = 0; i < ( colors.length - 1 ); i++ ) {
+                appendInterpolation( buffer, colors[ i ], colors[ i + 1 ] );
+            }
+            buffer.append( "] /Bounds [" );
+            for ( int i = 1; i < ( fractions.length - 1 ); i++ ) {
+                appendNumber( buffer, fractions[ i ] );
+                buffer.append( ' ' );
+            }
+            buffer.append( "] /Encode [" );
+            for ( int i = 0; i < ( colors.length - 1 ); i++ ) {
+                buffer.append( "0 1 " );
+            }
+            buffer.append( "] >>" );
+        }
+        buffer.append( " >> shfill\n" );
+    }
+
+    /**
+     * Appends the coordinates of the two end points of an axial shading.
+     *
+     * @param buffer
+     *            The buffer to append the coordinates to
+     * @param start
+     *            The start point of the gradient
+     * @param end
+     *            The end point of the gradient
+     */
+    private static void appendCoordinates( final StringBuilder buffer,
+                                           final Point2D start,
+                                           final Point2D end ) {
+        appendNumber( buffer, start.getX() );
+        buffer.append( ' ' );
+        appendNumber( buffer, start.getY() );
+        buffer.append( ' ' );
+        appendNumber( buffer, end.getX() );
+        buffer.append( ' ' );
+        appendNumber( buffer, end.getY() );
+    }
+
+    /**
+     * Appends a linear interpolation function between two colors.
+     *
+     * @param buffer
+     *            The buffer to append the function to
+     * @param startColor
+     *            The color at the start of the domain
+     * @param endColor
+     *            The color at the end of the domain
+     */
+    @SuppressWarnings("nls")
+    private void appendInterpolation( final StringBuilder buffer,
+                                      final Color startColor,
+                                      final Color endColor ) {
+        buffer.append( "<< /FunctionType 2 /Domain [0 1] /C0 [" );
+        for ( final float component : toColorComponents( startColor, output.colorComponents ) ) {
+            appendNumber( buffer, component );
+            buffer.append( ' ' );
+        }
+        buffer.append( "] /C1 [" );
+        for ( final float component : toColorComponents( endColor, output.colorComponents ) ) {
+            appendNumber( buffer, component );
+            buffer.append( ' ' );
+        }
+        buffer.append( "] /N 1 >>" );
+    }
+
+    /**
+     * Appends one hexadecimal image sample, blended with white according to
+     * its alpha.
+     *
+     * @param buffer
+     *            The buffer to append the sample to
+     * @param value
+     *            The sample value, from 0 to 255
+     * @param alpha
+     *            The alpha of the pixel, from 0 to 255
+     */
+    private static void appendHexSample( final StringBuilder buffer,
+                                         final int value,
+                                         final int alpha ) {
+        final int blendedValue = ( ( value * alpha ) + ( 255 * ( 255 - alpha ) ) ) / 255;
+        buffer.append( Character.forDigit( blendedValue >> 4, 16 ) )
+                .append( Character.forDigit( blendedValue & 0xf, 16 ) );
+    }
+
+    /**
+     * Returns text that is safe to put in a DSC comment, which must be a
+     * single line of printable ASCII.
+     *
+     * @param text
+     *            The text to sanitize
+     * @return The sanitized text
+     */
+    private static String toDscText( final String text ) {
+        final StringBuilder dscText = new StringBuilder( text.length() );
+        for ( int i = 0, n = text.length(); i < n; i++ ) {
+            final char c = text.charAt( i );
+            dscText.append( ( ( c >= 32 ) && ( c <= 126 ) ) ? c : '?' );
+        }
+        return dscText.toString();
+    }
+
+    /**
+     * {@code EpsOutput} holds the output state that is shared by a root
+     * Graphics Context and all of its children: the {@link Writer}, the Color
+     * Mode, and the currently open clipping level.
+     */
+    private static final class EpsOutput {
+
+        /**
+         * The {@link Writer} for channeling the EPS content.
+         */
+        final Writer        writer;
+
+        /**
+         * The page height, always in points (1/72 inch).
+         */
+        final double        pageHeight;
+
+        /**
+         * The number of color components written per color: 1 for grayscale,
+         * 4 for CMYK, and 3 for RGB.
+         */
+        final int           colorComponents;
+
+        /**
+         * The reusable buffer for the drawing call currently being written.
+         */
+        final StringBuilder element  = new StringBuilder( 1024 );
+
+        /**
+         * The clip of the currently open clipping level, in device space.
+         */
+        Shape               openClip = null;
+
+        /**
+         * Flag for whether a clipping level is currently open.
+         */
+        boolean             clipOpen = false;
+
+        /**
+         * Constructs the shared output state.
+         *
+         * @param writer
+         *            The {@link Writer} for channeling the EPS content
+         * @param pageHeight
+         *            The page height, always in points (1/72 inch)
+         * @param colorMode
+         *            The {@link ColorMode} to use, compatible with EPS specs
+         */
+        EpsOutput( final Writer writer, final double pageHeight, final ColorMode colorMode ) {
+            this.writer = writer;
+            this.pageHeight = pageHeight;
+
+            colorComponents = getColorComponentCount( colorMode );
+        }
+
+        /**
+         * Writes raw content to the {@link Writer}.
+         *
+         * @param content
+         *            The content to write
+         */
+        void write( final CharSequence content ) {
+            try {
+                writer.append( content );
+            }
+            catch ( final IOException ioe ) {
+                throw new UncheckedIOException( ioe );
+            }
+        }
+
+        /**
+         * Writes a drawing call (or the start of one), after making sure that
+         * the clipping level that is open matches its clip.
+         *
+         * @param clip
+         *            The clip of the drawing call, in device space
+         * @param content
+         *            The content of the drawing call
+         */
+        @SuppressWarnings("nls")
+        void writeElement( final Shape clip, final CharSequence content ) {
+            // Clip objects are immutable once set, so identity is enough to
+            // keep consecutive calls with the same clip at the same level.
+            final boolean clipChanged = clipOpen ? ( clip != openClip ) : ( clip != null );
+            if ( clipChanged ) {
+                closeClip();
+                if ( clip != null ) {
+                    final StringBuilder clipPath = new StringBuilder( 256 );
+                    clipPath.append( "q\n" );
+                    final int windingRule = appendPath( clipPath, clip );
+                    clipPath.append( ( windingRule == PathIterator.WIND_EVEN_ODD )
+                        ? "eoclip newpath\n"
+                        : "clip newpath\n" );
+                    write( clipPath );
+                    openClip = clip;
+                    clipOpen = true;
+                }
+            }
+
+            write( content );
+        }
+
+        /**
+         * Closes the currently open clipping level, if any.
+         */
+        void closeClip() {
+            if ( clipOpen ) {
+                write( "Q\n" ); //$NON-NLS-1$
+                clipOpen = false;
+                openClip = null;
+            }
+        }
+
+    }
+
+}
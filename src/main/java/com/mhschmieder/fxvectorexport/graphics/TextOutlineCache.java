@@ -0,0 +1,246 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxConverter Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxConverter Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxconverter
+ */
+package com.mhschmieder.fxvectorexport.graphics;
+
+import java.awt.Font;
+import java.awt.Shape;
+import java.awt.font.FontRenderContext;
+import java.awt.geom.AffineTransform;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * {@code TextOutlineCache} is a bounded, least-recently-used cache of text
+ * outlines, keyed on the font, the font render context and the text. Laying
+ * out a glyph vector is by far the most expensive part of vectorizing text,
+ * and drawings tend to repeat the same labels many times over, so the outline
+ * is laid out once at the origin and then only translated for each use.
+ * <p>
+ * A cache is not thread-safe; it is meant to be confined to one thread at a
+ * time, which is why the streaming backends pick it up from the thread that
+ * constructs them rather than sharing a global one. See
+ * {@link #bindToCurrentThread()}.
+ *
+ * @version 1.0
+ *
+ * @author Mark Schmieder
+ */
+public final class TextOutlineCache {
+
+    /**
+     * The default maximum number of outlines to keep.
+     */
+    public static final int                              DEFAULT_MAXIMUM_SIZE = 1024;
+
+    /**
+     * The cache that is bound to each thread, if any.
+     */
+    private static final ThreadLocal< TextOutlineCache > THREAD_CACHE         = new ThreadLocal<>();
+
+    /**
+     * The cached outlines, in access order, laid out at the origin.
+     */
+    private final Map< OutlineKey, Shape >               outlines;
+
+    /**
+     * The number of lookups that were answered from the cache.
+     */
+    private long                                         hitCount;
+
+    /**
+     * The number of lookups that had to lay out the text.
+     */
+    private long                                         missCount;
+
+    /**
+     * Constructs a cache that holds at most the default number of outlines.
+     */
+    public TextOutlineCache() {
+        this( DEFAULT_MAXIMUM_SIZE );
+    }
+
+    /**
+     * Constructs a cache that holds at most the provided number of outlines.
+     *
+     * @param maximumSize
+     *            The maximum number of outlines to keep
+     */
+    public TextOutlineCache( final int maximumSize ) {
+        if ( maximumSize < 1 ) {
+            throw new IllegalArgumentException( "The maximum size must be at least one" ); //$NON-NLS-1$
+        }
+
+        outlines = new LinkedHashMap< OutlineKey, Shape >( 16, 0.75f, true ) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry( final Map.Entry< OutlineKey, Shape > eldest ) {
+                return size() > maximumSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the outline of the provided text, positioned at the provided
+     * baseline origin.
+     *
+     * @param font
+     *            The font to lay out the text with
+     * @param fontRenderContext
+     *            The font render context to lay out the text with
+     * @param text
+     *            The text to get the outline of
+     * @param x
+     *            The x-coordinate of the baseline origin
+     * @param y
+     *            The y-coordinate of the baseline origin
+     * @return The outline of the text at the baseline origin
+     */
+    public Shape getOutline( final Font font,
+                             final FontRenderContext fontRenderContext,
+                             final String text,
+                             final float x,
+                             final float y ) {
+        final OutlineKey key = new OutlineKey( font, fontRenderContext, text );
+        Shape outline = outlines.get( key );
+        if ( outline == null ) {
+            missCount++;
+            outline = font.createGlyphVector( fontRenderContext, text ).getOutline();
+            outlines.put( key, outline );
+        }
+        else {
+            hitCount++;
+        }
+
+        return AffineTransform.getTranslateInstance( x, y ).createTransformedShape( outline );
+    }
+
+    /**
+     * Returns the number of lookups that were answered from the cache.
+     *
+     * @return The number of cache hits
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Returns the number of lookups that had to lay out the text.
+     *
+     * @return The number of cache misses
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Returns the number of outlines currently held.
+     *
+     * @return The number of cached outlines
+     */
+    public int size() {
+        return outlines.size();
+    }
+
+    /**
+     * Discards all of the cached outlines and resets the counts.
+     */
+    public void clear() {
+        outlines.clear();
+        hitCount = 0L;
+        missCount = 0L;
+    }
+
+    /**
+     * Binds this cache to the current thread, so that the streaming backends
+     * that are constructed on this thread use it for vectorized text, until
+     * {@link #unbindFromCurrentThread()} is called.
+     */
+    public void bindToCurrentThread() {
+        THREAD_CACHE.set( this );
+    }
+
+    /**
+     * Unbinds whatever cache is bound to the current thread.
+     */
+    public static void unbindFromCurrentThread() {
+        THREAD_CACHE.remove();
+    }
+
+    /**
+     * Returns the cache that is bound to the current thread.
+     *
+     * @return The cache that is bound to the current thread, or {@code null}
+     *         if there is none
+     */
+    public static TextOutlineCache getCurrentThreadCache() {
+        return THREAD_CACHE.get();
+    }
+
+    /**
+     * The key of a cached outline. Fonts and font render contexts are
+     * immutable and implement value equality, so they are safe to hold.
+     */
+    private static final class OutlineKey {
+
+        private final Font              font;
+        private final FontRenderContext fontRenderContext;
+        private final String            text;
+        private final int               hashCode;
+
+        OutlineKey( final Font font, final FontRenderContext fontRenderContext, final String text ) {
+            this.font = font;
+            this.fontRenderContext = fontRenderContext;
+            this.text = text;
+            hashCode = Objects.hash( font, fontRenderContext, text );
+        }
+
+        @Override
+        public boolean equals( final Object object ) {
+            if ( this == object ) {
+                return true;
+            }
+            if ( !( object instanceof OutlineKey ) ) {
+                return false;
+            }
+
+            final OutlineKey other = ( OutlineKey ) object;
+            return text.equals( other.text ) && font.equals( other.font )
+                    && fontRenderContext.equals( other.fontRenderContext );
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
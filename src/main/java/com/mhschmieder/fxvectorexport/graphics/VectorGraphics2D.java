@@ -0,0 +1,1180 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxConverter Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxConverter Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxconverter
+ */
+package com.mhschmieder.fxvectorexport.graphics;
+
+import com.mhschmieder.jgraphics.color.ColorMode;
+
+import java.awt.AlphaComposite;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Composite;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.Paint;
+import java.awt.Polygon;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.Stroke;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.font.TextLayout;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Arc2D;
+import java.awt.geom.Area;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Line2D;
+import java.awt.geom.NoninvertibleTransformException;
+import java.awt.geom.Path2D;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Rectangle2D;
+import java.awt.geom.RoundRectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.BufferedImageOp;
+import java.awt.image.ImageObserver;
+import java.awt.image.RenderedImage;
+import java.awt.image.renderable.RenderableImage;
+import java.text.AttributedCharacterIterator;
+import java.util.Map;
+
+/**
+ * {@code VectorGraphics2D} is the common base class of the streaming vector
+ * graphics backends. It owns the Graphics Context state (transform, clip,
+ * paint, stroke, font, composite and rendering hints) and reduces the full
+ * {@link Graphics2D} API to three primitives that a backend must write to its
+ * output as soon as they are called: shapes, images, and (when text is not
+ * vectorized) strings.
+ * <p>
+ * As every primitive is written with the complete state that applies to it,
+ * no backend needs to remember anything about the drawing once it has been
+ * written, which is what keeps the memory use bounded regardless of the size
+ * of the drawing. Child contexts made via {@link #create()} share the output
+ * of their parent, as they would with any other Graphics Context.
+ *
+ * @version 1.0
+ *
+ * @author Mark Schmieder
+ */
+public abstract class VectorGraphics2D extends Graphics2D {
+
+    /**
+     * The scale factor for writing real numbers with four decimal places.
+     */
+    private static final long     DECIMAL_SCALE = 10000L;
+
+    /**
+     * The scratch Graphics Context that is used for font metrics and device
+     * configuration queries, as this context has no raster of its own.
+     */
+    private final Graphics2D      scratchGraphics;
+
+    /**
+     * Flag for whether text is to be vectorized rather than written as strings.
+     */
+    private final boolean         vectorizedText;
+
+    /**
+     * The cache of vectorized text outlines, or {@code null} if the text is to
+     * be laid out afresh each time.
+     */
+    private final TextOutlineCache textOutlineCache;
+
+    /**
+     * The current transform from user space to device space.
+     */
+    private AffineTransform       transform;
+
+    /**
+     * The current clip, in device space, or {@code null} if there is none.
+     */
+    private Shape                 deviceClip;
+
+    /**
+     * The current paint.
+     */
+    private Paint                 paint;
+
+    /**
+     * The current color, which is also the paint whenever a color is set.
+     */
+    private Color                 color;
+
+    /**
+     * The current background color, used by {@link #clearRect}.
+     */
+    private Color                 background;
+
+    /**
+     * The current stroke.
+     */
+    private Stroke                stroke;
+
+    /**
+     * The current font.
+     */
+    private Font                  font;
+
+    /**
+     * The current composite.
+     */
+    private Composite             composite;
+
+    /**
+     * The current rendering hints.
+     */
+    private final RenderingHints  hints;
+
+    /**
+     * Constructs a root Graphics Context with the default state. Vectorized
+     * text uses the {@link TextOutlineCache} that is bound to the constructing
+     * thread, if there is one.
+     *
+     * @param vectorizedText
+     *            Set to {@code true} if text is to be written as outlines;
+     *            {@code false} if it is to be written as strings
+     */
+    protected VectorGraphics2D( final boolean vectorizedText ) {
+        this.vectorizedText = vectorizedText;
+        textOutlineCache = TextOutlineCache.getCurrentThreadCache();
+
+        final BufferedImage scratchImage = new BufferedImage( 1, 1, BufferedImage.TYPE_INT_ARGB );
+        scratchGraphics = scratchImage.createGraphics();
+
+        transform = new AffineTransform();
+        deviceClip = null;
+        paint = Color.BLACK;
+        color = Color.BLACK;
+        background = Color.WHITE;
+        stroke = new BasicStroke( 1.0f );
+        font = new Font( Font.SANS_SERIF, Font.PLAIN, 12 );
+        composite = AlphaComposite.SrcOver;
+        hints = new RenderingHints( null );
+    }
+
+    /**
+     * Constructs a child Graphics Context with a copy of the parent's state.
+     *
+     * @param parent
+     *            The Graphics Context to copy the state from
+     */
+    protected VectorGraphics2D( final VectorGraphics2D parent ) {
+        vectorizedText = parent.vectorizedText;
+        textOutlineCache = parent.textOutlineCache;
+        scratchGraphics = ( Graphics2D ) parent.scratchGraphics.create();
+
+        transform = new AffineTransform( parent.transform );
+        deviceClip = parent.deviceClip;
+        paint = parent.paint;
+        color = parent.color;
+        background = parent.background;
+        stroke = parent.stroke;
+        font = parent.font;
+        composite = parent.composite;
+        hints = ( RenderingHints ) parent.hints.clone();
+    }
+
+    /**
+     * Writes a shape to the output, with the current state.
+     *
+     * @param shape
+     *            The shape to write, in user space
+     * @param fill
+     *            {@code true} to fill the shape with the current paint;
+     *            {@code false} to stroke it with the current stroke, which is
+     *            guaranteed to be a {@link BasicStroke}
+     */
+    protected abstract void writeShape( final Shape shape, final boolean fill );
+
+    /**
+     * Writes an image to the output, with the current state.
+     *
+     * @param image
+     *            The image to write
+     * @param imageTransform
+     *            The transform from image pixel space to user space
+     */
+    protected abstract void writeImage( final BufferedImage image,
+                                        final AffineTransform imageTransform );
+
+    /**
+     * Writes a string to the output, with the current state. This is only
+     * called when text is not vectorized.
+     *
+     * @param text
+     *            The text to write
+     * @param x
+     *            The x-coordinate of the baseline origin, in user space
+     * @param y
+     *            The y-coordinate of the baseline origin, in user space
+     */
+    protected abstract void writeString( final String text, final float x, final float y );
+
+    /**
+     * Returns the current clip in device space, which is what the backends need
+     * in order to write it in the coordinates of the page.
+     *
+     * @return The current clip in device space, or {@code null} if none
+     */
+    protected final Shape getDeviceClip() {
+        return deviceClip;
+    }
+
+    /**
+     * Returns the constant alpha of the current composite, if it is an
+     * {@link AlphaComposite}, so that backends can fold it into the opacity.
+     *
+     * @return The constant alpha of the current composite
+     */
+    protected final float getCompositeAlpha() {
+        return ( composite instanceof AlphaComposite )
+            ? ( ( AlphaComposite ) composite ).getAlpha()
+            : 1.0f;
+    }
+
+    /**
+     * Returns whether text is written as outlines rather than as strings.
+     *
+     * @return {@code true} if text is written as outlines
+     */
+    protected final boolean isVectorizedText() {
+        return vectorizedText;
+    }
+
+    /**
+     * Appends a coordinate or other real number to the output buffer, rounded
+     * to four decimal places and without exponent notation or trailing zeros.
+     * This avoids the cost of {@link String#format} and the verbosity of
+     * {@link Double#toString(double)}, for what is the bulk of the output.
+     *
+     * @param buffer
+     *            The buffer to append the number to
+     * @param value
+     *            The number to append
+     */
+    protected static void appendNumber( final StringBuilder buffer, final double value ) {
+        if ( Double.isNaN( value ) || Double.isInfinite( value ) ) {
+            buffer.append( '0' );
+            return;
+        }
+
+        long scaledValue = Math.round( value * DECIMAL_SCALE );
+        if ( scaledValue < 0L ) {
+            buffer.append( '-' );
+            scaledValue = -scaledValue;
+        }
+
+        buffer.append( scaledValue / DECIMAL_SCALE );
+
+        long fraction = scaledValue % DECIMAL_SCALE;
+        if ( fraction != 0L ) {
+            buffer.append( '.' );
+
+            // Pad with leading zeros, then strip the trailing zeros.
+            for ( long digit = DECIMAL_SCALE / 10L; fraction < digit; digit /= 10L ) {
+                buffer.append( '0' );
+            }
+            while ( ( fraction % 10L ) == 0L ) {
+                fraction /= 10L;
+            }
+            buffer.append( fraction );
+        }
+    }
+
+    /**
+     * Returns the PostScript name of a font, mapping the Java logical fonts to
+     * the standard fonts that every PostScript interpreter and PDF viewer has
+     * built in, so that no font needs to be embedded.
+     *
+     * @param font
+     *            The font to look up
+     * @return The PostScript name of the font
+     */
+    @SuppressWarnings("nls")
+    protected static String getStandardFontName( final Font font ) {
+        final String style = font.isBold()
+            ? ( font.isItalic() ? "-BoldOblique" : "-Bold" )
+            : ( font.isItalic() ? "-Oblique" : "" );
+
+        switch ( font.getFamily() ) {
+        case Font.SERIF:
+            return font.isBold()
+                ? ( font.isItalic() ? "Times-BoldItalic" : "Times-Bold" )
+                : ( font.isItalic() ? "Times-Italic" : "Times-Roman" );
+        case Font.SANS_SERIF:
+        case Font.DIALOG:
+        case Font.DIALOG_INPUT:
+            return "Helvetica" + style;
+        case Font.MONOSPACED:
+            return "Courier" + style;
+        default:
+            return font.getPSName();
+        }
+    }
+
+    /**
+     * Returns the number of color components for a Color Mode: 1 for
+     * grayscale, 4 for CMYK, and 3 for RGB.
+     *
+     * @param colorMode
+     *            The {@link ColorMode} to look up
+     * @return The number of color components for the Color Mode
+     */
+    @SuppressWarnings("nls")
+    protected static int getColorComponentCount( final ColorMode colorMode ) {
+        final String colorModeName = colorMode.name();
+        return colorModeName.startsWith( "CMYK" ) ? 4 : colorModeName.startsWith( "GRAY" ) ? 1 : 3;
+    }
+
+    /**
+     * Returns the name of the device color space with the given number of
+     * components, which is the same for PostScript and PDF.
+     *
+     * @param colorComponents
+     *            The number of color components
+     * @return The name of the device color space
+     */
+    @SuppressWarnings("nls")
+    protected static String getColorSpaceName( final int colorComponents ) {
+        return ( colorComponents == 1 )
+            ? "DeviceGray"
+            : ( colorComponents == 4 ) ? "DeviceCMYK" : "DeviceRGB";
+    }
+
+    /**
+     * Converts a color to its device components, from 0 to 1.
+     *
+     * @param color
+     *            The color to convert
+     * @param colorComponents
+     *            The number of color components of the device color space
+     * @return The device color components
+     */
+    protected static float[] toColorComponents( final Color color, final int colorComponents ) {
+        final float red = color.getRed() / 255f;
+        final float green = color.getGreen() / 255f;
+        final float blue = color.getBlue() / 255f;
+
+        switch ( colorComponents ) {
+        case 1:
+            // Use the standard luma weights for the gray level.
+            return new float[] { ( 0.299f * red ) + ( 0.587f * green ) + ( 0.114f * blue ) };
+        case 4:
+            final float black = 1.0f - Math.max( red, Math.max( green, blue ) );
+            if ( black >= 1.0f ) {
+                return new float[] { 0.0f, 0.0f, 0.0f, 1.0f };
+            }
+            return new float[] { ( 1.0f - red - black ) / ( 1.0f - black ),
+                                 ( 1.0f - green - black ) / ( 1.0f - black ),
+                                 ( 1.0f - blue - black ) / ( 1.0f - black ),
+                                 black };
+        default:
+            return new float[] { red, green, blue };
+        }
+    }
+
+    /**
+     * Appends the path construction operators for a shape, using the operator
+     * names of PDF content streams ({@code m}, {@code l}, {@code c} and
+     * {@code h}), which PostScript backends can define as procedures. Quadratic
+     * segments are converted to cubic ones, as neither format supports them.
+     *
+     * @param buffer
+     *            The buffer to append the path to
+     * @param shape
+     *            The shape to append
+     * @return The winding rule of the shape
+     */
+    @SuppressWarnings("nls")
+    protected static int appendPathOperators( final StringBuilder buffer, final Shape shape ) {
+        final PathIterator pathIterator = shape.getPathIterator( null );
+        final double[] coords = new double[ 6 ];
+        double currentX = 0.0d;
+        double currentY = 0.0d;
+        while ( !pathIterator.isDone() ) {
+            switch ( pathIterator.currentSegment( coords ) ) {
+            case PathIterator.SEG_MOVETO:
+                appendPoints( buffer, coords, 1 );
+                buffer.append( " m\n" );
+                currentX = coords[ 0 ];
+                currentY = coords[ 1 ];
+                break;
+            case PathIterator.SEG_LINETO:
+                appendPoints( buffer, coords, 1 );
+                buffer.append( " l\n" );
+                currentX = coords[ 0 ];
+                currentY = coords[ 1 ];
+                break;
+            case PathIterator.SEG_QUADTO:
+                // Elevate the quadratic Bezier curve to a cubic one.
+                final double controlX = coords[ 0 ];
+                final double controlY = coords[ 1 ];
+                coords[ 4 ] = coords[ 2 ];
+                coords[ 5 ] = coords[ 3 ];
+                coords[ 0 ] = currentX + ( ( 2.0d / 3.0d ) * ( controlX - currentX ) );
+                coords[ 1 ] = currentY + ( ( 2.0d / 3.0d ) * ( controlY - currentY ) );
+                coords[ 2 ] = coords[ 4 ] + ( ( 2.0d / 3.0d ) * ( controlX - coords[ 4 ] ) );
+                coords[ 3 ] = coords[ 5 ] + ( ( 2.0d / 3.0d ) * ( controlY - coords[ 5 ] ) );
+                appendPoints( buffer, coords, 3 );
+                buffer.append( " c\n" );
+                currentX = coords[ 4 ];
+                currentY = coords[ 5 ];
+                break;
+            case PathIterator.SEG_CUBICTO:
+                appendPoints( buffer, coords, 3 );
+                buffer.append( " c\n" );
+                currentX = coords[ 4 ];
+                currentY = coords[ 5 ];
+                break;
+            case PathIterator.SEG_CLOSE:
+                buffer.append( "h\n" );
+                break;
+            default:
+                break;
+            }
+            pathIterator.next();
+        }
+
+        return pathIterator.getWindingRule();
+    }
+
+    /**
+     * Appends the given number of points from a path segment.
+     *
+     * @param buffer
+     *            The buffer to append the points to
+     * @param coords
+     *            The coordinates of the path segment
+     * @param numberOfPoints
+     *            The number of points to append
+     */
+    private static void appendPoints( final StringBuilder buffer,
+                                      final double[] coords,
+                                      final int numberOfPoints ) {
+        for ( int i = 0; i < ( 2 * numberOfPoints ); i++ ) {
+            if ( i > 0 ) {
+                buffer.append( ' ' );
+            }
+            appendNumber( buffer, coords[ i ] );
+        }
+    }
+
+    /**
+     * Returns whether a shape can be skipped altogether because it lies
+     * entirely outside the current clip.
+     *
+     * @param shape
+     *            The shape to test, in user space
+     * @param fill
+     *            {@code true} if the shape is to be filled rather than stroked
+     * @return {@code true} if the shape is entirely clipped out
+     */
+    private boolean isClippedOut( final Shape shape, final boolean fill ) {
+        if ( deviceClip == null ) {
+            return false;
+        }
+
+        // Pad stroked shapes by the line width, which covers joins and caps
+        // well enough for a conservative rejection test.
+        Rectangle2D userBounds = shape.getBounds2D();
+        if ( !fill && ( stroke instanceof BasicStroke ) ) {
+            final double pad = ( ( BasicStroke ) stroke ).getLineWidth();
+            userBounds = new Rectangle2D.Double( userBounds.getX() - pad,
+                                                 userBounds.getY() - pad,
+                                                 userBounds.getWidth() + ( 2.0d * pad ),
+                                                 userBounds.getHeight() + ( 2.0d * pad ) );
+        }
+        final Rectangle2D deviceBounds = transform.createTransformedShape( userBounds )
+                .getBounds2D();
+        return !deviceClip.intersects( deviceBounds ) && !deviceBounds.isEmpty();
+    }
+
+    /**
+     * Transforms a clip shape from user space to device space, keeping axis
+     * aligned rectangles as rectangles so that clip intersections stay cheap.
+     *
+     * @param shape
+     *            The clip shape, in user space
+     * @return The clip shape, in device space
+     */
+    private Shape toDeviceSpace( final Shape shape ) {
+        final int rotationMask = AffineTransform.TYPE_GENERAL_TRANSFORM
+                | AffineTransform.TYPE_GENERAL_ROTATION | AffineTransform.TYPE_QUADRANT_ROTATION;
+        if ( ( shape instanceof Rectangle2D ) && ( ( transform.getType() & rotationMask ) == 0 ) ) {
+            return transform.createTransformedShape( shape ).getBounds2D();
+        }
+
+        return transform.createTransformedShape( shape );
+    }
+
+    /**
+     * Converts any image to a {@link BufferedImage}, which is what the backends
+     * know how to encode.
+     *
+     * @param image
+     *            The image to convert
+     * @return The image as a {@link BufferedImage}, or {@code null} if it is
+     *         not fully loaded yet
+     */
+    private static BufferedImage toBufferedImage( final Image image ) {
+        if ( image instanceof BufferedImage ) {
+            return ( BufferedImage ) image;
+        }
+
+        final int width = image.getWidth( null );
+        final int height = image.getHeight( null );
+        if ( ( width <= 0 ) || ( height <= 0 ) ) {
+            return null;
+        }
+
+        final BufferedImage bufferedImage = new BufferedImage( width,
+                                                               height,
+                                                               BufferedImage.TYPE_INT_ARGB );
+        final Graphics2D imageGraphics = bufferedImage.createGraphics();
+        try {
+            imageGraphics.drawImage( image, 0, 0, null );
+        }
+        finally {
+            imageGraphics.dispose();
+        }
+
+        return bufferedImage;
+    }
+
+    @Override
+    public void dispose() {
+        scratchGraphics.dispose();
+    }
+
+    @Override
+    public void draw( final Shape shape ) {
+        if ( stroke instanceof BasicStroke ) {
+            if ( !isClippedOut( shape, false ) ) {
+                writeShape( shape, false );
+            }
+        }
+        else {
+            fill( stroke.createStrokedShape( shape ) );
+        }
+    }
+
+    @Override
+    public void fill( final Shape shape ) {
+        if ( !isClippedOut( shape, true ) ) {
+            writeShape( shape, true );
+        }
+    }
+
+    @Override
+    public void drawLine( final int x1, final int y1, final int x2, final int y2 ) {
+        draw( new Line2D.Float( x1, y1, x2, y2 ) );
+    }
+
+    @Override
+    public void drawRect( final int x, final int y, final int width, final int height ) {
+        draw( new Rectangle( x, y, width, height ) );
+    }
+
+    @Override
+    public void fillRect( final int x, final int y, final int width, final int height ) {
+        fill( new Rectangle( x, y, width, height ) );
+    }
+
+    @Override
+    public void clearRect( final int x, final int y, final int width, final int height ) {
+        final Paint savedPaint = paint;
+        final Composite savedComposite = composite;
+        paint = background;
+        composite = AlphaComposite.SrcOver;
+        try {
+            fillRect( x, y, width, height );
+        }
+        finally {
+            paint = savedPaint;
+            composite = savedComposite;
+        }
+    }
+
+    @Override
+    public void drawRoundRect( final int x,
+                               final int y,
+                               final int width,
+                               final int height,
+                               final int arcWidth,
+                               final int arcHeight ) {
+        draw( new RoundRectangle2D.Float( x, y, width, height, arcWidth, arcHeight ) );
+    }
+
+    @Override
+    public void fillRoundRect( final int x,
+                               final int y,
+                               final int width,
+                               final int height,
+                               final int arcWidth,
+                               final int arcHeight ) {
+        fill( new RoundRectangle2D.Float( x, y, width, height, arcWidth, arcHeight ) );
+    }
+
+    @Override
+    public void drawOval( final int x, final int y, final int width, final int height ) {
+        draw( new Ellipse2D.Float( x, y, width, height ) );
+    }
+
+    @Override
+    public void fillOval( final int x, final int y, final int width, final int height ) {
+        fill( new Ellipse2D.Float( x, y, width, height ) );
+    }
+
+    @Override
+    public void drawArc( final int x,
+                         final int y,
+                         final int width,
+                         final int height,
+                         final int startAngle,
+                         final int arcAngle ) {
+        draw( new Arc2D.Float( x, y, width, height, startAngle, arcAngle, Arc2D.OPEN ) );
+    }
+
+    @Override
+    public void fillArc( final int x,
+                         final int y,
+                         final int width,
+                         final int height,
+                         final int startAngle,
+                         final int arcAngle ) {
+        fill( new Arc2D.Float( x, y, width, height, startAngle, arcAngle, Arc2D.PIE ) );
+    }
+
+    @Override
+    public void drawPolyline( final int[] xPoints, final int[] yPoints, final int nPoints ) {
+        if ( nPoints < 2 ) {
+            return;
+        }
+
+        final Path2D.Float polyline = new Path2D.Float( Path2D.WIND_NON_ZERO, nPoints );
+        polyline.moveTo( xPoints[ 0 ], yPoints[ 0 ] );
+        for ( int i = 1; i < nPoints; i++ ) {
+            polyline.lineTo( xPoints[ i ], yPoints[ i ] );
+        }
+        draw( polyline );
+    }
+
+    @Override
+    public void drawPolygon( final int[] xPoints, final int[] yPoints, final int nPoints ) {
+        draw( new Polygon( xPoints, yPoints, nPoints ) );
+    }
+
+    @Override
+    public void fillPolygon( final int[] xPoints, final int[] yPoints, final int nPoints ) {
+        fill( new Polygon( xPoints, yPoints, nPoints ) );
+    }
+
+    @Override
+    public void drawString( final String str, final int x, final int y ) {
+        drawString( str, ( float ) x, ( float ) y );
+    }
+
+    @Override
+    public void drawString( final String str, final float x, final float y ) {
+        if ( ( str == null ) || str.isEmpty() ) {
+            return;
+        }
+
+        if ( vectorizedText ) {
+            if ( textOutlineCache != null ) {
+                fill( textOutlineCache.getOutline( font, getFontRenderContext(), str, x, y ) );
+            }
+            else {
+                drawGlyphVector( font.createGlyphVector( getFontRenderContext(), str ), x, y );
+            }
+        }
+        else {
+            writeString( str, x, y );
+        }
+    }
+
+    @Override
+    public void drawString( final AttributedCharacterIterator iterator, final int x, final int y ) {
+        drawString( iterator, ( float ) x, ( float ) y );
+    }
+
+    @Override
+    public void drawString( final AttributedCharacterIterator iterator,
+                            final float x,
+                            final float y ) {
+        // The text layout calls back into this context for each styled run.
+        final TextLayout textLayout = new TextLayout( iterator, getFontRenderContext() );
+        textLayout.draw( this, x, y );
+    }
+
+    @Override
+    public void drawGlyphVector( final GlyphVector glyphVector, final float x, final float y ) {
+        fill( glyphVector.getOutline( x, y ) );
+    }
+
+    @Override
+    public boolean drawImage( final Image image,
+                              final AffineTransform imageTransform,
+                              final ImageObserver observer ) {
+        final BufferedImage bufferedImage = toBufferedImage( image );
+        if ( bufferedImage == null ) {
+            return false;
+        }
+
+        writeImage( bufferedImage,
+                    ( imageTransform != null )
+                        ? new AffineTransform( imageTransform )
+                        : new AffineTransform() );
+        return true;
+    }
+
+    @Override
+    public void drawImage( final BufferedImage image,
+                           final BufferedImageOp op,
+                           final int x,
+                           final int y ) {
+        final BufferedImage filteredImage = ( op != null ) ? op.filter( image, null ) : image;
+        drawImage( filteredImage, AffineTransform.getTranslateInstance( x, y ), null );
+    }
+
+    @Override
+    public void drawRenderedImage( final RenderedImage image,
+                                   final AffineTransform imageTransform ) {
+        final BufferedImage bufferedImage;
+        if ( image instanceof BufferedImage ) {
+            bufferedImage = ( BufferedImage ) image;
+        }
+        else {
+            bufferedImage = new BufferedImage( image.getColorModel(),
+                                               image.copyData( null ),
+                                               image.getColorModel().isAlphaPremultiplied(),
+                                               null );
+        }
+        drawImage( bufferedImage, imageTransform, null );
+    }
+
+    @Override
+    public void drawRenderableImage( final RenderableImage image,
+                                     final AffineTransform imageTransform ) {
+        drawRenderedImage( image.createDefaultRendering(), imageTransform );
+    }
+
+    @Override
+    public boolean drawImage( final Image image,
+                              final int x,
+                              final int y,
+                              final ImageObserver observer ) {
+        return drawImage( image, AffineTransform.getTranslateInstance( x, y ), observer );
+    }
+
+    @Override
+    public boolean drawImage( final Image image,
+                              final int x,
+                              final int y,
+                              final int width,
+                              final int height,
+                              final ImageObserver observer ) {
+        final int imageWidth = image.getWidth( null );
+        final int imageHeight = image.getHeight( null );
+        if ( ( imageWidth <= 0 ) || ( imageHeight <= 0 ) ) {
+            return false;
+        }
+
+        final AffineTransform imageTransform = AffineTransform.getTranslateInstance( x, y );
+        imageTransform.scale( ( double ) width / imageWidth, ( double ) height / imageHeight );
+        return drawImage( image, imageTransform, observer );
+    }
+
+    @Override
+    public boolean drawImage( final Image image,
+                              final int x,
+                              final int y,
+                              final Color bgcolor,
+                              final ImageObserver observer ) {
+        final int imageWidth = image.getWidth( null );
+        final int imageHeight = image.getHeight( null );
+        if ( ( imageWidth <= 0 ) || ( imageHeight <= 0 ) ) {
+            return false;
+        }
+
+        return drawImage( image, x, y, imageWidth, imageHeight, bgcolor, observer );
+    }
+
+    @Override
+    public boolean drawImage( final Image image,
+                              final int x,
+                              final int y,
+                              final int width,
+                              final int height,
+                              final Color bgcolor,
+                              final ImageObserver observer ) {
+        if ( bgcolor != null ) {
+            final Paint savedPaint = paint;
+            paint = bgcolor;
+            try {
+                fillRect( x, y, width, height );
+            }
+            finally {
+                paint = savedPaint;
+            }
+        }
+
+        return drawImage( image, x, y, width, height, observer );
+    }
+
+    @Override
+    public boolean drawImage( final Image image,
+                              final int dx1,
+                              final int dy1,
+                              final int dx2,
+                              final int dy2,
+                              final int sx1,
+                              final int sy1,
+                              final int sx2,
+                              final int sy2,
+                              final ImageObserver observer ) {
+        final BufferedImage bufferedImage = toBufferedImage( image );
+        if ( bufferedImage == null ) {
+            return false;
+        }
+
+        final int sourceX = Math.min( sx1, sx2 );
+        final int sourceY = Math.min( sy1, sy2 );
+        final int sourceWidth = Math.abs( sx2 - sx1 );
+        final int sourceHeight = Math.abs( sy2 - sy1 );
+        if ( ( sourceWidth == 0 ) || ( sourceHeight == 0 ) ) {
+            return true;
+        }
+
+        final BufferedImage subimage = bufferedImage.getSubimage( sourceX,
+                                                                  sourceY,
+                                                                  sourceWidth,
+                                                                  sourceHeight );
+
+        // Map the source rectangle corners onto the destination corners, which
+        // also takes care of any flipping requested via swapped coordinates.
+        final AffineTransform imageTransform = AffineTransform.getTranslateInstance( dx1, dy1 );
+        imageTransform.scale( ( double ) ( dx2 - dx1 ) / ( sx2 - sx1 ),
+                              ( double ) ( dy2 - dy1 ) / ( sy2 - sy1 ) );
+        imageTransform.translate( sx1 - sourceX, sy1 - sourceY );
+        imageTransform.translate( ( sx2 < sx1 ) ? -sourceWidth : 0,
+                                  ( sy2 < sy1 ) ? -sourceHeight : 0 );
+        writeImage( subimage, imageTransform );
+        return true;
+    }
+
+    @Override
+    public boolean drawImage( final Image image,
+                              final int dx1,
+                              final int dy1,
+                              final int dx2,
+                              final int dy2,
+                              final int sx1,
+                              final int sy1,
+                              final int sx2,
+                              final int sy2,
+                              final Color bgcolor,
+                              final ImageObserver observer ) {
+        if ( bgcolor != null ) {
+            final Paint savedPaint = paint;
+            paint = bgcolor;
+            try {
+                fillRect( Math.min( dx1, dx2 ),
+                          Math.min( dy1, dy2 ),
+                          Math.abs( dx2 - dx1 ),
+                          Math.abs( dy2 - dy1 ) );
+            }
+            finally {
+                paint = savedPaint;
+            }
+        }
+
+        return drawImage( image, dx1, dy1, dx2, dy2, sx1, sy1, sx2, sy2, observer );
+    }
+
+    @Override
+    public void copyArea( final int x,
+                          final int y,
+                          final int width,
+                          final int height,
+                          final int dx,
+                          final int dy ) {
+        // Vector output has no raster to copy from, so this is a no-op.
+    }
+
+    @Override
+    public boolean hit( final Rectangle rect, final Shape shape, final boolean onStroke ) {
+        final Shape hitShape = onStroke ? stroke.createStrokedShape( shape ) : shape;
+        return transform.createTransformedShape( hitShape ).intersects( rect );
+    }
+
+    @Override
+    public GraphicsConfiguration getDeviceConfiguration() {
+        return scratchGraphics.getDeviceConfiguration();
+    }
+
+    @Override
+    public void setComposite( final Composite composite ) {
+        if ( composite != null ) {
+            this.composite = composite;
+        }
+    }
+
+    @Override
+    public Composite getComposite() {
+        return composite;
+    }
+
+    @Override
+    public void setPaint( final Paint paint ) {
+        if ( paint == null ) {
+            return;
+        }
+
+        this.paint = paint;
+        if ( paint instanceof Color ) {
+            color = ( Color ) paint;
+        }
+    }
+
+    @Override
+    public Paint getPaint() {
+        return paint;
+    }
+
+    @Override
+    public void setColor( final Color color ) {
+        if ( color == null ) {
+            return;
+        }
+
+        this.color = color;
+        paint = color;
+    }
+
+    @Override
+    public Color getColor() {
+        return color;
+    }
+
+    @Override
+    public void setPaintMode() {
+        // Only paint mode is supported, so this is a no-op.
+    }
+
+    @Override
+    public void setXORMode( final Color xorColor ) {
+        // XOR mode has no meaning for vector output, so this is ignored.
+    }
+
+    @Override
+    public void setBackground( final Color color ) {
+        background = color;
+    }
+
+    @Override
+    public Color getBackground() {
+        return background;
+    }
+
+    @Override
+    public void setStroke( final Stroke stroke ) {
+        if ( stroke != null ) {
+            this.stroke = stroke;
+        }
+    }
+
+    @Override
+    public Stroke getStroke() {
+        return stroke;
+    }
+
+    @Override
+    public void setFont( final Font font ) {
+        if ( font != null ) {
+            this.font = font;
+        }
+    }
+
+    @Override
+    public Font getFont() {
+        return font;
+    }
+
+    @Override
+    public FontMetrics getFontMetrics( final Font metricsFont ) {
+        return scratchGraphics.getFontMetrics( metricsFont );
+    }
+
+    @Override
+    public FontRenderContext getFontRenderContext() {
+        return new FontRenderContext( new AffineTransform(),
+                                      RenderingHints.VALUE_TEXT_ANTIALIAS_ON
+                                              .equals( hints
+                                                      .get( RenderingHints.KEY_TEXT_ANTIALIASING ) ),
+                                      RenderingHints.VALUE_FRACTIONALMETRICS_ON
+                                              .equals( hints
+                                                      .get( RenderingHints.KEY_FRACTIONALMETRICS ) ) );
+    }
+
+    @Override
+    public void setRenderingHint( final RenderingHints.Key hintKey, final Object hintValue ) {
+        hints.put( hintKey, hintValue );
+    }
+
+    @Override
+    public Object getRenderingHint( final RenderingHints.Key hintKey ) {
+        return hints.get( hintKey );
+    }
+
+    @Override
+    public void setRenderingHints( final Map< ?, ? > renderingHints ) {
+        hints.clear();
+        hints.putAll( renderingHints );
+    }
+
+    @Override
+    public void addRenderingHints( final Map< ?, ? > renderingHints ) {
+        hints.putAll( renderingHints );
+    }
+
+    @Override
+    public RenderingHints getRenderingHints() {
+        return ( RenderingHints ) hints.clone();
+    }
+
+    @Override
+    public void translate( final int x, final int y ) {
+        transform.translate( x, y );
+    }
+
+    @Override
+    public void translate( final double tx, final double ty ) {
+        transform.translate( tx, ty );
+    }
+
+    @Override
+    public void rotate( final double theta ) {
+        transform.rotate( theta );
+    }
+
+    @Override
+    public void rotate( final double theta, final double x, final double y ) {
+        transform.rotate( theta, x, y );
+    }
+
+    @Override
+    public void scale( final double sx, final double sy ) {
+        transform.scale( sx, sy );
+    }
+
+    @Override
+    public void shear( final double shx, final double shy ) {
+        transform.shear( shx, shy );
+    }
+
+    @Override
+    public void transform( final AffineTransform transformToConcatenate ) {
+        transform.concatenate( transformToConcatenate );
+    }
+
+    @Override
+    public void setTransform( final AffineTransform newTransform ) {
+        transform = new AffineTransform( newTransform );
+    }
+
+    @Override
+    public AffineTransform getTransform() {
+        return new AffineTransform( transform );
+    }
+
+    @Override
+    public void clip( final Shape shape ) {
+        if ( shape == null ) {
+            deviceClip = null;
+            return;
+        }
+
+        final Shape newClip = toDeviceSpace( shape );
+        if ( deviceClip == null ) {
+            deviceClip = newClip;
+        }
+        else if ( ( deviceClip instanceof Rectangle2D ) && ( newClip instanceof Rectangle2D ) ) {
+            // Intersecting rectangles is by far the most common case, and is
+            // much cheaper than going through constructive area geometry.
+            deviceClip = ( ( Rectangle2D ) deviceClip )
+                    .createIntersection( ( Rectangle2D ) newClip );
+        }
+        else {
+            final Area clipArea = new Area( deviceClip );
+            clipArea.intersect( new Area( newClip ) );
+            deviceClip = clipArea;
+        }
+    }
+
+    @Override
+    public void clipRect( final int x, final int y, final int width, final int height ) {
+        clip( new Rectangle( x, y, width, height ) );
+    }
+
+    @Override
+    public void setClip( final int x, final int y, final int width, final int height ) {
+        setClip( new Rectangle( x, y, width, height ) );
+    }
+
+    @Override
+    public void setClip( final Shape shape ) {
+        deviceClip = ( shape != null ) ? toDeviceSpace( shape ) : null;
+    }
+
+    @Override
+    public Shape getClip() {
+        if ( deviceClip == null ) {
+            return null;
+        }
+
+        try {
+            return transform.createInverse().createTransformedShape( deviceClip );
+        }
+        catch ( final NoninvertibleTransformException nte ) {
+            return null;
+        }
+    }
+
+    @Override
+    public Rectangle getClipBounds() {
+        final Shape clip = getClip();
+        return ( clip != null ) ? clip.getBounds() : null;
+    }
+
+}
@@ -0,0 +1,354 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxConverter Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxConverter Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxconverter
+ */
+package com.mhschmieder.fxvectorexport.pdf;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * {@code PdfObjectWriter} writes the low-level structure of a PDF file to an
+ * {@link OutputStream} incrementally: each indirect object is written as soon
+ * as it is complete, its byte offset is recorded, and the cross-reference
+ * table is written at the very end from the recorded offsets.
+ * <p>
+ * Object numbers may be reserved ahead of time, so that objects can refer to
+ * objects that will only be written later (such as the page tree, or the
+ * length of a stream whose size isn't known until it ends).
+ *
+ * @version 1.0
+ *
+ * @author Mark Schmieder
+ */
+final class PdfObjectWriter {
+
+    /**
+     * The output stream, which keeps track of the current byte offset.
+     */
+    private final PositionOutputStream outputStream;
+
+    /**
+     * The byte offsets of the indirect objects, indexed by object number.
+     */
+    private long[]                     objectOffsets;
+
+    /**
+     * The number of object numbers allocated so far, including object zero.
+     */
+    private int                        objectCount;
+
+    /**
+     * The deflater of the stream currently being written, if compressed.
+     */
+    private Deflater                   deflater;
+
+    /**
+     * The output stream for the content of the stream currently being written.
+     */
+    private OutputStream               streamOutputStream;
+
+    /**
+     * The object number reserved for the length of the current stream.
+     */
+    private int                        streamLengthObject;
+
+    /**
+     * The byte offset where the data of the current stream starts.
+     */
+    private long                       streamStart;
+
+    /**
+     * Constructs an object writer on top of the provided output stream.
+     *
+     * @param outputStream
+     *            The {@link OutputStream} for channeling the PDF content
+     */
+    PdfObjectWriter( final OutputStream outputStream ) {
+        this.outputStream = new PositionOutputStream( outputStream );
+
+        objectOffsets = new long[ 64 ];
+        objectCount = 1;
+        deflater = null;
+        streamOutputStream = null;
+    }
+
+    /**
+     * Writes the PDF file header, including the comment line of binary
+     * characters that tells transfer programs not to treat the file as text.
+     *
+     * @throws IOException
+     *             If the header could not be written
+     */
+    void writeHeader() throws IOException {
+        write( "%PDF-1.4\n" ); //$NON-NLS-1$
+        outputStream.write( new byte[] { '%', ( byte ) 0xe2, ( byte ) 0xe3, ( byte ) 0xcf,
+                                         ( byte ) 0xd3, '\n' } );
+    }
+
+    /**
+     * Reserves the next object number, for an object to be written later.
+     *
+     * @return The reserved object number
+     */
+    int reserveObject() {
+        if ( objectCount == objectOffsets.length ) {
+            objectOffsets = Arrays.copyOf( objectOffsets, 2 * objectOffsets.length );
+        }
+        return objectCount++;
+    }
+
+    /**
+     * Begins writing an indirect object, recording its byte offset.
+     *
+     * @param objectNumber
+     *            The previously reserved number of the object
+     * @throws IOException
+     *             If the object could not be written
+     */
+    void beginObject( final int objectNumber ) throws IOException {
+        objectOffsets[ objectNumber ] = outputStream.getPosition();
+        write( objectNumber + " 0 obj\n" ); //$NON-NLS-1$
+    }
+
+    /**
+     * Ends writing the current indirect object.
+     *
+     * @throws IOException
+     *             If the object could not be written
+     */
+    void endObject() throws IOException {
+        write( "\nendobj\n" ); //$NON-NLS-1$
+    }
+
+    /**
+     * Writes a complete indirect object with the given content.
+     *
+     * @param objectNumber
+     *            The previously reserved number of the object
+     * @param content
+     *            The content of the object, such as a dictionary
+     * @throws IOException
+     *             If the object could not be written
+     */
+    void writeObject( final int objectNumber, final CharSequence content ) throws IOException {
+        beginObject( objectNumber );
+        write( content );
+        endObject();
+    }
+
+    /**
+     * Begins writing a stream object, whose length is written as a separate
+     * object once the stream ends so that the data can be written straight
+     * through without knowing its size up front.
+     *
+     * @param objectNumber
+     *            The previously reserved number of the stream object
+     * @param dictionaryEntries
+     *            The entries of the stream dictionary, other than the length
+     *            and filter
+     * @param compress
+     *            {@code true} to compress the stream data with Flate
+     * @return The {@link OutputStream} for the stream data, which must not be
+     *         closed; {@link #endStream()} must be called instead
+     * @throws IOException
+     *             If the stream could not be written
+     */
+    @SuppressWarnings("nls")
+    OutputStream beginStream( final int objectNumber,
+                              final CharSequence dictionaryEntries,
+                              final boolean compress )
+            throws IOException {
+        streamLengthObject = reserveObject();
+
+        beginObject( objectNumber );
+        write( "<< /Length " + streamLengthObject + " 0 R" );
+        if ( compress ) {
+            write( " /Filter /FlateDecode" );
+        }
+        write( dictionaryEntries );
+        write( " >>\nstream\n" );
+        streamStart = outputStream.getPosition();
+
+        final OutputStream unclosableOutputStream = new FilterOutputStream( outputStream ) {
+            @Override
+            public void write( final byte[] b, final int off, final int len ) throws IOException {
+                out.write( b, off, len );
+            }
+
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+        if ( compress ) {
+            deflater = new Deflater( Deflater.DEFAULT_COMPRESSION );
+            streamOutputStream = new DeflaterOutputStream( unclosableOutputStream, deflater, 8192 );
+        }
+        else {
+            streamOutputStream = unclosableOutputStream;
+        }
+
+        return streamOutputStream;
+    }
+
+    /**
+     * Returns whether a stream object is currently being written.
+     *
+     * @return {@code true} if a stream object is currently being written
+     */
+    boolean isInStream() {
+        return streamOutputStream != null;
+    }
+
+    /**
+     * Ends writing the current stream object, and writes its length object.
+     *
+     * @throws IOException
+     *             If the stream could not be written
+     */
+    @SuppressWarnings("nls")
+    void endStream() throws IOException {
+        try {
+            if ( streamOutputStream instanceof DeflaterOutputStream ) {
+                ( ( DeflaterOutputStream ) streamOutputStream ).finish();
+            }
+        }
+        finally {
+            if ( deflater != null ) {
+                // Release the native memory right away rather than on GC.
+                deflater.end();
+                deflater = null;
+            }
+            streamOutputStream = null;
+        }
+
+        final long streamLength = outputStream.getPosition() - streamStart;
+        write( "\nendstream" );
+        endObject();
+        writeObject( streamLengthObject, Long.toString( streamLength ) );
+    }
+
+    /**
+     * Writes the cross-reference table and the trailer, and flushes the output.
+     * Every reserved object must have been written by the time this is called.
+     *
+     * @param rootObject
+     *            The object number of the document catalog
+     * @param infoObject
+     *            The object number of the document information dictionary
+     * @throws IOException
+     *             If the cross-reference table could not be written
+     */
+    @SuppressWarnings("nls")
+    void writeTrailer( final int rootObject, final int infoObject ) throws IOException {
+        final long xrefOffset = outputStream.getPosition();
+
+        final StringBuilder xref = new StringBuilder( 20 * ( objectCount + 4 ) );
+        xref.append( "xref\n0 " ).append( objectCount ).append( '\n' );
+        xref.append( "0000000000 65535 f \n" );
+        for ( int i = 1; i < objectCount; i++ ) {
+            final String offset = Long.toString( objectOffsets[ i ] );
+            for ( int padding = offset.length(); padding < 10; padding++ ) {
+                xref.append( '0' );
+            }
+            xref.append( offset ).append( " 00000 n \n" );
+        }
+        xref.append( "trailer\n<< /Size " ).append( objectCount );
+        xref.append( " /Root " ).append( rootObject ).append( " 0 R" );
+        xref.append( " /Info " ).append( infoObject ).append( " 0 R >>\n" );
+        xref.append( "startxref\n" ).append( xrefOffset ).append( "\n%%EOF\n" );
+        write( xref );
+
+        outputStream.flush();
+    }
+
+    /**
+     * Writes text to the output, which must only contain characters that are
+     * encoded as single bytes in ISO-8859-1 (which covers all PDF syntax).
+     *
+     * @param text
+     *            The text to write
+     * @throws IOException
+     *             If the text could not be written
+     */
+    void write( final CharSequence text ) throws IOException {
+        outputStream.write( text.toString().getBytes( StandardCharsets.ISO_8859_1 ) );
+    }
+
+    /**
+     * {@code PositionOutputStream} keeps track of the number of bytes written
+     * through it, which is the byte offset of the next object.
+     */
+    private static final class PositionOutputStream extends FilterOutputStream {
+
+        /**
+         * The number of bytes written so far.
+         */
+        private long position = 0L;
+
+        /**
+         * Constructs a position tracking stream on top of the provided stream.
+         *
+         * @param outputStream
+         *            The {@link OutputStream} to track
+         */
+        PositionOutputStream( final OutputStream outputStream ) {
+            super( outputStream );
+        }
+
+        /**
+         * Returns the number of bytes written so far.
+         *
+         * @return The number of bytes written so far
+         */
+        long getPosition() {
+            return position;
+        }
+
+        @Override
+        public void write( final int b ) throws IOException {
+            out.write( b );
+            position++;
+        }
+
+        @Override
+        public void write( final byte[] b, final int off, final int len ) throws IOException {
+            out.write( b, off, len );
+            position += len;
+        }
+
+    }
+
+}
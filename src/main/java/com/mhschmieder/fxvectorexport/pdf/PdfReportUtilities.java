@@ -30,6 +30,9 @@
  */
 package com.mhschmieder.fxvectorexport.pdf;
 
+import com.mhschmieder.fxvectorexport.ExportMonitor;
+import com.mhschmieder.fxvectorexport.FileChannelOutputStream;
+import com.mhschmieder.fxvectorexport.capture.SceneSnapshot;
 import com.mhschmieder.jgraphics.GraphicsUtilities;
 import com.mhschmieder.jgraphics.color.ColorMode;
 import com.orsonpdf.PDFDocument;
@@ -41,11 +44,14 @@ import javafx.print.Paper;
 import javafx.scene.Node;
 import org.jfxconverter.JFXConverter;
 
+import java.awt.Graphics2D;
 import java.awt.geom.Rectangle2D;
-import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.function.Consumer;
 
 /**
  * {@code pdfreportUtilities} is a utility class for methods that export a
@@ -145,27 +151,362 @@ public final class PdfReportUtilities {
                                           final double pageHeight,
                                           final ColorMode colorMode,
                                           final boolean useVectorizedText ) {
+        return createDocument( file.toPath(),
+                               node.getBoundsInParent(),
+                               pdfGraphics -> new JFXConverter().convert( pdfGraphics, node ),
+                               title,
+                               author,
+                               pageWidth,
+                               pageHeight,
+                               colorMode,
+                               useVectorizedText,
+                               false );
+    }
+
+    /**
+     * Creates the PDF Document corresponding to the {@link Node}, and writes it
+     * to the provided {@link File}, optionally streaming each PDF object to it
+     * as soon as it is finished rather than building the whole PDF Document in
+     * memory first.
+     * <p>
+     * Streaming brings the peak memory use down from the size of the document
+     * to the size of the largest image, as content streams and images are
+     * compressed on the fly and only the object offsets are kept until the
+     * cross-reference table is written at the end.
+     *
+     * @param file
+     *            The {@link File} destination for writing the PDF content
+     * @param node
+     *            The {@link Node} to convert to AWT and then export to PDF
+     * @param title
+     *            The {@link String} to use as the PDF Document's title
+     * @param author
+     *            The {@link String} to use as the PDF Document's author
+     * @param pageWidth
+     *            The target page width, usually in points (1/72 inch)
+     * @param pageHeight
+     *            The target page height, usually in points (1/72 inch)
+     * @param colorMode
+     *            The {@link ColorMode} to use, compatible with PDF specs
+     * @param useVectorizedText
+     *            Set to {@code true} if Vectorized Text Mode is desired;
+     *            {@code false} otherwise (that is, if text is to be rendered as
+     *            strings, sometimes referred to as Basic Text Mode)
+     * @param useStreaming
+     *            Set to {@code true} to write each PDF object as it is finished
+     * @return The status of whether this PDF export succeeded or not
+     *
+     * @since 1.0
+     */
+    public static boolean createDocument( final File file,
+                                          final Node node,
+                                          final String title,
+                                          final String author,
+                                          final double pageWidth,
+                                          final double pageHeight,
+                                          final ColorMode colorMode,
+                                          final boolean useVectorizedText,
+                                          final boolean useStreaming ) {
+        return createDocument( file.toPath(),
+                               node.getBoundsInParent(),
+                               pdfGraphics -> new JFXConverter().convert( pdfGraphics, node ),
+                               title,
+                               author,
+                               pageWidth,
+                               pageHeight,
+                               colorMode,
+                               useVectorizedText,
+                               useStreaming );
+    }
+
+    /**
+     * Creates the PDF Document corresponding to a previously captured
+     * {@link SceneSnapshot}, and writes it to the provided {@link File}.
+     * <p>
+     * As the snapshot holds no reference to the live Scene Graph, this can be
+     * invoked from a background thread so that the JavaFX Application Thread
+     * is only blocked for the duration of the capture.
+     * <p>
+     * Note that the Color Mode isn't used yet, until JFreePDF supports it.
+     *
+     * @param file
+     *            The {@link File} destination for writing the PDF content
+     * @param snapshot
+     *            The {@link SceneSnapshot} to replay and then export to PDF
+     * @param title
+     *            The {@link String} to use as the PDF Document's title
+     * @param author
+     *            The {@link String} to use as the PDF Document's author
+     * @param pageWidth
+     *            The target page width, usually in points (1/72 inch)
+     * @param pageHeight
+     *            The target page height, usually in points (1/72 inch)
+     * @param colorMode
+     *            The {@link ColorMode} to use, compatible with PDF specs
+     * @param useVectorizedText
+     *            Set to {@code true} if Vectorized Text Mode is desired;
+     *            {@code false} otherwise (that is, if text is to be rendered as
+     *            strings, sometimes referred to as Basic Text Mode)
+     * @return The status of whether this PDF export succeeded or not
+     *
+     * @since 1.0
+     */
+    public static boolean createDocument( final File file,
+                                          final SceneSnapshot snapshot,
+                                          final String title,
+                                          final String author,
+                                          final double pageWidth,
+                                          final double pageHeight,
+                                          final ColorMode colorMode,
+                                          final boolean useVectorizedText ) {
+        return createDocument( file.toPath(),
+                               snapshot.getBounds(),
+                               snapshot::replay,
+                               title,
+                               author,
+                               pageWidth,
+                               pageHeight,
+                               colorMode,
+                               useVectorizedText,
+                               false );
+    }
+
+    /**
+     * Creates the PDF Document corresponding to a previously captured
+     * {@link SceneSnapshot}, and writes it to the provided {@link OutputStream}
+     * using JFreePDF, reporting progress to the provided monitor and stopping
+     * as soon as the monitor is cancelled.
+     * <p>
+     * Unlike the other methods, this one propagates errors to the caller, as it
+     * is meant for asynchronous clients that need to know why an export failed.
+     * The stream is flushed but not closed, as it is owned by the caller.
+     *
+     * @param outputStream
+     *            The wrapped {@link OutputStream} for channeling the PDF
+     *            content
+     * @param snapshot
+     *            The {@link SceneSnapshot} to replay and then export to PDF
+     * @param title
+     *            The {@link String} to use as the PDF Document's title
+     * @param author
+     *            The {@link String} to use as the PDF Document's author
+     * @param pageWidth
+     *            The target page width, usually in points (1/72 inch)
+     * @param pageHeight
+     *            The target page height, usually in points (1/72 inch)
+     * @param colorMode
+     *            The {@link ColorMode} to use, compatible with PDF specs
+     * @param useVectorizedText
+     *            Set to {@code true} if Vectorized Text Mode is desired;
+     *            {@code false} otherwise (that is, if text is to be rendered as
+     *            strings, sometimes referred to as Basic Text Mode)
+     * @param useStreaming
+     *            Set to {@code true} to write each PDF object as it is
+     *            finished, rather than building the whole PDF Document in
+     *            memory first
+     * @param monitor
+     *            The {@link ExportMonitor} for progress, cancellation and
+     *            counting of the bytes written
+     * @throws IOException
+     *             If the PDF Document could not be written
+     * @throws com.mhschmieder.fxvectorexport.ExportCancelledException
+     *             If the monitor was cancelled during the export
+     *
+     * @since 1.0
+     */
+    public static void writeDocument( final OutputStream outputStream,
+                                      final SceneSnapshot snapshot,
+                                      final String title,
+                                      final String author,
+                                      final double pageWidth,
+                                      final double pageHeight,
+                                      final ColorMode colorMode,
+                                      final boolean useVectorizedText,
+                                      final boolean useStreaming,
+                                      final ExportMonitor monitor )
+            throws IOException {
+        final OutputStream monitoredOutputStream = monitor.monitor( outputStream );
+        writeDocument( monitoredOutputStream,
+                       snapshot.getBounds(),
+                       pdfGraphics -> snapshot.replay( pdfGraphics, monitor ),
+                       title,
+                       author,
+                       pageWidth,
+                       pageHeight,
+                       colorMode,
+                       useVectorizedText,
+                       useStreaming,
+                       monitor );
+        monitoredOutputStream.flush();
+    }
+
+    /**
+     * Creates the PDF Document corresponding to the {@link Node}, and writes it
+     * to the provided {@link Path}.
+     * <p>
+     * The PDF content goes through a {@link java.nio.channels.FileChannel} to
+     * a temporary file, which replaces the target file only once the PDF
+     * Document is complete, so that a failed export leaves any previous
+     * version of the file intact.
+     *
+     * @param path
+     *            The {@link Path} destination for writing the PDF content
+     * @param node
+     *            The {@link Node} to convert to AWT and then export to PDF
+     * @param title
+     *            The {@link String} to use as the PDF Document's title
+     * @param author
+     *            The {@link String} to use as the PDF Document's author
+     * @param pageWidth
+     *            The target page width, usually in points (1/72 inch)
+     * @param pageHeight
+     *            The target page height, usually in points (1/72 inch)
+     * @param colorMode
+     *            The {@link ColorMode} to use, compatible with PDF specs
+     * @param useVectorizedText
+     *            Set to {@code true} if Vectorized Text Mode is desired;
+     *            {@code false} otherwise (that is, if text is to be rendered as
+     *            strings, sometimes referred to as Basic Text Mode)
+     * @param useStreaming
+     *            Set to {@code true} to write each PDF object as it is finished
+     * @return The status of whether this PDF export succeeded or not
+     *
+     * @since 1.0
+     */
+    public static boolean createDocument( final Path path,
+                                          final Node node,
+                                          final String title,
+                                          final String author,
+                                          final double pageWidth,
+                                          final double pageHeight,
+                                          final ColorMode colorMode,
+                                          final boolean useVectorizedText,
+                                          final boolean useStreaming ) {
+        return createDocument( path,
+                               node.getBoundsInParent(),
+                               pdfGraphics -> new JFXConverter().convert( pdfGraphics, node ),
+                               title,
+                               author,
+                               pageWidth,
+                               pageHeight,
+                               colorMode,
+                               useVectorizedText,
+                               useStreaming );
+    }
+
+    /**
+     * Creates the PDF Document corresponding to a previously captured
+     * {@link SceneSnapshot}, and writes it to the provided {@link Path}.
+     * <p>
+     * The PDF content goes through a {@link java.nio.channels.FileChannel} to
+     * a temporary file, which replaces the target file only once the PDF
+     * Document is complete, so that a failed export leaves any previous
+     * version of the file intact.
+     *
+     * @param path
+     *            The {@link Path} destination for writing the PDF content
+     * @param snapshot
+     *            The {@link SceneSnapshot} to replay and then export to PDF
+     * @param title
+     *            The {@link String} to use as the PDF Document's title
+     * @param author
+     *            The {@link String} to use as the PDF Document's author
+     * @param pageWidth
+     *            The target page width, usually in points (1/72 inch)
+     * @param pageHeight
+     *            The target page height, usually in points (1/72 inch)
+     * @param colorMode
+     *            The {@link ColorMode} to use, compatible with PDF specs
+     * @param useVectorizedText
+     *            Set to {@code true} if Vectorized Text Mode is desired;
+     *            {@code false} otherwise (that is, if text is to be rendered as
+     *            strings, sometimes referred to as Basic Text Mode)
+     * @param useStreaming
+     *            Set to {@code true} to write each PDF object as it is finished
+     * @return The status of whether this PDF export succeeded or not
+     *
+     * @since 1.0
+     */
+    public static boolean createDocument( final Path path,
+                                          final SceneSnapshot snapshot,
+                                          final String title,
+                                          final String author,
+                                          final double pageWidth,
+                                          final double pageHeight,
+                                          final ColorMode colorMode,
+                                          final boolean useVectorizedText,
+                                          final boolean useStreaming ) {
+        return createDocument( path,
+                               snapshot.getBounds(),
+                               snapshot::replay,
+                               title,
+                               author,
+                               pageWidth,
+                               pageHeight,
+                               colorMode,
+                               useVectorizedText,
+                               useStreaming );
+    }
+
+    /**
+     * Creates the PDF Document whose content is painted by the provided
+     * painter, and writes it to the provided {@link Path}.
+     *
+     * @param path
+     *            The {@link Path} destination for writing the PDF content
+     * @param bounds
+     *            The bounds of the content, with all transforms applied
+     * @param painter
+     *            The painter that issues the AWT calls for the content
+     * @param title
+     *            The {@link String} to use as the PDF Document's title
+     * @param author
+     *            The {@link String} to use as the PDF Document's author
+     * @param pageWidth
+     *            The target page width, usually in points (1/72 inch)
+     * @param pageHeight
+     *            The target page height, usually in points (1/72 inch)
+     * @param colorMode
+     *            The {@link ColorMode} to use, compatible with PDF specs
+     * @param useVectorizedText
+     *            Set to {@code true} if Vectorized Text Mode is desired
+     * @param useStreaming
+     *            Set to {@code true} to stream each PDF object as it is finished
+     * @return The status of whether this PDF export succeeded or not
+     */
+    private static boolean createDocument( final Path path,
+                                           final Bounds bounds,
+                                           final Consumer< Graphics2D > painter,
+                                           final String title,
+                                           final String author,
+                                           final double pageWidth,
+                                           final double pageHeight,
+                                           final ColorMode colorMode,
+                                           final boolean useVectorizedText,
+                                           final boolean useStreaming ) {
         boolean fileSaved = false;
 
-        // Using a safe try-with-resources clause, chain a BufferedOutputStream
-        // to a FileOutputStream using the former output wrapper's default
-        // UTF-16 encoding (which also matches PDF's default), for better
-        // performance and to guarantee platform-independence of newlines and
-        // overall system-neutrality and locale-sensitivity of text data. As
-        // JFreePDF returns the entire file contents as a byte array, we must
-        // use {@link BufferedOutputStream} instead of {@link FileWriter}.
-        try ( final FileOutputStream fileOutputStream = new FileOutputStream( file );
-                final BufferedOutputStream bufferedOutputStream =
-                                                                new BufferedOutputStream( fileOutputStream ) ) {
-            // Write the PDF contents indirectly via JFXConverter.
-            fileSaved = createDocument( bufferedOutputStream,
-                                        node,
-                                        title,
-                                        author,
-                                        pageWidth,
-                                        pageHeight,
-                                        colorMode,
-                                        useVectorizedText );
+        // Using a safe try-with-resources clause, write the PDF bytes through
+        // a FileChannel based stream, which copies them once into a pooled
+        // direct buffer rather than once per layer of a buffered stream chain.
+        try ( final FileChannelOutputStream fileChannelOutputStream =
+                                                                    new FileChannelOutputStream( path ) ) {
+            // Write the PDF contents indirectly via the painter.
+            writeDocument( fileChannelOutputStream,
+                           bounds,
+                           painter,
+                           title,
+                           author,
+                           pageWidth,
+                           pageHeight,
+                           colorMode,
+                           useVectorizedText,
+                           useStreaming,
+                           new ExportMonitor() );
+
+            // Only replace the target file once the document is complete.
+            fileChannelOutputStream.commit();
+            fileSaved = true;
         }
         catch ( final Exception e ) {
             e.printStackTrace();
@@ -211,14 +552,254 @@ public final class PdfReportUtilities {
                                           final double pageHeight,
                                           final ColorMode colorMode,
                                           final boolean useVectorizedText ) {
-        boolean fileSaved = false;
-
         // We need bounds in parent vs. bounds in local, so that all transforms
         // are applied and we don't get anomalies such as vertically clipped or
         // offset output (if for instance the Node corresponds to a Layout Pane
         // doesn't include the Tool Bar or the Menu Bar and thus has a non-zero
         // minX and/or minY, causing an unwanted gap at top of document).
-        final Bounds bounds = node.getBoundsInParent();
+        return createDocument( outputStream,
+                               node.getBoundsInParent(),
+                               pdfGraphics -> new JFXConverter().convert( pdfGraphics, node ),
+                               title,
+                               author,
+                               pageWidth,
+                               pageHeight,
+                               colorMode,
+                               useVectorizedText,
+                               false );
+    }
+
+    /**
+     * Creates the PDF Document corresponding to the {@link Node}, and writes it
+     * to the provided {@link OutputStream}, optionally streaming each PDF object to it
+     * as soon as it is finished rather than building the whole PDF Document in
+     * memory first.
+     * <p>
+     * Streaming brings the peak memory use down from the size of the document
+     * to the size of the largest image, as content streams and images are
+     * compressed on the fly and only the object offsets are kept until the
+     * cross-reference table is written at the end.
+     *
+     * @param outputStream
+     *            The wrapped {@link OutputStream} for channeling the PDF
+     *            content
+     * @param node
+     *            The {@link Node} to convert to AWT and then export to PDF
+     * @param title
+     *            The {@link String} to use as the PDF Document's title
+     * @param author
+     *            The {@link String} to use as the PDF Document's author
+     * @param pageWidth
+     *            The target page width, usually in points (1/72 inch)
+     * @param pageHeight
+     *            The target page height, usually in points (1/72 inch)
+     * @param colorMode
+     *            The {@link ColorMode} to use, compatible with PDF specs
+     * @param useVectorizedText
+     *            Set to {@code true} if Vectorized Text Mode is desired;
+     *            {@code false} otherwise (that is, if text is to be rendered as
+     *            strings, sometimes referred to as Basic Text Mode)
+     * @param useStreaming
+     *            Set to {@code true} to write each PDF object as it is finished
+     * @return The status of whether this PDF export succeeded or not
+     *
+     * @since 1.0
+     */
+    public static boolean createDocument( final OutputStream outputStream,
+                                          final Node node,
+                                          final String title,
+                                          final String author,
+                                          final double pageWidth,
+                                          final double pageHeight,
+                                          final ColorMode colorMode,
+                                          final boolean useVectorizedText,
+                                          final boolean useStreaming ) {
+        return createDocument( outputStream,
+                               node.getBoundsInParent(),
+                               pdfGraphics -> new JFXConverter().convert( pdfGraphics, node ),
+                               title,
+                               author,
+                               pageWidth,
+                               pageHeight,
+                               colorMode,
+                               useVectorizedText,
+                               useStreaming );
+    }
+
+    /**
+     * Creates the PDF Document corresponding to a previously captured
+     * {@link SceneSnapshot}, and writes it to the provided {@link OutputStream}
+     * using JFreePDF.
+     * <p>
+     * As the snapshot holds no reference to the live Scene Graph, this can be
+     * invoked from a background thread so that the JavaFX Application Thread
+     * is only blocked for the duration of the capture.
+     * <p>
+     * Note that the Color Mode isn't used yet, until JFreePDF supports it.
+     *
+     * @param outputStream
+     *            The wrapped {@link OutputStream} for channeling the PDF
+     *            content
+     * @param snapshot
+     *            The {@link SceneSnapshot} to replay and then export to PDF
+     * @param title
+     *            The {@link String} to use as the PDF Document's title
+     * @param author
+     *            The {@link String} to use as the PDF Document's author
+     * @param pageWidth
+     *            The target page width, usually in points (1/72 inch)
+     * @param pageHeight
+     *            The target page height, usually in points (1/72 inch)
+     * @param colorMode
+     *            The {@link ColorMode} to use, compatible with PDF specs
+     * @param useVectorizedText
+     *            Set to {@code true} if Vectorized Text Mode is desired;
+     *            {@code false} otherwise (that is, if text is to be rendered as
+     *            strings, sometimes referred to as Basic Text Mode)
+     * @return The status of whether this PDF export succeeded or not
+     *
+     * @since 1.0
+     */
+    public static boolean createDocument( final OutputStream outputStream,
+                                          final SceneSnapshot snapshot,
+                                          final String title,
+                                          final String author,
+                                          final double pageWidth,
+                                          final double pageHeight,
+                                          final ColorMode colorMode,
+                                          final boolean useVectorizedText ) {
+        return createDocument( outputStream,
+                               snapshot.getBounds(),
+                               snapshot::replay,
+                               title,
+                               author,
+                               pageWidth,
+                               pageHeight,
+                               colorMode,
+                               useVectorizedText,
+                               false );
+    }
+
+    /**
+     * Creates the PDF Document whose content is painted by the provided
+     * painter, and writes it to the provided {@link OutputStream} using
+     * JFreePDF.
+     *
+     * @param outputStream
+     *            The wrapped {@link OutputStream} for channeling the PDF
+     *            content
+     * @param bounds
+     *            The bounds of the content, with all transforms applied
+     * @param painter
+     *            The painter that issues the AWT calls for the content
+     * @param title
+     *            The {@link String} to use as the PDF Document's title
+     * @param author
+     *            The {@link String} to use as the PDF Document's author
+     * @param pageWidth
+     *            The target page width, usually in points (1/72 inch)
+     * @param pageHeight
+     *            The target page height, usually in points (1/72 inch)
+     * @param colorMode
+     *            The {@link ColorMode} to use, compatible with PDF specs
+     * @param useVectorizedText
+     *            Set to {@code true} if Vectorized Text Mode is desired
+     * @param useStreaming
+     *            Set to {@code true} to stream each PDF object as it is finished
+     * @return The status of whether this PDF export succeeded or not
+     */
+    private static boolean createDocument( final OutputStream outputStream,
+                                           final Bounds bounds,
+                                           final Consumer< Graphics2D > painter,
+                                           final String title,
+                                           final String author,
+                                           final double pageWidth,
+                                           final double pageHeight,
+                                           final ColorMode colorMode,
+                                           final boolean useVectorizedText,
+                                           final boolean useStreaming ) {
+        boolean fileSaved = false;
+
+        try {
+            writeDocument( outputStream,
+                           bounds,
+                           painter,
+                           title,
+                           author,
+                           pageWidth,
+                           pageHeight,
+                           colorMode,
+                           useVectorizedText,
+                           useStreaming,
+                           new ExportMonitor() );
+
+            // If we got this far without exceptions, the file was saved.
+            fileSaved = true;
+        }
+        catch ( final Exception e ) {
+            e.printStackTrace();
+        }
+
+        return fileSaved;
+    }
+
+    /**
+     * Writes the PDF Document whose content is painted by the provided painter
+     * to the provided {@link OutputStream} using JFreePDF, propagating any
+     * errors.
+     *
+     * @param outputStream
+     *            The wrapped {@link OutputStream} for channeling the PDF
+     *            content
+     * @param bounds
+     *            The bounds of the content, with all transforms applied
+     * @param painter
+     *            The painter that issues the AWT calls for the content
+     * @param title
+     *            The {@link String} to use as the PDF Document's title
+     * @param author
+     *            The {@link String} to use as the PDF Document's author
+     * @param pageWidth
+     *            The target page width, usually in points (1/72 inch)
+     * @param pageHeight
+     *            The target page height, usually in points (1/72 inch)
+     * @param colorMode
+     *            The {@link ColorMode} to use, compatible with PDF specs
+     * @param useVectorizedText
+     *            Set to {@code true} if Vectorized Text Mode is desired
+     * @param useStreaming
+     *            Set to {@code true} to stream each PDF object as it is finished
+     * @param monitor
+     *            The {@link ExportMonitor} that is told when rendering ends
+     * @throws IOException
+     *             If the PDF Document could not be written
+     */
+    private static void writeDocument( final OutputStream outputStream,
+                                       final Bounds bounds,
+                                       final Consumer< Graphics2D > painter,
+                                       final String title,
+                                       final String author,
+                                       final double pageWidth,
+                                       final double pageHeight,
+                                       final ColorMode colorMode,
+                                       final boolean useVectorizedText,
+                                       final boolean useStreaming,
+                                       final ExportMonitor monitor )
+            throws IOException {
+        if ( useStreaming ) {
+            streamDocument( outputStream,
+                            bounds,
+                            painter,
+                            title,
+                            author,
+                            pageWidth,
+                            pageHeight,
+                            colorMode,
+                            useVectorizedText,
+                            monitor );
+            return;
+        }
+
         final double minX = bounds.getMinX();
         final double minY = bounds.getMinY();
         final double maxX = bounds.getMaxX();
@@ -259,25 +840,86 @@ public final class PdfReportUtilities {
                                                              pageWidth,
                                                              pageHeight );
 
-        try {
-            // Write the PDF contents to memory indirectly via JFXConverter.
-            final JFXConverter converter = new JFXConverter();
-            converter.convert( pdfGraphics, node );
+        // Write the PDF contents to memory indirectly via the painter.
+        painter.accept( pdfGraphics );
+        monitor.renderFinished();
 
-            // Get the full PDF Document as an encoded byte array.
-            final byte[] pdfBytes = document.getPDFBytes();
+        // Get the full PDF Document as an encoded byte array.
+        final byte[] pdfBytes = document.getPDFBytes();
 
-            // Save the PDF Document from memory to disc.
-            outputStream.write( pdfBytes );
+        // Save the PDF Document from memory to disc.
+        outputStream.write( pdfBytes );
+    }
 
-            // If we got this far without exceptions, the file was saved.
-            fileSaved = true;
+    /**
+     * Writes the PDF Document whose content is painted by the provided painter
+     * to the provided {@link OutputStream}, streaming each PDF object as soon
+     * as it is finished so that memory use stays bounded regardless of the
+     * size of the drawing.
+     *
+     * @param outputStream
+     *            The wrapped {@link OutputStream} for channeling the PDF
+     *            content
+     * @param bounds
+     *            The bounds of the content, with all transforms applied
+     * @param painter
+     *            The painter that issues the AWT calls for the content
+     * @param title
+     *            The {@link String} to use as the PDF Document's title
+     * @param author
+     *            The {@link String} to use as the PDF Document's author
+     * @param pageWidth
+     *            The target page width, usually in points (1/72 inch)
+     * @param pageHeight
+     *            The target page height, usually in points (1/72 inch)
+     * @param colorMode
+     *            The {@link ColorMode} to use, compatible with PDF specs
+     * @param useVectorizedText
+     *            Set to {@code true} if Vectorized Text Mode is desired
+     * @param monitor
+     *            The {@link ExportMonitor} that is told when rendering ends
+     * @throws IOException
+     *             If the PDF Document could not be written
+     */
+    private static void streamDocument( final OutputStream outputStream,
+                                        final Bounds bounds,
+                                        final Consumer< Graphics2D > painter,
+                                        final String title,
+                                        final String author,
+                                        final double pageWidth,
+                                        final double pageHeight,
+                                        final ColorMode colorMode,
+                                        final boolean useVectorizedText,
+                                        final ExportMonitor monitor )
+            throws IOException {
+        final StreamingPdfGraphics2D pdfGraphics = new StreamingPdfGraphics2D( outputStream,
+                                                                               pageWidth,
+                                                                               pageHeight,
+                                                                               colorMode,
+                                                                               useVectorizedText );
+
+        // The streaming Graphics Context flips the page itself, so we can use
+        // the same global transform from source coordinates to page
+        // coordinates as for the in-memory PDF Document.
+        GraphicsUtilities.applySourceToDestinationTransform( pdfGraphics,
+                                                             bounds.getMinX(),
+                                                             bounds.getMinY(),
+                                                             bounds.getMaxX(),
+                                                             bounds.getMaxY(),
+                                                             pageWidth,
+                                                             pageHeight );
+
+        try {
+            // The header goes out first, then each object as it is finished,
+            // and the page, catalog and cross-reference table go out last.
+            pdfGraphics.startDocument();
+            painter.accept( pdfGraphics );
+            monitor.renderFinished();
+            pdfGraphics.endDocument( title, author );
         }
-        catch ( final Exception e ) {
-            e.printStackTrace();
+        catch ( final UncheckedIOException uioe ) {
+            throw uioe.getCause();
         }
-
-        return fileSaved;
     }
 
 }// class pdfreportUtilities
@@ -0,0 +1,959 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxConverter Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxConverter Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxconverter
+ */
+package com.mhschmieder.fxvectorexport.pdf;
+
+import com.mhschmieder.fxvectorexport.graphics.VectorGraphics2D;
+import com.mhschmieder.jgraphics.color.ColorMode;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.GradientPaint;
+import java.awt.Graphics;
+import java.awt.LinearGradientPaint;
+import java.awt.MultipleGradientPaint;
+import java.awt.Paint;
+import java.awt.RadialGradientPaint;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Point2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code StreamingPdfGraphics2D} is a {@link java.awt.Graphics2D} that writes a
+ * single page PDF Document to an {@link OutputStream} incrementally, rather
+ * than building the whole document in memory first as OrsonPDF does.
+ * <p>
+ * Drawing operators go straight into a compressed content stream. Whenever an
+ * object has to be written in its own right (an image or a gradient shading),
+ * the current content stream is ended, the object is written, and a new content
+ * stream is started; the page refers to all of the content streams in order.
+ * Only the small resource dictionaries and the object offsets are kept until
+ * the end, when the page, the catalog and the cross-reference table are written.
+ * <p>
+ * I/O errors are thrown as {@link UncheckedIOException}, as the
+ * {@link java.awt.Graphics2D} API doesn't allow for checked exceptions.
+ *
+ * @version 1.0
+ *
+ * @author Mark Schmieder
+ */
+public final class StreamingPdfGraphics2D extends VectorGraphics2D {
+
+    /**
+     * The output state that is shared with all child Graphics Contexts.
+     */
+    private final PdfOutput output;
+
+    /**
+     * Constructs a streaming PDF Graphics Context for a page of the given size,
+     * writing to the provided {@link OutputStream}.
+     *
+     * @param outputStream
+     *            The {@link OutputStream} for channeling the PDF content
+     * @param pageWidth
+     *            The page width, always in points (1/72 inch)
+     * @param pageHeight
+     *            The page height, always in points (1/72 inch)
+     * @param colorMode
+     *            The {@link ColorMode} to use, compatible with PDF specs
+     * @param useVectorizedText
+     *            Set to {@code true} if Vectorized Text Mode is desired;
+     *            {@code false} otherwise (that is, if text is to be rendered as
+     *            strings, sometimes referred to as Basic Text Mode)
+     */
+    public StreamingPdfGraphics2D( final OutputStream outputStream,
+                                   final double pageWidth,
+                                   final double pageHeight,
+                                   final ColorMode colorMode,
+                                   final boolean useVectorizedText ) {
+        super( useVectorizedText );
+
+        output = new PdfOutput( new PdfObjectWriter( outputStream ),
+                                pageWidth,
+                                pageHeight,
+                                getColorComponentCount( colorMode ) );
+    }
+
+    /**
+     * Constructs a child Graphics Context that shares the parent's output.
+     *
+     * @param parent
+     *            The Graphics Context to copy the state from
+     */
+    private StreamingPdfGraphics2D( final StreamingPdfGraphics2D parent ) {
+        super( parent );
+
+        output = parent.output;
+    }
+
+    /**
+     * Writes the PDF file header. This must be called before any drawing is
+     * done, so that the first bytes go out as early as possible.
+     */
+    public void startDocument() {
+        try {
+            output.objectWriter.writeHeader();
+        }
+        catch ( final IOException ioe ) {
+            throw new UncheckedIOException( ioe );
+        }
+    }
+
+    /**
+     * Ends the last content stream, then writes the page with its resources,
+     * the document catalog, the document information, and the cross-reference
+     * table, and flushes the {@link OutputStream}. Nothing may be drawn after
+     * this is called.
+     *
+     * @param title
+     *            The {@link String} to use as the PDF Document's title
+     *            ({@code null} permitted)
+     * @param author
+     *            The {@link String} to use as the PDF Document's author
+     *            ({@code null} permitted)
+     */
+    @SuppressWarnings("nls")
+    public void endDocument( final String title, final String author ) {
+        try {
+            output.closeClip();
+            output.endContent();
+
+            final PdfObjectWriter objectWriter = output.objectWriter;
+            final int pageObject = objectWriter.reserveObject();
+            final int pagesObject = objectWriter.reserveObject();
+            final int catalogObject = objectWriter.reserveObject();
+            final int infoObject = objectWriter.reserveObject();
+
+            final StringBuilder page = new StringBuilder( 512 );
+            page.append( "<< /Type /Page /Parent " ).append( pagesObject )
+                    .append( " 0 R /MediaBox [0 0 " );
+            appendNumber( page, output.pageWidth );
+            page.append( ' ' );
+            appendNumber( page, output.pageHeight );
+            page.append( "] /Resources << /ProcSet [/PDF /Text /ImageB /ImageC]" );
+            appendResources( page, "Font", output.fonts );
+            appendResources( page, "ExtGState", output.graphicsStates );
+            appendResources( page, "XObject", output.externalObjects );
+            appendResources( page, "Shading", output.shadings );
+            page.append( " >> /Contents [" );
+            for ( final Integer contentObject : output.contentObjects ) {
+                page.append( contentObject ).append( " 0 R " );
+            }
+            page.append( "] >>" );
+            objectWriter.writeObject( pageObject, page );
+
+            objectWriter.writeObject( pagesObject,
+                                      "<< /Type /Pages /Kids [" + pageObject
+                                              + " 0 R] /Count 1 >>" );
+            objectWriter.writeObject( catalogObject,
+                                      "<< /Type /Catalog /Pages " + pagesObject + " 0 R >>" );
+
+            final StringBuilder info = new StringBuilder( 256 );
+            info.append( "<< /Producer " );
+            appendTextString( info, "FxConverter" );
+            if ( title != null ) {
+                info.append( " /Title " );
+                appendTextString( info, title );
+            }
+            if ( author != null ) {
+                info.append( " /Author " );
+                appendTextString( info, author );
+            }
+            info.append( " /CreationDate (D:" )
+                    .append( new SimpleDateFormat( "yyyyMMddHHmmss" ).format( new Date() ) )
+                    .append( ") >>" );
+            objectWriter.writeObject( infoObject, info );
+
+            objectWriter.writeTrailer( catalogObject, infoObject );
+        }
+        catch ( final IOException ioe ) {
+            throw new UncheckedIOException( ioe );
+        }
+    }
+
+    @Override
+    public Graphics create() {
+        return new StreamingPdfGraphics2D( this );
+    }
+
+    @SuppressWarnings("nls")
+    @Override
+    protected void writeShape( final Shape shape, final boolean fill ) {
+        final Paint paint = getPaint();
+        final boolean gradient = fill && ( ( paint instanceof GradientPaint )
+                || ( paint instanceof LinearGradientPaint )
+                || ( paint instanceof RadialGradientPaint ) );
+
+        // Shadings are objects in their own right, so they must be written
+        // before the content stream that refers to them is started.
+        final String shadingName = gradient ? output.getShadingName( paint ) : null;
+
+        final StringBuilder operators = output.operators;
+        operators.setLength( 0 );
+        operators.append( "q\n" );
+        appendTransform( operators, getTransform() );
+
+        if ( gradient ) {
+            appendGraphicsState( operators, getCompositeAlpha(), 1.0f );
+            final int windingRule = appendPathOperators( operators, shape );
+            operators.append( ( windingRule == PathIterator.WIND_EVEN_ODD ) ? "W* n\n" : "W n\n" );
+
+            // The gradient transform applies to the shading space only.
+            if ( paint instanceof MultipleGradientPaint ) {
+                appendTransform( operators, ( ( MultipleGradientPaint ) paint ).getTransform() );
+            }
+            operators.append( '/' ).append( shadingName ).append( " sh\n" );
+        }
+        else {
+            final Color color = ( paint instanceof Color ) ? ( Color ) paint : getColor();
+            final float opacity = getCompositeAlpha() * ( color.getAlpha() / 255f );
+            appendGraphicsState( operators, opacity, opacity );
+            appendColor( operators, color, !fill );
+            if ( !fill ) {
+                appendStroke( operators, ( BasicStroke ) getStroke() );
+            }
+            final int windingRule = appendPathOperators( operators, shape );
+            if ( fill ) {
+                operators.append( ( windingRule == PathIterator.WIND_EVEN_ODD ) ? "f*\n" : "f\n" );
+            }
+            else {
+                operators.append( "S\n" );
+            }
+        }
+
+        operators.append( "Q\n" );
+        output.writeOperators( getDeviceClip(), operators );
+    }
+
+    @SuppressWarnings("nls")
+    @Override
+    protected void writeImage( final BufferedImage image, final AffineTransform imageTransform ) {
+        final String imageName = output.writeImage( image );
+
+        // Map the unit square onto the image, with its first row at the top.
+        final AffineTransform transform = getTransform();
+        transform.concatenate( imageTransform );
+        transform.translate( 0.0d, image.getHeight() );
+        transform.scale( image.getWidth(), -image.getHeight() );
+
+        final StringBuilder operators = output.operators;
+        operators.setLength( 0 );
+        operators.append( "q\n" );
+        appendGraphicsState( operators, getCompositeAlpha(), 1.0f );
+        appendTransform( operators, transform );
+        operators.append( '/' ).append( imageName ).append( " Do\nQ\n" );
+        output.writeOperators( getDeviceClip(), operators );
+    }
+
+    @SuppressWarnings("nls")
+    @Override
+    protected void writeString( final String text, final float x, final float y ) {
+        final Font font = getFont();
+        final Color color = getColor();
+        final float opacity = getCompositeAlpha() * ( color.getAlpha() / 255f );
+        final String fontName = output.getFontName( getStandardFontName( font ) );
+
+        final StringBuilder operators = output.operators;
+        operators.setLength( 0 );
+        operators.append( "q\n" );
+        appendTransform( operators, getTransform() );
+        appendGraphicsState( operators, opacity, opacity );
+        appendColor( operators, color, false );
+        operators.append( "BT\n/" ).append( fontName ).append( ' ' );
+        appendNumber( operators, font.getSize2D() );
+
+        // Undo the page flip in the text matrix, or the glyphs would be
+        // upside-down.
+        operators.append( " Tf\n1 0 0 -1 " );
+        appendNumber( operators, x );
+        operators.append( ' ' );
+        appendNumber( operators, y );
+        operators.append( " Tm\n" );
+        appendLiteralString( operators, text );
+        operators.append( " Tj\nET\nQ\n" );
+        output.writeOperators( getDeviceClip(), operators );
+    }
+
+    /**
+     * Appends the resource dictionary entry for one category of resources,
+     * unless there are none.
+     *
+     * @param buffer
+     *            The buffer to append the entry to
+     * @param category
+     *            The resource category, such as {@code Font}
+     * @param resources
+     *            The resources of that category, as values keyed by name
+     */
+    @SuppressWarnings("nls")
+    private static void appendResources( final StringBuilder buffer,
+                                         final String category,
+                                         final Map< String, String > resources ) {
+        if ( resources.isEmpty() ) {
+            return;
+        }
+
+        buffer.append( " /" ).append( category ).append( " <<" );
+        for ( final Map.Entry< String, String > resource : resources.entrySet() ) {
+            buffer.append( " /" ).append( resource.getKey() ).append( ' ' )
+                    .append( resource.getValue() );
+        }
+        buffer.append( " >>" );
+    }
+
+    /**
+     * Appends a {@code cm} operator for the given transform, unless it is the
+     * identity.
+     *
+     * @param buffer
+     *            The buffer to append the operator to
+     * @param transform
+     *            The transform to append
+     */
+    @SuppressWarnings("nls")
+    private static void appendTransform( final StringBuilder buffer,
+                                         final AffineTransform transform ) {
+        if ( transform.isIdentity() ) {
+            return;
+        }
+
+        appendNumber( buffer, transform.getScaleX() );
+        buffer.append( ' ' );
+        appendNumber( buffer, transform.getShearY() );
+        buffer.append( ' ' );
+        appendNumber( buffer, transform.getShearX() );
+        buffer.append( ' ' );
+        appendNumber( buffer, transform.getScaleY() );
+        buffer.append( ' ' );
+        appendNumber( buffer, transform.getTranslateX() );
+        buffer.append( ' ' );
+        appendNumber( buffer, transform.getTranslateY() );
+        buffer.append( " cm\n" );
+    }
+
+    /**
+     * Appends a {@code gs} operator for the given fill and stroke opacities,
+     * unless both are fully opaque.
+     *
+     * @param buffer
+     *            The buffer to append the operator to
+     * @param fillOpacity
+     *            The fill opacity, from 0 to 1
+     * @param strokeOpacity
+     *            The stroke opacity, from 0 to 1
+     */
+    private void appendGraphicsState( final StringBuilder buffer,
+                                      final float fillOpacity,
+                                      final float strokeOpacity ) {
+        if ( ( fillOpacity >= 1.0f ) && ( strokeOpacity >= 1.0f ) ) {
+            return;
+        }
+
+        buffer.append( '/' ).append( output.getGraphicsStateName( fillOpacity, strokeOpacity ) )
+                .append( " gs\n" ); //$NON-NLS-1$
+    }
+
+    /**
+     * Appends the color setting operator for the current Color Mode.
+     *
+     * @param buffer
+     *            The buffer to append the operator to
+     * @param color
+     *            The color to set
+     * @param stroke
+     *            {@code true} to set the stroking color rather than the
+     *            non-stroking (fill) color
+     */
+    @SuppressWarnings("nls")
+    private void appendColor( final StringBuilder buffer, final Color color, final boolean stroke ) {
+        final float[] components = toColorComponents( color, output.colorComponents );
+        for ( final float component : components ) {
+            appendNumber( buffer, component );
+            buffer.append( ' ' );
+        }
+        final String operator = ( components.length == 1 )
+            ? "g"
+            : ( components.length == 4 ) ? "k" : "rg";
+        buffer.append( stroke ? operator.toUpperCase() : operator ).append( '\n' );
+    }
+
+    /**
+     * Appends the stroke setting operators for a basic stroke.
+     *
+     * @param buffer
+     *            The buffer to append the operators to
+     * @param stroke
+     *            The stroke to set
+     */
+    @SuppressWarnings("nls")
+    private static void appendStroke( final StringBuilder buffer, final BasicStroke stroke ) {
+        appendNumber( buffer, stroke.getLineWidth() );
+        buffer.append( " w " ).append( stroke.getEndCap() ).append( " J " )
+                .append( stroke.getLineJoin() ).append( " j " );
+        appendNumber( buffer, Math.max( 1.0f, stroke.getMiterLimit() ) );
+        buffer.append( " M\n" );
+
+        final float[] dashArray = stroke.getDashArray();
+        if ( ( dashArray != null ) && ( dashArray.length > 0 ) ) {
+            buffer.append( '[' );
+            for ( int i = 0; i < dashArray.length; i++ ) {
+                if ( i > 0 ) {
+                    buffer.append( ' ' );
+                }
+                appendNumber( buffer, dashArray[ i ] );
+            }
+            buffer.append( "] " );
+            appendNumber( buffer, stroke.getDashPhase() );
+            buffer.append( " d\n" );
+        }
+    }
+
+    /**
+     * Appends a literal string in the single byte encoding of the standard
+     * fonts, escaping the delimiters and replacing anything unencodable.
+     *
+     * @param buffer
+     *            The buffer to append the string to
+     * @param text
+     *            The text to append
+     */
+    private static void appendLiteralString( final StringBuilder buffer, final String text ) {
+        buffer.append( '(' );
+        for ( int i = 0, n = text.length(); i < n; i++ ) {
+            final char c = text.charAt( i );
+            if ( ( c == '(' ) || ( c == ')' ) || ( c == '\\' ) ) {
+                buffer.append( '\\' ).append( c );
+            }
+            else if ( ( c < 32 ) || ( c > 255 ) ) {
+                buffer.append( '?' );
+            }
+            else {
+                buffer.append( c );
+            }
+        }
+        buffer.append( ')' );
+    }
+
+    /**
+     * Appends a text string for the document information, as a hexadecimal
+     * UTF-16 string with a byte order mark so that any language is supported.
+     *
+     * @param buffer
+     *            The buffer to append the string to
+     * @param text
+     *            The text to append
+     */
+    private static void appendTextString( final StringBuilder buffer, final String text ) {
+        buffer.append( "<FEFF" ); //$NON-NLS-1$
+        for ( final byte b : text.getBytes( StandardCharsets.UTF_16BE ) ) {
+            buffer.append( Character.toUpperCase( Character.forDigit( ( b >> 4 ) & 0xf, 16 ) ) )
+                    .append( Character.toUpperCase( Character.forDigit( b & 0xf, 16 ) ) );
+        }
+        buffer.append( '>' );
+    }
+
+    /**
+     * {@code PdfOutput} holds the output state that is shared by a root
+     * Graphics Context and all of its children: the object writer, the content
+     * stream currently being written, the currently open clipping level, and
+     * the resources that the page will refer to.
+     */
+    private static final class PdfOutput {
+
+        /**
+         * The writer for the PDF objects.
+         */
+        final PdfObjectWriter         objectWriter;
+
+        /**
+         * The page width, always in points (1/72 inch).
+         */
+        final double                  pageWidth;
+
+        /**
+         * The page height, always in points (1/72 inch).
+         */
+        final double                  pageHeight;
+
+        /**
+         * The number of color components written per color.
+         */
+        final int                     colorComponents;
+
+        /**
+         * The reusable buffer for the operators currently being written.
+         */
+        final StringBuilder           operators        = new StringBuilder( 1024 );
+
+        /**
+         * The object numbers of the content streams, in page order.
+         */
+        final List< Integer >         contentObjects   = new ArrayList<>();
+
+        /**
+         * The font resources, as font dictionaries keyed by resource name.
+         */
+        final Map< String, String >   fonts            = new LinkedHashMap<>();
+
+        /**
+         * The resource names of the fonts, keyed by base font name.
+         */
+        final Map< String, String >   fontNames        = new HashMap<>();
+
+        /**
+         * The graphics state resources, as dictionaries keyed by name.
+         */
+        final Map< String, String >   graphicsStates   = new LinkedHashMap<>();
+
+        /**
+         * The resource names of the graphics states, keyed by dictionary.
+         */
+        final Map< String, String >   graphicsStateNames = new HashMap<>();
+
+        /**
+         * The image resources, as object references keyed by resource name.
+         */
+        final Map< String, String >   externalObjects  = new LinkedHashMap<>();
+
+        /**
+         * The shading resources, as object references keyed by resource name.
+         */
+        final Map< String, String >   shadings         = new LinkedHashMap<>();
+
+        /**
+         * The resource names of the shadings, keyed by dictionary.
+         */
+        final Map< String, String >   shadingNames     = new HashMap<>();
+
+        /**
+         * The content stream currently being written, or {@code null} if none.
+         */
+        OutputStream                  contentStream    = null;
+
+        /**
+         * The clip of the currently open clipping level, in device space.
+         */
+        Shape                         openClip         = null;
+
+        /**
+         * Flag for whether a clipping level is currently open.
+         */
+        boolean                       clipOpen         = false;
+
+        /**
+         * Constructs the shared output state.
+         *
+         * @param objectWriter
+         *            The writer for the PDF objects
+         * @param pageWidth
+         *            The page width, always in points (1/72 inch)
+         * @param pageHeight
+         *            The page height, always in points (1/72 inch)
+         * @param colorComponents
+         *            The number of color components written per color
+         */
+        PdfOutput( final PdfObjectWriter objectWriter,
+                   final double pageWidth,
+                   final double pageHeight,
+                   final int colorComponents ) {
+            this.objectWriter = objectWriter;
+            this.pageWidth = pageWidth;
+            this.pageHeight = pageHeight;
+            this.colorComponents = colorComponents;
+        }
+
+        /**
+         * Writes operators to the current content stream, starting a new one if
+         * needed, after making sure that the clipping level that is open
+         * matches their clip.
+         *
+         * @param clip
+         *            The clip of the operators, in device space
+         * @param content
+         *            The operators to write
+         */
+        @SuppressWarnings("nls")
+        void writeOperators( final Shape clip, final CharSequence content ) {
+            // Clip objects are immutable once set, so identity is enough to
+            // keep consecutive calls with the same clip at the same level.
+            final boolean clipChanged = clipOpen ? ( clip != openClip ) : ( clip != null );
+            if ( clipChanged ) {
+                closeClip();
+                if ( clip != null ) {
+                    final StringBuilder clipPath = new StringBuilder( 256 );
+                    clipPath.append( "q\n" );
+                    final int windingRule = appendPathOperators( clipPath, clip );
+                    clipPath.append( ( windingRule == PathIterator.WIND_EVEN_ODD )
+                        ? "W* n\n"
+                        : "W n\n" );
+                    write( clipPath );
+                    openClip = clip;
+                    clipOpen = true;
+                }
+            }
+
+            write( content );
+        }
+
+        /**
+         * Closes the currently open clipping level, if any.
+         */
+        void closeClip() {
+            if ( clipOpen ) {
+                write( "Q\n" ); //$NON-NLS-1$
+                clipOpen = false;
+                openClip = null;
+            }
+        }
+
+        /**
+         * Writes content to the current content stream, starting a new one if
+         * needed. The first content stream flips the y-axis so that PDF
+         * coordinates match Java2D's; the setting carries over to the others,
+         * as the content streams of a page behave as one.
+         *
+         * @param content
+         *            The content to write
+         */
+        @SuppressWarnings("nls")
+        void write( final CharSequence content ) {
+            try {
+                if ( contentStream == null ) {
+                    final int contentObject = objectWriter.reserveObject();
+                    contentStream = objectWriter.beginStream( contentObject, "", true );
+                    if ( contentObjects.isEmpty() ) {
+                        final StringBuilder flip = new StringBuilder( "1 0 0 -1 0 " );
+                        appendNumber( flip, pageHeight );
+                        flip.append( " cm\n" );
+                        contentStream.write( flip.toString()
+                                .getBytes( StandardCharsets.ISO_8859_1 ) );
+                    }
+                    contentObjects.add( contentObject );
+                }
+
+                contentStream.write( content.toString().getBytes( StandardCharsets.ISO_8859_1 ) );
+            }
+            catch ( final IOException ioe ) {
+                throw new UncheckedIOException( ioe );
+            }
+        }
+
+        /**
+         * Ends the current content stream, if any, so that another object can
+         * be written.
+         *
+         * @throws IOException
+         *             If the content stream could not be written
+         */
+        void endContent() throws IOException {
+            if ( contentStream != null ) {
+                contentStream = null;
+                objectWriter.endStream();
+            }
+        }
+
+        /**
+         * Returns the resource name of a standard font, adding it to the
+         * resources if it isn't there yet.
+         *
+         * @param baseFontName
+         *            The name of the standard font
+         * @return The resource name of the font
+         */
+        @SuppressWarnings("nls")
+        String getFontName( final String baseFontName ) {
+            String fontName = fontNames.get( baseFontName );
+            if ( fontName == null ) {
+                fontName = "F" + ( fonts.size() + 1 );
+                fontNames.put( baseFontName, fontName );
+                fonts.put( fontName,
+                           "<< /Type /Font /Subtype /Type1 /BaseFont /" + baseFontName
+                                   + " /Encoding /WinAnsiEncoding >>" );
+            }
+            return fontName;
+        }
+
+        /**
+         * Returns the resource name of a graphics state with the given fill and
+         * stroke opacities, adding it to the resources if it isn't there yet.
+         *
+         * @param fillOpacity
+         *            The fill opacity, from 0 to 1
+         * @param strokeOpacity
+         *            The stroke opacity, from 0 to 1
+         * @return The resource name of the graphics state
+         */
+        @SuppressWarnings("nls")
+        String getGraphicsStateName( final float fillOpacity, final float strokeOpacity ) {
+            final StringBuilder dictionary = new StringBuilder( "<< /ca " );
+            appendNumber( dictionary, fillOpacity );
+            dictionary.append( " /CA " );
+            appendNumber( dictionary, strokeOpacity );
+            dictionary.append( " >>" );
+
+            final String key = dictionary.toString();
+            String graphicsStateName = graphicsStateNames.get( key );
+            if ( graphicsStateName == null ) {
+                graphicsStateName = "GS" + ( graphicsStates.size() + 1 );
+                graphicsStateNames.put( key, graphicsStateName );
+                graphicsStates.put( graphicsStateName, key );
+            }
+            return graphicsStateName;
+        }
+
+        /**
+         * Writes an image as an image XObject (with a soft mask if it has
+         * transparency), between two content streams, and returns its
+         * resource name. The samples are streamed a row at a time.
+         *
+         * @param image
+         *            The image to write
+         * @return The resource name of the image
+         */
+        @SuppressWarnings("nls")
+        String writeImage( final BufferedImage image ) {
+            final int width = image.getWidth();
+            final int height = image.getHeight();
+            final boolean hasAlpha = image.getColorModel().hasAlpha();
+
+            try {
+                endContent();
+
+                final int imageObject = objectWriter.reserveObject();
+                final int maskObject = hasAlpha ? objectWriter.reserveObject() : 0;
+
+                final String imageDictionary = " /Type /XObject /Subtype /Image /Width " + width
+                        + " /Height " + height + " /BitsPerComponent 8";
+                final String maskEntry = hasAlpha ? " /SMask " + maskObject + " 0 R" : "";
+                final OutputStream imageStream = objectWriter
+                        .beginStream( imageObject,
+                                      imageDictionary + " /ColorSpace /DeviceRGB" + maskEntry,
+                                      true );
+                final int[] row = new int[ width ];
+                final byte[] samples = new byte[ 3 * width ];
+                for ( int y = 0; y < height; y++ ) {
+                    image.getRGB( 0, y, width, 1, row, 0, width );
+                    for ( int x = 0; x < width; x++ ) {
+                        samples[ 3 * x ] = ( byte ) ( row[ x ] >> 16 );
+                        samples[ ( 3 * x ) + 1 ] = ( byte ) ( row[ x ] >> 8 );
+                        samples[ ( 3 * x ) + 2 ] = ( byte ) row[ x ];
+                    }
+                    imageStream.write( samples );
+                }
+                objectWriter.endStream();
+
+                if ( hasAlpha ) {
+                    final OutputStream maskStream = objectWriter
+                            .beginStream( maskObject,
+                                          imageDictionary + " /ColorSpace /DeviceGray",
+                                          true );
+                    final byte[] alphas = new byte[ width ];
+                    for ( int y = 0; y < height; y++ ) {
+                        image.getRGB( 0, y, width, 1, row, 0, width );
+                        for ( int x = 0; x < width; x++ ) {
+                            alphas[ x ] = ( byte ) ( row[ x ] >>> 24 );
+                        }
+                        maskStream.write( alphas );
+                    }
+                    objectWriter.endStream();
+                }
+
+                final String imageName = "Im" + ( externalObjects.size() + 1 );
+                externalObjects.put( imageName, imageObject + " 0 R" );
+                return imageName;
+            }
+            catch ( final IOException ioe ) {
+                throw new UncheckedIOException( ioe );
+            }
+        }
+
+        /**
+         * Returns the resource name of a shading for a gradient paint, writing
+         * it as an object between two content streams if it is new.
+         *
+         * @param paint
+         *            The gradient paint
+         * @return The resource name of the shading
+         */
+        @SuppressWarnings("nls")
+        String getShadingName( final Paint paint ) {
+            final StringBuilder shading = new StringBuilder( 256 );
+            final float[] fractions;
+            final Color[] colors;
+            shading.append( "<< /ShadingType " );
+            if ( paint instanceof GradientPaint ) {
+                final GradientPaint gradientPaint = ( GradientPaint ) paint;
+                fractions = new float[] { 0.0f, 1.0f };
+                colors = new Color[] { gradientPaint.getColor1(), gradientPaint.getColor2() };
+                shading.append( "2 /Coords [" );
+                appendCoordinates( shading, gradientPaint.getPoint1(), gradientPaint.getPoint2() );
+                shading.append( ']' );
+            }
+            else {
+                final MultipleGradientPaint multipleGradientPaint = ( MultipleGradientPaint ) paint;
+                fractions = multipleGradientPaint.getFractions();
+                colors = multipleGradientPaint.getColors();
+                if ( paint instanceof LinearGradientPaint ) {
+                    final LinearGradientPaint linearGradientPaint = ( LinearGradientPaint ) paint;
+                    shading.append( "2 /Coords [" );
+                    appendCoordinates( shading,
+                                       linearGradientPaint.getStartPoint(),
+                                       linearGradientPaint.getEndPoint() );
+                    shading.append( ']' );
+                }
+                else {
+                    final RadialGradientPaint radialGradientPaint = ( RadialGradientPaint ) paint;
+                    final Point2D focus = radialGradientPaint.getFocusPoint();
+                    final Point2D center = radialGradientPaint.getCenterPoint();
+
+                    // The shading blends from a zero radius circle at the
+                    // focus to the outer circle around the center.
+                    shading.append( "3 /Coords [" );
+                    appendNumber( shading, focus.getX() );
+                    shading.append( ' ' );
+                    appendNumber( shading, focus.getY() );
+                    shading.append( " 0 " );
+                    appendNumber( shading, center.getX() );
+                    shading.append( ' ' );
+                    appendNumber( shading, center.getY() );
+                    shading.append( ' ' );
+                    appendNumber( shading, radialGradientPaint.getRadius() );
+                    shading.append( ']' );
+                }
+            }
+
+            shading.append( " /ColorSpace /" ).append( getColorSpaceName( colorComponents ) );
+            shading.append( " /Extend [true true] /Function " );
+            if ( colors.length == 2 ) {
+                appendInterpolation( shading, colors[ 0 ], colors[ 1 ] );
+            }
+            else {
+                // Stitch one interpolation function per pair of adjacent stops.
+                shading.append( "<< /FunctionType 3 /Domain [0 1] /Functions [" );
+                for ( int i = 0; i < ( colors.length - 1 ); i++ ) {
+                    appendInterpolation( shading, colors[ i ], colors[ i + 1 ] );
+                }
+                shading.append( "] /Bounds [" );
+                for ( int i = 1; i < ( fractions.length - 1 ); i++ ) {
+                    appendNumber( shading, fractions[ i ] );
+                    shading.append( ' ' );
+                }
+                shading.append( "] /Encode [" );
+                for ( int i = 0; i < ( colors.length - 1 ); i++ ) {
+                    shading.append( "0 1 " );
+                }
+                shading.append( "] >>" );
+            }
+            shading.append( " >>" );
+
+            final String key = shading.toString();
+            String shadingName = shadingNames.get( key );
+            if ( shadingName == null ) {
+                try {
+                    endContent();
+                    final int shadingObject = objectWriter.reserveObject();
+                    objectWriter.writeObject( shadingObject, key );
+                    shadingName = "Sh" + ( shadings.size() + 1 );
+                    shadingNames.put( key, shadingName );
+                    shadings.put( shadingName, shadingObject + " 0 R" );
+                }
+                catch ( final IOException ioe ) {
+                    throw new UncheckedIOException( ioe );
+                }
+            }
+            return shadingName;
+        }
+
+        /**
+         * Appends the coordinates of two points.
+         *
+         * @param buffer
+         *            The buffer to append the coordinates to
+         * @param start
+         *            The first point
+         * @param end
+         *            The second point
+         */
+        private static void appendCoordinates( final StringBuilder buffer,
+                                               final Point2D start,
+                                               final Point2D end ) {
+            appendNumber( buffer, start.getX() );
+            buffer.append( ' ' );
+            appendNumber( buffer, start.getY() );
+            buffer.append( ' ' );
+            appendNumber( buffer, end.getX() );
+            buffer.append( ' ' );
+            appendNumber( buffer, end.getY() );
+        }
+
+        /**
+         * Appends a linear interpolation function between two colors.
+         *
+         * @param buffer
+         *            The buffer to append the function to
+         * @param startColor
+         *            The color at the start of the domain
+         * @param endColor
+         *            The color at the end of the domain
+         */
+        @SuppressWarnings("nls")
+        private void appendInterpolation( final StringBuilder buffer,
+                                          final Color startColor,
+                                          final Color endColor ) {
+            buffer.append( "<< /FunctionType 2 /Domain [0 1] /C0 [" );
+            for ( final float component : toColorComponents( startColor, colorComponents ) ) {
+                appendNumber( buffer, component );
+                buffer.append( ' ' );
+            }
+            buffer.append( "] /C1 [" );
+            for ( final float component : toColorComponents( endColor, colorComponents ) ) {
+                appendNumber( buffer, component );
+                buffer.append( ' ' );
+            }
+            buffer.append( "] /N 1 >>" );
+        }
+
+    }
+
+}
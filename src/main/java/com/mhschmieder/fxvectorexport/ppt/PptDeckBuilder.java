@@ -0,0 +1,264 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxConverter Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxConverter Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxconverter
+ */
+package com.mhschmieder.fxvectorexport.ppt;
+
+import com.mhschmieder.fxvectorexport.FileChannelOutputStream;
+import com.mhschmieder.fxvectorexport.capture.SceneSnapshot;
+import javafx.scene.Node;
+import org.apache.poi.hslf.usermodel.HSLFSlide;
+import org.apache.poi.hslf.usermodel.HSLFSlideShow;
+import org.jfxconverter.drivers.ppt.PPTGraphics2D;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * {@code PptDeckBuilder} builds a multi-slide PPT Document in one pass, adding
+ * one slide per {@link Node} or {@link SceneSnapshot} to a single open
+ * SlideShow and writing the whole deck once at the end.
+ * <p>
+ * As all the slides belong to the same SlideShow, they share its font
+ * collection, its picture store and the caches that the PPT driver keeps per
+ * SlideShow, so that a font or an image that is used on many slides is only
+ * stored once in the deck. The images and rasterized paints are encoded on the
+ * common pool while the following slides are drawn.
+ * <p>
+ * A deck builder is not thread-safe, and the slides are added in the order of
+ * the calls. Slides for Nodes that are part of a live Scene must be added on
+ * the JavaFX Application Thread, while slides for snapshots may be added from
+ * any thread, and a batch of snapshots may be converted concurrently with
+ * {@link #addSlides(List, List)}.
+ *
+ * @version 1.0
+ *
+ * @author Mark Schmieder
+ */
+public final class PptDeckBuilder implements AutoCloseable {
+
+    /**
+     * The SlideShow that holds the slides of the deck.
+     */
+    private final HSLFSlideShow pptSlides;
+
+    /**
+     * Flag for whether the slides use extended conversion, with grouping and
+     * effects.
+     */
+    private final boolean       useExtendedConversion;
+
+    /**
+     * Constructs a deck builder with an empty SlideShow.
+     *
+     * @param useExtendedConversion
+     *            true for an extended conversion
+     *
+     * @since 1.0
+     */
+    public PptDeckBuilder( final boolean useExtendedConversion ) {
+        this.useExtendedConversion = useExtendedConversion;
+
+        pptSlides = new HSLFSlideShow();
+        PPTGraphics2D.setPictureEncodingExecutor( pptSlides, ForkJoinPool.commonPool() );
+    }
+
+    /**
+     * Adds a slide for the provided {@link Node}, with the provided title.
+     *
+     * @param node
+     *            The {@link Node} to convert to AWT and then to PPT
+     * @param title
+     *            The {@link String} to use as the slide's title
+     * @return This deck builder, for chaining
+     *
+     * @since 1.0
+     */
+    public PptDeckBuilder addSlide( final Node node, final String title ) {
+        PptExportUtilities.addSlide( pptSlides,
+                                     node.getBoundsInParent(),
+                                     PptExportUtilities.getNodePainter( node, useExtendedConversion ),
+                                     title,
+                                     useExtendedConversion );
+        return this;
+    }
+
+    /**
+     * Adds a slide for a previously captured {@link SceneSnapshot}, with the
+     * provided title.
+     *
+     * @param snapshot
+     *            The {@link SceneSnapshot} to replay on the slide
+     * @param title
+     *            The {@link String} to use as the slide's title
+     * @return This deck builder, for chaining
+     *
+     * @since 1.0
+     */
+    public PptDeckBuilder addSlide( final SceneSnapshot snapshot, final String title ) {
+        PptExportUtilities.addSlide( pptSlides,
+                                     snapshot.getBounds(),
+                                     snapshot::replay,
+                                     title,
+                                     useExtendedConversion );
+        return this;
+    }
+
+    /**
+     * Adds one slide per previously captured {@link SceneSnapshot}, in order,
+     * drawing the slides concurrently on the common pool.
+     * <p>
+     * Each slide is converted on its own thread into a list of Shapes which
+     * are not yet part of the slide, as adding a Shape allocates its id in the
+     * SlideShow. Once all the slides are converted, their Shapes and titles are
+     * added on the calling thread, slide after slide, so that the deck is the
+     * same as if the slides had been added one by one. The pictures and the
+     * fonts are still shared by all the slides.
+     *
+     * @param snapshots
+     *            The {@link SceneSnapshot}s to replay, one per slide
+     * @param titles
+     *            The {@link String}s to use as the slides' titles, in the same
+     *            order as the snapshots
+     * @return This deck builder, for chaining
+     * @throws IllegalArgumentException
+     *             If there is not one title per snapshot
+     * @throws java.util.concurrent.CompletionException
+     *             If the conversion of a slide failed
+     *
+     * @since 1.0
+     */
+    public PptDeckBuilder addSlides( final List< SceneSnapshot > snapshots, final List< String > titles ) {
+        if ( snapshots.size() != titles.size() ) {
+            throw new IllegalArgumentException( "Expected one title per snapshot" ); //$NON-NLS-1$
+        }
+
+        // Create the slides up front, in order, as this changes the SlideShow.
+        final List< HSLFSlide > slides = new ArrayList<>( snapshots.size() );
+        final List< PPTGraphics2D > pptGraphicsList = new ArrayList<>( snapshots.size() );
+        final CompletableFuture< ? >[] conversions = new CompletableFuture< ? >[ snapshots.size() ];
+        for ( int i = 0; i < snapshots.size(); i++ ) {
+            final SceneSnapshot snapshot = snapshots.get( i );
+            final HSLFSlide slide = pptSlides.createSlide();
+            final PPTGraphics2D pptGraphics = PptExportUtilities
+                    .createGraphics( slide, snapshot.getBounds(), useExtendedConversion );
+            pptGraphics.setDeferringShapes( true );
+            slides.add( slide );
+            pptGraphicsList.add( pptGraphics );
+            conversions[ i ] = CompletableFuture.runAsync( () -> snapshot.replay( pptGraphics ),
+                                                           ForkJoinPool.commonPool() );
+        }
+        CompletableFuture.allOf( conversions ).join();
+
+        // Add the converted Shapes to their slides, in the deck order.
+        for ( int i = 0; i < slides.size(); i++ ) {
+            pptGraphicsList.get( i ).addDeferredShapes();
+            PptExportUtilities.addTitle( slides.get( i ), titles.get( i ) );
+        }
+
+        return this;
+    }
+
+    /**
+     * Returns the number of slides added so far.
+     *
+     * @return The number of slides in the deck
+     *
+     * @since 1.0
+     */
+    public int getSlideCount() {
+        return pptSlides.getSlides().size();
+    }
+
+    /**
+     * Writes the deck to the provided {@link OutputStream}, once all of its
+     * pictures are encoded. The stream is flushed but not closed, as it is
+     * owned by the caller.
+     *
+     * @param outputStream
+     *            The {@link OutputStream} for channeling the PPT content
+     * @throws IOException
+     *             If the PPT Document could not be written
+     *
+     * @since 1.0
+     */
+    public void write( final OutputStream outputStream ) throws IOException {
+        PPTGraphics2D.completePictures( pptSlides );
+        pptSlides.write( outputStream );
+        outputStream.flush();
+    }
+
+    /**
+     * Writes the deck to the provided {@link Path}.
+     * <p>
+     * The PPT content goes through a {@link java.nio.channels.FileChannel} to
+     * a temporary file, which replaces the target file only once the deck is
+     * complete, so that a failed export leaves any previous version of the
+     * file intact.
+     *
+     * @param path
+     *            The {@link Path} destination for writing the PPT content
+     * @return The status of whether this PPT export succeeded or not
+     *
+     * @since 1.0
+     */
+    public boolean write( final Path path ) {
+        boolean fileSaved = false;
+
+        try ( final FileChannelOutputStream fileChannelOutputStream =
+                                                                    new FileChannelOutputStream( path ) ) {
+            write( fileChannelOutputStream );
+
+            // Only replace the target file once the deck is complete.
+            fileChannelOutputStream.commit();
+            fileSaved = true;
+        }
+        catch ( final Exception e ) {
+            e.printStackTrace();
+        }
+
+        return fileSaved;
+    }
+
+    /**
+     * Releases the SlideShow of the deck, whether or not it was written.
+     *
+     * @throws IOException
+     *             If the SlideShow could not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        pptSlides.close();
+    }
+}
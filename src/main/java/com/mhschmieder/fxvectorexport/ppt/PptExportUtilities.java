@@ -30,6 +30,9 @@
  */
 package com.mhschmieder.fxvectorexport.ppt;
 
+import com.mhschmieder.fxvectorexport.ExportMonitor;
+import com.mhschmieder.fxvectorexport.FileChannelOutputStream;
+import com.mhschmieder.fxvectorexport.capture.SceneSnapshot;
 import javafx.geometry.Bounds;
 import javafx.scene.Node;
 import org.apache.poi.hslf.usermodel.HSLFSlide;
@@ -41,11 +44,13 @@ import org.jfxconverter.drivers.ppt.PPTGraphics2D;
 import org.jfxconverter.drivers.ppt.PPTJFXGraphics2D;
 
 import java.awt.Color;
-import java.io.BufferedOutputStream;
+import java.awt.Graphics2D;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
 
 /**
  * {@code PptExportUtilities} is a utility class for methods that export a
@@ -88,27 +93,164 @@ public final class PptExportUtilities {
             return false;
         }
 
+        return createDocument( file.toPath(),
+                               node.getBoundsInParent(),
+                               getNodePainter( node, useExtendedConversion ),
+                               title,
+                               useExtendedConversion );
+    }
+
+    /**
+     * Creates the PPT Document corresponding to a previously captured
+     * {@link SceneSnapshot}, and writes it to the provided {@link File}.
+     * <p>
+     * As the snapshot holds no reference to the live Scene Graph, this can be
+     * invoked from a background thread so that the JavaFX Application Thread
+     * is only blocked for the duration of the capture.
+     *
+     * @param file
+     *            The {@link File} destination for writing the PPT content
+     * @param snapshot
+     *            The {@link SceneSnapshot} to replay and then write to PPT
+     * @param title
+     *            The {@link String} to use as the PPT Document's title
+     * @param useExtendedConversion
+     *            true for an extended conversion
+     * @return The status of whether this PPT export succeeded or not
+     *
+     * @since 1.0
+     */
+    public static boolean createDocument( final File file,
+                                          final SceneSnapshot snapshot,
+                                          final String title,
+                                          final boolean useExtendedConversion ) {
+        if ( ( file == null ) || ( snapshot == null ) ) {
+            return false;
+        }
+
+        return createDocument( file.toPath(),
+                               snapshot.getBounds(),
+                               snapshot::replay,
+                               title,
+                               useExtendedConversion );
+    }
+
+    /**
+     * Creates the PPT Document corresponding to the {@link Node}, and writes it
+     * to the provided {@link Path}.
+     * <p>
+     * The PPT content goes through a {@link java.nio.channels.FileChannel} to
+     * a temporary file, which replaces the target file only once the PPT
+     * Document is complete, so that a failed export leaves any previous
+     * version of the file intact.
+     *
+     * @param path
+     *            The {@link Path} destination for writing the PPT content
+     * @param node
+     *            The {@link Node} to convert to AWT and then to PPT
+     * @param title
+     *            The {@link String} to use as the PPT Document's title
+     * @param useExtendedConversion
+     *            true for an extended conversion
+     * @return The status of whether this PPT export succeeded or not
+     *
+     * @since 1.0
+     */
+    public static boolean createDocument( final Path path,
+                                          final Node node,
+                                          final String title,
+                                          final boolean useExtendedConversion ) {
+        if ( ( path == null ) || ( node == null ) ) {
+            return false;
+        }
+
+        return createDocument( path,
+                               node.getBoundsInParent(),
+                               getNodePainter( node, useExtendedConversion ),
+                               title,
+                               useExtendedConversion );
+    }
+
+    /**
+     * Creates the PPT Document corresponding to a previously captured
+     * {@link SceneSnapshot}, and writes it to the provided {@link Path}.
+     * <p>
+     * The PPT content goes through a {@link java.nio.channels.FileChannel} to
+     * a temporary file, which replaces the target file only once the PPT
+     * Document is complete, so that a failed export leaves any previous
+     * version of the file intact.
+     *
+     * @param path
+     *            The {@link Path} destination for writing the PPT content
+     * @param snapshot
+     *            The {@link SceneSnapshot} to replay and then write to PPT
+     * @param title
+     *            The {@link String} to use as the PPT Document's title
+     * @param useExtendedConversion
+     *            true for an extended conversion
+     * @return The status of whether this PPT export succeeded or not
+     *
+     * @since 1.0
+     */
+    public static boolean createDocument( final Path path,
+                                          final SceneSnapshot snapshot,
+                                          final String title,
+                                          final boolean useExtendedConversion ) {
+        if ( ( path == null ) || ( snapshot == null ) ) {
+            return false;
+        }
+
+        return createDocument( path,
+                               snapshot.getBounds(),
+                               snapshot::replay,
+                               title,
+                               useExtendedConversion );
+    }
+
+    /**
+     * Creates the PPT Document whose content is painted by the provided
+     * painter, and writes it to the provided {@link Path}.
+     *
+     * @param path
+     *            The {@link Path} destination for writing the PPT content
+     * @param bounds
+     *            The bounds of the content, with all transforms applied
+     * @param painter
+     *            The painter that issues the AWT calls for the content
+     * @param title
+     *            The {@link String} to use as the PPT Document's title
+     * @param useExtendedConversion
+     *            true for an extended conversion
+     * @return The status of whether this PPT export succeeded or not
+     */
+    private static boolean createDocument( final Path path,
+                                           final Bounds bounds,
+                                           final Consumer< Graphics2D > painter,
+                                           final String title,
+                                           final boolean useExtendedConversion ) {
         boolean fileSaved = false;
 
-        // Using a safe try-with-resources clause, chain a BufferedOutputStream
-        // to a FileOutputStream using the former output wrapper's default
-        // UTF-16 encoding (which also matches PPT's default), for better
-        // performance and to guarantee platform-independence of newlines and
-        // overall system-neutrality and locale-sensitivity of text data. As
-        // Apache POI only supports Output Streams vs. Writers, we must use a
-        // FileOutputStream here instead of a FileWriter.
-        try ( final FileOutputStream fileOutputStream = new FileOutputStream( file );
-                final BufferedOutputStream bufferedOutputStream =
-                                                                new BufferedOutputStream( fileOutputStream ) ) {
-            // Write the PPT contents indirectly via JFXConverter.
-            //
-            // As OutputStream implements Closeable, try-with-resources
-            // auto-closes and auto-flushes the document, so there is no need to
-            // do so here explicitly; though it does no harm.
-            fileSaved = createDocument( bufferedOutputStream, node, title, useExtendedConversion );
+        // Using a safe try-with-resources clause, write the PPT bytes through
+        // a FileChannel based stream, which copies them once into a pooled
+        // direct buffer rather than once per layer of a buffered stream chain.
+        // As Apache POI only supports Output Streams vs. Writers, there is no
+        // character encoding to do here.
+        try ( final FileChannelOutputStream fileChannelOutputStream =
+                                                                    new FileChannelOutputStream( path ) ) {
+            // Write the PPT contents indirectly via the painter.
+            writeDocument( fileChannelOutputStream,
+                           bounds,
+                           painter,
+                           title,
+                           useExtendedConversion,
+                           new ExportMonitor() );
+
+            // Only replace the target file once the document is complete.
+            fileChannelOutputStream.commit();
+            fileSaved = true;
         }
-        catch ( final IOException ioe ) {
-            ioe.printStackTrace();
+        catch ( final Exception e ) {
+            e.printStackTrace();
         }
 
         return fileSaved;
@@ -135,44 +277,148 @@ public final class PptExportUtilities {
                                           final Node node,
                                           final String title,
                                           final boolean useExtendedConversion ) {
-        boolean fileSaved = false;
-
         // We need bounds in parent vs. bounds in local, so that all transforms
         // are applied and we don't get anomalies such as vertically clipped or
         // offset output (if for instance the Node corresponds to a Layout Pane
         // doesn't include the Tool Bar or the Menu Bar and thus has a non-zero
         // minX and/or minY, causing an unwanted gap at top of document).
-        final Bounds bounds = node.getBoundsInParent();
-        final float slideWidth = ( float ) bounds.getWidth();
-        final float slideHeight = ( float ) bounds.getHeight();
+        return createDocument( outputStream,
+                               node.getBoundsInParent(),
+                               getNodePainter( node, useExtendedConversion ),
+                               title,
+                               useExtendedConversion );
+    }
 
-        try ( final HSLFSlideShow pptSlides = new HSLFSlideShow() ) {
-            // Create a blank slide to hold the current Node once transformed.
-            final HSLFSlide slide = pptSlides.createSlide();
-
-            // Create the PPT Graphics wrapper using the appropriate form.
-            //
-            // A local copy is built with this code due to some link time issues
-            // that cause run-time class-not-found exceptions on account of some
-            // incompatible competing versions of some dependency JAR's.
-            final PPTGraphics2D pptGraphics = useExtendedConversion
-                ? new PPTJFXGraphics2D( slide, slideWidth, slideHeight, Color.WHITE, Color.BLACK )
-                : new PPTGraphics2D( slide, slideWidth, slideHeight, Color.WHITE, Color.BLACK );
-
-            // Write the PPT contents to memory indirectly via JFXConverter.
+    /**
+     * Creates the PPT Document corresponding to a previously captured
+     * {@link SceneSnapshot}, and writes it to the provided
+     * {@link OutputStream}, using Apache POI.
+     * <p>
+     * As the snapshot holds no reference to the live Scene Graph, this can be
+     * invoked from a background thread so that the JavaFX Application Thread
+     * is only blocked for the duration of the capture.
+     *
+     * @param outputStream
+     *            The wrapped {@link OutputStream} for channeling the PPT
+     *            content
+     * @param snapshot
+     *            The {@link SceneSnapshot} to replay and then write to PPT
+     * @param title
+     *            The {@link String} to use as the PPT Document's title
+     * @param useExtendedConversion
+     *            true for an extended conversion
+     * @return The status of whether this PPT export succeeded or not
+     *
+     * @since 1.0
+     */
+    public static boolean createDocument( final OutputStream outputStream,
+                                          final SceneSnapshot snapshot,
+                                          final String title,
+                                          final boolean useExtendedConversion ) {
+        return createDocument( outputStream,
+                               snapshot.getBounds(),
+                               snapshot::replay,
+                               title,
+                               useExtendedConversion );
+    }
+
+    /**
+     * Creates the PPT Document corresponding to a previously captured
+     * {@link SceneSnapshot}, and writes it to the provided
+     * {@link OutputStream}, using Apache POI, reporting progress to the
+     * provided monitor and stopping as soon as the monitor is cancelled.
+     * <p>
+     * Unlike the other methods, this one propagates errors to the caller, as it
+     * is meant for asynchronous clients that need to know why an export failed.
+     * The stream is flushed but not closed, as it is owned by the caller.
+     *
+     * @param outputStream
+     *            The wrapped {@link OutputStream} for channeling the PPT
+     *            content
+     * @param snapshot
+     *            The {@link SceneSnapshot} to replay and then write to PPT
+     * @param title
+     *            The {@link String} to use as the PPT Document's title
+     * @param useExtendedConversion
+     *            true for an extended conversion
+     * @param monitor
+     *            The {@link ExportMonitor} for progress, cancellation and
+     *            counting of the bytes written
+     * @throws IOException
+     *             If the PPT Document could not be written
+     * @throws com.mhschmieder.fxvectorexport.ExportCancelledException
+     *             If the monitor was cancelled during the export
+     *
+     * @since 1.0
+     */
+    public static void writeDocument( final OutputStream outputStream,
+                                      final SceneSnapshot snapshot,
+                                      final String title,
+                                      final boolean useExtendedConversion,
+                                      final ExportMonitor monitor )
+            throws IOException {
+        final OutputStream monitoredOutputStream = monitor.monitor( outputStream );
+        writeDocument( monitoredOutputStream,
+                       snapshot.getBounds(),
+                       pptGraphics -> snapshot.replay( pptGraphics, monitor ),
+                       title,
+                       useExtendedConversion,
+                       monitor );
+        monitoredOutputStream.flush();
+    }
+
+    /**
+     * Returns a painter that transcodes the provided {@link Node} to AWT using
+     * JFXConverter, with grouping and effects if extended conversion is on.
+     *
+     * @param node
+     *            The {@link Node} to convert to AWT and then to PPT
+     * @param useExtendedConversion
+     *            true for an extended conversion
+     * @return The painter that issues the AWT calls for the Node
+     */
+    static Consumer< Graphics2D > getNodePainter( final Node node, final boolean useExtendedConversion ) {
+        return pptGraphics -> {
             final JFXConverter converter = new JFXConverter();
             if ( useExtendedConversion ) {
-                ( ( PPTJFXGraphics2D ) pptGraphics ).supportGroups( true );
                 converter.setListener( new DefaultConverterListener() );
             }
             converter.convert( pptGraphics, node );
+        };
+    }
 
-            // Add the PPT Title before writing the contents.
-            final HSLFTextBox titleBox = slide.addTitle();
-            titleBox.setText( title );
+    /**
+     * Creates the PPT Document whose content is painted by the provided
+     * painter, and writes it to the provided {@link OutputStream}, using
+     * Apache POI.
+     *
+     * @param outputStream
+     *            The wrapped {@link OutputStream} for channeling the PPT
+     *            content
+     * @param bounds
+     *            The bounds of the content, with all transforms applied
+     * @param painter
+     *            The painter that issues the AWT calls for the content
+     * @param title
+     *            The {@link String} to use as the PPT Document's title
+     * @param useExtendedConversion
+     *            true for an extended conversion
+     * @return The status of whether this PPT export succeeded or not
+     */
+    private static boolean createDocument( final OutputStream outputStream,
+                                           final Bounds bounds,
+                                           final Consumer< Graphics2D > painter,
+                                           final String title,
+                                           final boolean useExtendedConversion ) {
+        boolean fileSaved = false;
 
-            // Write the PPT Document's main contents from memory to disc.
-            pptSlides.write( outputStream );
+        try {
+            writeDocument( outputStream,
+                           bounds,
+                           painter,
+                           title,
+                           useExtendedConversion,
+                           new ExportMonitor() );
 
             fileSaved = true;
         }
@@ -182,4 +428,141 @@ public final class PptExportUtilities {
 
         return fileSaved;
     }
+
+    /**
+     * Writes the PPT Document whose content is painted by the provided painter
+     * to the provided {@link OutputStream}, using Apache POI, propagating any
+     * errors.
+     *
+     * @param outputStream
+     *            The wrapped {@link OutputStream} for channeling the PPT
+     *            content
+     * @param bounds
+     *            The bounds of the content, with all transforms applied
+     * @param painter
+     *            The painter that issues the AWT calls for the content
+     * @param title
+     *            The {@link String} to use as the PPT Document's title
+     * @param useExtendedConversion
+     *            true for an extended conversion
+     * @param monitor
+     *            The {@link ExportMonitor} that is told when rendering ends
+     * @throws IOException
+     *             If the PPT Document could not be written
+     */
+    private static void writeDocument( final OutputStream outputStream,
+                                       final Bounds bounds,
+                                       final Consumer< Graphics2D > painter,
+                                       final String title,
+                                       final boolean useExtendedConversion,
+                                       final ExportMonitor monitor )
+            throws IOException {
+        try ( final HSLFSlideShow pptSlides = new HSLFSlideShow() ) {
+            // Encode the images and rasterized paints on the common pool, so
+            // that the PNG compression overlaps with the drawing.
+            PPTGraphics2D.setPictureEncodingExecutor( pptSlides, ForkJoinPool.commonPool() );
+
+            // Create a slide to hold the current Node once transformed.
+            addSlide( pptSlides, bounds, painter, title, useExtendedConversion );
+            PPTGraphics2D.completePictures( pptSlides );
+            monitor.addImageBytesAllocated( PPTGraphics2D.getImageBytesAllocated( pptSlides ) );
+            monitor.renderFinished();
+
+            // Write the PPT Document's main contents from memory to disc.
+            pptSlides.write( outputStream );
+        }
+    }
+
+    /**
+     * Adds a slide whose content is painted by the provided painter to a PPT
+     * SlideShow, with the provided title.
+     * <p>
+     * Pictures may still be encoding when this returns, if the SlideShow has a
+     * picture encoding Executor, so
+     * {@link PPTGraphics2D#completePictures(HSLFSlideShow)} must be called
+     * before the SlideShow is written.
+     *
+     * @param pptSlides
+     *            The SlideShow to add the slide to
+     * @param bounds
+     *            The bounds of the content, with all transforms applied
+     * @param painter
+     *            The painter that issues the AWT calls for the content
+     * @param title
+     *            The {@link String} to use as the slide's title
+     * @param useExtendedConversion
+     *            true for an extended conversion
+     * @return The new slide
+     */
+    static HSLFSlide addSlide( final HSLFSlideShow pptSlides,
+                               final Bounds bounds,
+                               final Consumer< Graphics2D > painter,
+                               final String title,
+                               final boolean useExtendedConversion ) {
+        // Create a blank slide to hold the content once transformed.
+        final HSLFSlide slide = pptSlides.createSlide();
+
+        // Write the PPT contents to memory indirectly via the painter.
+        painter.accept( createGraphics( slide, bounds, useExtendedConversion ) );
+
+        // Add the PPT Title once the contents are drawn.
+        addTitle( slide, title );
+
+        return slide;
+    }
+
+    /**
+     * Creates the PPT Graphics wrapper for a slide, using the appropriate form.
+     *
+     * @param slide
+     *            The slide to draw on
+     * @param bounds
+     *            The bounds of the content, with all transforms applied
+     * @param useExtendedConversion
+     *            true for an extended conversion
+     * @return The PPT Graphics wrapper
+     */
+    static PPTGraphics2D createGraphics( final HSLFSlide slide,
+                                         final Bounds bounds,
+                                         final boolean useExtendedConversion ) {
+        final float slideWidth = ( float ) bounds.getWidth();
+        final float slideHeight = ( float ) bounds.getHeight();
+
+        // A local copy is built with this code due to some link time issues
+        // that cause run-time class-not-found exceptions on account of some
+        // incompatible competing versions of some dependency JAR's.
+        final PPTGraphics2D pptGraphics;
+        if ( useExtendedConversion ) {
+            final PPTJFXGraphics2D jfxGraphics =
+                                               new PPTJFXGraphics2D( slide,
+                                                                     slideWidth,
+                                                                     slideHeight,
+                                                                     Color.WHITE,
+                                                                     Color.BLACK );
+            jfxGraphics.supportGroups( true );
+            pptGraphics = jfxGraphics;
+        }
+        else {
+            pptGraphics = new PPTGraphics2D( slide, slideWidth, slideHeight, Color.WHITE, Color.BLACK );
+        }
+
+        // The content is drawn at its own coordinates, so that is where the
+        // visible area starts.
+        pptGraphics.setContentOrigin( bounds.getMinX(), bounds.getMinY() );
+
+        return pptGraphics;
+    }
+
+    /**
+     * Adds the PPT Title to a slide.
+     *
+     * @param slide
+     *            The slide to add the title to
+     * @param title
+     *            The {@link String} to use as the slide's title
+     */
+    static void addTitle( final HSLFSlide slide, final String title ) {
+        final HSLFTextBox titleBox = slide.addTitle();
+        titleBox.setText( title );
+    }
 }
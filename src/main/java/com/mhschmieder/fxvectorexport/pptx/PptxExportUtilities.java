@@ -0,0 +1,508 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxConverter Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxConverter Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxconverter
+ */
+package com.mhschmieder.fxvectorexport.pptx;
+
+import com.mhschmieder.fxvectorexport.ExportMonitor;
+import com.mhschmieder.fxvectorexport.FileChannelOutputStream;
+import com.mhschmieder.fxvectorexport.capture.SceneSnapshot;
+import javafx.geometry.Bounds;
+import javafx.scene.Node;
+import org.apache.poi.sl.usermodel.Placeholder;
+import org.apache.poi.xslf.usermodel.SlideLayout;
+import org.apache.poi.xslf.usermodel.XMLSlideShow;
+import org.apache.poi.xslf.usermodel.XSLFSimpleShape;
+import org.apache.poi.xslf.usermodel.XSLFSlide;
+import org.apache.poi.xslf.usermodel.XSLFSlideLayout;
+import org.apache.poi.xslf.usermodel.XSLFTextShape;
+import org.jfxconverter.JFXConverter;
+import org.jfxconverter.converters.DefaultConverterListener;
+import org.jfxconverter.drivers.ppt.PPTXGraphics2D;
+import org.jfxconverter.drivers.ppt.PPTXJFXGraphics2D;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+/**
+ * {@code PptxExportUtilities} is a utility class for methods that export a
+ * JavaFX Scene Graph {@link Node} to a PPTX (PowerPoint Open XML) Document
+ * via transcoding to AWT using {@link JFXConverter} as a wrapper for
+ * {@link PPTXJFXGraphics2D}.
+ * <p>
+ * Unlike the PPT format, shapes, gradients and texts are written as native
+ * DrawingML, and the package is streamed to the output once complete.
+ *
+ * @version 1.0
+ *
+ * @author Mark Schmieder
+ */
+public final class PptxExportUtilities {
+
+    /**
+     * The default constructor is disabled, as this is a static utilities class.
+     */
+    private PptxExportUtilities() {}
+
+    /**
+     * Creates the PPTX Document corresponding to the {@link Node}, and writes it
+     * to the provided {@link File}, using default UTF-16 encoding due to the
+     * need to handle locale sensitive characters for the PPTX Title and content.
+     *
+     * @param file
+     *            The {@link File} destination for writing the PPTX content
+     * @param node
+     *            The {@link Node} to convert to AWT and then to PPTX
+     * @param title
+     *            The {@link String} to use as the PPTX Document's title
+     * @param useExtendedConversion
+     *            true for an extended conversion
+     * @return The status of whether this PPTX export succeeded or not
+     *
+     * @since 1.0
+     */
+    public static boolean createDocument( final File file,
+                                          final Node node,
+                                          final String title,
+                                          final boolean useExtendedConversion ) {
+        if ( ( file == null ) || ( node == null ) ) {
+            return false;
+        }
+
+        return createDocument( file.toPath(),
+                               node.getBoundsInParent(),
+                               getNodePainter( node, useExtendedConversion ),
+                               title,
+                               useExtendedConversion );
+    }
+
+    /**
+     * Creates the PPTX Document corresponding to a previously captured
+     * {@link SceneSnapshot}, and writes it to the provided {@link File}.
+     * <p>
+     * As the snapshot holds no reference to the live Scene Graph, this can be
+     * invoked from a background thread so that the JavaFX Application Thread
+     * is only blocked for the duration of the capture.
+     *
+     * @param file
+     *            The {@link File} destination for writing the PPTX content
+     * @param snapshot
+     *            The {@link SceneSnapshot} to replay and then write to PPTX
+     * @param title
+     *            The {@link String} to use as the PPTX Document's title
+     * @param useExtendedConversion
+     *            true for an extended conversion
+     * @return The status of whether this PPTX export succeeded or not
+     *
+     * @since 1.0
+     */
+    public static boolean createDocument( final File file,
+                                          final SceneSnapshot snapshot,
+                                          final String title,
+                                          final boolean useExtendedConversion ) {
+        if ( ( file == null ) || ( snapshot == null ) ) {
+            return false;
+        }
+
+        return createDocument( file.toPath(),
+                               snapshot.getBounds(),
+                               snapshot::replay,
+                               title,
+                               useExtendedConversion );
+    }
+
+    /**
+     * Creates the PPTX Document corresponding to the {@link Node}, and writes it
+     * to the provided {@link Path}.
+     * <p>
+     * The PPTX content goes through a {@link java.nio.channels.FileChannel} to
+     * a temporary file, which replaces the target file only once the PPTX
+     * Document is complete, so that a failed export leaves any previous
+     * version of the file intact.
+     *
+     * @param path
+     *            The {@link Path} destination for writing the PPTX content
+     * @param node
+     *            The {@link Node} to convert to AWT and then to PPTX
+     * @param title
+     *            The {@link String} to use as the PPTX Document's title
+     * @param useExtendedConversion
+     *            true for an extended conversion
+     * @return The status of whether this PPTX export succeeded or not
+     *
+     * @since 1.0
+     */
+    public static boolean createDocument( final Path path,
+                                          final Node node,
+                                          final String title,
+                                          final boolean useExtendedConversion ) {
+        if ( ( path == null ) || ( node == null ) ) {
+            return false;
+        }
+
+        return createDocument( path,
+                               node.getBoundsInParent(),
+                               getNodePainter( node, useExtendedConversion ),
+                               title,
+                               useExtendedConversion );
+    }
+
+    /**
+     * Creates the PPTX Document corresponding to a previously captured
+     * {@link SceneSnapshot}, and writes it to the provided {@link Path}.
+     * <p>
+     * The PPTX content goes through a {@link java.nio.channels.FileChannel} to
+     * a temporary file, which replaces the target file only once the PPTX
+     * Document is complete, so that a failed export leaves any previous
+     * version of the file intact.
+     *
+     * @param path
+     *            The {@link Path} destination for writing the PPTX content
+     * @param snapshot
+     *            The {@link SceneSnapshot} to replay and then write to PPTX
+     * @param title
+     *            The {@link String} to use as the PPTX Document's title
+     * @param useExtendedConversion
+     *            true for an extended conversion
+     * @return The status of whether this PPTX export succeeded or not
+     *
+     * @since 1.0
+     */
+    public static boolean createDocument( final Path path,
+                                          final SceneSnapshot snapshot,
+                                          final String title,
+                                          final boolean useExtendedConversion ) {
+        if ( ( path == null ) || ( snapshot == null ) ) {
+            return false;
+        }
+
+        return createDocument( path,
+                               snapshot.getBounds(),
+                               snapshot::replay,
+                               title,
+                               useExtendedConversion );
+    }
+
+    /**
+     * Creates the PPTX Document whose content is painted by the provided
+     * painter, and writes it to the provided {@link Path}.
+     *
+     * @param path
+     *            The {@link Path} destination for writing the PPTX content
+     * @param bounds
+     *            The bounds of the content, with all transforms applied
+     * @param painter
+     *            The painter that issues the AWT calls for the content
+     * @param title
+     *            The {@link String} to use as the PPTX Document's title
+     * @param useExtendedConversion
+     *            true for an extended conversion
+     * @return The status of whether this PPTX export succeeded or not
+     */
+    private static boolean createDocument( final Path path,
+                                           final Bounds bounds,
+                                           final Consumer< Graphics2D > painter,
+                                           final String title,
+                                           final boolean useExtendedConversion ) {
+        boolean fileSaved = false;
+
+        // Using a safe try-with-resources clause, write the PPTX bytes through
+        // a FileChannel based stream, which copies them once into a pooled
+        // direct buffer rather than once per layer of a buffered stream chain.
+        // As Apache POI only supports Output Streams vs. Writers, there is no
+        // character encoding to do here.
+        try ( final FileChannelOutputStream fileChannelOutputStream =
+                                                                    new FileChannelOutputStream( path ) ) {
+            // Write the PPTX contents indirectly via the painter.
+            writeDocument( fileChannelOutputStream,
+                           bounds,
+                           painter,
+                           title,
+                           useExtendedConversion,
+                           new ExportMonitor() );
+
+            // Only replace the target file once the document is complete.
+            fileChannelOutputStream.commit();
+            fileSaved = true;
+        }
+        catch ( final Exception e ) {
+            e.printStackTrace();
+        }
+
+        return fileSaved;
+    }
+
+    /**
+     * Creates the PPTX Document corresponding to the {@link Node}, and writes it
+     * to the provided {@link OutputStream}, using Apache POI.
+     *
+     * @param outputStream
+     *            The wrapped {@link OutputStream} for channeling the PPTX
+     *            content
+     * @param node
+     *            The {@link Node} to convert to AWT and then to PPTX
+     * @param title
+     *            The {@link String} to use as the PPTX Document's title
+     * @param useExtendedConversion
+     *            true for an extended conversion
+     * @return The status of whether this PPTX export succeeded or not
+     *
+     * @since 1.0
+     */
+    public static boolean createDocument( final OutputStream outputStream,
+                                          final Node node,
+                                          final String title,
+                                          final boolean useExtendedConversion ) {
+        // We need bounds in parent vs. bounds in local, so that all transforms
+        // are applied and we don't get anomalies such as vertically clipped or
+        // offset output (if for instance the Node corresponds to a Layout Pane
+        // doesn't include the Tool Bar or the Menu Bar and thus has a non-zero
+        // minX and/or minY, causing an unwanted gap at top of document).
+        return createDocument( outputStream,
+                               node.getBoundsInParent(),
+                               getNodePainter( node, useExtendedConversion ),
+                               title,
+                               useExtendedConversion );
+    }
+
+    /**
+     * Creates the PPTX Document corresponding to a previously captured
+     * {@link SceneSnapshot}, and writes it to the provided
+     * {@link OutputStream}, using Apache POI.
+     * <p>
+     * As the snapshot holds no reference to the live Scene Graph, this can be
+     * invoked from a background thread so that the JavaFX Application Thread
+     * is only blocked for the duration of the capture.
+     *
+     * @param outputStream
+     *            The wrapped {@link OutputStream} for channeling the PPTX
+     *            content
+     * @param snapshot
+     *            The {@link SceneSnapshot} to replay and then write to PPTX
+     * @param title
+     *            The {@link String} to use as the PPTX Document's title
+     * @param useExtendedConversion
+     *            true for an extended conversion
+     * @return The status of whether this PPTX export succeeded or not
+     *
+     * @since 1.0
+     */
+    public static boolean createDocument( final OutputStream outputStream,
+                                          final SceneSnapshot snapshot,
+                                          final String title,
+                                          final boolean useExtendedConversion ) {
+        return createDocument( outputStream,
+                               snapshot.getBounds(),
+                               snapshot::replay,
+                               title,
+                               useExtendedConversion );
+    }
+
+    /**
+     * Creates the PPTX Document corresponding to a previously captured
+     * {@link SceneSnapshot}, and writes it to the provided
+     * {@link OutputStream}, using Apache POI, reporting progress to the
+     * provided monitor and stopping as soon as the monitor is cancelled.
+     * <p>
+     * Unlike the other methods, this one propagates errors to the caller, as it
+     * is meant for asynchronous clients that need to know why an export failed.
+     * The stream is flushed but not closed, as it is owned by the caller.
+     *
+     * @param outputStream
+     *            The wrapped {@link OutputStream} for channeling the PPTX
+     *            content
+     * @param snapshot
+     *            The {@link SceneSnapshot} to replay and then write to PPTX
+     * @param title
+     *            The {@link String} to use as the PPTX Document's title
+     * @param useExtendedConversion
+     *            true for an extended conversion
+     * @param monitor
+     *            The {@link ExportMonitor} for progress, cancellation and
+     *            counting of the bytes written
+     * @throws IOException
+     *             If the PPTX Document could not be written
+     * @throws com.mhschmieder.fxvectorexport.ExportCancelledException
+     *             If the monitor was cancelled during the export
+     *
+     * @since 1.0
+     */
+    public static void writeDocument( final OutputStream outputStream,
+                                      final SceneSnapshot snapshot,
+                                      final String title,
+                                      final boolean useExtendedConversion,
+                                      final ExportMonitor monitor )
+            throws IOException {
+        final OutputStream monitoredOutputStream = monitor.monitor( outputStream );
+        writeDocument( monitoredOutputStream,
+                       snapshot.getBounds(),
+                       pptxGraphics -> snapshot.replay( pptxGraphics, monitor ),
+                       title,
+                       useExtendedConversion,
+                       monitor );
+        monitoredOutputStream.flush();
+    }
+
+    /**
+     * Returns a painter that transcodes the provided {@link Node} to AWT using
+     * JFXConverter, with grouping and effects if extended conversion is on.
+     *
+     * @param node
+     *            The {@link Node} to convert to AWT and then to PPTX
+     * @param useExtendedConversion
+     *            true for an extended conversion
+     * @return The painter that issues the AWT calls for the Node
+     */
+    private static Consumer< Graphics2D > getNodePainter( final Node node,
+                                                          final boolean useExtendedConversion ) {
+        return pptxGraphics -> {
+            final JFXConverter converter = new JFXConverter();
+            if ( useExtendedConversion ) {
+                converter.setListener( new DefaultConverterListener() );
+            }
+            converter.convert( pptxGraphics, node );
+        };
+    }
+
+    /**
+     * Creates the PPTX Document whose content is painted by the provided
+     * painter, and writes it to the provided {@link OutputStream}, using
+     * Apache POI.
+     *
+     * @param outputStream
+     *            The wrapped {@link OutputStream} for channeling the PPTX
+     *            content
+     * @param bounds
+     *            The bounds of the content, with all transforms applied
+     * @param painter
+     *            The painter that issues the AWT calls for the content
+     * @param title
+     *            The {@link String} to use as the PPTX Document's title
+     * @param useExtendedConversion
+     *            true for an extended conversion
+     * @return The status of whether this PPTX export succeeded or not
+     */
+    private static boolean createDocument( final OutputStream outputStream,
+                                           final Bounds bounds,
+                                           final Consumer< Graphics2D > painter,
+                                           final String title,
+                                           final boolean useExtendedConversion ) {
+        boolean fileSaved = false;
+
+        try {
+            writeDocument( outputStream,
+                           bounds,
+                           painter,
+                           title,
+                           useExtendedConversion,
+                           new ExportMonitor() );
+
+            fileSaved = true;
+        }
+        catch ( final Exception e ) {
+            e.printStackTrace();
+        }
+
+        return fileSaved;
+    }
+
+    /**
+     * Writes the PPTX Document whose content is painted by the provided painter
+     * to the provided {@link OutputStream}, using Apache POI, propagating any
+     * errors.
+     *
+     * @param outputStream
+     *            The wrapped {@link OutputStream} for channeling the PPTX
+     *            content
+     * @param bounds
+     *            The bounds of the content, with all transforms applied
+     * @param painter
+     *            The painter that issues the AWT calls for the content
+     * @param title
+     *            The {@link String} to use as the PPTX Document's title
+     * @param useExtendedConversion
+     *            true for an extended conversion
+     * @param monitor
+     *            The {@link ExportMonitor} that is told when rendering ends
+     * @throws IOException
+     *             If the PPTX Document could not be written
+     */
+    private static void writeDocument( final OutputStream outputStream,
+                                       final Bounds bounds,
+                                       final Consumer< Graphics2D > painter,
+                                       final String title,
+                                       final boolean useExtendedConversion,
+                                       final ExportMonitor monitor )
+            throws IOException {
+        final float slideWidth = ( float ) bounds.getWidth();
+        final float slideHeight = ( float ) bounds.getHeight();
+
+        try ( final XMLSlideShow pptxSlides = new XMLSlideShow() ) {
+            // Size the slide to the content, as the OOXML page size is not
+            // limited to the 4:3 and 16:9 presets.
+            pptxSlides.setPageSize( new Dimension( ( int ) Math.ceil( slideWidth ),
+                                                   ( int ) Math.ceil( slideHeight ) ) );
+
+            // Create a slide with a title placeholder to hold the current Node
+            // once transformed.
+            final XSLFSlideLayout titleLayout = pptxSlides.getSlideMasters().get( 0 )
+                    .getLayout( SlideLayout.TITLE_ONLY );
+            final XSLFSlide slide = ( titleLayout != null )
+                ? pptxSlides.createSlide( titleLayout )
+                : pptxSlides.createSlide();
+
+            // Create the PPTX Graphics wrapper using the appropriate form.
+            final PPTXGraphics2D pptxGraphics = useExtendedConversion
+                ? new PPTXJFXGraphics2D( slide, slideWidth, slideHeight, Color.WHITE, Color.BLACK )
+                : new PPTXGraphics2D( slide, slideWidth, slideHeight, Color.WHITE, Color.BLACK );
+
+            // Write the PPTX contents to memory indirectly via the painter.
+            if ( useExtendedConversion ) {
+                ( ( PPTXJFXGraphics2D ) pptxGraphics ).supportGroups( true );
+            }
+            painter.accept( pptxGraphics );
+            monitor.renderFinished();
+
+            // Set the PPTX Title before writing the contents.
+            final XSLFSimpleShape titleShape = slide.getPlaceholder( Placeholder.TITLE );
+            if ( titleShape instanceof XSLFTextShape ) {
+                ( ( XSLFTextShape ) titleShape ).setText( title );
+            }
+
+            // Stream the PPTX package from memory to the output.
+            pptxSlides.write( outputStream );
+        }
+    }
+}
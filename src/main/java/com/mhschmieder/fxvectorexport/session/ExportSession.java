@@ -0,0 +1,291 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxConverter Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxConverter Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxconverter
+ */
+package com.mhschmieder.fxvectorexport.session;
+
+import com.mhschmieder.fxvectorexport.AsyncExporter;
+import com.mhschmieder.fxvectorexport.ExportFormat;
+import com.mhschmieder.fxvectorexport.ExportMonitor;
+import com.mhschmieder.fxvectorexport.ExportOptions;
+import com.mhschmieder.fxvectorexport.ExportResult;
+import com.mhschmieder.fxvectorexport.capture.SceneCapture;
+import com.mhschmieder.fxvectorexport.capture.SceneSnapshot;
+import com.mhschmieder.fxvectorexport.graphics.TextOutlineCache;
+import javafx.scene.Node;
+import org.jfxconverter.JFXConverter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+
+/**
+ * {@code ExportSession} is a long-lived exporter that keeps its JFXConverter
+ * and its conversion caches across exports, so that repeated exports of
+ * similar scenes only pay for that setup once. At present the cache is of the
+ * outlines of vectorized text, which the streaming backends use in place of
+ * laying out each string afresh.
+ * <p>
+ * A session is confined to one thread at a time; it is not thread-safe, and
+ * its caches are only bound to the exporting thread for the duration of each
+ * export. Sessions are normally checked out of an {@link ExportSessionPool}
+ * and returned to it by closing them, but a standalone session may also be
+ * constructed directly, in which case closing it simply clears its caches.
+ *
+ * @version 1.0
+ *
+ * @author Mark Schmieder
+ */
+public final class ExportSession implements AutoCloseable {
+
+    /**
+     * The pool that this session belongs to, or {@code null} if it is
+     * standalone.
+     */
+    private final ExportSessionPool pool;
+
+    /**
+     * The converter that is reused for each capture.
+     */
+    private final JFXConverter      converter;
+
+    /**
+     * The cache of vectorized text outlines that is reused for each export.
+     */
+    private final TextOutlineCache  textOutlineCache;
+
+    /**
+     * The number of exports done by this session so far.
+     */
+    private long                    exportCount;
+
+    /**
+     * Flag for whether this session is currently checked out of its pool.
+     */
+    private volatile boolean        checkedOut;
+
+    /**
+     * Constructs a standalone session that doesn't belong to a pool.
+     */
+    public ExportSession() {
+        this( null );
+    }
+
+    /**
+     * Constructs a session that belongs to the provided pool.
+     *
+     * @param pool
+     *            The pool that the session belongs to, or {@code null} if it
+     *            is standalone
+     */
+    ExportSession( final ExportSessionPool pool ) {
+        this.pool = pool;
+
+        converter = new JFXConverter();
+        textOutlineCache = new TextOutlineCache();
+        exportCount = 0L;
+        checkedOut = false;
+    }
+
+    /**
+     * Captures the AWT transcoding of the provided {@link Node} with this
+     * session's converter. This should be called on the JavaFX Application
+     * Thread if the Node is part of a live Scene.
+     *
+     * @param node
+     *            The {@link Node} to capture
+     * @param monitor
+     *            The {@link ExportMonitor} to check for cancellation
+     * @return An immutable snapshot of the AWT transcoding of the Node
+     *
+     * @since 1.0
+     */
+    public SceneSnapshot capture( final Node node, final ExportMonitor monitor ) {
+        return SceneCapture.capture( node, monitor, converter );
+    }
+
+    /**
+     * Exports a snapshot to an output stream, with this session's caches.
+     *
+     * @param snapshot
+     *            The {@link SceneSnapshot} to export
+     * @param format
+     *            The {@link ExportFormat} to write
+     * @param outputStream
+     *            The {@link OutputStream} to write the document to
+     * @param options
+     *            The {@link ExportOptions} for the document
+     * @param monitor
+     *            The {@link ExportMonitor} to report progress to and to check
+     *            for cancellation
+     * @return The timings and size of the export
+     * @throws IOException
+     *             If the document could not be written
+     *
+     * @since 1.0
+     */
+    public ExportResult export( final SceneSnapshot snapshot,
+                                final ExportFormat format,
+                                final OutputStream outputStream,
+                                final ExportOptions options,
+                                final ExportMonitor monitor )
+            throws IOException {
+        final TextOutlineCache previousCache = bindCaches();
+        try {
+            return AsyncExporter.exportSnapshot( snapshot, format, outputStream, options, monitor );
+        }
+        finally {
+            unbindCaches( previousCache );
+        }
+    }
+
+    /**
+     * Exports a snapshot to a file, with this session's caches. The file is
+     * only replaced once the document has been written in full.
+     *
+     * @param snapshot
+     *            The {@link SceneSnapshot} to export
+     * @param format
+     *            The {@link ExportFormat} to write
+     * @param path
+     *            The {@link Path} destination for the document
+     * @param options
+     *            The {@link ExportOptions} for the document
+     * @param monitor
+     *            The {@link ExportMonitor} to report progress to and to check
+     *            for cancellation
+     * @return The timings and size of the export
+     * @throws IOException
+     *             If the document could not be written
+     *
+     * @since 1.0
+     */
+    public ExportResult export( final SceneSnapshot snapshot,
+                                final ExportFormat format,
+                                final Path path,
+                                final ExportOptions options,
+                                final ExportMonitor monitor )
+            throws IOException {
+        final TextOutlineCache previousCache = bindCaches();
+        try {
+            return AsyncExporter.exportSnapshot( snapshot, format, path, options, monitor );
+        }
+        finally {
+            unbindCaches( previousCache );
+        }
+    }
+
+    /**
+     * Returns the cache of vectorized text outlines, mostly so that its hit
+     * rate can be inspected.
+     *
+     * @return The cache of vectorized text outlines
+     */
+    public TextOutlineCache getTextOutlineCache() {
+        return textOutlineCache;
+    }
+
+    /**
+     * Returns the number of exports done by this session so far.
+     *
+     * @return The number of exports done by this session
+     */
+    public long getExportCount() {
+        return exportCount;
+    }
+
+    /**
+     * Returns this session to its pool, or clears its caches if it is
+     * standalone. A pooled session must not be used once it is closed.
+     */
+    @Override
+    public void close() {
+        if ( pool != null ) {
+            pool.release( this );
+        }
+        else {
+            textOutlineCache.clear();
+        }
+    }
+
+    /**
+     * Returns the pool that this session belongs to.
+     *
+     * @return The pool that this session belongs to, or {@code null} if it is
+     *         standalone
+     */
+    ExportSessionPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Marks this session as checked out of its pool, or returned to it.
+     *
+     * @param checkedOut
+     *            {@code true} if the session is being checked out;
+     *            {@code false} if it is being returned
+     * @return {@code true} if the state changed; {@code false} if the session
+     *         was already in the requested state
+     */
+    boolean setCheckedOut( final boolean checkedOut ) {
+        final boolean changed = this.checkedOut != checkedOut;
+        this.checkedOut = checkedOut;
+        return changed;
+    }
+
+    /**
+     * Binds this session's caches to the current thread for an export.
+     *
+     * @return The cache that was previously bound to the current thread, so
+     *         that it can be restored afterwards
+     */
+    private TextOutlineCache bindCaches() {
+        final TextOutlineCache previousCache = TextOutlineCache.getCurrentThreadCache();
+        textOutlineCache.bindToCurrentThread();
+        exportCount++;
+        return previousCache;
+    }
+
+    /**
+     * Restores the caches that were bound to the current thread before an
+     * export.
+     *
+     * @param previousCache
+     *            The cache that was previously bound to the current thread, or
+     *            {@code null} if there was none
+     */
+    private static void unbindCaches( final TextOutlineCache previousCache ) {
+        if ( previousCache != null ) {
+            previousCache.bindToCurrentThread();
+        }
+        else {
+            TextOutlineCache.unbindFromCurrentThread();
+        }
+    }
+}
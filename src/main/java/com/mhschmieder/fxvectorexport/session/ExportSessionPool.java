@@ -0,0 +1,161 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxConverter Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxConverter Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxconverter
+ */
+package com.mhschmieder.fxvectorexport.session;
+
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@code ExportSessionPool} is a bounded pool of {@link ExportSession}
+ * instances. Sessions are created lazily, up to the maximum, and callers
+ * block once that many are checked out at once. The most recently returned
+ * session is handed out first, as it has the warmest caches.
+ * <p>
+ * Sessions are returned by closing them, so the usual pattern is:
+ *
+ * <pre>
+ * try ( final ExportSession session = pool.acquire() ) {
+ *     session.export( snapshot, format, path, options, monitor );
+ * }
+ * </pre>
+ *
+ * @version 1.0
+ *
+ * @author Mark Schmieder
+ */
+public final class ExportSessionPool {
+
+    /**
+     * The maximum number of sessions checked out at once.
+     */
+    private final int                     maxSessions;
+
+    /**
+     * The permits for checking out sessions, one per session.
+     */
+    private final Semaphore               permits;
+
+    /**
+     * The sessions that are not checked out, most recently returned first.
+     */
+    private final Deque< ExportSession >  idleSessions;
+
+    /**
+     * The number of sessions created by this pool so far.
+     */
+    private final AtomicInteger           sessionsCreated;
+
+    /**
+     * Constructs a pool that allows as many sessions as there are processors.
+     */
+    public ExportSessionPool() {
+        this( Runtime.getRuntime().availableProcessors() );
+    }
+
+    /**
+     * Constructs a pool that allows at most the provided number of sessions to
+     * be checked out at once.
+     *
+     * @param maxSessions
+     *            The maximum number of sessions checked out at once
+     */
+    public ExportSessionPool( final int maxSessions ) {
+        if ( maxSessions < 1 ) {
+            throw new IllegalArgumentException( "At least one session is needed" ); //$NON-NLS-1$
+        }
+
+        this.maxSessions = maxSessions;
+
+        permits = new Semaphore( maxSessions, true );
+        idleSessions = new ConcurrentLinkedDeque<>();
+        sessionsCreated = new AtomicInteger( 0 );
+    }
+
+    /**
+     * Checks a session out of the pool, waiting for one to be returned if the
+     * maximum number are already checked out.
+     *
+     * @return A session for the exclusive use of the calling thread, until it
+     *         is closed
+     * @throws InterruptedException
+     *             If the calling thread is interrupted while waiting
+     */
+    public ExportSession acquire() throws InterruptedException {
+        permits.acquire();
+
+        ExportSession session = idleSessions.pollFirst();
+        if ( session == null ) {
+            session = new ExportSession( this );
+            sessionsCreated.incrementAndGet();
+        }
+
+        session.setCheckedOut( true );
+        return session;
+    }
+
+    /**
+     * Returns a session to the pool. Returning a session more than once has no
+     * further effect.
+     *
+     * @param session
+     *            The session to return
+     */
+    public void release( final ExportSession session ) {
+        if ( session.getPool() != this ) {
+            throw new IllegalArgumentException( "The session does not belong to this pool" ); //$NON-NLS-1$
+        }
+
+        if ( session.setCheckedOut( false ) ) {
+            idleSessions.offerFirst( session );
+            permits.release();
+        }
+    }
+
+    /**
+     * Returns the maximum number of sessions checked out at once.
+     *
+     * @return The maximum number of sessions checked out at once
+     */
+    public int getMaxSessions() {
+        return maxSessions;
+    }
+
+    /**
+     * Returns the number of sessions created by this pool so far.
+     *
+     * @return The number of sessions created by this pool
+     */
+    public int getSessionsCreated() {
+        return sessionsCreated.get();
+    }
+}
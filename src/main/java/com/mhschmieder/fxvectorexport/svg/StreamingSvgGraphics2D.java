@@ -0,0 +1,853 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2025 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxConverter Library
+ *
+ * You should have received a copy of the MIT License along with the
+ * FxConverter Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxconverter
+ */
+package com.mhschmieder.fxvectorexport.svg;
+
+import com.mhschmieder.fxvectorexport.graphics.VectorGraphics2D;
+
+import javax.imageio.ImageIO;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.GradientPaint;
+import java.awt.Graphics;
+import java.awt.LinearGradientPaint;
+import java.awt.MultipleGradientPaint;
+import java.awt.Paint;
+import java.awt.RadialGradientPaint;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Point2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code StreamingSvgGraphics2D} is a {@link java.awt.Graphics2D} that writes
+ * each drawing call to a {@link Writer} as an SVG element as soon as it
+ * arrives, rather than building the whole SVG Document in memory first as
+ * JFreeSVG does. Peak memory is thus bounded by the largest single element,
+ * regardless of the size of the drawing.
+ * <p>
+ * The only things held back are the definitions that elements refer to (clip
+ * paths and gradients), which are kept in a small side buffer and written in a
+ * {@code defs} block just before the first element that needs them. Elements
+ * that share a clip are written inside a common clipped group.
+ * <p>
+ * I/O errors are thrown as {@link UncheckedIOException}, as the
+ * {@link java.awt.Graphics2D} API doesn't allow for checked exceptions.
+ *
+ * @version 1.0
+ *
+ * @author Mark Schmieder
+ */
+public final class StreamingSvgGraphics2D extends VectorGraphics2D {
+
+    /**
+     * The maximum number of gradient definitions remembered for reuse; older
+     * definitions are simply written again if they are needed again.
+     */
+    private static final int     MAX_CACHED_GRADIENTS = 64;
+
+    /**
+     * The number of image bytes base64-encoded per chunk of output, which must
+     * be a multiple of three so that no padding appears mid-stream.
+     */
+    private static final int     BASE64_CHUNK_SIZE    = 3 * 4096;
+
+    /**
+     * The output state that is shared with all child Graphics Contexts.
+     */
+    private final SvgOutput      output;
+
+    /**
+     * Constructs a streaming SVG Graphics Context for a canvas of the given
+     * size, writing to the provided {@link Writer}.
+     *
+     * @param writer
+     *            The {@link Writer} for channeling the SVG content
+     * @param canvasWidth
+     *            The width of the SVG canvas
+     * @param canvasHeight
+     *            The height of the SVG canvas
+     * @param useVectorizedText
+     *            Set to {@code true} if Vectorized Text Mode is desired;
+     *            {@code false} otherwise (that is, if text is to be rendered as
+     *            strings, sometimes referred to as Basic Text Mode)
+     */
+    public StreamingSvgGraphics2D( final Writer writer,
+                                   final int canvasWidth,
+                                   final int canvasHeight,
+                                   final boolean useVectorizedText ) {
+        super( useVectorizedText );
+
+        output = new SvgOutput( writer, canvasWidth, canvasHeight );
+    }
+
+    /**
+     * Constructs a child Graphics Context that shares the parent's output.
+     *
+     * @param parent
+     *            The Graphics Context to copy the state from
+     */
+    private StreamingSvgGraphics2D( final StreamingSvgGraphics2D parent ) {
+        super( parent );
+
+        output = parent.output;
+    }
+
+    /**
+     * Writes the XML prologue, the root element and the title. This must be
+     * called before any drawing is done.
+     *
+     * @param title
+     *            The {@link String} to use as the SVG Document's title
+     */
+    @SuppressWarnings("nls")
+    public void startDocument( final String title ) {
+        final StringBuilder header = output.element;
+        header.setLength( 0 );
+        header.append( "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" );
+        header.append( "<svg xmlns=\"http://www.w3.org/2000/svg\"" );
+        header.append( " xmlns:xlink=\"http://www.w3.org/1999/xlink\"" );
+        header.append( " width=\"" ).append( output.canvasWidth );
+        header.append( "\" height=\"" ).append( output.canvasHeight );
+        header.append( "\" viewBox=\"0 0 " ).append( output.canvasWidth ).append( ' ' )
+                .append( output.canvasHeight ).append( "\">\n" );
+        if ( title != null ) {
+            header.append( "<title>" );
+            appendEscaped( header, title );
+            header.append( "</title>\n" );
+        }
+        output.write( header );
+    }
+
+    /**
+     * Closes any open clipped group and the root element, and flushes the
+     * {@link Writer}. Nothing may be drawn after this is called.
+     */
+    @SuppressWarnings("nls")
+    public void endDocument() {
+        output.closeGroup();
+        output.write( "</svg>\n" );
+        try {
+            output.writer.flush();
+        }
+        catch ( final IOException ioe ) {
+            throw new UncheckedIOException( ioe );
+        }
+    }
+
+    @Override
+    public Graphics create() {
+        return new StreamingSvgGraphics2D( this );
+    }
+
+    @SuppressWarnings("nls")
+    @Override
+    protected void writeShape( final Shape shape, final boolean fill ) {
+        final StringBuilder element = output.element;
+        element.setLength( 0 );
+        element.append( "<path" );
+        appendTransform( element, getTransform() );
+        element.append( " d=\"" );
+        final int windingRule = appendPath( element, shape );
+        element.append( "\" style=\"" );
+
+        if ( fill ) {
+            element.append( "fill:" );
+            appendPaint( element, "fill", getPaint() );
+            if ( windingRule == PathIterator.WIND_EVEN_ODD ) {
+                element.append( ";fill-rule:evenodd" );
+            }
+            element.append( ";stroke:none" );
+        }
+        else {
+            element.append( "fill:none;stroke:" );
+            appendPaint( element, "stroke", getPaint() );
+            appendStroke( element, ( BasicStroke ) getStroke() );
+        }
+
+        element.append( "\"/>\n" );
+        output.writeElement( getDeviceClip(), element );
+    }
+
+    @SuppressWarnings("nls")
+    @Override
+    protected void writeImage( final BufferedImage image, final AffineTransform imageTransform ) {
+        final ByteArrayOutputStream pngBytes = new ByteArrayOutputStream();
+        try {
+            ImageIO.write( image, "png", pngBytes );
+        }
+        catch ( final IOException ioe ) {
+            throw new UncheckedIOException( ioe );
+        }
+
+        final AffineTransform transform = getTransform();
+        transform.concatenate( imageTransform );
+
+        final StringBuilder element = output.element;
+        element.setLength( 0 );
+        element.append( "<image" );
+        appendTransform( element, transform );
+        element.append( " width=\"" ).append( image.getWidth() );
+        element.append( "\" height=\"" ).append( image.getHeight() );
+        element.append( "\" preserveAspectRatio=\"none\"" );
+        final float opacity = getCompositeAlpha();
+        if ( opacity < 1.0f ) {
+            element.append( " opacity=\"" );
+            appendNumber( element, opacity );
+            element.append( '"' );
+        }
+        element.append( " xlink:href=\"data:image/png;base64," );
+        output.writeElement( getDeviceClip(), element );
+
+        // Stream the image data in chunks, so that it is never held in memory
+        // as one big base64 string on top of the raw bytes.
+        final byte[] imageData = pngBytes.toByteArray();
+        final Base64.Encoder encoder = Base64.getEncoder();
+        for ( int offset = 0; offset < imageData.length; offset += BASE64_CHUNK_SIZE ) {
+            final int length = Math.min( BASE64_CHUNK_SIZE, imageData.length - offset );
+            final byte[] chunk = new byte[ length ];
+            System.arraycopy( imageData, offset, chunk, 0, length );
+            output.write( new String( encoder.encode( chunk ), StandardCharsets.US_ASCII ) );
+        }
+
+        output.write( "\"/>\n" );
+    }
+
+    @SuppressWarnings("nls")
+    @Override
+    protected void writeString( final String text, final float x, final float y ) {
+        final Font font = getFont();
+
+        final StringBuilder element = output.element;
+        element.setLength( 0 );
+        element.append( "<text" );
+        appendTransform( element, getTransform() );
+        element.append( " x=\"" );
+        appendNumber( element, x );
+        element.append( "\" y=\"" );
+        appendNumber( element, y );
+        element.append( "\" xml:space=\"preserve\" style=\"font-family:'" );
+        appendEscaped( element, font.getFamily() );
+        element.append( "';font-size:" );
+        appendNumber( element, font.getSize2D() );
+        element.append( "px" );
+        if ( font.isBold() ) {
+            element.append( ";font-weight:bold" );
+        }
+        if ( font.isItalic() ) {
+            element.append( ";font-style:italic" );
+        }
+        element.append( ";fill:" );
+        appendPaint( element, "fill", getPaint() );
+        element.append( "\">" );
+        appendEscaped( element, text );
+        element.append( "</text>\n" );
+        output.writeElement( getDeviceClip(), element );
+    }
+
+    /**
+     * Appends a {@code transform} attribute for the given transform, unless
+     * it is the identity.
+     *
+     * @param buffer
+     *            The buffer to append the attribute to
+     * @param transform
+     *            The transform to append
+     */
+    @SuppressWarnings("nls")
+    private static void appendTransform( final StringBuilder buffer,
+                                         final AffineTransform transform ) {
+        if ( transform.isIdentity() ) {
+            return;
+        }
+
+        buffer.append( " transform=\"matrix(" );
+        appendNumber( buffer, transform.getScaleX() );
+        buffer.append( ' ' );
+        appendNumber( buffer, transform.getShearY() );
+        buffer.append( ' ' );
+        appendNumber( buffer, transform.getShearX() );
+        buffer.append( ' ' );
+        appendNumber( buffer, transform.getScaleY() );
+        buffer.append( ' ' );
+        appendNumber( buffer, transform.getTranslateX() );
+        buffer.append( ' ' );
+        appendNumber( buffer, transform.getTranslateY() );
+        buffer.append( ")\"" );
+    }
+
+    /**
+     * Appends the SVG path data for a shape.
+     *
+     * @param buffer
+     *            The buffer to append the path data to
+     * @param shape
+     *            The shape to append
+     * @return The winding rule of the shape
+     */
+    private static int appendPath( final StringBuilder buffer, final Shape shape ) {
+        final PathIterator pathIterator = shape.getPathIterator( null );
+        final double[] coords = new double[ 6 ];
+        while ( !pathIterator.isDone() ) {
+            switch ( pathIterator.currentSegment( coords ) ) {
+            case PathIterator.SEG_MOVETO:
+                buffer.append( 'M' );
+                appendPoints( buffer, coords, 1 );
+                break;
+            case PathIterator.SEG_LINETO:
+                buffer.append( 'L' );
+                appendPoints( buffer, coords, 1 );
+                break;
+            case PathIterator.SEG_QUADTO:
+                buffer.append( 'Q' );
+                appendPoints( buffer, coords, 2 );
+                break;
+            case PathIterator.SEG_CUBICTO:
+                buffer.append( 'C' );
+                appendPoints( buffer, coords, 3 );
+                break;
+            case PathIterator.SEG_CLOSE:
+                buffer.append( 'Z' );
+                break;
+            default:
+                break;
+            }
+            pathIterator.next();
+        }
+
+        return pathIterator.getWindingRule();
+    }
+
+    /**
+     * Appends the given number of points from a path segment.
+     *
+     * @param buffer
+     *            The buffer to append the points to
+     * @param coords
+     *            The coordinates of the path segment
+     * @param numberOfPoints
+     *            The number of points to append
+     */
+    private static void appendPoints( final StringBuilder buffer,
+                                      final double[] coords,
+                                      final int numberOfPoints ) {
+        for ( int i = 0; i < numberOfPoints; i++ ) {
+            if ( i > 0 ) {
+                buffer.append( ' ' );
+            }
+            appendNumber( buffer, coords[ 2 * i ] );
+            buffer.append( ',' );
+            appendNumber( buffer, coords[ ( 2 * i ) + 1 ] );
+        }
+    }
+
+    /**
+     * Appends a paint value for the {@code fill} or {@code stroke} property,
+     * followed by the matching opacity property when it isn't fully opaque.
+     * Gradients are referenced by id, with their definitions written to the
+     * side buffer if they have not been written recently.
+     *
+     * @param buffer
+     *            The buffer to append the paint to
+     * @param property
+     *            The name of the property being painted
+     * @param paint
+     *            The paint to append
+     */
+    @SuppressWarnings("nls")
+    private void appendPaint( final StringBuilder buffer,
+                              final String property,
+                              final Paint paint ) {
+        float opacity = getCompositeAlpha();
+
+        if ( ( paint instanceof GradientPaint ) || ( paint instanceof MultipleGradientPaint ) ) {
+            buffer.append( "url(#" ).append( output.getGradientId( paint ) ).append( ')' );
+        }
+        else {
+            // Paints that have no SVG equivalent fall back to the current color.
+            final Color color = ( paint instanceof Color ) ? ( Color ) paint : getColor();
+            appendColor( buffer, color );
+            opacity *= color.getAlpha() / 255f;
+        }
+
+        if ( opacity < 1.0f ) {
+            buffer.append( ';' ).append( property ).append( "-opacity:" );
+            appendNumber( buffer, opacity );
+        }
+    }
+
+    /**
+     * Appends an opaque color in {@code rgb()} functional notation.
+     *
+     * @param buffer
+     *            The buffer to append the color to
+     * @param color
+     *            The color to append
+     */
+    @SuppressWarnings("nls")
+    private static void appendColor( final StringBuilder buffer, final Color color ) {
+        buffer.append( "rgb(" ).append( color.getRed() ).append( ',' ).append( color.getGreen() )
+                .append( ',' ).append( color.getBlue() ).append( ')' );
+    }
+
+    /**
+     * Appends the stroke properties for a basic stroke.
+     *
+     * @param buffer
+     *            The buffer to append the stroke properties to
+     * @param stroke
+     *            The stroke to append
+     */
+    @SuppressWarnings("nls")
+    private static void appendStroke( final StringBuilder buffer, final BasicStroke stroke ) {
+        final float lineWidth = stroke.getLineWidth();
+        if ( lineWidth > 0.0f ) {
+            buffer.append( ";stroke-width:" );
+            appendNumber( buffer, lineWidth );
+        }
+        else {
+            // A zero width in AWT means the thinnest line the device can draw,
+            // whereas in SVG it means no line at all.
+            buffer.append( ";stroke-width:1;vector-effect:non-scaling-stroke" );
+        }
+
+        switch ( stroke.getEndCap() ) {
+        case BasicStroke.CAP_ROUND:
+            buffer.append( ";stroke-linecap:round" );
+            break;
+        case BasicStroke.CAP_SQUARE:
+            buffer.append( ";stroke-linecap:square" );
+            break;
+        default:
+            break;
+        }
+
+        switch ( stroke.getLineJoin() ) {
+        case BasicStroke.JOIN_ROUND:
+            buffer.append( ";stroke-linejoin:round" );
+            break;
+        case BasicStroke.JOIN_BEVEL:
+            buffer.append( ";stroke-linejoin:bevel" );
+            break;
+        default:
+            buffer.append( ";stroke-miterlimit:" );
+            appendNumber( buffer, stroke.getMiterLimit() );
+            break;
+        }
+
+        final float[] dashArray = stroke.getDashArray();
+        if ( ( dashArray != null ) && ( dashArray.length > 0 ) ) {
+            buffer.append( ";stroke-dasharray:" );
+            for ( int i = 0; i < dashArray.length; i++ ) {
+                if ( i > 0 ) {
+                    buffer.append( ',' );
+                }
+                appendNumber( buffer, dashArray[ i ] );
+            }
+            if ( stroke.getDashPhase() != 0.0f ) {
+                buffer.append( ";stroke-dashoffset:" );
+                appendNumber( buffer, stroke.getDashPhase() );
+            }
+        }
+    }
+
+    /**
+     * Appends text with the XML special characters escaped.
+     *
+     * @param buffer
+     *            The buffer to append the text to
+     * @param text
+     *            The text to append
+     */
+    @SuppressWarnings("nls")
+    private static void appendEscaped( final StringBuilder buffer, final String text ) {
+        for ( int i = 0, n = text.length(); i < n; i++ ) {
+            final char c = text.charAt( i );
+            switch ( c ) {
+            case '&':
+                buffer.append( "&amp;" );
+                break;
+            case '<':
+                buffer.append( "&lt;" );
+                break;
+            case '>':
+                buffer.append( "&gt;" );
+                break;
+            case '"':
+                buffer.append( "&quot;" );
+                break;
+            case '\'':
+                buffer.append( "&apos;" );
+                break;
+            default:
+                buffer.append( c );
+                break;
+            }
+        }
+    }
+
+    /**
+     * {@code SvgOutput} holds the output state that is shared by a root
+     * Graphics Context and all of its children: the {@link Writer}, the side
+     * buffer of pending definitions, and the currently open clipped group.
+     */
+    private static final class SvgOutput {
+
+        /**
+         * The {@link Writer} for channeling the SVG content.
+         */
+        final Writer                  writer;
+
+        /**
+         * The width of the SVG canvas.
+         */
+        final int                     canvasWidth;
+
+        /**
+         * The height of the SVG canvas.
+         */
+        final int                     canvasHeight;
+
+        /**
+         * The reusable buffer for the element currently being written.
+         */
+        final StringBuilder           element     = new StringBuilder( 1024 );
+
+        /**
+         * The side buffer for definitions that haven't been written yet.
+         */
+        final StringBuilder           definitions = new StringBuilder( 256 );
+
+        /**
+         * The recently written gradient definitions, keyed by their content.
+         */
+        final Map< String, String >   gradientIds;
+
+        /**
+         * The clip of the currently open clipped group, in device space.
+         */
+        Shape                         groupClip   = null;
+
+        /**
+         * Flag for whether a clipped group is currently open.
+         */
+        boolean                       groupOpen   = false;
+
+        /**
+         * The counter used for generating unique definition ids.
+         */
+        int                           nextId      = 0;
+
+        /**
+         * Constructs the shared output state.
+         *
+         * @param writer
+         *            The {@link Writer} for channeling the SVG content
+         * @param canvasWidth
+         *            The width of the SVG canvas
+         * @param canvasHeight
+         *            The height of the SVG canvas
+         */
+        SvgOutput( final Writer writer, final int canvasWidth, final int canvasHeight ) {
+            this.writer = writer;
+            this.canvasWidth = canvasWidth;
+            this.canvasHeight = canvasHeight;
+
+            gradientIds = new LinkedHashMap< String, String >( 16, 0.75f, true ) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry( final Map.Entry< String, String > eldest ) {
+                    return size() > MAX_CACHED_GRADIENTS;
+                }
+            };
+        }
+
+        /**
+         * Writes raw content to the {@link Writer}.
+         *
+         * @param content
+         *            The content to write
+         */
+        void write( final CharSequence content ) {
+            try {
+                writer.append( content );
+            }
+            catch ( final IOException ioe ) {
+                throw new UncheckedIOException( ioe );
+            }
+        }
+
+        /**
+         * Writes an element (or the start of one), after making sure that the
+         * pending definitions are written and that the element ends up in a
+         * group with the given clip.
+         *
+         * @param clip
+         *            The clip of the element, in device space
+         * @param content
+         *            The content of the element
+         */
+        @SuppressWarnings("nls")
+        void writeElement( final Shape clip, final CharSequence content ) {
+            // Clip objects are immutable once set, so identity is enough to
+            // keep consecutive elements with the same clip in the same group.
+            final boolean clipChanged = groupOpen ? ( clip != groupClip ) : ( clip != null );
+            String clipId = null;
+            if ( clipChanged ) {
+                closeGroup();
+                if ( clip != null ) {
+                    clipId = "clip-" + nextId++;
+                    definitions.append( "<clipPath id=\"" ).append( clipId )
+                            .append( "\" clipPathUnits=\"userSpaceOnUse\"><path d=\"" );
+                    final int windingRule = appendPath( definitions, clip );
+                    definitions.append( '"' );
+                    if ( windingRule == PathIterator.WIND_EVEN_ODD ) {
+                        definitions.append( " clip-rule=\"evenodd\"" );
+                    }
+                    definitions.append( "/></clipPath>" );
+                }
+            }
+
+            if ( definitions.length() > 0 ) {
+                write( "<defs>" );
+                write( definitions );
+                write( "</defs>\n" );
+                definitions.setLength( 0 );
+            }
+
+            if ( clipId != null ) {
+                write( "<g clip-path=\"url(#" + clipId + ")\">\n" );
+                groupClip = clip;
+                groupOpen = true;
+            }
+
+            write( content );
+        }
+
+        /**
+         * Closes the currently open clipped group, if any.
+         */
+        void closeGroup() {
+            if ( groupOpen ) {
+                write( "</g>\n" ); //$NON-NLS-1$
+                groupOpen = false;
+                groupClip = null;
+            }
+        }
+
+        /**
+         * Returns the id of the definition for a gradient paint, adding the
+         * definition to the side buffer if it hasn't been written recently.
+         *
+         * @param paint
+         *            The gradient paint
+         * @return The id of the gradient definition
+         */
+        @SuppressWarnings("nls")
+        String getGradientId( final Paint paint ) {
+            final StringBuilder gradient = new StringBuilder( 256 );
+            if ( paint instanceof GradientPaint ) {
+                final GradientPaint gradientPaint = ( GradientPaint ) paint;
+                appendLinearGradient( gradient,
+                                      gradientPaint.getPoint1(),
+                                      gradientPaint.getPoint2(),
+                                      gradientPaint.isCyclic() ? "reflect" : "pad",
+                                      null );
+                appendStop( gradient, 0.0f, gradientPaint.getColor1() );
+                appendStop( gradient, 1.0f, gradientPaint.getColor2() );
+                gradient.append( "</linearGradient>" );
+            }
+            else {
+                final MultipleGradientPaint multipleGradientPaint = ( MultipleGradientPaint ) paint;
+                final String spreadMethod = getSpreadMethod( multipleGradientPaint.getCycleMethod() );
+                if ( paint instanceof LinearGradientPaint ) {
+                    final LinearGradientPaint linearGradientPaint = ( LinearGradientPaint ) paint;
+                    appendLinearGradient( gradient,
+                                          linearGradientPaint.getStartPoint(),
+                                          linearGradientPaint.getEndPoint(),
+                                          spreadMethod,
+                                          linearGradientPaint.getTransform() );
+                }
+                else {
+                    final RadialGradientPaint radialGradientPaint = ( RadialGradientPaint ) paint;
+                    final Point2D center = radialGradientPaint.getCenterPoint();
+                    final Point2D focus = radialGradientPaint.getFocusPoint();
+                    gradient.append( "<radialGradient id=\"@\" gradientUnits=\"userSpaceOnUse\" cx=\"" );
+                    appendNumber( gradient, center.getX() );
+                    gradient.append( "\" cy=\"" );
+                    appendNumber( gradient, center.getY() );
+                    gradient.append( "\" r=\"" );
+                    appendNumber( gradient, radialGradientPaint.getRadius() );
+                    gradient.append( "\" fx=\"" );
+                    appendNumber( gradient, focus.getX() );
+                    gradient.append( "\" fy=\"" );
+                    appendNumber( gradient, focus.getY() );
+                    gradient.append( "\" spreadMethod=\"" ).append( spreadMethod ).append( '"' );
+                    appendGradientTransform( gradient, radialGradientPaint.getTransform() );
+                    gradient.append( '>' );
+                }
+
+                final float[] fractions = multipleGradientPaint.getFractions();
+                final Color[] colors = multipleGradientPaint.getColors();
+                for ( int i = 0; i < fractions.length; i++ ) {
+                    appendStop( gradient, fractions[ i ], colors[ i ] );
+                }
+                gradient.append( ( paint instanceof LinearGradientPaint )
+                    ? "</linearGradient>"
+                    : "</radialGradient>" );
+            }
+
+            // The definition itself (with a placeholder id) is the cache key.
+            final String key = gradient.toString();
+            String gradientId = gradientIds.get( key );
+            if ( gradientId == null ) {
+                gradientId = "gradient-" + nextId++;
+                gradientIds.put( key, gradientId );
+                definitions.append( key.replaceFirst( "@", gradientId ) );
+            }
+
+            return gradientId;
+        }
+
+        /**
+         * Appends the start tag of a linear gradient definition.
+         *
+         * @param buffer
+         *            The buffer to append the start tag to
+         * @param start
+         *            The start point of the gradient
+         * @param end
+         *            The end point of the gradient
+         * @param spreadMethod
+         *            The SVG spread method of the gradient
+         * @param gradientTransform
+         *            The gradient transform, or {@code null} if none
+         */
+        @SuppressWarnings("nls")
+        private static void appendLinearGradient( final StringBuilder buffer,
+                                                  final Point2D start,
+                                                  final Point2D end,
+                                                  final String spreadMethod,
+                                                  final AffineTransform gradientTransform ) {
+            buffer.append( "<linearGradient id=\"@\" gradientUnits=\"userSpaceOnUse\" x1=\"" );
+            appendNumber( buffer, start.getX() );
+            buffer.append( "\" y1=\"" );
+            appendNumber( buffer, start.getY() );
+            buffer.append( "\" x2=\"" );
+            appendNumber( buffer, end.getX() );
+            buffer.append( "\" y2=\"" );
+            appendNumber( buffer, end.getY() );
+            buffer.append( "\" spreadMethod=\"" ).append( spreadMethod ).append( '"' );
+            appendGradientTransform( buffer, gradientTransform );
+            buffer.append( '>' );
+        }
+
+        /**
+         * Appends a {@code gradientTransform} attribute, unless the transform
+         * is missing or is the identity.
+         *
+         * @param buffer
+         *            The buffer to append the attribute to
+         * @param gradientTransform
+         *            The gradient transform, or {@code null} if none
+         */
+        @SuppressWarnings("nls")
+        private static void appendGradientTransform( final StringBuilder buffer,
+                                                     final AffineTransform gradientTransform ) {
+            if ( ( gradientTransform == null ) || gradientTransform.isIdentity() ) {
+                return;
+            }
+
+            final StringBuilder transformAttribute = new StringBuilder( 64 );
+            appendTransform( transformAttribute, gradientTransform );
+            buffer.append( transformAttribute.toString()
+                    .replace( " transform=", " gradientTransform=" ) );
+        }
+
+        /**
+         * Appends a gradient stop.
+         *
+         * @param buffer
+         *            The buffer to append the stop to
+         * @param offset
+         *            The offset of the stop, from 0 to 1
+         * @param color
+         *            The color of the stop
+         */
+        @SuppressWarnings("nls")
+        private static void appendStop( final StringBuilder buffer,
+                                        final float offset,
+                                        final Color color ) {
+            buffer.append( "<stop offset=\"" );
+            appendNumber( buffer, offset );
+            buffer.append( "\" stop-color=\"" );
+            appendColor( buffer, color );
+            buffer.append( '"' );
+            if ( color.getAlpha() < 255 ) {
+                buffer.append( " stop-opacity=\"" );
+                appendNumber( buffer, color.getAlpha() / 255d );
+                buffer.append( '"' );
+            }
+            buffer.append( "/>" );
+        }
+
+        /**
+         * Returns the SVG spread method that matches an AWT cycle method.
+         *
+         * @param cycleMethod
+         *            The AWT cycle method
+         * @return The matching SVG spread method
+         */
+        @SuppressWarnings("nls")
+        private static String getSpreadMethod( final MultipleGradientPaint.CycleMethod cycleMethod ) {
+            switch ( cycleMethod ) {
+            case REFLECT:
+                return "reflect";
+            case REPEAT:
+                return "repeat";
+            default:
+                return "pad";
+            }
+        }
+
+    }
+
+}
@@ -30,6 +30,10 @@
  */
 package com.mhschmieder.fxvectorexport.svg;
 
+import com.mhschmieder.fxvectorexport.ExportMonitor;
+import com.mhschmieder.fxvectorexport.FileChannelOutputStream;
+import com.mhschmieder.fxvectorexport.Utf8Writer;
+import com.mhschmieder.fxvectorexport.capture.SceneSnapshot;
 import com.mhschmieder.jgraphics.GraphicsUtilities;
 import com.mhschmieder.jgraphics.color.ColorMode;
 import javafx.geometry.Bounds;
@@ -40,11 +44,15 @@ import org.jfree.graphics2d.svg.SVGGraphics2D;
 import org.jfree.graphics2d.svg.SVGHints;
 import org.jfxconverter.JFXConverter;
 
-import java.io.BufferedWriter;
+import java.awt.Graphics2D;
 import java.io.File;
-import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
 import java.io.Writer;
+import java.nio.file.Path;
+import java.util.function.Consumer;
 
 /**
  * {@code SvgExportUtilities} is a utility class for methods that export a
@@ -140,32 +148,349 @@ public final class SvgExportUtilities {
                                           final double pageHeight,
                                           final ColorMode colorMode,
                                           final boolean useVectorizedText ) {
+        return createDocument( file.toPath(),
+                               node.getBoundsInParent(),
+                               svgGraphics -> new JFXConverter().convert( svgGraphics, node ),
+                               title,
+                               pageWidth,
+                               pageHeight,
+                               colorMode,
+                               useVectorizedText,
+                               false );
+    }
+
+    /**
+     * Creates the SVG Document corresponding to the {@link Node}, and writes it
+     * to the provided {@link File}, optionally streaming each element to it as it
+     * is drawn rather than building the whole SVG Document in memory first.
+     * <p>
+     * Streaming keeps the peak memory use bounded regardless of the size of
+     * the drawing, which matters for large CAD views; the output is written by
+     * this library instead of by JFreeSVG, and is not guaranteed to be
+     * byte-for-byte identical to the non-streaming output.
+     *
+     * @param file
+     *            The {@link File} destination for writing the SVG content
+     * @param node
+     *            The {@link Node} to convert to AWT and then export to SVG
+     * @param title
+     *            The {@link String} to use as the SVG Document's title
+     * @param pageWidth
+     *            The target page width, usually in points (1/72 inch)
+     * @param pageHeight
+     *            The target page height, usually in points (1/72 inch)
+     * @param colorMode
+     *            The {@link ColorMode} to use, compatible with SVG specs
+     * @param useVectorizedText
+     *            Set to {@code true} if Vectorized Text Mode is desired;
+     *            {@code false} otherwise (that is, if text is to be rendered as
+     *            strings, sometimes referred to as Basic Text Mode)
+     * @param useStreaming
+     *            Set to {@code true} to write each element as it is drawn
+     * @return The status of whether SVG Document creation succeeded or not
+     *
+     * @since 1.0
+     */
+    public static boolean createDocument( final File file,
+                                          final Node node,
+                                          final String title,
+                                          final double pageWidth,
+                                          final double pageHeight,
+                                          final ColorMode colorMode,
+                                          final boolean useVectorizedText,
+                                          final boolean useStreaming ) {
+        return createDocument( file.toPath(),
+                               node.getBoundsInParent(),
+                               svgGraphics -> new JFXConverter().convert( svgGraphics, node ),
+                               title,
+                               pageWidth,
+                               pageHeight,
+                               colorMode,
+                               useVectorizedText,
+                               useStreaming );
+    }
+
+    /**
+     * Creates the SVG Document corresponding to a previously captured
+     * {@link SceneSnapshot}, and writes it to the provided {@link File}, using
+     * UTF-8 encoding due to the need to handle locale sensitive characters for
+     * the SVG Title and content.
+     * <p>
+     * As the snapshot holds no reference to the live Scene Graph, this can be
+     * invoked from a background thread so that the JavaFX Application Thread
+     * is only blocked for the duration of the capture.
+     *
+     * @param file
+     *            The {@link File} destination for writing the SVG content
+     * @param snapshot
+     *            The {@link SceneSnapshot} to replay and then export to SVG
+     * @param title
+     *            The {@link String} to use as the SVG Document's title
+     * @param pageWidth
+     *            The target page width, usually in points (1/72 inch)
+     * @param pageHeight
+     *            The target page height, usually in points (1/72 inch)
+     * @param colorMode
+     *            The {@link ColorMode} to use, compatible with SVG specs
+     * @param useVectorizedText
+     *            Set to {@code true} if Vectorized Text Mode is desired;
+     *            {@code false} otherwise (that is, if text is to be rendered as
+     *            strings, sometimes referred to as Basic Text Mode)
+     * @return The status of whether SVG Document creation succeeded or not
+     *
+     * @since 1.0
+     */
+    public static boolean createDocument( final File file,
+                                          final SceneSnapshot snapshot,
+                                          final String title,
+                                          final double pageWidth,
+                                          final double pageHeight,
+                                          final ColorMode colorMode,
+                                          final boolean useVectorizedText ) {
+        return createDocument( file.toPath(),
+                               snapshot.getBounds(),
+                               snapshot::replay,
+                               title,
+                               pageWidth,
+                               pageHeight,
+                               colorMode,
+                               useVectorizedText,
+                               false );
+    }
+
+    /**
+     * Creates the SVG Document corresponding to a previously captured
+     * {@link SceneSnapshot}, and writes it to the provided {@link OutputStream}
+     * using JFreeSVG, reporting progress to the provided monitor and stopping
+     * as soon as the monitor is cancelled.
+     * <p>
+     * Unlike the other methods, this one propagates errors to the caller, as it
+     * is meant for asynchronous clients that need to know why an export failed.
+     * The stream is flushed but not closed, as it is owned by the caller.
+     *
+     * @param outputStream
+     *            The {@link OutputStream} for channeling the SVG content
+     * @param snapshot
+     *            The {@link SceneSnapshot} to replay and then export to SVG
+     * @param title
+     *            The {@link String} to use as the SVG Document's title
+     * @param pageWidth
+     *            The target page width, usually in points (1/72 inch)
+     * @param pageHeight
+     *            The target page height, usually in points (1/72 inch)
+     * @param colorMode
+     *            The {@link ColorMode} to use, compatible with SVG specs
+     * @param useVectorizedText
+     *            Set to {@code true} if Vectorized Text Mode is desired;
+     *            {@code false} otherwise (that is, if text is to be rendered as
+     *            strings, sometimes referred to as Basic Text Mode)
+     * @param useStreaming
+     *            Set to {@code true} to write each element as it is drawn,
+     *            rather than building the whole SVG Document in memory first
+     * @param monitor
+     *            The {@link ExportMonitor} for progress, cancellation and
+     *            counting of the bytes written
+     * @throws IOException
+     *             If the SVG Document could not be written
+     * @throws com.mhschmieder.fxvectorexport.ExportCancelledException
+     *             If the monitor was cancelled during the export
+     *
+     * @since 1.0
+     */
+    public static void writeDocument( final OutputStream outputStream,
+                                      final SceneSnapshot snapshot,
+                                      final String title,
+                                      final double pageWidth,
+                                      final double pageHeight,
+                                      final ColorMode colorMode,
+                                      final boolean useVectorizedText,
+                                      final boolean useStreaming,
+                                      final ExportMonitor monitor )
+            throws IOException {
+        // Encode to UTF-8 with an ASCII fast path, on top of a monitored stream
+        // so that every buffer flushed to the caller's stream is counted and
+        // checked for cancellation.
+        final Utf8Writer utf8Writer = new Utf8Writer( monitor.monitor( outputStream ) );
+        writeDocument( utf8Writer,
+                       snapshot.getBounds(),
+                       svgGraphics -> snapshot.replay( svgGraphics, monitor ),
+                       title,
+                       pageWidth,
+                       pageHeight,
+                       colorMode,
+                       useVectorizedText,
+                       useStreaming,
+                       monitor );
+        utf8Writer.flush();
+    }
+
+    /**
+     * Creates the SVG Document corresponding to the {@link Node}, and writes it
+     * to the provided {@link Path}, using UTF-8 encoding due to the need to
+     * handle locale sensitive characters for the SVG Title and content.
+     * <p>
+     * The SVG content goes through a {@link java.nio.channels.FileChannel} to
+     * a temporary file, which replaces the target file only once the SVG
+     * Document is complete, so that a failed export leaves any previous
+     * version of the file intact.
+     *
+     * @param path
+     *            The {@link Path} destination for writing the SVG content
+     * @param node
+     *            The {@link Node} to convert to AWT and then export to SVG
+     * @param title
+     *            The {@link String} to use as the SVG Document's title
+     * @param pageWidth
+     *            The target page width, usually in points (1/72 inch)
+     * @param pageHeight
+     *            The target page height, usually in points (1/72 inch)
+     * @param colorMode
+     *            The {@link ColorMode} to use, compatible with SVG specs
+     * @param useVectorizedText
+     *            Set to {@code true} if Vectorized Text Mode is desired;
+     *            {@code false} otherwise (that is, if text is to be rendered as
+     *            strings, sometimes referred to as Basic Text Mode)
+     * @param useStreaming
+     *            Set to {@code true} to write each element as it is drawn
+     * @return The status of whether SVG Document creation succeeded or not
+     *
+     * @since 1.0
+     */
+    public static boolean createDocument( final Path path,
+                                          final Node node,
+                                          final String title,
+                                          final double pageWidth,
+                                          final double pageHeight,
+                                          final ColorMode colorMode,
+                                          final boolean useVectorizedText,
+                                          final boolean useStreaming ) {
+        return createDocument( path,
+                               node.getBoundsInParent(),
+                               svgGraphics -> new JFXConverter().convert( svgGraphics, node ),
+                               title,
+                               pageWidth,
+                               pageHeight,
+                               colorMode,
+                               useVectorizedText,
+                               useStreaming );
+    }
+
+    /**
+     * Creates the SVG Document corresponding to a previously captured
+     * {@link SceneSnapshot}, and writes it to the provided {@link Path}, using
+     * UTF-8 encoding due to the need to handle locale sensitive characters for
+     * the SVG Title and content.
+     * <p>
+     * The SVG content goes through a {@link java.nio.channels.FileChannel} to
+     * a temporary file, which replaces the target file only once the SVG
+     * Document is complete, so that a failed export leaves any previous
+     * version of the file intact.
+     *
+     * @param path
+     *            The {@link Path} destination for writing the SVG content
+     * @param snapshot
+     *            The {@link SceneSnapshot} to replay and then export to SVG
+     * @param title
+     *            The {@link String} to use as the SVG Document's title
+     * @param pageWidth
+     *            The target page width, usually in points (1/72 inch)
+     * @param pageHeight
+     *            The target page height, usually in points (1/72 inch)
+     * @param colorMode
+     *            The {@link ColorMode} to use, compatible with SVG specs
+     * @param useVectorizedText
+     *            Set to {@code true} if Vectorized Text Mode is desired;
+     *            {@code false} otherwise (that is, if text is to be rendered as
+     *            strings, sometimes referred to as Basic Text Mode)
+     * @param useStreaming
+     *            Set to {@code true} to write each element as it is drawn
+     * @return The status of whether SVG Document creation succeeded or not
+     *
+     * @since 1.0
+     */
+    public static boolean createDocument( final Path path,
+                                          final SceneSnapshot snapshot,
+                                          final String title,
+                                          final double pageWidth,
+                                          final double pageHeight,
+                                          final ColorMode colorMode,
+                                          final boolean useVectorizedText,
+                                          final boolean useStreaming ) {
+        return createDocument( path,
+                               snapshot.getBounds(),
+                               snapshot::replay,
+                               title,
+                               pageWidth,
+                               pageHeight,
+                               colorMode,
+                               useVectorizedText,
+                               useStreaming );
+    }
+
+    /**
+     * Creates the SVG Document whose content is painted by the provided
+     * painter, and writes it to the provided {@link Path} using UTF-8.
+     *
+     * @param path
+     *            The {@link Path} destination for writing the SVG content
+     * @param bounds
+     *            The bounds of the content, with all transforms applied
+     * @param painter
+     *            The painter that issues the AWT calls for the content
+     * @param title
+     *            The {@link String} to use as the SVG Document's title
+     * @param pageWidth
+     *            The target page width, usually in points (1/72 inch)
+     * @param pageHeight
+     *            The target page height, usually in points (1/72 inch)
+     * @param colorMode
+     *            The {@link ColorMode} to use, compatible with SVG specs
+     * @param useVectorizedText
+     *            Set to {@code true} if Vectorized Text Mode is desired
+     * @param useStreaming
+     *            Set to {@code true} to stream the SVG content as it is drawn
+     * @return The status of whether SVG Document creation succeeded or not
+     */
+    private static boolean createDocument( final Path path,
+                                           final Bounds bounds,
+                                           final Consumer< Graphics2D > painter,
+                                           final String title,
+                                           final double pageWidth,
+                                           final double pageHeight,
+                                           final ColorMode colorMode,
+                                           final boolean useVectorizedText,
+                                           final boolean useStreaming ) {
         boolean fileSaved = false;
 
-        // Using a safe try-with-resources clause, chain a BufferedWriter to an
-        // OutputStreamWriter to a FileOutputStream using UTF-8, for better
-        // performance and to guarantee platform-independence of newlines and
-        // overall system-neutrality and locale-sensitivity of text data. As SVG
-        // supports both UTF-8 and UTF-16 (which reference the same Unicode
-        // specs), and as UTF-8 is more efficient and byte-for-byte identical
-        // when dealing with documents that only contain characters that can be
-        // represented by non-Unicode 7-bit or 8-bit formats (such as US-ASCII),
-        // if is preferable to use a {@link OutputStreamWriter} set to UTF-8
-        // encoding instead of {@link FileWriter} that can only write to UTF-16.
-        try ( final FileOutputStream fileOutputStream = new FileOutputStream( file );
-                final OutputStreamWriter outputStreamWriter
-                        = new OutputStreamWriter(
-                                fileOutputStream, "UTF-8" );
-                final BufferedWriter bufferedWriter = new BufferedWriter(
-                        outputStreamWriter ) ) {
-            // Write the SVG contents indirectly via JFXConverter.
-            fileSaved = createDocument( bufferedWriter,
-                                        node,
-                                        title,
-                                        pageWidth,
-                                        pageHeight,
-                                        colorMode,
-                                        useVectorizedText );
+        // Using a safe try-with-resources clause, chain a UTF-8 Writer to a
+        // FileChannel based stream, for better performance and to guarantee
+        // platform-independence of newlines and overall system-neutrality and
+        // locale-sensitivity of text data. As SVG supports both UTF-8 and
+        // UTF-16 (which reference the same Unicode specs), and as UTF-8 is more
+        // efficient and byte-for-byte identical when dealing with documents
+        // that only contain characters that can be represented by non-Unicode
+        // 7-bit or 8-bit formats (such as US-ASCII), it is preferable to encode
+        // to UTF-8, which our writer does with a fast path for ASCII runs. The
+        // stream copies the bytes straight into a pooled direct buffer.
+        try ( final FileChannelOutputStream fileChannelOutputStream =
+                                                                    new FileChannelOutputStream( path ) ) {
+            // Write the SVG contents indirectly via the painter.
+            final Utf8Writer utf8Writer = new Utf8Writer( fileChannelOutputStream );
+            writeDocument( utf8Writer,
+                           bounds,
+                           painter,
+                           title,
+                           pageWidth,
+                           pageHeight,
+                           colorMode,
+                           useVectorizedText,
+                           useStreaming,
+                           new ExportMonitor() );
+            utf8Writer.flush();
+
+            // Only replace the target file once the document is complete.
+            fileChannelOutputStream.commit();
+            fileSaved = true;
         }
         catch ( final Exception e ) {
             e.printStackTrace();
@@ -204,7 +529,6 @@ public final class SvgExportUtilities {
      *
      * @since 1.0
      */
-    @SuppressWarnings("nls")
     public static boolean createDocument( final Writer writer,
                                           final Node node,
                                           final String title,
@@ -212,14 +536,229 @@ public final class SvgExportUtilities {
                                           final double pageHeight,
                                           final ColorMode colorMode,
                                           final boolean useVectorizedText ) {
-        boolean fileSaved = false;
-
         // We need bounds in parent vs. bounds in local, so that all transforms
         // are applied and we don't get anomalies such as vertically clipped or
         // offset output (if for instance the Node corresponds to a Layout Pane
         // doesn't include the Tool Bar or the Menu Bar and thus has a non-zero
         // minX and/or minY, causing an unwanted gap at top of document).
-        final Bounds bounds = node.getBoundsInParent();
+        return createDocument( writer,
+                               node.getBoundsInParent(),
+                               svgGraphics -> new JFXConverter().convert( svgGraphics, node ),
+                               title,
+                               pageWidth,
+                               pageHeight,
+                               colorMode,
+                               useVectorizedText,
+                               false );
+    }
+
+    /**
+     * Creates the SVG Document corresponding to the {@link Node}, and writes it
+     * to the provided {@link Writer}, optionally streaming each element to it as it
+     * is drawn rather than building the whole SVG Document in memory first.
+     * <p>
+     * Streaming keeps the peak memory use bounded regardless of the size of
+     * the drawing, which matters for large CAD views; the output is written by
+     * this library instead of by JFreeSVG, and is not guaranteed to be
+     * byte-for-byte identical to the non-streaming output.
+     *
+     * @param writer
+     *            The wrapped {@link Writer} for channeling the SVG content
+     * @param node
+     *            The {@link Node} to convert to AWT and then export to SVG
+     * @param title
+     *            The {@link String} to use as the SVG Document's title
+     * @param pageWidth
+     *            The target page width, usually in points (1/72 inch)
+     * @param pageHeight
+     *            The target page height, usually in points (1/72 inch)
+     * @param colorMode
+     *            The {@link ColorMode} to use, compatible with SVG specs
+     * @param useVectorizedText
+     *            Set to {@code true} if Vectorized Text Mode is desired;
+     *            {@code false} otherwise (that is, if text is to be rendered as
+     *            strings, sometimes referred to as Basic Text Mode)
+     * @param useStreaming
+     *            Set to {@code true} to write each element as it is drawn
+     * @return The status of whether SVG Document creation succeeded or not
+     *
+     * @since 1.0
+     */
+    public static boolean createDocument( final Writer writer,
+                                          final Node node,
+                                          final String title,
+                                          final double pageWidth,
+                                          final double pageHeight,
+                                          final ColorMode colorMode,
+                                          final boolean useVectorizedText,
+                                          final boolean useStreaming ) {
+        return createDocument( writer,
+                               node.getBoundsInParent(),
+                               svgGraphics -> new JFXConverter().convert( svgGraphics, node ),
+                               title,
+                               pageWidth,
+                               pageHeight,
+                               colorMode,
+                               useVectorizedText,
+                               useStreaming );
+    }
+
+    /**
+     * Creates the SVG Document corresponding to a previously captured
+     * {@link SceneSnapshot}, and writes it to the provided {@link Writer}
+     * (usually a Character Stream based {@link OutputStreamWriter} class) using
+     * JFreeSVG.
+     * <p>
+     * As the snapshot holds no reference to the live Scene Graph, this can be
+     * invoked from a background thread so that the JavaFX Application Thread
+     * is only blocked for the duration of the capture.
+     *
+     * @param writer
+     *            The wrapped {@link Writer} for channeling the SVG content
+     * @param snapshot
+     *            The {@link SceneSnapshot} to replay and then export to SVG
+     * @param title
+     *            The {@link String} to use as the SVG Document's title
+     * @param pageWidth
+     *            The target page width, usually in points (1/72 inch)
+     * @param pageHeight
+     *            The target page height, usually in points (1/72 inch)
+     * @param colorMode
+     *            The {@link ColorMode} to use, compatible with SVG specs
+     * @param useVectorizedText
+     *            Set to {@code true} if Vectorized Text Mode is desired;
+     *            {@code false} otherwise (that is, if text is to be rendered as
+     *            strings, sometimes referred to as Basic Text Mode)
+     * @return The status of whether SVG Document creation succeeded or not
+     *
+     * @since 1.0
+     */
+    public static boolean createDocument( final Writer writer,
+                                          final SceneSnapshot snapshot,
+                                          final String title,
+                                          final double pageWidth,
+                                          final double pageHeight,
+                                          final ColorMode colorMode,
+                                          final boolean useVectorizedText ) {
+        return createDocument( writer,
+                               snapshot.getBounds(),
+                               snapshot::replay,
+                               title,
+                               pageWidth,
+                               pageHeight,
+                               colorMode,
+                               useVectorizedText,
+                               false );
+    }
+
+    /**
+     * Creates the SVG Document whose content is painted by the provided
+     * painter, and writes it to the provided {@link Writer} using JFreeSVG.
+     *
+     * @param writer
+     *            The wrapped {@link Writer} for channeling the SVG content
+     * @param bounds
+     *            The bounds of the content, with all transforms applied
+     * @param painter
+     *            The painter that issues the AWT calls for the content
+     * @param title
+     *            The {@link String} to use as the SVG Document's title
+     * @param pageWidth
+     *            The target page width, usually in points (1/72 inch)
+     * @param pageHeight
+     *            The target page height, usually in points (1/72 inch)
+     * @param colorMode
+     *            The {@link ColorMode} to use, compatible with SVG specs
+     * @param useVectorizedText
+     *            Set to {@code true} if Vectorized Text Mode is desired
+     * @param useStreaming
+     *            Set to {@code true} to stream the SVG content as it is drawn
+     * @return The status of whether SVG Document creation succeeded or not
+     */
+    private static boolean createDocument( final Writer writer,
+                                           final Bounds bounds,
+                                           final Consumer< Graphics2D > painter,
+                                           final String title,
+                                           final double pageWidth,
+                                           final double pageHeight,
+                                           final ColorMode colorMode,
+                                           final boolean useVectorizedText,
+                                           final boolean useStreaming ) {
+        boolean fileSaved = false;
+
+        try {
+            writeDocument( writer,
+                           bounds,
+                           painter,
+                           title,
+                           pageWidth,
+                           pageHeight,
+                           colorMode,
+                           useVectorizedText,
+                           useStreaming,
+                           new ExportMonitor() );
+
+            // If we got this far without exceptions, the file was saved.
+            fileSaved = true;
+        }
+        catch ( final Exception e ) {
+            e.printStackTrace();
+        }
+
+        return fileSaved;
+    }
+
+    /**
+     * Writes the SVG Document whose content is painted by the provided painter
+     * to the provided {@link Writer} using JFreeSVG, propagating any errors.
+     *
+     * @param writer
+     *            The wrapped {@link Writer} for channeling the SVG content
+     * @param bounds
+     *            The bounds of the content, with all transforms applied
+     * @param painter
+     *            The painter that issues the AWT calls for the content
+     * @param title
+     *            The {@link String} to use as the SVG Document's title
+     * @param pageWidth
+     *            The target page width, usually in points (1/72 inch)
+     * @param pageHeight
+     *            The target page height, usually in points (1/72 inch)
+     * @param colorMode
+     *            The {@link ColorMode} to use, compatible with SVG specs
+     * @param useVectorizedText
+     *            Set to {@code true} if Vectorized Text Mode is desired
+     * @param useStreaming
+     *            Set to {@code true} to stream the SVG content as it is drawn
+     * @param monitor
+     *            The {@link ExportMonitor} that is told when rendering ends
+     * @throws IOException
+     *             If the SVG Document could not be written
+     */
+    @SuppressWarnings("nls")
+    private static void writeDocument( final Writer writer,
+                                       final Bounds bounds,
+                                       final Consumer< Graphics2D > painter,
+                                       final String title,
+                                       final double pageWidth,
+                                       final double pageHeight,
+                                       final ColorMode colorMode,
+                                       final boolean useVectorizedText,
+                                       final boolean useStreaming,
+                                       final ExportMonitor monitor )
+            throws IOException {
+        if ( useStreaming ) {
+            streamDocument( writer,
+                            bounds,
+                            painter,
+                            title,
+                            pageWidth,
+                            pageHeight,
+                            useVectorizedText,
+                            monitor );
+            return;
+        }
+
         final double minX = bounds.getMinX();
         final double minY = bounds.getMinY();
         final double maxX = bounds.getMaxX();
@@ -258,24 +797,82 @@ public final class SvgExportUtilities {
                                                              pageWidth,
                                                              pageHeight );
 
-        try {
-            // Write the SVG contents to memory indirectly via JFXConverter.
-            final JFXConverter converter = new JFXConverter();
-            converter.convert( svgGraphics, node );
+        // Write the SVG contents to memory indirectly via the painter.
+        painter.accept( svgGraphics );
+        monitor.renderFinished();
 
-            // Get the full SVG Document (header, content, dictionary, etc.).
-            final String svgDocument = svgGraphics.getSVGDocument();
+        // Get the full SVG Document (header, content, dictionary, etc.).
+        final String svgDocument = svgGraphics.getSVGDocument();
 
-            // Save the SVG Document from memory to disc.
-            writer.write( svgDocument );
+        // Save the SVG Document from memory to disc.
+        writer.write( svgDocument );
+    }
 
-            // If we got this far without exceptions, the file was saved.
-            fileSaved = true;
+    /**
+     * Writes the SVG Document whose content is painted by the provided painter
+     * to the provided {@link Writer}, streaming each element as it is drawn so
+     * that memory use stays bounded regardless of the size of the drawing.
+     *
+     * @param writer
+     *            The wrapped {@link Writer} for channeling the SVG content
+     * @param bounds
+     *            The bounds of the content, with all transforms applied
+     * @param painter
+     *            The painter that issues the AWT calls for the content
+     * @param title
+     *            The {@link String} to use as the SVG Document's title
+     * @param pageWidth
+     *            The target page width, usually in points (1/72 inch)
+     * @param pageHeight
+     *            The target page height, usually in points (1/72 inch)
+     * @param useVectorizedText
+     *            Set to {@code true} if Vectorized Text Mode is desired
+     * @param monitor
+     *            The {@link ExportMonitor} that is told when rendering ends
+     * @throws IOException
+     *             If the SVG Document could not be written
+     */
+    @SuppressWarnings("nls")
+    private static void streamDocument( final Writer writer,
+                                        final Bounds bounds,
+                                        final Consumer< Graphics2D > painter,
+                                        final String title,
+                                        final double pageWidth,
+                                        final double pageHeight,
+                                        final boolean useVectorizedText,
+                                        final ExportMonitor monitor )
+            throws IOException {
+        // Round up for the canvas size, for consistency with JFreeSVG.
+        final StreamingSvgGraphics2D svgGraphics =
+                                                 new StreamingSvgGraphics2D( writer,
+                                                                             ( int ) FastMath
+                                                                                     .ceil( pageWidth ),
+                                                                             ( int ) FastMath
+                                                                                     .ceil( pageHeight ),
+                                                                             useVectorizedText );
+
+        // Make a default Title if none was provided, or if empty.
+        final String svgTitle =
+                              ( ( title == null ) || title.isEmpty() ) ? "The SVG Document" : title;
+
+        GraphicsUtilities.applySourceToDestinationTransform( svgGraphics,
+                                                             bounds.getMinX(),
+                                                             bounds.getMinY(),
+                                                             bounds.getMaxX(),
+                                                             bounds.getMaxY(),
+                                                             pageWidth,
+                                                             pageHeight );
+
+        try {
+            // Rendering and writing are interleaved here, so only the closing
+            // of the document counts as time spent writing after rendering.
+            svgGraphics.startDocument( svgTitle );
+            painter.accept( svgGraphics );
+            monitor.renderFinished();
+            svgGraphics.endDocument();
         }
-        catch ( final Exception e ) {
-            e.printStackTrace();
+        catch ( final UncheckedIOException uioe ) {
+            throw uioe.getCause();
         }
-
-        return fileSaved;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2011, 2013, 2014, 2015, 2016 Dassault Aviation.
+ * Copyright (c) 2017 Herve Girod.
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+ * FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * The views and conclusions contained in the software and documentation are
+ * those
+ * of the authors and should not be interpreted as representing official
+ * policies,
+ * either expressed or implied, of the FreeBSD Project.
+ * Please contact Dassault Aviation, 9 Rond-Point des Champs Elysees, 75008
+ * Paris,
+ * France if you need additional information.
+ * Alternatively if you have any questions about this project, you can visit
+ * the project website at the project page on http://j661.sourceforge.net
+ */
+package org.jfxconverter.drivers.ppt;
+
+import javafx.geometry.Bounds;
+import javafx.scene.effect.Effect;
+
+/**
+ * The contract of the Graphics2D drivers which can group Shapes and apply Node
+ * Effects from values alone. It mirrors the Node based
+ * {@code ExtendedGraphics2D} contract, but no live Node is needed, so the
+ * content of a Scene captured on the JavaFX Application Thread can be drawn
+ * later on another thread.
+ *
+ * @version 0.20
+ */
+public interface GroupingGraphics {
+
+    /**
+     * Returns whether a group with the given bounds could leave any mark on
+     * the output. When it returns {@code false}, the group is not started and
+     * none of its content is replayed. The default assumes every group is
+     * visible.
+     *
+     * @param bounds
+     *            The bounds in parent of the Node that would be grouped
+     * @return {@code false} if the whole group can be skipped
+     */
+    default boolean isGroupVisible( final Bounds bounds ) {
+        return true;
+    }
+
+    /**
+     * Starts a group of shapes.
+     *
+     * @param name
+     *            The group name (usually the Node ID, which may be null)
+     * @param bounds
+     *            The bounds in parent of the Node that was grouped
+     */
+    void startGroup( final String name, final Bounds bounds );
+
+    /**
+     * Ends the current group of shapes.
+     */
+    void endGroup();
+
+    /**
+     * Applies an effect to the next graphics objects to be rendered.
+     *
+     * @param effect
+     *            The snapshot copy of the effect, or {@code null} to clear it
+     */
+    void applyEffect( final Effect effect );
+
+}
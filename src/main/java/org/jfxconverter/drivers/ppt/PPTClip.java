@@ -0,0 +1,243 @@
+/**
+ * Copyright (c) 2011, 2013, 2014, 2015, 2016 Dassault Aviation.
+ * Copyright (c) 2017 Herve Girod.
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+ * FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * The views and conclusions contained in the software and documentation are
+ * those
+ * of the authors and should not be interpreted as representing official
+ * policies,
+ * either expressed or implied, of the FreeBSD Project.
+ * Please contact Dassault Aviation, 9 Rond-Point des Champs Elysees, 75008
+ * Paris,
+ * France if you need additional information.
+ * Alternatively if you have any questions about this project, you can visit
+ * the project website at the project page on http://j661.sourceforge.net
+ */
+package org.jfxconverter.drivers.ppt;
+
+import org.mdiutil.geom.ClippableShape;
+
+import java.awt.Rectangle;
+import java.awt.Shape;
+import java.awt.geom.Area;
+import java.awt.geom.Rectangle2D;
+
+/**
+ * The device clip of a {@link PPTGraphics2D}. The clip is immutable, so it is
+ * shared with the child contexts, and it caches the {@link Area} built from the
+ * clip Shape, so that the Area is built at most once per clip rather than once
+ * for every shape drawn.
+ *
+ * Clipping tests are done in order of cost:
+ * <ul>
+ * <li>an axis-aligned rectangular clip is tested with plain arithmetic, and
+ * never needs its Area for that</li>
+ * <li>otherwise a shape which is outside the bounds of the clip is rejected
+ * without looking at the clip Area</li>
+ * <li>only then is the cached Area used, and the shape intersected with it via
+ * {@link ClippableShape} if it is only partly inside</li>
+ * </ul>
+ *
+ * @version 0.20
+ */
+final class PPTClip {
+    private final Shape       shape;
+    private final Rectangle2D bounds;
+    /**
+     * The clip as a rectangle, if it is an axis-aligned rectangle; null
+     * otherwise.
+     */
+    private final Rectangle2D rectangle;
+    /**
+     * The cached Area of the clip, built on first use.
+     */
+    private Area              area = null;
+
+    private PPTClip( final Shape shape, final Rectangle2D rectangle ) {
+        this.shape = shape;
+        this.rectangle = rectangle;
+        bounds = ( rectangle != null ) ? rectangle : shape.getBounds2D();
+    }
+
+    private PPTClip( final Area area ) {
+        this( area, area.isRectangular() ? area.getBounds2D() : null );
+        this.area = area;
+    }
+
+    /**
+     * Create a clip from a Shape which is already in device coordinates.
+     *
+     * @param shape
+     *            the clip Shape
+     * @return the clip
+     */
+    static PPTClip create( final Shape shape ) {
+        if ( shape instanceof Rectangle2D ) {
+            final Rectangle2D rec = ( Rectangle2D ) shape;
+            return new PPTClip( shape, rec.getBounds2D() );
+        }
+        return new PPTClip( shape, null );
+    }
+
+    /**
+     * Return the clip resulting of the intersection of this clip with a Shape
+     * in device coordinates.
+     *
+     * @param otherShape
+     *            the Shape to intersect with (null means no clipping Shape)
+     * @return the new clip
+     */
+    PPTClip intersect( final Shape otherShape ) {
+        if ( otherShape == null ) {
+            return this;
+        }
+        if ( ( rectangle != null ) && ( otherShape instanceof Rectangle2D ) ) {
+            final Rectangle2D rec = rectangle.createIntersection( ( Rectangle2D ) otherShape );
+            if ( rec.isEmpty() ) {
+                rec.setRect( rec.getX(), rec.getY(), 0d, 0d );
+            }
+            return new PPTClip( rec, rec );
+        }
+        final Area newArea = new Area( getArea() );
+        newArea.intersect( new Area( otherShape ) );
+        return new PPTClip( newArea );
+    }
+
+    /**
+     * Return the clip Shape, in device coordinates.
+     *
+     * @return the clip Shape
+     */
+    Shape getShape() {
+        return shape;
+    }
+
+    /**
+     * Return the integer bounds of the clip, in device coordinates.
+     *
+     * @return the bounds
+     */
+    Rectangle getBounds() {
+        return bounds.getBounds();
+    }
+
+    /**
+     * Return the Area of the clip, built on the first call only. The Area must
+     * not be modified.
+     *
+     * @return the Area
+     */
+    Area getArea() {
+        if ( area == null ) {
+            area = new Area( shape );
+        }
+        return area;
+    }
+
+    /**
+     * Return true if the clip entirely contains a rectangle.
+     *
+     * @param rec
+     *            the rectangle
+     * @return true if the clip entirely contains the rectangle
+     */
+    boolean contains( final Rectangle2D rec ) {
+        if ( rectangle != null ) {
+            return rectangle.contains( rec );
+        }
+        else if ( !bounds.contains( rec ) ) {
+            return false;
+        }
+        else {
+            return getArea().contains( rec );
+        }
+    }
+
+    /**
+     * Return true if the clip intersects a rectangle.
+     *
+     * @param rec
+     *            the rectangle
+     * @return true if the clip intersects the rectangle
+     */
+    boolean intersects( final Rectangle2D rec ) {
+        if ( rectangle != null ) {
+            return rectangle.intersects( rec );
+        }
+        else if ( !bounds.intersects( rec ) ) {
+            return false;
+        }
+        else {
+            return getArea().intersects( rec );
+        }
+    }
+
+    /**
+     * Clip a Shape in device coordinates.
+     *
+     * @param clippedShape
+     *            the Shape to clip
+     * @param shapeBounds
+     *            the bounds to test the Shape against the clip with
+     * @param asArea
+     *            true if the Shape must be intersected as an Area
+     * @return the Shape itself if it is inside the clip, the clipped Shape if it
+     *         intersects the clip, or null if it is outside the clip
+     */
+    Shape clip( final Shape clippedShape, final Rectangle2D shapeBounds, final boolean asArea ) {
+        if ( contains( shapeBounds ) ) {
+            return clippedShape;
+        }
+        else if ( intersects( shapeBounds ) ) {
+            final ClippableShape csh = new ClippableShape( clippedShape );
+            if ( asArea ) {
+                csh.intersectAsArea( getArea() );
+            }
+            else {
+                csh.intersect( getArea() );
+            }
+            return csh.getPeerShape();
+        }
+        else {
+            return null;
+        }
+    }
+
+    /**
+     * Return the integer bounds of the intersection of the clip with a Shape in
+     * device coordinates.
+     *
+     * @param otherShape
+     *            the Shape
+     * @return the bounds of the intersection
+     */
+    Rectangle getIntersectionBounds( final Shape otherShape ) {
+        if ( ( rectangle != null ) && ( otherShape instanceof Rectangle2D ) ) {
+            final Rectangle2D rec = rectangle.createIntersection( ( Rectangle2D ) otherShape );
+            return rec.isEmpty() ? new Rectangle() : rec.getBounds();
+        }
+        final Area intersection = new Area( getArea() );
+        intersection.intersect( new Area( otherShape ) );
+        return intersection.getBounds();
+    }
+}
@@ -0,0 +1,77 @@
+/**
+ * Copyright (c) 2011, 2013, 2014, 2015, 2016 Dassault Aviation.
+ * Copyright (c) 2017 Herve Girod.
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+ * FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * The views and conclusions contained in the software and documentation are
+ * those
+ * of the authors and should not be interpreted as representing official
+ * policies,
+ * either expressed or implied, of the FreeBSD Project.
+ * Please contact Dassault Aviation, 9 Rond-Point des Champs Elysees, 75008
+ * Paris,
+ * France if you need additional information.
+ * Alternatively if you have any questions about this project, you can visit
+ * the project website at the project page on http://j661.sourceforge.net
+ */
+package org.jfxconverter.drivers.ppt;
+
+import java.awt.Shape;
+import java.awt.geom.Rectangle2D;
+
+/**
+ * A rule of a {@link PPTCullingStage}, which tells if a Shape drawn or filled
+ * by a {@link PPTGraphics2D} can be skipped before any PowerPoint record is
+ * created for it.
+ *
+ * A rule may be called concurrently for the slides which are converted in
+ * parallel, so it must not keep any state of its own.
+ *
+ * @version 0.20
+ * @see PPTStandardCullingRule
+ */
+public interface PPTCullingRule {
+
+    /**
+     * Return the name of the rule, which is used to report its counter.
+     *
+     * @return the name
+     */
+    String getName();
+
+    /**
+     * Return true if a Shape can be skipped.
+     *
+     * @param graphics
+     *            the Graphics2D which draws or fills the Shape
+     * @param shape
+     *            the Shape, in device coordinates, before it is clipped
+     * @param bounds
+     *            the bounds of the Shape in device coordinates, including the
+     *            width of the stroke if the Shape is drawn. They must not be
+     *            modified
+     * @param fill
+     *            true if the Shape is filled, false if it is drawn
+     * @return true if the Shape can be skipped
+     */
+    boolean isCulled( PPTGraphics2D graphics, Shape shape, Rectangle2D bounds, boolean fill );
+}
@@ -0,0 +1,239 @@
+/**
+ * Copyright (c) 2011, 2013, 2014, 2015, 2016 Dassault Aviation.
+ * Copyright (c) 2017 Herve Girod.
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+ * FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * The views and conclusions contained in the software and documentation are
+ * those
+ * of the authors and should not be interpreted as representing official
+ * policies,
+ * either expressed or implied, of the FreeBSD Project.
+ * Please contact Dassault Aviation, 9 Rond-Point des Champs Elysees, 75008
+ * Paris,
+ * France if you need additional information.
+ * Alternatively if you have any questions about this project, you can visit
+ * the project website at the project page on http://j661.sourceforge.net
+ */
+package org.jfxconverter.drivers.ppt;
+
+import org.apache.commons.math3.util.FastMath;
+import org.apache.poi.hslf.usermodel.HSLFSlideShow;
+
+import java.awt.Shape;
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The culling stage of a SlideShow, which runs the Shapes drawn or filled by
+ * {@link PPTGraphics2D} through a list of {@link PPTCullingRule}s before any
+ * PowerPoint record is created for them. A Shape is skipped as soon as one rule
+ * culls it, and each rule counts the Shapes it culled, so that the work saved
+ * by each rule can be measured.
+ *
+ * There is one stage per SlideShow, shared by all the Graphics2D contexts
+ * which paint on its slides, so the counters are kept for the whole
+ * SlideShow, even when its slides are converted in parallel. By default the
+ * stage culls the Shapes which are fully clipped or fully transparent.
+ *
+ * @version 0.20
+ */
+public final class PPTCullingStage {
+    /**
+     * The default output resolution, in dots per inch.
+     */
+    public static final int                                    DEFAULT_OUTPUT_RESOLUTION = 96;
+    private static final Map< HSLFSlideShow, PPTCullingStage > STAGES                    = new WeakHashMap<>();
+    private final List< PPTCullingRule >                       rules;
+    private final LongAdder[]                                  culledCounts;
+    private final LongAdder                                    testedCount               = new LongAdder();
+    private volatile int                                       outputResolution          = DEFAULT_OUTPUT_RESOLUTION;
+
+    /**
+     * Create a stage with the default rules.
+     */
+    public PPTCullingStage() {
+        this( PPTStandardCullingRule.FULLY_CLIPPED, PPTStandardCullingRule.TRANSPARENT );
+    }
+
+    /**
+     * Create a stage with rules, which are applied in their order, so the
+     * cheapest rules should come first.
+     *
+     * @param rules
+     *            the rules
+     */
+    public PPTCullingStage( final PPTCullingRule... rules ) {
+        this.rules = Collections.unmodifiableList( Arrays.asList( rules.clone() ) );
+        culledCounts = new LongAdder[ rules.length ];
+        for ( int i = 0; i < culledCounts.length; i++ ) {
+            culledCounts[ i ] = new LongAdder();
+        }
+    }
+
+    /**
+     * Return the culling stage of a SlideShow.
+     *
+     * @param show
+     *            the SlideShow
+     * @return the culling stage
+     */
+    static PPTCullingStage getStage( final HSLFSlideShow show ) {
+        synchronized ( STAGES ) {
+            PPTCullingStage stage = STAGES.get( show );
+            if ( stage == null ) {
+                stage = new PPTCullingStage();
+                STAGES.put( show, stage );
+            }
+            return stage;
+        }
+    }
+
+    /**
+     * Set the culling stage of a SlideShow.
+     *
+     * @param show
+     *            the SlideShow
+     * @param stage
+     *            the culling stage
+     */
+    static void setStage( final HSLFSlideShow show, final PPTCullingStage stage ) {
+        synchronized ( STAGES ) {
+            STAGES.put( show, stage );
+        }
+    }
+
+    /**
+     * Return true if a Shape is culled by one of the rules, and count it for
+     * this rule.
+     *
+     * @param graphics
+     *            the Graphics2D which draws or fills the Shape
+     * @param shape
+     *            the Shape, in device coordinates, before it is clipped
+     * @param bounds
+     *            the bounds of the Shape in device coordinates
+     * @param fill
+     *            true if the Shape is filled, false if it is drawn
+     * @return true if the Shape is culled
+     */
+    boolean isCulled( final PPTGraphics2D graphics,
+                      final Shape shape,
+                      final Rectangle2D bounds,
+                      final boolean fill ) {
+        testedCount.increment();
+        for ( int i = 0; i < culledCounts.length; i++ ) {
+            if ( rules.get( i ).isCulled( graphics, shape, bounds, fill ) ) {
+                culledCounts[ i ].increment();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Return the rules of this stage, in their order.
+     *
+     * @return the rules
+     */
+    public List< PPTCullingRule > getRules() {
+        return rules;
+    }
+
+    /**
+     * Set the resolution at which the slides are expected to be displayed,
+     * which is used by the {@link PPTStandardCullingRule#SUB_PIXEL} rule.
+     *
+     * @param dpi
+     *            the resolution, in dots per inch
+     */
+    public void setOutputResolution( final int dpi ) {
+        outputResolution = FastMath.max( 1, dpi );
+    }
+
+    /**
+     * Return the resolution at which the slides are expected to be displayed.
+     *
+     * @return the resolution, in dots per inch
+     */
+    public int getOutputResolution() {
+        return outputResolution;
+    }
+
+    /**
+     * Return the number of Shapes which went through this stage.
+     *
+     * @return the number of Shapes
+     */
+    public long getTestedCount() {
+        return testedCount.sum();
+    }
+
+    /**
+     * Return the number of Shapes culled by a rule of this stage.
+     *
+     * @param rule
+     *            the rule
+     * @return the number of Shapes, or 0 if the rule is not in this stage
+     */
+    public long getCulledCount( final PPTCullingRule rule ) {
+        final int index = rules.indexOf( rule );
+        return ( index >= 0 ) ? culledCounts[ index ].sum() : 0L;
+    }
+
+    /**
+     * Return the number of Shapes culled by all the rules of this stage.
+     *
+     * @return the number of Shapes
+     */
+    public long getCulledCount() {
+        long count = 0L;
+        for ( final LongAdder culledCount : culledCounts ) {
+            count += culledCount.sum();
+        }
+        return count;
+    }
+
+    /**
+     * Reset all the counters of this stage.
+     */
+    public void resetCounters() {
+        testedCount.reset();
+        for ( final LongAdder culledCount : culledCounts ) {
+            culledCount.reset();
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder buf = new StringBuilder( "tested=" ).append( getTestedCount() );
+        for ( int i = 0; i < culledCounts.length; i++ ) {
+            buf.append( ", " ).append( rules.get( i ).getName() ).append( '=' )
+                    .append( culledCounts[ i ].sum() );
+        }
+        return buf.toString();
+    }
+}
@@ -0,0 +1,447 @@
+/**
+ * Copyright (c) 2011, 2013, 2014, 2015, 2016 Dassault Aviation.
+ * Copyright (c) 2017 Herve Girod.
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+ * FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * The views and conclusions contained in the software and documentation are
+ * those
+ * of the authors and should not be interpreted as representing official
+ * policies,
+ * either expressed or implied, of the FreeBSD Project.
+ * Please contact Dassault Aviation, 9 Rond-Point des Champs Elysees, 75008
+ * Paris,
+ * France if you need additional information.
+ * Alternatively if you have any questions about this project, you can visit
+ * the project website at the project page on http://j661.sourceforge.net
+ */
+package org.jfxconverter.drivers.ppt;
+
+import org.apache.commons.math3.util.FastMath;
+import org.apache.poi.ddf.AbstractEscherOptRecord;
+import org.apache.poi.ddf.EscherArrayProperty;
+import org.apache.poi.ddf.EscherPropertyTypes;
+import org.apache.poi.hslf.usermodel.HSLFFill;
+import org.apache.poi.hslf.usermodel.HSLFSimpleShape;
+import org.apache.poi.util.Units;
+
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.LinearGradientPaint;
+import java.awt.MultipleGradientPaint;
+import java.awt.Paint;
+import java.awt.RadialGradientPaint;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.NoninvertibleTransformException;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maps gradient paints to native PowerPoint gradient fills, so that they do
+ * not need to be rasterized. The binary format gets them through the Escher
+ * fill properties of the filled Shape, and the OOXML format through the
+ * DrawingML gradient fill built by {@link PPTXGraphics2D} from the same
+ * {@link Shade}.
+ *
+ * A native gradient always spans the bounds of its Shape, so the colors of
+ * the paint are sampled where its gradient enters and leaves these bounds:
+ * <ul>
+ * <li>{@link GradientPaint} and {@link LinearGradientPaint} become a linear
+ * shade along the direction of the gradient in device space</li>
+ * <li>{@link RadialGradientPaint} becomes a shade from the center of the
+ * gradient to the bounds of the Shape, if its focus is its center</li>
+ * </ul>
+ * Cyclic gradients which repeat inside the Shape, gradients interpolated in
+ * linear RGB, and any other Paint have no native equivalent, and are left to
+ * the caller.
+ *
+ * @version 0.20
+ */
+final class PPTGradientFill {
+    /**
+     * The Escher fill type of a linear shade.
+     */
+    private static final int    FILL_SHADE        = 4;
+    /**
+     * The Escher fill type of a shade from a focus rectangle to the bounds of
+     * the Shape.
+     */
+    private static final int    FILL_SHADE_CENTER = 5;
+    /**
+     * The size in bytes of an element of the shade colors array: a color and
+     * its position.
+     */
+    private static final int    SHADE_COLOR_SIZE  = 8;
+    private static final double EPSILON           = 1E-9;
+
+    private PPTGradientFill() {
+    }
+
+    /**
+     * A native gradient fill, spanning the bounds of a Shape.
+     */
+    static final class Shade {
+        /**
+         * True for a shade from a focus point to the bounds of the Shape,
+         * false for a linear shade.
+         */
+        final boolean  radial;
+        /**
+         * The positions of the colors, from 0 at the start of the shade to 1
+         * at its end.
+         */
+        final double[] positions;
+        final Color[]  colors;
+        /**
+         * The direction of a linear shade in device space, in degrees
+         * clockwise from the x axis.
+         */
+        final double   angle;
+        /**
+         * The focus point of a radial shade, relative to the bounds of the
+         * Shape.
+         */
+        final double   focusX;
+        final double   focusY;
+
+        private Shade( final boolean radial,
+                       final double[] positions,
+                       final Color[] colors,
+                       final double angle,
+                       final double focusX,
+                       final double focusY ) {
+            this.radial = radial;
+            this.positions = positions;
+            this.colors = colors;
+            this.angle = angle;
+            this.focusX = focusX;
+            this.focusY = focusY;
+        }
+
+        Color getStartColor() {
+            return colors[ 0 ];
+        }
+
+        Color getEndColor() {
+            return colors[ colors.length - 1 ];
+        }
+    }
+
+    /**
+     * Return the native gradient fill matching a Paint.
+     *
+     * @param paint
+     *            the Paint, in user space
+     * @param trans
+     *            the transform from user space to device space
+     * @param bounds
+     *            the bounds of the Shape in device space
+     * @return the native gradient fill, or null if the Paint has no native
+     *         equivalent
+     */
+    static Shade getShade( final Paint paint, final AffineTransform trans, final Rectangle2D bounds ) {
+        if ( ( bounds.getWidth() <= 0 ) || ( bounds.getHeight() <= 0 ) ) {
+            return null;
+        }
+        if ( paint instanceof GradientPaint ) {
+            final GradientPaint gpaint = ( GradientPaint ) paint;
+            return getLinearShade( gpaint.getPoint1(),
+                                   gpaint.getPoint2(),
+                                   new float[] { 0f, 1f },
+                                   new Color[] { gpaint.getColor1(), gpaint.getColor2() },
+                                   gpaint.isCyclic(),
+                                   trans,
+                                   bounds );
+        }
+        else if ( paint instanceof MultipleGradientPaint ) {
+            final MultipleGradientPaint mpaint = ( MultipleGradientPaint ) paint;
+            if ( mpaint.getColorSpace() != MultipleGradientPaint.ColorSpaceType.SRGB ) {
+                return null;
+            }
+            final boolean cyclic = mpaint.getCycleMethod() != MultipleGradientPaint.CycleMethod.NO_CYCLE;
+            final AffineTransform tr = new AffineTransform( trans );
+            tr.concatenate( mpaint.getTransform() );
+            if ( paint instanceof LinearGradientPaint ) {
+                final LinearGradientPaint lpaint = ( LinearGradientPaint ) paint;
+                return getLinearShade( lpaint.getStartPoint(),
+                                       lpaint.getEndPoint(),
+                                       lpaint.getFractions(),
+                                       lpaint.getColors(),
+                                       cyclic,
+                                       tr,
+                                       bounds );
+            }
+            else if ( paint instanceof RadialGradientPaint ) {
+                final RadialGradientPaint rpaint = ( RadialGradientPaint ) paint;
+                if ( rpaint.getCenterPoint().distance( rpaint.getFocusPoint() ) > EPSILON ) {
+                    return null;
+                }
+                return getRadialShade( rpaint.getCenterPoint(),
+                                       rpaint.getRadius(),
+                                       rpaint.getFractions(),
+                                       rpaint.getColors(),
+                                       cyclic,
+                                       tr,
+                                       bounds );
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Set the fill properties of a Shape to the native gradient fill matching
+     * a Paint.
+     *
+     * @param shape
+     *            the Shape
+     * @param paint
+     *            the Paint, in user space
+     * @param trans
+     *            the transform from user space to device space
+     * @param bounds
+     *            the bounds of the Shape in device space
+     * @return true if the Paint was mapped to a native gradient, false if it
+     *         has no native equivalent, in which case the Shape is unchanged
+     */
+    static boolean setFillProperties( final HSLFSimpleShape shape,
+                                      final Paint paint,
+                                      final AffineTransform trans,
+                                      final Rectangle2D bounds ) {
+        final Shade shade = getShade( paint, trans, bounds );
+        if ( shade == null ) {
+            return false;
+        }
+        setShadeProperties( shape, shade.radial ? FILL_SHADE_CENTER : FILL_SHADE, shade );
+        if ( shade.radial ) {
+            final int focusX = Units.doubleToFixedPoint( shade.focusX );
+            final int focusY = Units.doubleToFixedPoint( shade.focusY );
+            shape.setEscherProperty( EscherPropertyTypes.FILL__TOLEFT, focusX );
+            shape.setEscherProperty( EscherPropertyTypes.FILL__TORIGHT, focusX );
+            shape.setEscherProperty( EscherPropertyTypes.FILL__TOTOP, focusY );
+            shape.setEscherProperty( EscherPropertyTypes.FILL__TOBOTTOM, focusY );
+        }
+        else {
+            // the Escher angle turns counterclockwise on the slide from a shade
+            // going down
+            shape.setEscherProperty( EscherPropertyTypes.FILL__ANGLE,
+                                     Units.doubleToFixedPoint( 90d - shade.angle ) );
+        }
+        return true;
+    }
+
+    private static Shade getLinearShade( final Point2D start,
+                                         final Point2D end,
+                                         final float[] fractions,
+                                         final Color[] colors,
+                                         final boolean cyclic,
+                                         final AffineTransform trans,
+                                         final Rectangle2D bounds ) {
+        final AffineTransform inverse;
+        try {
+            inverse = trans.createInverse();
+        }
+        catch ( final NoninvertibleTransformException e ) {
+            return null;
+        }
+        final double ux = end.getX() - start.getX();
+        final double uy = end.getY() - start.getY();
+        final double length2 = ( ux * ux ) + ( uy * uy );
+        if ( length2 < EPSILON ) {
+            return null;
+        }
+        // the position along the gradient is a linear function of the device
+        // point, whose gradient gives the direction of the shade in device
+        // space, even if the transform does not preserve angles
+        final double ax = ( ( inverse.getScaleX() * ux ) + ( inverse.getShearY() * uy ) ) / length2;
+        final double ay = ( ( inverse.getShearX() * ux ) + ( inverse.getScaleY() * uy ) ) / length2;
+        final double a0 = ( ( ( inverse.getTranslateX() - start.getX() ) * ux )
+                + ( ( inverse.getTranslateY() - start.getY() ) * uy ) ) / length2;
+        if ( ( FastMath.abs( ax ) < EPSILON ) && ( FastMath.abs( ay ) < EPSILON ) ) {
+            return null;
+        }
+        double tmin = Double.POSITIVE_INFINITY;
+        double tmax = Double.NEGATIVE_INFINITY;
+        for ( int i = 0; i < 4; i++ ) {
+            final double x = ( ( i & 1 ) == 0 ) ? bounds.getMinX() : bounds.getMaxX();
+            final double y = ( ( i & 2 ) == 0 ) ? bounds.getMinY() : bounds.getMaxY();
+            final double t = ( ax * x ) + ( ay * y ) + a0;
+            tmin = FastMath.min( tmin, t );
+            tmax = FastMath.max( tmax, t );
+        }
+        if ( cyclic && ( ( tmin < 0 ) || ( tmax > 1 ) ) ) {
+            return null;
+        }
+        final double angle = FastMath.toDegrees( FastMath.atan2( ay, ax ) );
+        return createShade( false, fractions, colors, tmin, tmax, angle, 0, 0 );
+    }
+
+    private static Shade getRadialShade( final Point2D center,
+                                         final float radius,
+                                         final float[] fractions,
+                                         final Color[] colors,
+                                         final boolean cyclic,
+                                         final AffineTransform trans,
+                                         final Rectangle2D bounds ) {
+        final AffineTransform inverse;
+        try {
+            inverse = trans.createInverse();
+        }
+        catch ( final NoninvertibleTransformException e ) {
+            return null;
+        }
+        // the distance to the center is convex, so it is the largest at a
+        // corner of the bounds
+        double tmax = 0;
+        final Point2D pt = new Point2D.Double();
+        for ( int i = 0; i < 4; i++ ) {
+            pt.setLocation( ( ( i & 1 ) == 0 ) ? bounds.getMinX() : bounds.getMaxX(),
+                            ( ( i & 2 ) == 0 ) ? bounds.getMinY() : bounds.getMaxY() );
+            inverse.transform( pt, pt );
+            tmax = FastMath.max( tmax, pt.distance( center ) / radius );
+        }
+        if ( cyclic && ( tmax > 1 ) ) {
+            return null;
+        }
+        final Point2D focus = trans.transform( center, null );
+        final double focusX = clamp( ( focus.getX() - bounds.getX() ) / bounds.getWidth() );
+        final double focusY = clamp( ( focus.getY() - bounds.getY() ) / bounds.getHeight() );
+        return createShade( true, fractions, colors, 0, tmax, 0, focusX, focusY );
+    }
+
+    /**
+     * Create the Shade going from the position tstart to the position tend of
+     * a gradient. The colors in between are only kept if the gradient has
+     * some between these positions.
+     */
+    private static Shade createShade( final boolean radial,
+                                      final float[] fractions,
+                                      final Color[] colors,
+                                      final double tstart,
+                                      final double tend,
+                                      final double angle,
+                                      final double focusX,
+                                      final double focusY ) {
+        final List< Double > positions = new ArrayList<>();
+        final List< Color > shadeColors = new ArrayList<>();
+        final double span = tend - tstart;
+        positions.add( 0d );
+        shadeColors.add( getColor( fractions, colors, tstart ) );
+        if ( span > EPSILON ) {
+            for ( int i = 0; i < fractions.length; i++ ) {
+                if ( ( fractions[ i ] > tstart ) && ( fractions[ i ] < tend ) ) {
+                    positions.add( ( fractions[ i ] - tstart ) / span );
+                    shadeColors.add( colors[ i ] );
+                }
+            }
+        }
+        positions.add( 1d );
+        shadeColors.add( getColor( fractions, colors, tend ) );
+
+        final double[] pos = new double[ positions.size() ];
+        for ( int i = 0; i < pos.length; i++ ) {
+            pos[ i ] = positions.get( i );
+        }
+        return new Shade( radial,
+                          pos,
+                          shadeColors.toArray( new Color[ shadeColors.size() ] ),
+                          angle,
+                          focusX,
+                          focusY );
+    }
+
+    /**
+     * Set the fill type and the colors of a Shade. The fill background color
+     * is the start color, and the fill foreground color is the end color. The
+     * shade colors array is only set if there are colors in between.
+     */
+    private static void setShadeProperties( final HSLFSimpleShape shape,
+                                            final int fillType,
+                                            final Shade shade ) {
+        final Color startColor = shade.getStartColor();
+        final Color endColor = shade.getEndColor();
+        final HSLFFill fill = shape.getFill();
+        fill.setForegroundColor( endColor );
+        fill.setBackgroundColor( startColor );
+        if ( startColor.getAlpha() != 255 ) {
+            shape.setEscherProperty( EscherPropertyTypes.FILL__BACKOPACITY,
+                                     Units.doubleToFixedPoint( startColor.getAlpha() / 255d ) );
+        }
+        fill.setFillType( fillType );
+        final int count = shade.colors.length;
+        if ( count > 2 ) {
+            final EscherArrayProperty prop = new EscherArrayProperty( EscherPropertyTypes.FILL__SHADECOLORS,
+                                                                      false,
+                                                                      0 );
+            prop.setSizeOfElements( SHADE_COLOR_SIZE );
+            prop.setNumberOfElementsInArray( count );
+            prop.setNumberOfElementsInMemory( count );
+            for ( int i = 0; i < count; i++ ) {
+                final Color col = shade.colors[ i ];
+                final int pos = Units.doubleToFixedPoint( shade.positions[ i ] );
+                prop.setElement( i,
+                                 new byte[] { ( byte ) col.getRed(),
+                                              ( byte ) col.getGreen(),
+                                              ( byte ) col.getBlue(),
+                                              0,
+                                              ( byte ) pos,
+                                              ( byte ) ( pos >> 8 ),
+                                              ( byte ) ( pos >> 16 ),
+                                              ( byte ) ( pos >> 24 ) } );
+            }
+            final AbstractEscherOptRecord opt = shape.getEscherOptRecord();
+            opt.removeEscherProperty( EscherPropertyTypes.FILL__SHADECOLORS );
+            opt.addEscherProperty( prop );
+        }
+    }
+
+    /**
+     * Return the color of a gradient at a position, the colors at the ends of
+     * the gradient being extended outside of it.
+     */
+    private static Color getColor( final float[] fractions, final Color[] colors, final double t ) {
+        if ( t <= fractions[ 0 ] ) {
+            return colors[ 0 ];
+        }
+        for ( int i = 1; i < fractions.length; i++ ) {
+            if ( t <= fractions[ i ] ) {
+                final float ratio = ( float ) ( ( t - fractions[ i - 1 ] )
+                        / ( fractions[ i ] - fractions[ i - 1 ] ) );
+                final Color c1 = colors[ i - 1 ];
+                final Color c2 = colors[ i ];
+                return new Color( interpolate( c1.getRed(), c2.getRed(), ratio ),
+                                  interpolate( c1.getGreen(), c2.getGreen(), ratio ),
+                                  interpolate( c1.getBlue(), c2.getBlue(), ratio ),
+                                  interpolate( c1.getAlpha(), c2.getAlpha(), ratio ) );
+            }
+        }
+        return colors[ colors.length - 1 ];
+    }
+
+    private static int interpolate( final int v1, final int v2, final float ratio ) {
+        return FastMath.round( v1 + ( ( v2 - v1 ) * ratio ) );
+    }
+
+    private static double clamp( final double value ) {
+        return FastMath.max( 0d, FastMath.min( 1d, value ) );
+    }
+}
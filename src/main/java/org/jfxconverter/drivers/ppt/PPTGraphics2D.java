@@ -38,11 +38,12 @@ package org.jfxconverter.drivers.ppt;
 import org.apache.commons.math3.util.FastMath;
 import org.apache.poi.ddf.EscherOptRecord;
 import org.apache.poi.ddf.EscherProperties;
+import org.apache.poi.ddf.EscherPropertyTypes;
 import org.apache.poi.ddf.EscherSimpleProperty;
 import org.apache.poi.hslf.record.FontCollection;
 import org.apache.poi.hslf.usermodel.HSLFAutoShape;
-import org.apache.poi.hslf.usermodel.HSLFFontInfo;
 import org.apache.poi.hslf.usermodel.HSLFFreeformShape;
+import org.apache.poi.hslf.usermodel.HSLFGroupShape;
 import org.apache.poi.hslf.usermodel.HSLFLine;
 import org.apache.poi.hslf.usermodel.HSLFPictureData;
 import org.apache.poi.hslf.usermodel.HSLFPictureShape;
@@ -52,18 +53,16 @@ import org.apache.poi.hslf.usermodel.HSLFSlide;
 import org.apache.poi.hslf.usermodel.HSLFSlideShow;
 import org.apache.poi.hslf.usermodel.HSLFTextBox;
 import org.apache.poi.hslf.usermodel.HSLFTextRun;
-import org.apache.poi.sl.usermodel.PictureData;
 import org.apache.poi.sl.usermodel.ShapeType;
 import org.apache.poi.sl.usermodel.StrokeStyle;
 import org.apache.poi.sl.usermodel.StrokeStyle.LineDash;
 import org.apache.poi.sl.usermodel.TextParagraph;
 import org.apache.poi.sl.usermodel.VerticalAlignment;
-import org.mdiutil.geom.ClippableShape;
+import org.apache.poi.util.Units;
 import org.mdiutil.geom.Polyline2D;
 import org.mdiutil.geom.ShapeNormalizer;
 import org.mdiutil.geom.ShapeUtilities;
 
-import javax.imageio.ImageIO;
 import java.awt.BasicStroke;
 import java.awt.Color;
 import java.awt.Composite;
@@ -83,10 +82,10 @@ import java.awt.Stroke;
 import java.awt.font.FontRenderContext;
 import java.awt.font.GlyphVector;
 import java.awt.font.LineMetrics;
+import java.awt.font.TextAttribute;
 import java.awt.font.TextLayout;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Arc2D;
-import java.awt.geom.Area;
 import java.awt.geom.Ellipse2D;
 import java.awt.geom.GeneralPath;
 import java.awt.geom.Line2D;
@@ -94,19 +93,22 @@ import java.awt.geom.Path2D;
 import java.awt.geom.PathIterator;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
+import java.awt.geom.RectangularShape;
 import java.awt.geom.RoundRectangle2D;
 import java.awt.image.BufferedImage;
 import java.awt.image.BufferedImageOp;
 import java.awt.image.ImageObserver;
 import java.awt.image.RenderedImage;
 import java.awt.image.renderable.RenderableImage;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.text.AttributedCharacterIterator;
+import java.text.AttributedString;
 import java.text.CharacterIterator;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 /**
  * This implementation of the java.awt.Graphics2D abstract class allows users to
@@ -131,7 +133,14 @@ public class PPTGraphics2D extends Graphics2D {
     private static final short     NOT_CLIPPED       = 0;
     private static final short     OUTSIDE_CLIP      = 1;
     private static final short     INTERSECT_CLIP    = 2;
+    private static final int       NON_AXIS_ALIGNED  = AffineTransform.TYPE_GENERAL_ROTATION
+            | AffineTransform.TYPE_QUADRANT_ROTATION | AffineTransform.TYPE_GENERAL_TRANSFORM;
     private static final boolean   DEBUG             = false;
+    /**
+     * The default resolution of the pictures of the hard clipped texts, in
+     * dots per inch.
+     */
+    public static final int        DEFAULT_HARD_CLIP_TEXT_RESOLUTION = 144;
     protected static final float   TEXT_MIN_ESCAPE   = ( float ) ( FastMath.PI / 180 );
     protected static final double  ASSUME_ZERO       = 0.01f;
     private BufferedImage          img;
@@ -141,7 +150,7 @@ public class PPTGraphics2D extends Graphics2D {
     private Font                   font;
     private FontRenderContext      fctx              = null;
     private FontMetrics            fontMetrics       = null;
-    private Shape                  deviceclip;
+    private PPTClip                deviceclip;
     private static final float     DASH_LIMIT_DOT    = 0.5f / 348f;
     private static final float     DASH_LIMIT_NORMAL = 4f / 348f;
     private Paint                  paint;
@@ -167,6 +176,17 @@ public class PPTGraphics2D extends Graphics2D {
      * The PPT height.
      */
     public float                   height;
+    /*
+     * The origin of the content in device coordinates. The content is expected
+     * in the rectangle of this origin and of the PPT width and height.
+     */
+    private double                 contentX          = 0;
+    private double                 contentY          = 0;
+    /*
+     * True if this context was created while the content of its parent was
+     * culled.
+     */
+    private boolean                contentCulled     = false;
     protected HSLFSlide            slide             = null;
     /**
      * The Font collection.
@@ -174,9 +194,36 @@ public class PPTGraphics2D extends Graphics2D {
     protected FontCollection       coll              = null;
     protected StrokeStyle.LineDash lineDashing       = StrokeStyle.LineDash.SOLID;
     private boolean                acceptSmallShapes = true;
+    private boolean                nativeArcs        = false;
     private boolean                hardClipTexts     = false;
+    /*
+     * The resolution of the pictures of the hard clipped texts, in dots per
+     * inch. The device unit is the point, so 72 is one pixel per unit.
+     */
+    private int                    hardClipTextResolution = DEFAULT_HARD_CLIP_TEXT_RESOLUTION;
     // by default the Locale is the default Locale on the Machine
     private Locale                 locale            = Locale.getDefault();
+    /*
+     * The scratch objects used to transform the most common Shapes without
+     * allocating, and the bounds used to test them against the clip.
+     */
+    private final Rectangle2D.Double scratchRec      = new Rectangle2D.Double();
+    private final Line2D.Double    scratchLine       = new Line2D.Double();
+    private final Ellipse2D.Double scratchEllipse    = new Ellipse2D.Double();
+    private final Arc2D.Double     scratchArc        = new Arc2D.Double();
+    private final Rectangle2D.Double scratchBounds   = new Rectangle2D.Double();
+    private final PPTPathClassifier pathClassifier   = new PPTPathClassifier();
+    private final Rectangle2D.Double cullBounds      = new Rectangle2D.Double();
+    /*
+     * The culling stage of the SlideShow.
+     */
+    private PPTCullingStage        cullingStage      = null;
+    /*
+     * The Shapes which are not yet added to the Slide, in their z-order, or
+     * null if the Shapes are added as they are drawn. The list is shared with
+     * the contexts created from this one.
+     */
+    private List< DeferredShape >  deferredShapes    = null;
 
     /**
      * Default constructor.
@@ -282,6 +329,7 @@ public class PPTGraphics2D extends Graphics2D {
         slide = pptSlide;
 
         coll = pptSlide.getSlideShow().getDocumentRecord().getEnvironment().getFontCollection();
+        cullingStage = PPTCullingStage.getStage( pptSlide.getSlideShow() );
         initContent( background, foreground, strokeValue );
     }
 
@@ -310,6 +358,16 @@ public class PPTGraphics2D extends Graphics2D {
         fontMetrics = pptG2d.fontMetrics;
         fctx = new FontRenderContext( trans, true, true );
         coll = pptG2d.coll;
+        deferredShapes = pptG2d.deferredShapes;
+        hardClipTexts = pptG2d.hardClipTexts;
+        nativeArcs = pptG2d.nativeArcs;
+        hardClipTextResolution = pptG2d.hardClipTextResolution;
+        width = pptG2d.width;
+        height = pptG2d.height;
+        contentX = pptG2d.contentX;
+        contentY = pptG2d.contentY;
+        contentCulled = pptG2d.isContentCulled();
+        cullingStage = pptG2d.cullingStage;
     }
 
     /**
@@ -343,6 +401,158 @@ public class PPTGraphics2D extends Graphics2D {
         return slide;
     }
 
+    /**
+     * Set the Executor used to encode the images and the rasterized paints of
+     * a SlideShow as PNG, so that the encoding does not hold up the drawing.
+     * The picture Shapes are still created in the drawing calls, in their
+     * z-order, but with a placeholder picture, so
+     * {@link #completePictures(HSLFSlideShow)} must be called before the
+     * SlideShow is written. A null Executor, which is the default, means that
+     * the pictures are encoded in the drawing calls.
+     *
+     * @param show
+     *            the SlideShow
+     * @param executor
+     *            the Executor
+     */
+    public static void setPictureEncodingExecutor( final HSLFSlideShow show, final Executor executor ) {
+        PPTPictureCache.getCache( show ).setExecutor( executor );
+    }
+
+    /**
+     * Wait for the pictures of a SlideShow which are still being encoded, and
+     * put them in place of their placeholders. This does nothing if no Executor
+     * was set for the SlideShow.
+     *
+     * @param show
+     *            the SlideShow
+     * @throws IOException
+     *             if a picture could not be encoded
+     */
+    public static void completePictures( final HSLFSlideShow show ) throws IOException {
+        PPTPictureCache.getCache( show ).completePictures( show );
+    }
+
+    /**
+     * Set the culling stage of a SlideShow, which decides which Shapes are
+     * skipped before any record is created for them. It is used by the
+     * Graphics2D contexts created for the SlideShow afterwards. A null stage
+     * means that no Shape is culled.
+     *
+     * @param show
+     *            the SlideShow
+     * @param stage
+     *            the culling stage
+     */
+    public static void setCullingStage( final HSLFSlideShow show, final PPTCullingStage stage ) {
+        if ( stage != null ) {
+            PPTCullingStage.setStage( show, stage );
+        }
+        else {
+            PPTCullingStage.setStage( show, new PPTCullingStage( new PPTCullingRule[ 0 ] ) );
+        }
+    }
+
+    /**
+     * Return the culling stage of a SlideShow, which holds the number of
+     * Shapes culled by each of its rules.
+     *
+     * @param show
+     *            the SlideShow
+     * @return the culling stage
+     */
+    public static PPTCullingStage getCullingStage( final HSLFSlideShow show ) {
+        return PPTCullingStage.getStage( show );
+    }
+
+    /**
+     * Return the culling stage used by this Graphics2D.
+     *
+     * @return the culling stage
+     */
+    public PPTCullingStage getCullingStage() {
+        return cullingStage;
+    }
+
+    /**
+     * Return the current clip in device coordinates, or null if there is no
+     * clip.
+     *
+     * @return the clip
+     */
+    PPTClip getDeviceClip() {
+        return deviceclip;
+    }
+
+    /**
+     * Return the number of bytes allocated for the images, the non native
+     * paints and the hard clipped texts drawn for a SlideShow, including the
+     * copies of the pictures which were encoded asynchronously. The scratch
+     * images are pooled per thread, so this mostly counts the first use of
+     * each image size.
+     *
+     * @param show
+     *            the SlideShow
+     * @return the number of bytes
+     */
+    public static long getImageBytesAllocated( final HSLFSlideShow show ) {
+        return PPTPictureCache.getCache( show ).getAllocatedBytes();
+    }
+
+    /**
+     * Set if the Shapes are deferred. Deferred Shapes are fully built in the
+     * drawing calls, but only recorded in their z-order rather than added to
+     * the Slide, until {@link #addDeferredShapes()} is called. Adding a Shape
+     * to a Slide allocates its id in the SlideShow, so deferring the Shapes
+     * allows several slides of the same SlideShow to be drawn concurrently,
+     * each on its own thread, and then added one after the other on a single
+     * thread.
+     *
+     * This must be set before drawing, and is shared by the contexts created
+     * from this one afterwards. Unsetting it adds the deferred Shapes.
+     *
+     * @param b
+     *            true if the Shapes are deferred
+     */
+    public void setDeferringShapes( final boolean b ) {
+        if ( !b ) {
+            addDeferredShapes();
+            deferredShapes = null;
+        }
+        else if ( deferredShapes == null ) {
+            deferredShapes = new ArrayList<>();
+        }
+    }
+
+    /**
+     * Return true if the Shapes are deferred.
+     *
+     * @return true if the Shapes are deferred
+     */
+    public boolean isDeferringShapes() {
+        return deferredShapes != null;
+    }
+
+    /**
+     * Add the deferred Shapes to the Slide, in the order in which they were
+     * drawn. This does nothing if the Shapes are not deferred. This must not be
+     * called while another slide of the same SlideShow is being drawn or is
+     * adding its Shapes.
+     */
+    public void addDeferredShapes() {
+        if ( deferredShapes != null ) {
+            for ( final DeferredShape deferred : deferredShapes ) {
+                if ( deferred.group != null ) {
+                    deferred.group.addShape( deferred.shape );
+                }
+                else {
+                    slide.addShape( deferred.shape );
+                }
+            }
+            deferredShapes.clear();
+        }
+    }
+
     public void setHardClippingTexts( final boolean b ) {
         hardClipTexts = b;
     }
@@ -351,6 +561,62 @@ public class PPTGraphics2D extends Graphics2D {
         return hardClipTexts;
     }
 
+    /**
+     * Set the resolution of the pictures which are drawn in place of the texts
+     * crossing the clip, when the texts are hard clipped. The default is
+     * {@link #DEFAULT_HARD_CLIP_TEXT_RESOLUTION}.
+     *
+     * @param dpi
+     *            the resolution, in dots per inch
+     */
+    public void setHardClipTextResolution( final int dpi ) {
+        hardClipTextResolution = FastMath.max( 1, dpi );
+    }
+
+    /**
+     * Return the resolution of the pictures of the hard clipped texts.
+     *
+     * @return the resolution, in dots per inch
+     */
+    public int getHardClipTextResolution() {
+        return hardClipTextResolution;
+    }
+
+    /**
+     * Set the origin of the content drawn on this Graphics2D, in device
+     * coordinates. The content is expected in the rectangle of this origin and
+     * of the PPT width and height, and what lies outside of it is not
+     * visible. The default origin is 0, 0.
+     *
+     * @param x
+     *            the x coordinate of the origin
+     * @param y
+     *            the y coordinate of the origin
+     */
+    public void setContentOrigin( final double x, final double y ) {
+        contentX = x;
+        contentY = y;
+    }
+
+    /**
+     * Return true if a rectangle in device coordinates intersects the
+     * rectangle of the content.
+     */
+    boolean intersectsContent( final Rectangle2D deviceBounds ) {
+        return deviceBounds.intersects( contentX, contentY, width, height );
+    }
+
+    /**
+     * Return true if nothing drawn on this Graphics2D can be seen, for example
+     * because it draws the content of a Group which was culled. The drawing
+     * methods return at once in that case, before any work is done.
+     *
+     * @return true if the content is culled
+     */
+    protected boolean isContentCulled() {
+        return contentCulled;
+    }
+
     public void setAcceptSmallShapes( final boolean accept ) {
         acceptSmallShapes = accept;
     }
@@ -359,6 +625,22 @@ public class PPTGraphics2D extends Graphics2D {
         return acceptSmallShapes;
     }
 
+    /**
+     * Set if the open arcs and the filled pies are drawn with the native Arc
+     * AutoShape rather than with a FreeForm Shape. This is off by default, as
+     * the native arcs have not been checked in PowerPoint yet.
+     *
+     * @param b
+     *            true to draw the arcs with the native Arc AutoShape
+     */
+    public void setNativeArcs( final boolean b ) {
+        nativeArcs = b;
+    }
+
+    public boolean isNativeArcs() {
+        return nativeArcs;
+    }
+
     private void initContent( final Color background,
                               final Color foreground,
                               final float strokeValue ) {
@@ -397,35 +679,61 @@ public class PPTGraphics2D extends Graphics2D {
         setPaint( paint1 );
     }
 
-    private Rectangle2D getTextBox( final String s,
+    /**
+     * Return the measurements of a String with the current Font and transform,
+     * from the SlideShow text cache if the String was already measured.
+     */
+    private PPTTextCache.TextGeometry getTextGeometry( final String s ) {
+        final PPTTextCache cache = PPTTextCache.getCache( slide.getSlideShow() );
+        final PPTTextCache.TextKey key = new PPTTextCache.TextKey( s, font, fctx.getTransform(), trans );
+        PPTTextCache.TextGeometry geometry = cache.getGeometry( key );
+        if ( geometry == null ) {
+            // the metrics depend on the transform of the underlying Graphics,
+            // which must be up to date before they are created
+            getFontRenderContext();
+            final FontMetrics m = getFontMetrics( font );
+            final LineMetrics lm = m.getLineMetrics( s, this );
+            final Rectangle2D rec = m.getStringBounds( s, g2D ).getBounds();
+            final TextLayout layout = new TextLayout( s, font, fctx );
+            // need to do this else sometimes the String is outside the bounds
+            final int charWidth = ( ( s.length() / 2 ) + 1 ) * m.charWidth( 'X' );
+            geometry = new PPTTextCache.TextGeometry( layout.getBounds(),
+                                                      rec.getWidth(),
+                                                      rec.getHeight(),
+                                                      m.stringWidth( s ),
+                                                      charWidth,
+                                                      lm.getAscent(),
+                                                      lm.getDescent(),
+                                                      lm.getLeading() );
+            cache.putGeometry( key, geometry );
+        }
+        return geometry;
+    }
+
+    private Rectangle2D getTextBox( final PPTTextCache.TextGeometry geometry,
                                     final double x,
                                     final double y,
                                     final boolean rotated,
                                     final float rot ) {
-        final FontMetrics m = getFontMetrics( font );
-        final LineMetrics lm = m.getLineMetrics( s, this );
-        final Rectangle2D rec = m.getStringBounds( s, g2D ).getBounds();
-        final TextLayout layout = new TextLayout( s, font, fctx );
-        Rectangle2D rec2 = layout.getBounds();
-        final int stringWidth = m.stringWidth( s );
+        final Rectangle2D layoutBounds = geometry.layoutBounds;
+        Rectangle2D rec2 = new Rectangle2D.Float();
         int deltaX = 0;
         int deltaY = 0;
-        // need to do this else sometimes the String is outside the bounds
-        final int charWidth = ( ( s.length() / 2 ) + 1 ) * m.charWidth( 'X' );
+        final int charWidth = geometry.charWidth;
         int supp = 0;
 
         if ( rotated ) {
             supp = charWidth;
-            deltaY = -( int ) ( rec2.getHeight() * FastMath.sin( rot ) );
-            deltaX = ( int ) ( rec.getWidth() * FastMath.cos( rot ) );
+            deltaY = -( int ) ( layoutBounds.getHeight() * FastMath.sin( rot ) );
+            deltaX = ( int ) ( geometry.stringBoundsWidth * FastMath.cos( rot ) );
         }
-        final int aWidth = ( int ) ( rec.getWidth() + charWidth + supp );
-        final int aHeight = ( int ) ( rec2.getHeight() + supp );
-        final int deltaPos = ( int ) ( ( ( rec.getHeight() - rec2.getHeight() - lm.getAscent() )
-                + lm.getDescent() ) - lm.getLeading() );
+        final int aWidth = ( int ) ( geometry.stringBoundsWidth + charWidth + supp );
+        final int aHeight = ( int ) ( layoutBounds.getHeight() + supp );
+        final int deltaPos = ( int ) ( ( ( geometry.stringBoundsHeight - layoutBounds.getHeight()
+                - geometry.ascent ) + geometry.descent ) - geometry.leading );
 
-        rec2.setRect( ( ( x + rec.getWidth() ) - stringWidth ) + deltaX,
-                      ( ( ( y - rec2.getHeight() ) + lm.getLeading() ) - deltaPos ) + deltaY,
+        rec2.setRect( ( ( x + geometry.stringBoundsWidth ) - geometry.stringWidth ) + deltaX,
+                      ( ( ( y - layoutBounds.getHeight() ) + geometry.leading ) - deltaPos ) + deltaY,
                       aWidth,
                       aHeight );
         if ( !acceptSmallShapes ) {
@@ -440,13 +748,11 @@ public class PPTGraphics2D extends Graphics2D {
     public void clip( Shape shape ) {
         shape = ShapeUtilities.createTransformedShape( shape, trans );
         if ( deviceclip != null ) {
-            final Area area = new Area( deviceclip );
-            if ( shape != null ) {
-                area.intersect( new Area( shape ) );
-            }
-            shape = area;
+            deviceclip = deviceclip.intersect( shape );
+        }
+        else if ( shape != null ) {
+            deviceclip = PPTClip.create( shape );
         }
-        deviceclip = shape;
     }
 
     @Override
@@ -491,8 +797,8 @@ public class PPTGraphics2D extends Graphics2D {
             return true;
         }
         else {
-            return ( shape.getBounds2D().getHeight() >= 1f )
-                    || ( shape.getBounds2D().getWidth() >= 1f );
+            final Rectangle2D bounds = getBounds( shape );
+            return ( bounds.getHeight() >= 1f ) || ( bounds.getWidth() >= 1f );
         }
     }
 
@@ -510,16 +816,42 @@ public class PPTGraphics2D extends Graphics2D {
             return true;
         }
         else {
-            return ( shape.getBounds2D().getHeight() >= 1f )
-                    && ( shape.getBounds2D().getWidth() >= 1f );
+            final Rectangle2D bounds = getBounds( shape );
+            return ( bounds.getHeight() >= 1f ) && ( bounds.getWidth() >= 1f );
         }
     }
 
+    /**
+     * Return true if a Shape in device coordinates is culled by the culling
+     * stage. The bounds of a drawn Shape include the width of its stroke.
+     */
+    private boolean isCulled( final Shape shape, final Rectangle2D bounds, final boolean fill ) {
+        if ( cullingStage == null ) {
+            return false;
+        }
+        final double margin = fill ? 0 : basicStroke.getLineWidth() / 2d;
+        // a horizontal or vertical line with no stroke width has empty
+        // bounds, which intersect nothing
+        cullBounds.setRect( bounds.getX() - margin,
+                            bounds.getY() - margin,
+                            FastMath.max( 0.1, bounds.getWidth() + ( 2 * margin ) ),
+                            FastMath.max( 0.1, bounds.getHeight() + ( 2 * margin ) ) );
+        return cullingStage.isCulled( this, shape, cullBounds, fill );
+    }
+
     @Override
     public void draw( Shape shape ) {
-        shape = transformShape( shape );
+        if ( isContentCulled() ) {
+            return;
+        }
+        shape = transformUnclippedShape( shape );
         if ( shape != null ) {
-            if ( acceptDrawShape( shape ) ) {
+            final Rectangle2D bounds = getBounds( shape );
+            if ( isCulled( shape, bounds, false ) ) {
+                return;
+            }
+            shape = getClippedShape( shape, bounds );
+            if ( ( shape != null ) && acceptDrawShape( shape ) ) {
                 doDrawing( shape );
             }
         }
@@ -589,9 +921,15 @@ public class PPTGraphics2D extends Graphics2D {
             shape.setLineColor( null );
             setShapeFillingAdditionalProperties( shape );
         }
+        else if ( PPTGradientFill.setFillProperties( shape, paint, trans, shape.getAnchor() ) ) {
+            // the paint is a gradient which PowerPoint can draw natively
+            shape.setLineColor( null );
+            setShapeFillingAdditionalProperties( shape );
+        }
         else {
-            // else it's a paint, we will draw the paint in a BufferedImage, and
-            // then regularly draw this image, and we are done
+            // else it's a paint with no native equivalent, we will draw the
+            // paint in a BufferedImage, and then regularly draw this image, and
+            // we are done
             // We use the outline for the Shape, but the outline bounds for the
             // image, so we don't have
             // only a stupid rectangle if the Shape was more complex
@@ -611,23 +949,20 @@ public class PPTGraphics2D extends Graphics2D {
                                              AffineTransform.getTranslateInstance( -rec.x,
                                                                                    -rec.y ) );
             if ( ( outline != null ) && ( rec.width > 0 ) && ( rec.height > 0 ) ) {
-                final BufferedImage bimg = new BufferedImage( rec.width,
-                                                              rec.height,
-                                                              BufferedImage.TYPE_INT_ARGB );
-                final Graphics2D g2d = bimg.createGraphics();
-                g2d.setPaint( paint );
-                g2d.fill( outline );
+                final HSLFSlideShow show = slide.getSlideShow();
+                final PPTPictureCache cache = PPTPictureCache.getCache( show );
+                final PPTScratchImages.Scratch scratch = PPTScratchImages.acquire( cache,
+                                                                                  rec.width,
+                                                                                  rec.height );
                 try {
-                    final ByteArrayOutputStream stream = new ByteArrayOutputStream( 100 );
-                    ImageIO.write( bimg, "png", stream );
-                    stream.flush();
-                    stream.close();
-
-                    final byte[] b = stream.toByteArray();
-                    final HSLFSlideShow show = slide.getSlideShow();
-                    final HSLFPictureData idx = show.addPicture( b, PictureData.PictureType.PNG );
+                    final Graphics2D g2d = scratch.getGraphics();
+                    g2d.setPaint( paint );
+                    g2d.fill( outline );
+                    final PPTPictureCache.Picture picture = cache
+                            .getPicture( show, scratch.getImage(), true );
 
-                    final HSLFPictureShape pict = doCreatePicture( idx );
+                    final HSLFPictureShape pict = doCreatePicture( picture.getData() );
+                    picture.addShape( pict );
 
                     // and now we must position correctly the Image
                     rec = new Rectangle( rec.x, rec.y, rec.width, rec.height );
@@ -641,6 +976,9 @@ public class PPTGraphics2D extends Graphics2D {
                     addShape( pict );
                 }
                 catch ( final IOException e ) {}
+                finally {
+                    scratch.release();
+                }
             }
         }
     }
@@ -720,8 +1058,77 @@ public class PPTGraphics2D extends Graphics2D {
      *            the Shape
      */
     protected void addShape( final HSLFShape shape ) {
+        addShape( null, shape );
+    }
+
+    /**
+     * Remove a Group from its parent Group, or from the Slide if the parent is
+     * null, if no Shape was added to it.
+     *
+     * @param parent
+     *            the parent Group, or null
+     * @param group
+     *            the Group
+     */
+    protected void pruneGroup( final HSLFGroupShape parent, final HSLFGroupShape group ) {
+        if ( deferredShapes != null ) {
+            // the Shapes of the Group would have been recorded after it
+            final int last = deferredShapes.size() - 1;
+            if ( ( last >= 0 ) && ( deferredShapes.get( last ).shape == group ) ) {
+                deferredShapes.remove( last );
+            }
+        }
+        else if ( group.getShapes().isEmpty() ) {
+            if ( parent != null ) {
+                parent.removeShape( group );
+            }
+            else {
+                slide.removeShape( group );
+            }
+        }
+    }
+
+    /**
+     * Return true if a rectangle in device coordinates can be seen, that is if
+     * it intersects both the content and the clip.
+     *
+     * @param deviceBounds
+     *            the rectangle
+     * @return true if the rectangle can be seen
+     */
+    protected boolean isVisible( final Rectangle2D deviceBounds ) {
+        // a horizontal or vertical line has empty bounds, which intersect
+        // nothing
+        scratchBounds.setRect( deviceBounds.getX(),
+                               deviceBounds.getY(),
+                               FastMath.max( 0.1, deviceBounds.getWidth() ),
+                               FastMath.max( 0.1, deviceBounds.getHeight() ) );
+        if ( !intersectsContent( scratchBounds ) ) {
+            return false;
+        }
+        return ( deviceclip == null ) || deviceclip.intersects( scratchBounds );
+    }
+
+    /**
+     * Add the Shape to a Group, or to the Slide if the Group is null. If the
+     * Shapes are deferred, the Shape is only recorded.
+     *
+     * @param group
+     *            the Group, or null
+     * @param shape
+     *            the Shape
+     */
+    protected void addShape( final HSLFGroupShape group, final HSLFShape shape ) {
         shape.setSheet( slide );
-        slide.addShape( shape );
+        if ( deferredShapes != null ) {
+            deferredShapes.add( new DeferredShape( group, shape ) );
+        }
+        else if ( group != null ) {
+            group.addShape( shape );
+        }
+        else {
+            slide.addShape( shape );
+        }
     }
 
     private void doLineDrawing( final Line2D line ) {
@@ -798,6 +1205,9 @@ public class PPTGraphics2D extends Graphics2D {
 
             doEllipse2DDrawing( e, type );
         }
+        else if ( isNativeArc( arc, type ) ) {
+            doNativeArcDrawing( arc, type );
+        }
         else {
             final double startAngle = arc.getAngleStart();
             double extent = arc.getAngleExtent();
@@ -827,6 +1237,101 @@ public class PPTGraphics2D extends Graphics2D {
         }
     }
 
+    /**
+     * Return true if an Arc can be drawn with the native Arc AutoShape. Its
+     * outline is only the curve of the arc, and its fill is the pie slice, so
+     * only open arcs can be drawn, and only pies with a Color or a native
+     * gradient can be filled.
+     */
+    private boolean isNativeArc( final Arc2D arc, final int type ) {
+        if ( !nativeArcs || ( arc.getWidth() <= 0 ) || ( arc.getHeight() <= 0 ) ) {
+            return false;
+        }
+        final double angle1 = getSlideAngle( arc, arc.getAngleStart() );
+        final double angle2 = getSlideAngle( arc, arc.getAngleStart() + arc.getAngleExtent() );
+        if ( Units.doubleToFixedPoint( angle1 ) == Units.doubleToFixedPoint( angle2 ) ) {
+            // PowerPoint would draw the full ellipse
+            return false;
+        }
+        if ( getNativeArcAnchor( arc ).isEmpty() ) {
+            return false;
+        }
+        if ( type == ACTION_DRAW ) {
+            return arc.getArcType() == Arc2D.OPEN;
+        }
+        else {
+            return ( arc.getArcType() == Arc2D.PIE )
+                    && ( ( color != null )
+                            || ( PPTGradientFill.getShade( paint, trans, getNativeArcAnchor( arc ) ) != null ) );
+        }
+    }
+
+    /**
+     * Draw or fill an Arc with the native Arc AutoShape. Its two adjustment
+     * values are the start and end angles of the arc, which turns clockwise
+     * on the slide, and its anchor is given by
+     * {@link #getNativeArcAnchor(Arc2D)}.
+     */
+    private void doNativeArcDrawing( final Arc2D arc, final int type ) {
+        double angle1 = getSlideAngle( arc, arc.getAngleStart() );
+        double angle2 = getSlideAngle( arc, arc.getAngleStart() + arc.getAngleExtent() );
+        if ( arc.getAngleExtent() > 0 ) {
+            // the Arc turns counterclockwise on the slide
+            final double angle = angle1;
+            angle1 = angle2;
+            angle2 = angle;
+        }
+        final HSLFAutoShape arcp = doCreateAutoShape( ShapeType.ARC );
+
+        arcp.setSheet( slide );
+        arcp.setAnchor( getNativeArcAnchor( arc ) );
+        arcp.setEscherProperty( EscherPropertyTypes.GEOMETRY__ADJUSTVALUE, Units.doubleToFixedPoint( angle1 ) );
+        arcp.setEscherProperty( EscherPropertyTypes.GEOMETRY__ADJUST2VALUE, Units.doubleToFixedPoint( angle2 ) );
+        addShape( arcp );
+        if ( type == ACTION_DRAW ) {
+            setShapeDrawProperties( arcp );
+        }
+        else {
+            setShapeFillProperties( arcp );
+        }
+    }
+
+    /**
+     * Return the anchor of the native Arc AutoShape for an Arc. The geometry
+     * of the Arc AutoShape is relative to the center of the ellipse: the
+     * anchor is the union of the quadrants of the ellipse which the pie of the
+     * arc reaches, so a quarter arc in the upper right quadrant has its center
+     * at the lower left corner of the anchor, and radii equal to the anchor
+     * size.
+     */
+    private static Rectangle2D getNativeArcAnchor( final Arc2D arc ) {
+        // the bounds of the pie include the center of the ellipse
+        final Rectangle2D pie = new Arc2D.Double( arc.getFrame(),
+                                                  arc.getAngleStart(),
+                                                  arc.getAngleExtent(),
+                                                  Arc2D.PIE ).getBounds2D();
+        final double centerX = arc.getCenterX();
+        final double centerY = arc.getCenterY();
+        final double left = pie.getMinX() < ( centerX - ASSUME_ZERO ) ? arc.getMinX() : centerX;
+        final double top = pie.getMinY() < ( centerY - ASSUME_ZERO ) ? arc.getMinY() : centerY;
+        final double right = pie.getMaxX() > ( centerX + ASSUME_ZERO ) ? arc.getMaxX() : centerX;
+        final double bottom = pie.getMaxY() > ( centerY + ASSUME_ZERO ) ? arc.getMaxY() : centerY;
+        return new Rectangle2D.Double( left, top, right - left, bottom - top );
+    }
+
+    /**
+     * Return the angle on the slide of a point of an Arc, in degrees between
+     * 0 and 360 turning clockwise from the X axis. The angles of an Arc2D are
+     * relative to its frame, so they differ from the slide angles if the frame
+     * is not a square.
+     */
+    private static double getSlideAngle( final Arc2D arc, final double angle ) {
+        final double rad = FastMath.toRadians( angle );
+        final double slideAngle = FastMath.toDegrees( FastMath.atan2( -arc.getHeight() * FastMath.sin( rad ),
+                                                                      arc.getWidth() * FastMath.cos( rad ) ) );
+        return slideAngle < 0 ? slideAngle + 360 : slideAngle;
+    }
+
     /**
      * This method will be called after the Shape properties has been set by
      * this class, to add
@@ -849,37 +1354,48 @@ public class PPTGraphics2D extends Graphics2D {
         }
         free.setAnchor( rec );
 
+        // most Shapes are made of straight segments, or of many sub-paths, and
+        // do not need to go through the ShapeNormalizer
+        switch ( pathClassifier.classify( shape.getPathIterator( null ) ) ) {
+        case PPTPathClassifier.LINE:
+        case PPTPathClassifier.POLYLINE:
+        case PPTPathClassifier.POLYGON:
+            doAddShape( free, pathClassifier.getPath(), type );
+            break;
+        case PPTPathClassifier.CURVED:
+            doNormalizedShapeDrawing( free, shape, type );
+            break;
+        default:
+            doAddShape( free, new Path2D.Double( shape ), type );
+            break;
+        }
+    }
+
+    private void doNormalizedShapeDrawing( final HSLFFreeformShape free,
+                                           final Shape shape,
+                                           final int type ) {
         final AffineTransform affinetransform = new AffineTransform();
         final PathIterator pathiterator = shape.getPathIterator( affinetransform );
         final ShapeNormalizer shapeNorm = new ShapeNormalizer( true );
         final List< Shape > shapes = shapeNorm.convertPath( pathiterator );
 
+        Shape _shape = shape;
         if ( shapes.size() == 1 ) {
-            final Shape _shape = shapes.get( 0 );
+            _shape = shapes.get( 0 );
             if ( _shape instanceof Polyline2D ) {
                 final Polyline2D pol = ( Polyline2D ) _shape;
                 if ( pol.npoints == 2 ) {
-                    final Line2D.Float line = new Line2D.Float( pol.xpoints[ 0 ],
-                                                                pol.ypoints[ 0 ],
-                                                                pol.xpoints[ 1 ],
-                                                                pol.ypoints[ 1 ] );
-                    doAddShape( free, line, type );
-                }
-                else {
-                    doAddShape( free, _shape, type );
+                    _shape = new Line2D.Float( pol.xpoints[ 0 ],
+                                               pol.ypoints[ 0 ],
+                                               pol.xpoints[ 1 ],
+                                               pol.ypoints[ 1 ] );
                 }
             }
-            else {
-                doAddShape( free, _shape, type );
-            }
-        }
-        else {
-            doAddShape( free, shape, type );
         }
+        doAddShape( free, new Path2D.Double( _shape ), type );
     }
 
-    private void doAddShape( final HSLFFreeformShape free, final Shape shape, final int type ) {
-        final Path2D.Double path = new Path2D.Double( shape );
+    private void doAddShape( final HSLFFreeformShape free, final Path2D.Double path, final int type ) {
         free.setPath( path );
         if ( type == ACTION_DRAW ) {
             setShapeDrawProperties( free );
@@ -902,53 +1418,72 @@ public class PPTGraphics2D extends Graphics2D {
 
     @Override
     public void drawGlyphVector( final GlyphVector vec, final float x, final float y ) {
+        if ( isContentCulled() ) {
+            return;
+        }
         fill( vec.getOutline( x, y ) );
     }
 
     /**
-     * Create a PNG image as a byte array from a rendered Image. PNG is chosen
+     * Return the picture for a rendered Image, as a PNG image. PNG is chosen
      * because JPEG
      * seems not adapted to batik or POI (inverts colors in the resulted image).
+     * Images with the same pixels share the same picture data in the
+     * SlideShow.
      */
-    private byte[] getImageData( final Image image,
-                                 final int iWidth,
-                                 final int iHeight,
-                                 final ImageObserver observer )
+    private PPTPictureCache.Picture getImageData( final Image image,
+                                          final int iWidth,
+                                          final int iHeight,
+                                          final ImageObserver observer )
             throws IOException {
-        final BufferedImage bufImage = new BufferedImage( iWidth,
-                                                          iHeight,
-                                                          BufferedImage.TYPE_INT_ARGB );
-        final Graphics2D g2d = bufImage.createGraphics();
-        g2d.drawImage( image, new AffineTransform(), observer );
-
-        final ByteArrayOutputStream stream = new ByteArrayOutputStream( 100 );
-
-        ImageIO.write( bufImage, "png", stream );
-        stream.flush();
-        stream.close();
-
-        return stream.toByteArray();
-    }
-
-    private void addImage( final Image image, Rectangle rec, final ImageObserver observer ) {
         final HSLFSlideShow show = slide.getSlideShow();
+        final PPTPictureCache cache = PPTPictureCache.getCache( show );
+        final PPTScratchImages.Scratch scratch = PPTScratchImages.acquire( cache, iWidth, iHeight );
         try {
-            final byte[] b = getImageData( image, rec.width, rec.height, observer );
-            final HSLFPictureData idx = show.addPicture( b, PictureData.PictureType.PNG );
+            scratch.getGraphics().drawImage( image, new AffineTransform(), observer );
+            return cache.getPicture( show, scratch.getImage(), true );
+        }
+        finally {
+            scratch.release();
+        }
+    }
 
-            final HSLFPictureShape pict = doCreatePicture( idx );
-            rec = new Rectangle( rec.x, rec.y, rec.width, rec.height );
-            pict.setAnchor( rec );
+    private void addImage( final Image image, final Rectangle rec, final ImageObserver observer ) {
+        try {
+            final PPTPictureCache.Picture picture = getImageData( image,
+                                                                 rec.width,
+                                                                 rec.height,
+                                                                 observer );
+            addPicture( picture, new Rectangle( rec.x, rec.y, rec.width, rec.height ) );
+        }
+        catch ( final IOException e ) {}
+    }
 
-            // filling with a null color is important else a default color will
-            // mask the image
-            pict.setFillColor( null );
-            pict.setLineColor( null );
-            addShape( pict );
+    /**
+     * Add a scratch image as a picture stretched on an anchor, without copying
+     * it first. The scratch image may be released afterwards.
+     */
+    private void addPicture( final PPTScratchImages.Scratch scratch, final Rectangle2D anchor ) {
+        try {
+            final HSLFSlideShow show = slide.getSlideShow();
+            addPicture( PPTPictureCache.getCache( show ).getPicture( show, scratch.getImage(), true ),
+                        anchor );
         }
         catch ( final IOException e ) {}
     }
 
+    private void addPicture( final PPTPictureCache.Picture picture, final Rectangle2D anchor ) {
+        final HSLFPictureShape pict = doCreatePicture( picture.getData() );
+        picture.addShape( pict );
+        pict.setAnchor( anchor );
+
+        // filling with a null color is important else a default color will
+        // mask the image
+        pict.setFillColor( null );
+        pict.setLineColor( null );
+        addShape( pict );
+    }
+
     private boolean isEmpty( final Rectangle rec ) {
         return rec.isEmpty() || ( rec.width <= 0 ) || ( rec.height <= 0 );
     }
@@ -965,6 +1500,9 @@ public class PPTGraphics2D extends Graphics2D {
                               final int sy2,
                               final Color color1,
                               final ImageObserver observer ) {
+        if ( isContentCulled() ) {
+            return true;
+        }
         final Rectangle recdst = new Rectangle( dx1, dy1, dx2 - dx1, dy2 - dy1 );
         final Rectangle rec = getTransformedForImage( recdst );
         if ( rec != null ) {
@@ -1027,12 +1565,14 @@ public class PPTGraphics2D extends Graphics2D {
                               final int iHeight,
                               final Color theColor,
                               final ImageObserver observer ) {
+        if ( isContentCulled() ) {
+            return true;
+        }
         final Rectangle rectangle = new Rectangle( x, y, iWidth, iHeight );
         final Rectangle rec = getTransformedForImage( rectangle );
         if ( rec != null ) {
             addImage( image, rec, observer );
         }
-        addImage( image, rec, observer );
 
         return true;
     }
@@ -1092,6 +1632,9 @@ public class PPTGraphics2D extends Graphics2D {
                            final BufferedImageOp imageOp,
                            final int i,
                            final int j ) {
+        if ( isContentCulled() ) {
+            return;
+        }
         final BufferedImage bufImage1 = imageOp.filter( image, null );
         drawImage( bufImage1, new AffineTransform( 1.0f, 0.0f, 0.0f, 1.0f, i, j ), null );
     }
@@ -1135,16 +1678,34 @@ public class PPTGraphics2D extends Graphics2D {
     @Override
     public void drawRenderableImage( final RenderableImage image,
                                      final AffineTransform transform ) {
+        if ( isContentCulled() ) {
+            return;
+        }
         drawRenderedImage( image.createDefaultRendering(), transform );
     }
 
     @Override
     public void drawRenderedImage( final RenderedImage image, final AffineTransform transform ) {
-        final BufferedImage bufferedimage = new BufferedImage( image
-                .getColorModel(), image.getData().createCompatibleWritableRaster(), false, null );
-
-        bufferedimage.setData( image.getData() );
-        drawImage( bufferedimage, transform, null );
+        if ( isContentCulled() ) {
+            return;
+        }
+        if ( image instanceof BufferedImage ) {
+            drawImage( ( BufferedImage ) image, transform, null );
+            return;
+        }
+        final PPTScratchImages.Scratch scratch = PPTScratchImages
+                .acquire( PPTPictureCache.getCache( slide.getSlideShow() ),
+                          image.getWidth(),
+                          image.getHeight() );
+        try {
+            final Graphics2D g2d = scratch.getGraphics();
+            g2d.translate( -image.getMinX(), -image.getMinY() );
+            g2d.drawRenderedImage( image, new AffineTransform() );
+            drawImage( scratch.getImage(), transform, null );
+        }
+        finally {
+            scratch.release();
+        }
     }
 
     @Override
@@ -1159,6 +1720,9 @@ public class PPTGraphics2D extends Graphics2D {
 
     @Override
     public void drawString( final String s, final float x, final float y ) {
+        if ( isContentCulled() ) {
+            return;
+        }
         doDrawString( s, x, y );
     }
 
@@ -1186,19 +1750,20 @@ public class PPTGraphics2D extends Graphics2D {
         final boolean rotated = rot != 0;
 
         // all this is to be sure to have the most precise position possible
-        final TextLayout layout = new TextLayout( s, font, fctx );
+        final PPTTextCache.TextGeometry geometry = getTextGeometry( s );
         // we need to check the clipping against the real position of the text
         // of course
-        Rectangle2D layoutRec = layout.getBounds();
-        layoutRec.setRect( layoutRec.getX() + x,
-                           layoutRec.getY() + y,
-                           layoutRec.getWidth(),
-                           layoutRec.getHeight() );
-
-        final Shape shape = transformShape( layoutRec );
+        final Rectangle2D layoutBounds = geometry.layoutBounds;
+        final Rectangle2D textRec = new Rectangle2D.Float();
+        textRec.setRect( layoutBounds.getX() + x,
+                         layoutBounds.getY() + y,
+                         layoutBounds.getWidth(),
+                         layoutBounds.getHeight() );
+
+        final Shape shape = transformShape( textRec );
         if ( shape != null ) {
-            layoutRec = shape.getBounds2D();
-            final Rectangle2D rec = getTextBox( s,
+            final Rectangle2D layoutRec = shape.getBounds2D();
+            final Rectangle2D rec = getTextBox( geometry,
                                                 layoutRec.getX(),
                                                 layoutRec.getY() + fontMetrics.getDescent(),
                                                 rotated,
@@ -1210,22 +1775,11 @@ public class PPTGraphics2D extends Graphics2D {
             final short clipState = getClippedState( rec );
             if ( clipState == INTERSECT_CLIP ) {
                 if ( hardClipTexts ) {
-                    final Rectangle clipRec = deviceclip.getBounds();
-                    final BufferedImage buf = new BufferedImage( ( int ) clipRec.getWidth(),
-                                                                 ( int ) clipRec.getHeight(),
-                                                                 BufferedImage.TYPE_INT_ARGB );
-                    final Graphics2D clipG2D = buf.createGraphics();
-                    clipG2D.setColor( color );
-                    final AffineTransform tr = AffineTransform
-                            .getTranslateInstance( -clipRec.getX(), -clipRec.getY() );
-                    final Shape _clip = tr.createTransformedShape( deviceclip );
-                    clipG2D.clip( _clip );
-                    layout.draw( clipG2D, 0, 0 );
-                    final Rectangle rec2 = new Rectangle( clipRec.x,
-                                                          clipRec.y,
-                                                          ( int ) clipRec.getWidth(),
-                                                          ( int ) clipRec.getHeight() );
-                    addImage( buf, rec2, null );
+                    drawHardClippedText( s,
+                                         x,
+                                         y,
+                                         ShapeUtilities.createTransformedShape( textRec, trans )
+                                                 .getBounds2D() );
                 }
                 else {
                     drawUnclippedText( s, rec, rot );
@@ -1237,6 +1791,49 @@ public class PPTGraphics2D extends Graphics2D {
         }
     }
 
+    /**
+     * Draw a text which crosses the clip as a picture of its visible part. The
+     * picture only covers the intersection of the text bounds with the clip,
+     * at the hard clip text resolution, and the texts which are clipped the
+     * same way share the same picture data.
+     */
+    private void drawHardClippedText( final String s,
+                                      final float x,
+                                      final float y,
+                                      final Rectangle2D textBounds ) {
+        // one more pixel around the text for the antialiasing
+        final Rectangle2D area = new Rectangle2D.Double( textBounds.getX() - 1,
+                                                         textBounds.getY() - 1,
+                                                         textBounds.getWidth() + 2,
+                                                         textBounds.getHeight() + 2 )
+                .createIntersection( deviceclip.getBounds() );
+        if ( area.isEmpty() ) {
+            return;
+        }
+        final double scale = hardClipTextResolution / 72d;
+        final int imgWidth = ( int ) FastMath.ceil( area.getWidth() * scale );
+        final int imgHeight = ( int ) FastMath.ceil( area.getHeight() * scale );
+        final PPTScratchImages.Scratch scratch = PPTScratchImages
+                .acquire( PPTPictureCache.getCache( slide.getSlideShow() ), imgWidth, imgHeight );
+        try {
+            final Graphics2D clipG2D = scratch.getGraphics();
+            clipG2D.setRenderingHint( RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON );
+            clipG2D.setRenderingHint( RenderingHints.KEY_TEXT_ANTIALIASING,
+                                      RenderingHints.VALUE_TEXT_ANTIALIAS_ON );
+            clipG2D.scale( imgWidth / area.getWidth(), imgHeight / area.getHeight() );
+            clipG2D.translate( -area.getX(), -area.getY() );
+            clipG2D.clip( deviceclip.getShape() );
+            clipG2D.transform( trans );
+            clipG2D.setColor( color );
+            clipG2D.setFont( font );
+            clipG2D.drawString( s, x, y );
+            addPicture( scratch, area );
+        }
+        finally {
+            scratch.release();
+        }
+    }
+
     private void drawUnclippedText( final String s, final Rectangle2D rec, final float rot ) {
         final HSLFTextBox txt = doCreateTextBox();
 
@@ -1269,23 +1866,8 @@ public class PPTGraphics2D extends Graphics2D {
         // use RichTextRun to work with the text format
         final HSLFTextRun rt = txt.getTextParagraphs().get( 0 ).getTextRuns().get( 0 );
 
-        rt.setFontSize( ( double ) font.getSize2D() );
         rt.setText( s );
-        // the coll.getFontIndex(fontName) method does not exist anymore in POI
-        // 3.17
-        // thanks Mark Schmieder for the fix
-        final String fontName = font.getFontName( locale );
-        final HSLFFontInfo fInfo = coll.getFontInfo( fontName );
-        final int fIndex = ( fInfo == null ) ? -1 : fInfo.getIndex();
-        if ( fIndex == -1 ) {
-            rt.setFontFamily( font.getFamily() );
-        }
-        else {
-            rt.setFontIndex( fIndex );
-        }
-        rt.setBold( font.isBold() );
-        rt.setItalic( font.isItalic() );
-        rt.setFontColor( getColor() );
+        setRunStyle( rt, font, getColor() );
         // need to use AlignLeft and not AlignCenter
         txt.getTextParagraphs().get( 0 ).setTextAlign( TextParagraph.TextAlign.LEFT );
         addShape( txt );
@@ -1298,76 +1880,134 @@ public class PPTGraphics2D extends Graphics2D {
 
     @Override
     public void drawString( final AttributedCharacterIterator ati, final float x, final float y ) {
-        // now iterate through all the runs
-        ati.first();
-        while ( ati.current() != CharacterIterator.DONE ) {
-            // retrieve the current span of text for the run
-            final StringBuilder buf = new StringBuilder();
-
-            while ( true ) {
-                buf.append( ati.current() );
-                if ( ati.getIndex() == ( ati.getRunLimit() - 1 ) ) {
-                    ati.next();
-                    break;
-                }
-                else {
-                    ati.next();
-                }
+        if ( isContentCulled() ) {
+            return;
+        }
+        // collect the whole text and the font and color of each run in one
+        // pass over the iterator
+        final int begin = ati.getBeginIndex();
+        final int length = ati.getEndIndex() - begin;
+        if ( length <= 0 ) {
+            return;
+        }
+        final char[] chars = new char[ length ];
+        final List< int[] > runs = new ArrayList<>();
+        final List< Font > runFonts = new ArrayList<>();
+        final List< Color > runColors = new ArrayList<>();
+        char c = ati.first();
+        while ( c != CharacterIterator.DONE ) {
+            final int runStart = ati.getIndex();
+            final int runLimit = ati.getRunLimit();
+            final Map< AttributedCharacterIterator.Attribute, Object > attributes = ati.getAttributes();
+            for ( int i = runStart; i < runLimit; i++ ) {
+                chars[ i - begin ] = c;
+                c = ati.next();
             }
-            final String s = buf.toString();
-            final HSLFTextBox txt = new HSLFTextBox();
-
-            txt.setSheet( slide );
-            txt.setFillColor( null );
-            txt.setLineColor( null );
-            txt.setText( s );
+            runs.add( new int[] { runStart - begin, runLimit - begin } );
+            runFonts.add( getRunFont( attributes ) );
+            final Object foreground = attributes.get( TextAttribute.FOREGROUND );
+            runColors.add( foreground instanceof Color ? ( Color ) foreground : getColor() );
+        }
+        final String s = new String( chars );
+
+        // measure the whole paragraph once, with the font of each run
+        final AttributedString text = new AttributedString( s );
+        for ( int i = 0; i < runs.size(); i++ ) {
+            final int[] run = runs.get( i );
+            text.addAttribute( TextAttribute.FONT, runFonts.get( i ), run[ 0 ], run[ 1 ] );
+        }
+        getFontRenderContext();
+        final TextLayout layout = new TextLayout( text.getIterator(), fctx );
+        final int charWidth = ( ( s.length() / 2 ) + 1 ) * getFontMetrics( font ).charWidth( 'X' );
+        final PPTTextCache.TextGeometry geometry = new PPTTextCache.TextGeometry( layout.getBounds(),
+                                                                                  layout.getAdvance(),
+                                                                                  layout.getAscent()
+                                                                                          + layout.getDescent()
+                                                                                          + layout.getLeading(),
+                                                                                  ( int ) layout.getAdvance(),
+                                                                                  charWidth,
+                                                                                  layout.getAscent(),
+                                                                                  layout.getDescent(),
+                                                                                  layout.getLeading() );
 
-            // set escapement (rotation of the text)
-            final float rot = ( float ) FastMath.atan2( trans.getShearX(), trans.getScaleX() );
-            boolean rotated = false;
+        // set escapement (rotation of the text)
+        final float rot = ( float ) FastMath.atan2( trans.getShearX(), trans.getScaleX() );
+        final boolean rotated = FastMath.abs( rot ) > TEXT_MIN_ESCAPE;
+        final Rectangle2D rec = getTextBox( geometry,
+                                            x + getFont().getTransform().getTranslateX(),
+                                            y + getFont().getTransform().getTranslateY(),
+                                            rotated,
+                                            rot );
+        if ( rec == null ) {
+            return;
+        }
 
-            if ( FastMath.abs( rot ) > TEXT_MIN_ESCAPE ) {
-                txt.setRotation( ( int ) ( ( -rot * 180d ) / FastMath.PI ) );
-                rotated = true;
-            }
+        final HSLFTextBox txt = doCreateTextBox();
+        txt.setSheet( slide );
+        txt.setFillColor( null );
+        txt.setLineColor( null );
+        if ( rotated ) {
+            txt.setRotation( ( int ) ( ( -rot * 180d ) / FastMath.PI ) );
+        }
+        txt.setAnchor( rec.getBounds() );
+        txt.setTopInset( 0f );
+        txt.setBottomInset( 0f );
+        txt.setLeftInset( 0f );
+        txt.setRightInset( 0f );
+        // need to use AnchorTop and not AlignCenter
+        txt.setVerticalAlignment( VerticalAlignment.TOP );
 
-            final double _x = x;
-            final double _y = y;
-
-            final Point2D.Double pt = new Point2D.Double( _x + getFont().getTransform()
-                    .getTranslateX(), _y + getFont().getTransform().getTranslateY() );
-
-            txt.setAnchor( getTextBox( s, pt.getX(), pt.getY(), rotated, rot ).getBounds() );
-            txt.setTopInset( 0f );
-            txt.setBottomInset( 0f );
-            txt.setLeftInset( 0f );
-            txt.setRightInset( 0f );
-            // need to use AnchorTop and not AlignCenter
-            txt.setVerticalAlignment( VerticalAlignment.TOP );
-            // use RichTextRun to work with the text format
-            final HSLFTextRun rt = txt.getTextParagraphs().get( 0 ).getTextRuns().get( 0 );
-            rt.setFontSize( ( double ) font.getSize2D() );
-
-            // the coll.getFontIndex(fontName) method does not exist anymore in
-            // POI 3.17
-            // thanks Mark Schmieder for the fix
-            final String fontName = font.getFontName( locale );
-
-            final HSLFFontInfo fInfo = coll.getFontInfo( fontName );
-            final int fIndex = ( fInfo == null ) ? -1 : fInfo.getIndex();
-            if ( fIndex == -1 ) {
-                rt.setFontFamily( font.getFamily() );
+        // one RichTextRun for each attribute run, all in the same paragraph
+        for ( int i = 0; i < runs.size(); i++ ) {
+            final int[] run = runs.get( i );
+            final String runText = s.substring( run[ 0 ], run[ 1 ] );
+            final HSLFTextRun rt;
+            if ( i == 0 ) {
+                txt.setText( runText );
+                rt = txt.getTextParagraphs().get( 0 ).getTextRuns().get( 0 );
             }
             else {
-                rt.setFontIndex( fIndex );
+                rt = txt.appendText( runText, false );
             }
-            rt.setBold( font.isBold() );
-            rt.setItalic( font.isItalic() );
-            rt.setFontColor( getColor() );
-            // need to use AlignLeft and not AlignCenter
-            txt.getTextParagraphs().get( 0 ).setTextAlign( TextParagraph.TextAlign.LEFT );
-            addShape( txt );
+            setRunStyle( rt, runFonts.get( i ), runColors.get( i ) );
         }
+        // need to use AlignLeft and not AlignCenter
+        txt.getTextParagraphs().get( 0 ).setTextAlign( TextParagraph.TextAlign.LEFT );
+        addShape( txt );
+    }
+
+    /**
+     * Return the Font of an attribute run: the Font attribute if there is one,
+     * else the current Font derived with the attributes of the run.
+     */
+    private Font getRunFont( final Map< AttributedCharacterIterator.Attribute, Object > attributes ) {
+        final Object runFont = attributes.get( TextAttribute.FONT );
+        if ( runFont instanceof Font ) {
+            return ( Font ) runFont;
+        }
+        return attributes.isEmpty() ? font : font.deriveFont( attributes );
+    }
+
+    /**
+     * Set the font and color of a text run.
+     */
+    private void setRunStyle( final HSLFTextRun rt, final Font runFont, final Color runColor ) {
+        rt.setFontSize( ( double ) runFont.getSize2D() );
+
+        // the coll.getFontIndex(fontName) method does not exist anymore in POI
+        // 3.17
+        // thanks Mark Schmieder for the fix
+        final PPTTextCache cache = PPTTextCache.getCache( slide.getSlideShow() );
+        final int fIndex = cache.getFontIndex( coll, runFont.getFontName( locale ) );
+        if ( fIndex == -1 ) {
+            cache.setFontFamily( rt, runFont.getFamily() );
+        }
+        else {
+            rt.setFontIndex( fIndex );
+        }
+        rt.setBold( runFont.isBold() );
+        rt.setItalic( runFont.isItalic() );
+        rt.setFontColor( runColor );
     }
 
     @Override
@@ -1377,17 +2017,139 @@ public class PPTGraphics2D extends Graphics2D {
         drawString( ati, fx, fy );
     }
 
-    protected Shape transformShape( Shape shape ) {
-        shape = ShapeUtilities.createTransformedShape( shape, trans );
-        shape = getClippedShape( shape );
-        return shape;
+    /**
+     * Transform a Shape to device coordinates and clip it. Rectangles, lines,
+     * ellipses and arcs under a transform which only translates and scales are
+     * transformed into scratch objects owned by this context, so the result
+     * must be used before the next call of this method, and must not be kept.
+     *
+     * @param shape
+     *            the Shape
+     * @return the transformed and clipped Shape, or null if it is entirely
+     *         outside the clip
+     */
+    protected Shape transformShape( final Shape shape ) {
+        return getClippedShape( transformUnclippedShape( shape ) );
+    }
+
+    /**
+     * Transform a Shape with the current transform, without clipping it. Like
+     * for {@link #transformShape(Shape)}, the result may be a scratch object.
+     */
+    private Shape transformUnclippedShape( final Shape shape ) {
+        if ( ( trans.getType() & NON_AXIS_ALIGNED ) == 0 ) {
+            return transformAxisAligned( shape );
+        }
+        else {
+            return ShapeUtilities.createTransformedShape( shape, trans );
+        }
+    }
+
+    /**
+     * Transform a Shape with the current transform, which must only translate
+     * and scale. Rectangles, lines, ellipses and arcs are transformed with
+     * plain arithmetic into the scratch objects, and other Shapes take the
+     * general route.
+     */
+    private Shape transformAxisAligned( final Shape shape ) {
+        final double scaleX = trans.getScaleX();
+        final double scaleY = trans.getScaleY();
+        final double translateX = trans.getTranslateX();
+        final double translateY = trans.getTranslateY();
+        if ( shape instanceof Line2D ) {
+            final Line2D line = ( Line2D ) shape;
+            scratchLine.setLine( ( line.getX1() * scaleX ) + translateX,
+                                 ( line.getY1() * scaleY ) + translateY,
+                                 ( line.getX2() * scaleX ) + translateX,
+                                 ( line.getY2() * scaleY ) + translateY );
+            return scratchLine;
+        }
+        else if ( shape instanceof Rectangle2D ) {
+            setAxisAlignedFrame( scratchRec, ( Rectangle2D ) shape );
+            return scratchRec;
+        }
+        else if ( shape instanceof Ellipse2D ) {
+            setAxisAlignedFrame( scratchEllipse, ( Ellipse2D ) shape );
+            return scratchEllipse;
+        }
+        else if ( shape instanceof Arc2D ) {
+            // the angles of an Arc2D are relative to its frame, so they are
+            // kept by a scale, and only mirrored by a flip
+            final Arc2D arc = ( Arc2D ) shape;
+            double start = arc.getAngleStart();
+            double extent = arc.getAngleExtent();
+            if ( scaleX < 0 ) {
+                start = 180 - start;
+                extent = -extent;
+            }
+            if ( scaleY < 0 ) {
+                start = -start;
+                extent = -extent;
+            }
+            scratchArc.setArc( arc.getX(),
+                               arc.getY(),
+                               arc.getWidth(),
+                               arc.getHeight(),
+                               start,
+                               extent,
+                               arc.getArcType() );
+            setAxisAlignedFrame( scratchArc, arc );
+            return scratchArc;
+        }
+        else {
+            return ShapeUtilities.createTransformedShape( shape, trans );
+        }
+    }
+
+    /**
+     * Set the frame of a scratch Shape to the frame of a Shape transformed by
+     * the current transform, which must only translate and scale. The frame
+     * is normalized, so that a flip keeps a positive width and height.
+     */
+    private void setAxisAlignedFrame( final RectangularShape scratch, final RectangularShape shape ) {
+        final double x1 = ( shape.getX() * trans.getScaleX() ) + trans.getTranslateX();
+        final double y1 = ( shape.getY() * trans.getScaleY() ) + trans.getTranslateY();
+        final double x2 = ( shape.getMaxX() * trans.getScaleX() ) + trans.getTranslateX();
+        final double y2 = ( shape.getMaxY() * trans.getScaleY() ) + trans.getTranslateY();
+        scratch.setFrame( FastMath.min( x1, x2 ),
+                          FastMath.min( y1, y2 ),
+                          FastMath.abs( x2 - x1 ),
+                          FastMath.abs( y2 - y1 ) );
+    }
+
+    /**
+     * Return the bounds of a Shape, in the scratch bounds if the Shape is a
+     * rectangle, an ellipse or a line, to avoid allocating them.
+     */
+    private Rectangle2D getBounds( final Shape shape ) {
+        if ( ( shape instanceof Rectangle2D ) || ( shape instanceof Ellipse2D ) ) {
+            final RectangularShape rs = ( RectangularShape ) shape;
+            scratchBounds.setRect( rs.getX(), rs.getY(), rs.getWidth(), rs.getHeight() );
+            return scratchBounds;
+        }
+        else if ( shape instanceof Line2D ) {
+            final Line2D line = ( Line2D ) shape;
+            scratchBounds.setFrameFromDiagonal( line.getX1(), line.getY1(), line.getX2(), line.getY2() );
+            return scratchBounds;
+        }
+        else {
+            return shape.getBounds2D();
+        }
     }
 
     @Override
     public void fill( Shape shape ) {
-        shape = transformShape( shape );
+        if ( isContentCulled() ) {
+            return;
+        }
+        shape = transformUnclippedShape( shape );
         if ( shape != null ) {
-            if ( acceptFillShape( shape ) ) {
+            final Rectangle2D bounds = getBounds( shape );
+            if ( isCulled( shape, bounds, true ) ) {
+                return;
+            }
+            shape = getClippedShape( shape, bounds );
+            if ( ( shape != null ) && acceptFillShape( shape ) ) {
                 doFilling( shape );
             }
         }
@@ -1423,8 +2185,6 @@ public class PPTGraphics2D extends Graphics2D {
     private Shape getClippedArea( final Shape shape ) {
         Shape outputShape;
         if ( deviceclip != null ) {
-            final Area clip = new Area( deviceclip );
-
             /*
              * need to use getBounds and not getBounds2D, because there
              * getBounds2D for a
@@ -1432,18 +2192,7 @@ public class PPTGraphics2D extends Graphics2D {
              * height,
              * and in this case there is no intersection
              */
-            if ( clip.contains( shape.getBounds() ) ) {
-                outputShape = shape;
-            }
-            else if ( clip.intersects( shape.getBounds() ) ) {
-                final ClippableShape csh = new ClippableShape( shape );
-
-                csh.intersectAsArea( clip );
-                outputShape = csh.getPeerShape();
-            }
-            else {
-                outputShape = null;
-            }
+            outputShape = deviceclip.clip( shape, shape.getBounds(), true );
         }
         else {
             outputShape = shape;
@@ -1453,10 +2202,16 @@ public class PPTGraphics2D extends Graphics2D {
     }
 
     private Shape getClippedShape( final Shape shape ) {
+        return ( deviceclip != null ) ? getClippedShape( shape, getBounds( shape ) ) : shape;
+    }
+
+    /**
+     * Return a Shape clipped by the clip, from the Shape and its bounds, which
+     * may be modified.
+     */
+    private Shape getClippedShape( final Shape shape, final Rectangle2D bounds ) {
         Shape outputShape;
         if ( deviceclip != null ) {
-            final Area clip = new Area( deviceclip );
-            final Rectangle2D bounds = shape.getBounds2D();
             if ( ( bounds.getWidth() < 0.1 ) || ( bounds.getHeight() < 0.1 ) ) {
                 final double boundsWidth = FastMath.max( 0.1, bounds.getWidth() );
                 final double boundsHeight = FastMath.max( 0.1, bounds.getHeight() );
@@ -1469,17 +2224,7 @@ public class PPTGraphics2D extends Graphics2D {
              * height,
              * and in this case there is no intersection
              */
-            if ( clip.contains( bounds ) ) {
-                outputShape = shape;
-            }
-            else if ( clip.intersects( bounds ) ) {
-                final ClippableShape csh = new ClippableShape( shape );
-                csh.intersect( clip );
-                outputShape = csh.getPeerShape();
-            }
-            else {
-                outputShape = null;
-            }
+            outputShape = deviceclip.clip( shape, bounds, false );
         }
         else {
             outputShape = shape;
@@ -1534,8 +2279,12 @@ public class PPTGraphics2D extends Graphics2D {
 
     @Override
     public Shape getClip() {
+        if ( deviceclip == null ) {
+            return null;
+        }
         try {
-            return ShapeUtilities.createTransformedShape( deviceclip, trans.createInverse() );
+            return ShapeUtilities.createTransformedShape( deviceclip.getShape(),
+                                                          trans.createInverse() );
         }
         catch ( final Exception _ex ) {
             return null;
@@ -1648,7 +2397,7 @@ public class PPTGraphics2D extends Graphics2D {
     @Override
     public void setClip( final Shape shape ) {
         if ( shape != null ) {
-            deviceclip = ShapeUtilities.createTransformedShape( shape, trans );
+            deviceclip = PPTClip.create( ShapeUtilities.createTransformedShape( shape, trans ) );
         }
         else {
             deviceclip = null;
@@ -1774,14 +2523,12 @@ public class PPTGraphics2D extends Graphics2D {
                           final Rectangle rec1,
                           final ImageObserver observer,
                           final Color col ) {
-        if ( trans.isIdentity() && ( getClip() == null ) && ( col == null ) ) {
+        if ( trans.isIdentity() && ( deviceclip == null ) && ( col == null ) ) {
             return image;
         }
         if ( deviceclip != null ) {
-            final Area area = new Area( deviceclip );
-
-            area.intersect( new Area( trans.createTransformedShape( rec ) ) );
-            rec1.setBounds( area.getBounds() );
+            rec1.setBounds( deviceclip
+                    .getIntersectionBounds( ShapeUtilities.createTransformedShape( rec, trans ) ) );
         }
         final BufferedImage bufferedimage = new BufferedImage( rec1.width, rec1.height, 2 );
         // this cast is safe (the only reason of the existence of Graphics is
@@ -1847,6 +2594,7 @@ public class PPTGraphics2D extends Graphics2D {
                                   ai[ 7 ],
                                   observer );
         }
+        graphics2d.dispose();
         return buf;
     }
 
@@ -1859,4 +2607,18 @@ public class PPTGraphics2D extends Graphics2D {
     public void translate( final int x, final int y ) {
         trans.translate( x, y );
     }
+
+    /**
+     * A Shape which is not yet added to the Slide, with the Group it belongs
+     * to, if any.
+     */
+    private static final class DeferredShape {
+        private final HSLFGroupShape group;
+        private final HSLFShape      shape;
+
+        private DeferredShape( final HSLFGroupShape group, final HSLFShape shape ) {
+            this.group = group;
+            this.shape = shape;
+        }
+    }
 }
@@ -67,17 +67,26 @@ import java.util.Stack;
  * supported:
  * <ul>
  * <li>Grouping of Shapes</li>
+ * <li>Culling of the Groups which cannot be seen</li>
  * <li>Conversions of Node Shadows</li>
  * </ul>
+ * Grouping and shadows are also supported without a live Node, through the
+ * {@link GroupingGraphics} contract.
  *
  * @version 0.21
  */
-public class PPTJFXGraphics2D extends PPTGraphics2D implements ExtendedGraphics2D< Node, Effect > {
+public class PPTJFXGraphics2D extends PPTGraphics2D
+        implements ExtendedGraphics2D< Node, Effect >, GroupingGraphics {
     private boolean                       supportGroups = false;
     private final Stack< HSLFGroupShape > groups        = new Stack<>();
     private HSLFGroupShape                curGroup      = null;
     private DropShadow                    dshadow       = null;
     private InnerShadow                   ishadow       = null;
+    /*
+     * The depth of the current Group in the Group which was culled, or 0 if no
+     * Group is culled.
+     */
+    private int                           culledDepth   = 0;
 
     /**
      * Default constructor.
@@ -296,13 +305,18 @@ public class PPTJFXGraphics2D extends PPTGraphics2D implements ExtendedGraphics2
      */
     @Override
     protected void addShape( final HSLFShape shape ) {
-        shape.setSheet( slide );
-        if ( curGroup != null ) {
-            curGroup.addShape( shape );
-        }
-        else {
-            slide.addShape( shape );
-        }
+        addShape( curGroup, shape );
+    }
+
+    /**
+     * Return true if nothing drawn on this Graphics2D can be seen, which is the
+     * case inside a Group which was culled.
+     *
+     * @return true if the content is culled
+     */
+    @Override
+    protected boolean isContentCulled() {
+        return ( culledDepth > 0 ) || super.isContentCulled();
     }
 
     /**
@@ -315,29 +329,63 @@ public class PPTJFXGraphics2D extends PPTGraphics2D implements ExtendedGraphics2
      */
     @Override
     public void startGroup( final String name, final Node node ) {
-        if ( supportGroups ) {
+        startGroup( name, node.getBoundsInParent() );
+    }
+
+    /**
+     * Return true if a Group with the given bounds can be seen, that is if its
+     * bounds intersect the slide and the current clip. The content of a Group
+     * which cannot be seen can be skipped entirely.
+     *
+     * @param bounds
+     *            the bounds in parent of the grouped Node
+     * @return true if the Group can be seen
+     */
+    @Override
+    public boolean isGroupVisible( final Bounds bounds ) {
+        return isVisible( getDeviceBounds( bounds ) );
+    }
+
+    /**
+     * Return the bounds of a Group in device coordinates.
+     */
+    private Rectangle2D getDeviceBounds( final Bounds bounds ) {
+        final Rectangle2D rec = new Rectangle2D.Double( bounds.getMinX(),
+                                                        bounds.getMinY(),
+                                                        bounds.getWidth(),
+                                                        bounds.getHeight() );
+        return ShapeUtilities.createTransformedShape( rec, trans ).getBounds2D();
+    }
+
+    /**
+     * Start a Group. If the Group cannot be seen, no Group is created, and
+     * nothing is drawn on this Graphics2D until the Group ends.
+     *
+     * @param name
+     *            the group name
+     * @param bounds
+     *            the bounds in parent of the grouped Node
+     */
+    @Override
+    public void startGroup( final String name, final Bounds bounds ) {
+        if ( culledDepth > 0 ) {
+            culledDepth++;
+            return;
+        }
+        // the Anchor is just necessary to set the bounding box around the
+        // anchor. There is no need to handle the coordinate system
+        // transformations between the group and the children Shapes
+        // thankfully.
+        final Rectangle2D rec = getDeviceBounds( bounds );
+        if ( !isVisible( rec ) ) {
+            culledDepth = 1;
+        }
+        else if ( supportGroups ) {
             final HSLFGroupShape group = new HSLFGroupShape();
-            final Bounds bounds = node.getBoundsInParent();
-            Rectangle2D rec = new Rectangle2D.Double( bounds.getMinX(),
-                                                      bounds.getMinY(),
-                                                      bounds.getWidth(),
-                                                      bounds.getHeight() );
-            // the Anchor is just necessary to set the bounding box around the
-            // anchor. There is no need to handle the
-            // coordinate system transformations between the group and the
-            // children Shapes thankfully.
-            final Shape shape = ShapeUtilities.createTransformedShape( rec, trans );
-            rec = shape.getBounds2D();
             group.setAnchor( rec );
-            group.setSheet( slide );
 
             // We support groups of groups
-            if ( curGroup != null ) {
-                curGroup.addShape( group );
-            }
-            else {
-                slide.addShape( group );
-            }
+            addShape( curGroup, group );
             curGroup = group;
             groups.push( group );
         }
@@ -351,14 +399,26 @@ public class PPTJFXGraphics2D extends PPTGraphics2D implements ExtendedGraphics2
      */
     @Override
     public void endGroup( final Node node ) {
-        if ( supportGroups ) {
-            groups.pop();
+        endGroup();
+    }
+
+    /**
+     * End a Group. The Group is removed if nothing was added to it.
+     */
+    @Override
+    public void endGroup() {
+        if ( culledDepth > 0 ) {
+            culledDepth--;
+        }
+        else if ( supportGroups ) {
+            final HSLFGroupShape group = groups.pop();
             if ( groups.isEmpty() ) {
                 curGroup = null;
             }
             else {
                 curGroup = groups.peek();
             }
+            pruneGroup( curGroup, group );
         }
     }
 
@@ -378,6 +438,18 @@ public class PPTJFXGraphics2D extends PPTGraphics2D implements ExtendedGraphics2
      */
     @Override
     public void applyEffect( final Node node, final Effect effect ) {
+        applyEffect( effect );
+    }
+
+    /**
+     * Apply an Effect on the next graphics object to be rendered. See
+     * {@link #applyEffect(Node, Effect)} for the supported Effects.
+     *
+     * @param effect
+     *            the Effect, or null to clear the current Effect
+     */
+    @Override
+    public void applyEffect( final Effect effect ) {
         dshadow = null;
         ishadow = null;
         if ( effect instanceof DropShadow ) {
@@ -0,0 +1,225 @@
+/**
+ * Copyright (c) 2011, 2013, 2014, 2015, 2016 Dassault Aviation.
+ * Copyright (c) 2017 Herve Girod.
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+ * FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * The views and conclusions contained in the software and documentation are
+ * those
+ * of the authors and should not be interpreted as representing official
+ * policies,
+ * either expressed or implied, of the FreeBSD Project.
+ * Please contact Dassault Aviation, 9 Rond-Point des Champs Elysees, 75008
+ * Paris,
+ * France if you need additional information.
+ * Alternatively if you have any questions about this project, you can visit
+ * the project website at the project page on http://j661.sourceforge.net
+ */
+package org.jfxconverter.drivers.ppt;
+
+import java.awt.geom.Path2D;
+import java.awt.geom.PathIterator;
+import java.util.Arrays;
+
+/**
+ * Classifies the path of a Shape drawn by {@link PPTGraphics2D} in one pass
+ * on its PathIterator, and keeps the coordinates of the paths made of a single
+ * run of straight segments, so that their freeform path can be built once
+ * without going through the ShapeNormalizer.
+ *
+ * The points are filtered as the ShapeNormalizer does: a point which is not
+ * farther than {@link #ASSUME_ZERO} from the previous one is skipped, and the
+ * sub-paths which are left with a single point are ignored. This classifier is
+ * reused by its Graphics2D context, so it is not thread-safe.
+ *
+ * @version 0.20
+ */
+final class PPTPathClassifier {
+    /**
+     * The path has no visible segment.
+     */
+    static final int            EMPTY       = 0;
+    /**
+     * The path is a line between two points.
+     */
+    static final int            LINE        = 1;
+    /**
+     * The path is an open polyline.
+     */
+    static final int            POLYLINE    = 2;
+    /**
+     * The path is a closed polygon.
+     */
+    static final int            POLYGON     = 3;
+    /**
+     * The path has a single visible sub-path, which has curves.
+     */
+    static final int            CURVED      = 4;
+    /**
+     * The path has more than one visible sub-path, or is malformed.
+     */
+    static final int            COMPOUND    = 5;
+    /**
+     * The distance under which two consecutive points are the same.
+     */
+    static final double         ASSUME_ZERO = 0.01d;
+    private final float[]       segment     = new float[ 6 ];
+    /*
+     * The coordinates of the current sub-path, and of the visible straight
+     * sub-path found before it.
+     */
+    private float[]             coords      = new float[ 32 ];
+    private float[]             pathCoords  = new float[ 32 ];
+    private int                 pathLength  = 0;
+    private boolean             pathClosed  = false;
+
+    /**
+     * Classify a path.
+     *
+     * @param iterator
+     *            the PathIterator of the path
+     * @return the kind of the path
+     */
+    int classify( final PathIterator iterator ) {
+        pathLength = 0;
+        pathClosed = false;
+        int visibleCount = 0;
+        boolean curved = false;
+        // the state of the current sub-path
+        boolean started = false;
+        boolean subCurved = false;
+        boolean closed = false;
+        int length = 0;
+        float curX = 0;
+        float curY = 0;
+        for ( ; !iterator.isDone(); iterator.next() ) {
+            final int type = iterator.currentSegment( segment );
+            if ( type == PathIterator.SEG_MOVETO ) {
+                if ( started && isVisible( length, subCurved ) ) {
+                    visibleCount++;
+                    if ( visibleCount > 1 ) {
+                        return COMPOUND;
+                    }
+                    curved = subCurved;
+                    keepPath( length, closed );
+                }
+                started = true;
+                subCurved = false;
+                closed = false;
+                curX = segment[ 0 ];
+                curY = segment[ 1 ];
+                coords[ 0 ] = curX;
+                coords[ 1 ] = curY;
+                length = 2;
+            }
+            else if ( !started || closed ) {
+                // the ShapeNormalizer does not handle segments which do not
+                // follow a move
+                return COMPOUND;
+            }
+            else if ( type == PathIterator.SEG_CLOSE ) {
+                closed = true;
+            }
+            else if ( type == PathIterator.SEG_LINETO ) {
+                if ( isFar( curX, curY, segment[ 0 ], segment[ 1 ] ) ) {
+                    curX = segment[ 0 ];
+                    curY = segment[ 1 ];
+                    if ( length == coords.length ) {
+                        coords = Arrays.copyOf( coords, length * 2 );
+                    }
+                    coords[ length++ ] = curX;
+                    coords[ length++ ] = curY;
+                }
+            }
+            else {
+                final int end = ( type == PathIterator.SEG_QUADTO ) ? 4 : 6;
+                for ( int i = 0; i < end; i += 2 ) {
+                    subCurved |= isFar( curX, curY, segment[ i ], segment[ i + 1 ] );
+                }
+                curX = segment[ end - 2 ];
+                curY = segment[ end - 1 ];
+            }
+        }
+        if ( started && isVisible( length, subCurved ) ) {
+            visibleCount++;
+            if ( visibleCount > 1 ) {
+                return COMPOUND;
+            }
+            curved = subCurved;
+            keepPath( length, closed );
+        }
+
+        if ( visibleCount == 0 ) {
+            return EMPTY;
+        }
+        else if ( curved ) {
+            return CURVED;
+        }
+        else if ( pathClosed ) {
+            return POLYGON;
+        }
+        else if ( pathLength == 4 ) {
+            return LINE;
+        }
+        else {
+            return POLYLINE;
+        }
+    }
+
+    /**
+     * Return the freeform path of the last classified path, if it was a line,
+     * a polyline or a polygon.
+     *
+     * @return the path
+     */
+    Path2D.Double getPath() {
+        final Path2D.Double path = new Path2D.Double( Path2D.WIND_NON_ZERO, ( pathLength / 2 ) + 1 );
+        path.moveTo( pathCoords[ 0 ], pathCoords[ 1 ] );
+        for ( int i = 2; i < pathLength; i += 2 ) {
+            path.lineTo( pathCoords[ i ], pathCoords[ i + 1 ] );
+        }
+        if ( pathClosed ) {
+            path.closePath();
+        }
+        return path;
+    }
+
+    private static boolean isVisible( final int length, final boolean curved ) {
+        return curved || ( length > 2 );
+    }
+
+    private static boolean isFar( final float x1, final float y1, final float x2, final float y2 ) {
+        final double dx = x2 - x1;
+        final double dy = y2 - y1;
+        return ( ( dx * dx ) + ( dy * dy ) ) > ( ASSUME_ZERO * ASSUME_ZERO );
+    }
+
+    /**
+     * Keep the coordinates of the current sub-path as the ones of the path.
+     */
+    private void keepPath( final int length, final boolean closed ) {
+        final float[] kept = pathCoords;
+        pathCoords = coords;
+        coords = kept;
+        pathLength = length;
+        pathClosed = closed;
+    }
+}
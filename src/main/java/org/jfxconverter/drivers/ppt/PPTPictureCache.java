@@ -0,0 +1,440 @@
+/**
+ * Copyright (c) 2011, 2013, 2014, 2015, 2016 Dassault Aviation.
+ * Copyright (c) 2017 Herve Girod.
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+ * FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * The views and conclusions contained in the software and documentation are
+ * those
+ * of the authors and should not be interpreted as representing official
+ * policies,
+ * either expressed or implied, of the FreeBSD Project.
+ * Please contact Dassault Aviation, 9 Rond-Point des Champs Elysees, 75008
+ * Paris,
+ * France if you need additional information.
+ * Alternatively if you have any questions about this project, you can visit
+ * the project website at the project page on http://j661.sourceforge.net
+ */
+package org.jfxconverter.drivers.ppt;
+
+import org.apache.commons.math3.util.FastMath;
+import org.apache.poi.ddf.EscherBSERecord;
+import org.apache.poi.ddf.EscherContainerRecord;
+import org.apache.poi.ddf.EscherOptRecord;
+import org.apache.poi.ddf.EscherPropertyTypes;
+import org.apache.poi.ddf.EscherSimpleProperty;
+import org.apache.poi.hslf.usermodel.HSLFPictureData;
+import org.apache.poi.hslf.usermodel.HSLFPictureShape;
+import org.apache.poi.hslf.usermodel.HSLFShape;
+import org.apache.poi.hslf.usermodel.HSLFSlideShow;
+import org.apache.poi.sl.usermodel.PictureData;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * A SlideShow wide cache of the pictures created by {@link PPTGraphics2D} for
+ * the images and the non Color paints. The pictures are keyed by a hash of
+ * their pixels, so an image or a paint which is drawn many times with the same
+ * content is only encoded as PNG and added to the SlideShow once, and all the
+ * picture Shapes then refer to the same picture data.
+ *
+ * There is one cache per SlideShow, shared by all the Graphics2D contexts which
+ * paint on its slides, and it goes away with the SlideShow.
+ *
+ * If an Executor is set, the PNG encoding is done on it rather than in the
+ * drawing call. The picture Shapes are then created right away, in their
+ * z-order, but refer to a transparent placeholder picture until
+ * {@link #completePictures(HSLFSlideShow)} waits for the encoding and points
+ * them to their real picture, which must be done before the SlideShow is
+ * written.
+ *
+ * The cache also counts the bytes of the images which were allocated to draw
+ * the pictures of the SlideShow.
+ *
+ * @version 0.20
+ */
+final class PPTPictureCache {
+    private static final Map< HSLFSlideShow, PPTPictureCache > CACHES          = new WeakHashMap<>();
+    private final Map< PictureKey, Picture >                   pictures        = new HashMap<>();
+    /**
+     * The pictures which are still being encoded, in the order of their
+     * creation.
+     */
+    private final List< Picture >                              pendingPictures = new ArrayList<>();
+    private Executor                                           executor        = null;
+    private HSLFPictureData                                    placeholder     = null;
+    private int                                                hitCount        = 0;
+    private int                                                missCount       = 0;
+    private long                                               allocatedBytes  = 0;
+
+    private PPTPictureCache() {}
+
+    /**
+     * Return the picture cache of a SlideShow.
+     *
+     * @param show
+     *            the SlideShow
+     * @return the picture cache
+     */
+    static PPTPictureCache getCache( final HSLFSlideShow show ) {
+        synchronized ( CACHES ) {
+            PPTPictureCache cache = CACHES.get( show );
+            if ( cache == null ) {
+                cache = new PPTPictureCache();
+                CACHES.put( show, cache );
+            }
+            return cache;
+        }
+    }
+
+    /**
+     * Set the Executor used to encode the pictures. A null Executor means that
+     * the pictures are encoded synchronously, in the drawing calls.
+     *
+     * @param executor
+     *            the Executor
+     */
+    synchronized void setExecutor( final Executor executor ) {
+        this.executor = executor;
+    }
+
+    /**
+     * Return the picture for an image, encoding it as PNG only if no image with
+     * the same pixels was encoded before. The picture Shape created for the
+     * picture data must be passed to {@link Picture#addShape(HSLFPictureShape)}.
+     *
+     * @param show
+     *            the SlideShow
+     * @param image
+     *            the image, which must be of the TYPE_INT_ARGB type, and must
+     *            not be modified afterwards
+     * @return the picture
+     * @throws IOException
+     *             if the image could not be encoded
+     */
+    synchronized Picture getPicture( final HSLFSlideShow show, final BufferedImage image )
+            throws IOException {
+        return getPicture( show, image, false );
+    }
+
+    /**
+     * Return the picture for an image, encoding it as PNG only if no image with
+     * the same pixels was encoded before. The picture Shape created for the
+     * picture data must be passed to {@link Picture#addShape(HSLFPictureShape)}.
+     *
+     * A scratch image can be reused as soon as this method returns: it is
+     * copied if it must be encoded asynchronously.
+     *
+     * @param show
+     *            the SlideShow
+     * @param image
+     *            the image, which must be of the TYPE_INT_ARGB type
+     * @param scratch
+     *            true if the image is a scratch image, false if it must not be
+     *            modified afterwards
+     * @return the picture
+     * @throws IOException
+     *             if the image could not be encoded
+     */
+    synchronized Picture getPicture( final HSLFSlideShow show,
+                                     final BufferedImage image,
+                                     final boolean scratch )
+            throws IOException {
+        final PictureKey key = new PictureKey( image );
+        Picture picture = pictures.get( key );
+        if ( picture != null ) {
+            hitCount++;
+            return picture;
+        }
+
+        missCount++;
+        if ( executor == null ) {
+            picture = new Picture( show.addPicture( encode( image ), PictureData.PictureType.PNG ) );
+        }
+        else {
+            if ( placeholder == null ) {
+                placeholder = show.addPicture( encode( new BufferedImage( 1,
+                                                                          1,
+                                                                          BufferedImage.TYPE_INT_ARGB ) ),
+                                               PictureData.PictureType.PNG );
+            }
+            final BufferedImage encodedImage = scratch ? copy( image ) : image;
+            final CompletableFuture< byte[] > encoding = CompletableFuture.supplyAsync( () -> {
+                try {
+                    return encode( encodedImage );
+                }
+                catch ( final IOException e ) {
+                    throw new UncheckedIOException( e );
+                }
+            }, executor );
+            picture = new Picture( encoding );
+            pendingPictures.add( picture );
+        }
+        pictures.put( key, picture );
+        return picture;
+    }
+
+    /**
+     * Wait for all the pictures which are being encoded, add them to the
+     * SlideShow, and point the picture Shapes which were created for them to
+     * their real picture data.
+     *
+     * @param show
+     *            the SlideShow
+     * @throws IOException
+     *             if a picture could not be encoded
+     */
+    synchronized void completePictures( final HSLFSlideShow show ) throws IOException {
+        try {
+            for ( final Picture picture : pendingPictures ) {
+                final byte[] data;
+                try {
+                    data = picture.encoding.join();
+                }
+                catch ( final CompletionException e ) {
+                    if ( e.getCause() instanceof UncheckedIOException ) {
+                        throw ( ( UncheckedIOException ) e.getCause() ).getCause();
+                    }
+                    throw new IOException( e.getCause() );
+                }
+                picture.data = show.addPicture( data, PictureData.PictureType.PNG );
+                for ( final HSLFPictureShape pict : picture.shapes ) {
+                    setPictureIndex( show, pict, picture.data.getIndex() );
+                }
+                picture.shapes.clear();
+                picture.encoding = null;
+            }
+        }
+        finally {
+            pendingPictures.clear();
+        }
+    }
+
+    /**
+     * Point a picture Shape which was created with the placeholder picture to
+     * another picture, and move its reference from the placeholder to the new
+     * picture.
+     */
+    private void setPictureIndex( final HSLFSlideShow show,
+                                  final HSLFPictureShape pict,
+                                  final int index ) {
+        final EscherOptRecord opt = ( EscherOptRecord ) HSLFShape
+                .getEscherChild( pict.getSpContainer(), EscherOptRecord.RECORD_ID );
+        opt.removeEscherProperty( EscherPropertyTypes.BLIP__BLIPTODISPLAY );
+        opt.addEscherProperty( new EscherSimpleProperty( EscherPropertyTypes.BLIP__BLIPTODISPLAY,
+                                                         false,
+                                                         true,
+                                                         index ) );
+        opt.sortProperties();
+
+        final EscherBSERecord placeholderBSE = getBSERecord( show, placeholder.getIndex() );
+        placeholderBSE.setRef( FastMath.max( 0, placeholderBSE.getRef() - 1 ) );
+        final EscherBSERecord bse = getBSERecord( show, index );
+        bse.setRef( bse.getRef() + 1 );
+    }
+
+    /**
+     * Return the BLIP store entry of a picture, from its 1-based index.
+     */
+    private static EscherBSERecord getBSERecord( final HSLFSlideShow show, final int index ) {
+        final EscherContainerRecord dggContainer = show.getDocumentRecord()
+                .getPPDrawingGroup().getDggContainer();
+        final EscherContainerRecord bstore = HSLFShape
+                .getEscherChild( dggContainer, EscherContainerRecord.BSTORE_CONTAINER );
+        return ( EscherBSERecord ) bstore.getChildRecords().get( index - 1 );
+    }
+
+    /**
+     * Copy a scratch image into an image of its own.
+     */
+    private BufferedImage copy( final BufferedImage image ) {
+        final BufferedImage copy = new BufferedImage( image.getWidth(),
+                                                      image.getHeight(),
+                                                      BufferedImage.TYPE_INT_ARGB );
+        copy.getRaster().setDataElements( 0, 0, image.getRaster() );
+        allocatedBytes += 4L * image.getWidth() * image.getHeight();
+        return copy;
+    }
+
+    /**
+     * Encode an image as PNG.
+     */
+    private static byte[] encode( final BufferedImage image ) throws IOException {
+        final ByteArrayOutputStream stream = new ByteArrayOutputStream( 100 );
+        ImageIO.write( image, "png", stream );
+        stream.close();
+        return stream.toByteArray();
+    }
+
+    /**
+     * Return the number of pictures which were found in the cache.
+     *
+     * @return the number of cache hits
+     */
+    synchronized int getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Return the number of pictures which had to be encoded.
+     *
+     * @return the number of cache misses
+     */
+    synchronized int getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Count bytes allocated for the images drawn for the SlideShow.
+     *
+     * @param bytes
+     *            the number of bytes
+     */
+    synchronized void addAllocatedBytes( final long bytes ) {
+        allocatedBytes += bytes;
+    }
+
+    /**
+     * Return the number of bytes allocated for the images drawn for the
+     * SlideShow.
+     *
+     * @return the number of bytes
+     */
+    synchronized long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * A picture of the cache, which is either already in the SlideShow, or
+     * still being encoded.
+     */
+    final class Picture {
+        private HSLFPictureData                 data;
+        private CompletableFuture< byte[] >     encoding;
+        private final List< HSLFPictureShape >  shapes = new ArrayList<>();
+
+        private Picture( final HSLFPictureData data ) {
+            this.data = data;
+            this.encoding = null;
+        }
+
+        private Picture( final CompletableFuture< byte[] > encoding ) {
+            this.data = null;
+            this.encoding = encoding;
+        }
+
+        /**
+         * Return the picture data to create the picture Shape with, which is
+         * the placeholder picture if the picture is still being encoded.
+         *
+         * @return the picture data
+         */
+        HSLFPictureData getData() {
+            synchronized ( PPTPictureCache.this ) {
+                return ( data != null ) ? data : placeholder;
+            }
+        }
+
+        /**
+         * Register a picture Shape created with the picture data, so that it
+         * can be pointed to the real picture data once it is encoded.
+         *
+         * @param pict
+         *            the picture Shape
+         */
+        void addShape( final HSLFPictureShape pict ) {
+            synchronized ( PPTPictureCache.this ) {
+                if ( data == null ) {
+                    shapes.add( pict );
+                }
+            }
+        }
+    }
+
+    /**
+     * The key of a picture: its size and two independent 64 bits hashes of its
+     * pixels, which makes an accidental collision vanishingly unlikely without
+     * having to keep the pixels around. Only the pixels of the image are
+     * hashed, even if its raster is a part of a larger one.
+     */
+    private static final class PictureKey {
+        private final int  width;
+        private final int  height;
+        private final long hash1;
+        private final long hash2;
+
+        PictureKey( final BufferedImage image ) {
+            width = image.getWidth();
+            height = image.getHeight();
+            final WritableRaster raster = image.getRaster();
+            final DataBufferInt buffer = ( DataBufferInt ) raster.getDataBuffer();
+            final int[] pixels = buffer.getData();
+            final int stride = ( ( SinglePixelPackedSampleModel ) raster.getSampleModel() )
+                    .getScanlineStride();
+            final int offset = buffer.getOffset()
+                    + ( ( raster.getMinY() - raster.getSampleModelTranslateY() ) * stride )
+                    + ( raster.getMinX() - raster.getSampleModelTranslateX() );
+            long h1 = 0xcbf29ce484222325L;
+            long h2 = 0L;
+            for ( int y = 0; y < height; y++ ) {
+                final int rowOffset = offset + ( y * stride );
+                for ( int x = 0; x < width; x++ ) {
+                    final int pixel = pixels[ rowOffset + x ];
+                    h1 = ( h1 ^ pixel ) * 0x100000001b3L;
+                    h2 = Long.rotateLeft( h2 + ( pixel * 0x9e3779b97f4a7c15L ), 31 )
+                            * 0xbf58476d1ce4e5b9L;
+                }
+            }
+            hash1 = h1;
+            hash2 = h2;
+        }
+
+        @Override
+        public boolean equals( final Object obj ) {
+            if ( !( obj instanceof PictureKey ) ) {
+                return false;
+            }
+            final PictureKey other = ( PictureKey ) obj;
+            return ( width == other.width ) && ( height == other.height ) && ( hash1 == other.hash1 )
+                    && ( hash2 == other.hash2 );
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode( hash1 );
+        }
+    }
+}
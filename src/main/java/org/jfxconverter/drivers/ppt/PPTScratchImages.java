@@ -0,0 +1,240 @@
+/**
+ * Copyright (c) 2011, 2013, 2014, 2015, 2016 Dassault Aviation.
+ * Copyright (c) 2017 Herve Girod.
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+ * FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * The views and conclusions contained in the software and documentation are
+ * those
+ * of the authors and should not be interpreted as representing official
+ * policies,
+ * either expressed or implied, of the FreeBSD Project.
+ * Please contact Dassault Aviation, 9 Rond-Point des Champs Elysees, 75008
+ * Paris,
+ * France if you need additional information.
+ * Alternatively if you have any questions about this project, you can visit
+ * the project website at the project page on http://j661.sourceforge.net
+ */
+package org.jfxconverter.drivers.ppt;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Composite;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.Paint;
+import java.awt.RenderingHints;
+import java.awt.Stroke;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.lang.ref.SoftReference;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A pool of the scratch images of the TYPE_INT_ARGB type used by
+ * {@link PPTGraphics2D} to rasterize the images, the non native paints and the
+ * hard clipped texts, with their Graphics2D contexts.
+ *
+ * The pool is confined to the thread which uses it, so it needs no locking,
+ * and the slides which are drawn in parallel each use the pool of their own
+ * thread. The images are kept in buckets of power of two widths and heights,
+ * so an image of a bucket can be reused for any smaller size of the bucket:
+ * the scratch image is then a view on the upper left corner of the pooled
+ * image, and its Graphics2D context is reset and clipped to the view every
+ * time it is acquired. The pooled images are only softly referenced, and the
+ * images which are too large to be worth keeping are not pooled at all.
+ *
+ * The bytes of all the images which had to be allocated are counted in the
+ * picture cache of the SlideShow they were drawn for.
+ *
+ * @version 0.20
+ */
+final class PPTScratchImages {
+    private static final int                                     MIN_BUCKET_SIZE       = 64;
+    private static final int                                     MAX_BUCKET_SIZE       = 2048;
+    private static final int                                     MAX_IMAGES_PER_BUCKET = 2;
+    private static final ThreadLocal< PPTScratchImages >         POOLS                 = ThreadLocal
+            .withInitial( PPTScratchImages::new );
+    private final Map< Long, Deque< SoftReference< Scratch > > > buckets               = new HashMap<>();
+
+    private PPTScratchImages() {}
+
+    /**
+     * Acquire a cleared scratch image from the pool of the current thread. The
+     * scratch image must be released by the same thread once it is not used
+     * anymore, and must not be used afterwards.
+     *
+     * @param cache
+     *            the picture cache of the SlideShow, which counts the allocated
+     *            bytes
+     * @param width
+     *            the width of the image
+     * @param height
+     *            the height of the image
+     * @return the scratch image
+     */
+    static Scratch acquire( final PPTPictureCache cache, final int width, final int height ) {
+        return POOLS.get().doAcquire( cache, width, height );
+    }
+
+    private Scratch doAcquire( final PPTPictureCache cache, final int width, final int height ) {
+        final int bucketWidth = getBucketSize( width );
+        final int bucketHeight = getBucketSize( height );
+        Scratch scratch = null;
+        if ( ( bucketWidth <= MAX_BUCKET_SIZE ) && ( bucketHeight <= MAX_BUCKET_SIZE ) ) {
+            final Long key = ( ( long ) bucketWidth << 32 ) | bucketHeight;
+            final Deque< SoftReference< Scratch > > bucket = buckets.get( key );
+            while ( ( scratch == null ) && ( bucket != null ) && !bucket.isEmpty() ) {
+                scratch = bucket.pop().get();
+            }
+            if ( scratch == null ) {
+                scratch = new Scratch( this, key, bucketWidth, bucketHeight );
+                cache.addAllocatedBytes( 4L * bucketWidth * bucketHeight );
+            }
+        }
+        else {
+            scratch = new Scratch( this, null, width, height );
+            cache.addAllocatedBytes( 4L * width * height );
+        }
+        scratch.reset( width, height );
+        return scratch;
+    }
+
+    private static int getBucketSize( final int size ) {
+        if ( size <= MIN_BUCKET_SIZE ) {
+            return MIN_BUCKET_SIZE;
+        }
+        return Integer.highestOneBit( size - 1 ) << 1;
+    }
+
+    private void recycle( final Scratch scratch ) {
+        if ( scratch.key == null ) {
+            scratch.graphics.dispose();
+            return;
+        }
+        final Deque< SoftReference< Scratch > > bucket = buckets
+                .computeIfAbsent( scratch.key, key -> new ArrayDeque<>() );
+        // forget the images which were collected
+        bucket.removeIf( ref -> ref.get() == null );
+        if ( bucket.size() < MAX_IMAGES_PER_BUCKET ) {
+            bucket.push( new SoftReference<>( scratch ) );
+        }
+        else {
+            scratch.graphics.dispose();
+        }
+    }
+
+    /**
+     * A scratch image, with the Graphics2D context to draw on it.
+     */
+    static final class Scratch {
+        private final PPTScratchImages pool;
+        private final Long             key;
+        private final BufferedImage    buffer;
+        private final Graphics2D       graphics;
+        private final RenderingHints   hints;
+        private final Composite        composite;
+        private final Paint            paint;
+        private final Color            background;
+        private final Stroke           stroke;
+        private final Font             font;
+        private BufferedImage          image   = null;
+        private boolean                cleared = true;
+        private boolean                inUse   = false;
+
+        private Scratch( final PPTScratchImages pool,
+                         final Long key,
+                         final int width,
+                         final int height ) {
+            this.pool = pool;
+            this.key = key;
+            buffer = new BufferedImage( width, height, BufferedImage.TYPE_INT_ARGB );
+            graphics = buffer.createGraphics();
+            hints = ( RenderingHints ) graphics.getRenderingHints().clone();
+            composite = graphics.getComposite();
+            paint = graphics.getPaint();
+            background = graphics.getBackground();
+            stroke = graphics.getStroke();
+            font = graphics.getFont();
+        }
+
+        /**
+         * Reset the Graphics2D context to its initial state, clip it to the
+         * view, and clear the view.
+         */
+        private void reset( final int width, final int height ) {
+            if ( ( width == buffer.getWidth() ) && ( height == buffer.getHeight() ) ) {
+                image = buffer;
+            }
+            else {
+                image = buffer.getSubimage( 0, 0, width, height );
+            }
+            graphics.setTransform( new AffineTransform() );
+            graphics.setClip( null );
+            if ( !cleared ) {
+                graphics.setComposite( AlphaComposite.Clear );
+                graphics.fillRect( 0, 0, width, height );
+            }
+            graphics.setComposite( composite );
+            graphics.setRenderingHints( hints );
+            graphics.setPaint( paint );
+            graphics.setBackground( background );
+            graphics.setStroke( stroke );
+            graphics.setFont( font );
+            graphics.clipRect( 0, 0, width, height );
+            cleared = false;
+            inUse = true;
+        }
+
+        /**
+         * Return the image. It is a TYPE_INT_ARGB image of the acquired size,
+         * but its raster may be a part of a larger one.
+         *
+         * @return the image
+         */
+        BufferedImage getImage() {
+            return image;
+        }
+
+        /**
+         * Return the Graphics2D context to draw on the image. It must not be
+         * disposed, as it is given back to the pool with the image.
+         *
+         * @return the Graphics2D context
+         */
+        Graphics2D getGraphics() {
+            return graphics;
+        }
+
+        /**
+         * Give the scratch image back to the pool.
+         */
+        void release() {
+            if ( inUse ) {
+                inUse = false;
+                pool.recycle( this );
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/**
+ * Copyright (c) 2011, 2013, 2014, 2015, 2016 Dassault Aviation.
+ * Copyright (c) 2017 Herve Girod.
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+ * FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * The views and conclusions contained in the software and documentation are
+ * those
+ * of the authors and should not be interpreted as representing official
+ * policies,
+ * either expressed or implied, of the FreeBSD Project.
+ * Please contact Dassault Aviation, 9 Rond-Point des Champs Elysees, 75008
+ * Paris,
+ * France if you need additional information.
+ * Alternatively if you have any questions about this project, you can visit
+ * the project website at the project page on http://j661.sourceforge.net
+ */
+package org.jfxconverter.drivers.ppt;
+
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.MultipleGradientPaint;
+import java.awt.Paint;
+import java.awt.Shape;
+import java.awt.geom.Rectangle2D;
+
+/**
+ * The culling rules provided with {@link PPTGraphics2D}.
+ *
+ * @version 0.20
+ */
+public enum PPTStandardCullingRule implements PPTCullingRule {
+    /**
+     * Skip the Shapes which are entirely outside the content of the slide,
+     * which is the rectangle of the content origin and of the PPT width and
+     * height (see {@link PPTGraphics2D#setContentOrigin(double, double)}). It
+     * relies on the content origin being set, so it is not in the default
+     * stage.
+     */
+    OFF_SLIDE {
+        @Override
+        public boolean isCulled( final PPTGraphics2D graphics,
+                                 final Shape shape,
+                                 final Rectangle2D bounds,
+                                 final boolean fill ) {
+            return !graphics.intersectsContent( bounds );
+        }
+    },
+    /**
+     * Skip the Shapes which are entirely outside the clip.
+     */
+    FULLY_CLIPPED {
+        @Override
+        public boolean isCulled( final PPTGraphics2D graphics,
+                                 final Shape shape,
+                                 final Rectangle2D bounds,
+                                 final boolean fill ) {
+            final PPTClip clip = graphics.getDeviceClip();
+            return ( clip != null ) && !clip.intersects( bounds );
+        }
+    },
+    /**
+     * Skip the Shapes which are smaller than a pixel in both directions at the
+     * output resolution of the culling stage. This changes the rendering of
+     * the slides which are made of many tiny Shapes, so it is not in the
+     * default stage.
+     */
+    SUB_PIXEL {
+        @Override
+        public boolean isCulled( final PPTGraphics2D graphics,
+                                 final Shape shape,
+                                 final Rectangle2D bounds,
+                                 final boolean fill ) {
+            // the device unit is the point
+            final double pixelSize = 72d / graphics.getCullingStage().getOutputResolution();
+            return ( bounds.getWidth() < pixelSize ) && ( bounds.getHeight() < pixelSize );
+        }
+    },
+    /**
+     * Skip the Shapes which are painted with fully transparent colors.
+     */
+    TRANSPARENT {
+        @Override
+        public boolean isCulled( final PPTGraphics2D graphics,
+                                 final Shape shape,
+                                 final Rectangle2D bounds,
+                                 final boolean fill ) {
+            // the current Color is null when the paint is not a Color
+            final Color color = graphics.getColor();
+            if ( color != null ) {
+                return color.getAlpha() == 0;
+            }
+            else if ( !fill ) {
+                return false;
+            }
+            final Paint paint = graphics.getPaint();
+            if ( paint instanceof GradientPaint ) {
+                final GradientPaint gradient = ( GradientPaint ) paint;
+                return ( gradient.getColor1().getAlpha() == 0 ) && ( gradient.getColor2().getAlpha() == 0 );
+            }
+            else if ( paint instanceof MultipleGradientPaint ) {
+                for ( final Color stopColor : ( ( MultipleGradientPaint ) paint ).getColors() ) {
+                    if ( stopColor.getAlpha() != 0 ) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            else {
+                return false;
+            }
+        }
+    };
+
+    @Override
+    public String getName() {
+        return name();
+    }
+}
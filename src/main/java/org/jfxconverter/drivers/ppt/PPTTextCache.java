@@ -0,0 +1,303 @@
+/**
+ * Copyright (c) 2011, 2013, 2014, 2015, 2016 Dassault Aviation.
+ * Copyright (c) 2017 Herve Girod.
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+ * FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * The views and conclusions contained in the software and documentation are
+ * those
+ * of the authors and should not be interpreted as representing official
+ * policies,
+ * either expressed or implied, of the FreeBSD Project.
+ * Please contact Dassault Aviation, 9 Rond-Point des Champs Elysees, 75008
+ * Paris,
+ * France if you need additional information.
+ * Alternatively if you have any questions about this project, you can visit
+ * the project website at the project page on http://j661.sourceforge.net
+ */
+package org.jfxconverter.drivers.ppt;
+
+import org.apache.poi.hslf.record.FontCollection;
+import org.apache.poi.hslf.usermodel.HSLFFontInfo;
+import org.apache.poi.hslf.usermodel.HSLFSlideShow;
+import org.apache.poi.hslf.usermodel.HSLFTextRun;
+
+import java.awt.Font;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * A SlideShow wide cache of the text measurements done by {@link PPTGraphics2D}
+ * for each String it draws, and of the index of each Font in the SlideShow Font
+ * collection. Tables and drawings tend to repeat the same labels many times, so
+ * the layout and metrics of a String are computed once for a given Font and
+ * transform scale, and then reused wherever the String is drawn.
+ *
+ * The text geometry cache is bounded, and drops the least recently used
+ * entries first. The hit and miss counts of both caches are exposed, to help
+ * tuning its size.
+ *
+ * @version 0.20
+ */
+public final class PPTTextCache {
+    /**
+     * The default maximum number of text geometries to keep.
+     */
+    public static final int                               DEFAULT_MAX_ENTRIES = 2048;
+    private static final Map< HSLFSlideShow, PPTTextCache > CACHES            = new WeakHashMap<>();
+    private final Map< TextKey, TextGeometry >            geometries;
+    private final Map< String, Integer >                  fontIndexes         = new HashMap<>();
+    private int                                           maxEntries          = DEFAULT_MAX_ENTRIES;
+    private long                                          geometryHits        = 0;
+    private long                                          geometryMisses      = 0;
+    private long                                          fontIndexHits       = 0;
+    private long                                          fontIndexMisses     = 0;
+
+    private PPTTextCache() {
+        geometries = new LinkedHashMap< TextKey, TextGeometry >( 16, 0.75f, true ) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry( final Map.Entry< TextKey, TextGeometry > eldest ) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Return the text cache of a SlideShow.
+     *
+     * @param show
+     *            the SlideShow
+     * @return the text cache
+     */
+    public static PPTTextCache getCache( final HSLFSlideShow show ) {
+        synchronized ( CACHES ) {
+            PPTTextCache cache = CACHES.get( show );
+            if ( cache == null ) {
+                cache = new PPTTextCache();
+                CACHES.put( show, cache );
+            }
+            return cache;
+        }
+    }
+
+    /**
+     * Set the maximum number of text geometries to keep.
+     *
+     * @param maxEntries
+     *            the maximum number of text geometries
+     */
+    public synchronized void setMaxEntries( final int maxEntries ) {
+        if ( maxEntries < 1 ) {
+            throw new IllegalArgumentException( "The maximum number of entries must be at least one" ); //$NON-NLS-1$
+        }
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Return the maximum number of text geometries to keep.
+     *
+     * @return the maximum number of text geometries
+     */
+    public synchronized int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * Return the number of text geometries which were found in the cache.
+     *
+     * @return the number of text geometry cache hits
+     */
+    public synchronized long getGeometryHitCount() {
+        return geometryHits;
+    }
+
+    /**
+     * Return the number of text geometries which had to be computed.
+     *
+     * @return the number of text geometry cache misses
+     */
+    public synchronized long getGeometryMissCount() {
+        return geometryMisses;
+    }
+
+    /**
+     * Return the number of Font indexes which were found in the cache.
+     *
+     * @return the number of Font index cache hits
+     */
+    public synchronized long getFontIndexHitCount() {
+        return fontIndexHits;
+    }
+
+    /**
+     * Return the number of Font indexes which had to be looked up in the Font
+     * collection.
+     *
+     * @return the number of Font index cache misses
+     */
+    public synchronized long getFontIndexMissCount() {
+        return fontIndexMisses;
+    }
+
+    /**
+     * Return the cached geometry of a String, or null if it is not in the
+     * cache.
+     */
+    synchronized TextGeometry getGeometry( final TextKey key ) {
+        final TextGeometry geometry = geometries.get( key );
+        if ( geometry != null ) {
+            geometryHits++;
+        }
+        else {
+            geometryMisses++;
+        }
+        return geometry;
+    }
+
+    synchronized void putGeometry( final TextKey key, final TextGeometry geometry ) {
+        geometries.put( key, geometry );
+    }
+
+    /**
+     * Return the index of a Font in the Font collection, or -1 if it is not in
+     * the collection.
+     */
+    synchronized int getFontIndex( final FontCollection coll, final String fontName ) {
+        final Integer index = fontIndexes.get( fontName );
+        if ( index != null ) {
+            fontIndexHits++;
+            return index;
+        }
+        fontIndexMisses++;
+        final HSLFFontInfo fInfo = coll.getFontInfo( fontName );
+        final int fIndex = ( fInfo == null ) ? -1 : fInfo.getIndex();
+        fontIndexes.put( fontName, fIndex );
+        return fIndex;
+    }
+
+    /**
+     * Set the Font family of a text run, which adds the Font to the Font
+     * collection if it is not already there. The Font collection is shared by
+     * all the slides, which may be drawn concurrently, so it is only changed
+     * and looked up under the lock of this cache.
+     */
+    synchronized void setFontFamily( final HSLFTextRun rt, final String family ) {
+        rt.setFontFamily( family );
+    }
+
+    /**
+     * The key of a text geometry: the String, the Font, and the scale and
+     * shear of both the layout and the device transforms. The translations do
+     * not change the measurements, so they are left out.
+     */
+    static final class TextKey {
+        private final String s;
+        private final Font   font;
+        private final double layoutScaleX;
+        private final double layoutShearY;
+        private final double layoutShearX;
+        private final double layoutScaleY;
+        private final double scaleX;
+        private final double shearY;
+        private final double shearX;
+        private final double scaleY;
+        private final int    hashCode;
+
+        TextKey( final String s,
+                 final Font font,
+                 final AffineTransform layoutTransform,
+                 final AffineTransform transform ) {
+            this.s = s;
+            this.font = font;
+            layoutScaleX = layoutTransform.getScaleX();
+            layoutShearY = layoutTransform.getShearY();
+            layoutShearX = layoutTransform.getShearX();
+            layoutScaleY = layoutTransform.getScaleY();
+            scaleX = transform.getScaleX();
+            shearY = transform.getShearY();
+            shearX = transform.getShearX();
+            scaleY = transform.getScaleY();
+            int hash = ( 31 * s.hashCode() ) + font.hashCode();
+            hash = ( 31 * hash ) + Double.hashCode( scaleX );
+            hash = ( 31 * hash ) + Double.hashCode( scaleY );
+            hashCode = hash;
+        }
+
+        @Override
+        public boolean equals( final Object obj ) {
+            if ( !( obj instanceof TextKey ) ) {
+                return false;
+            }
+            final TextKey other = ( TextKey ) obj;
+            return s.equals( other.s ) && font.equals( other.font )
+                    && ( layoutScaleX == other.layoutScaleX ) && ( layoutShearY == other.layoutShearY )
+                    && ( layoutShearX == other.layoutShearX ) && ( layoutScaleY == other.layoutScaleY )
+                    && ( scaleX == other.scaleX ) && ( shearY == other.shearY )
+                    && ( shearX == other.shearX ) && ( scaleY == other.scaleY );
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    /**
+     * The measurements of a String which do not depend on its position.
+     */
+    static final class TextGeometry {
+        /**
+         * The bounds of the text layout, relative to the origin of the String.
+         */
+        final Rectangle2D layoutBounds;
+        final double      stringBoundsWidth;
+        final double      stringBoundsHeight;
+        final int         stringWidth;
+        final int         charWidth;
+        final float       ascent;
+        final float       descent;
+        final float       leading;
+
+        TextGeometry( final Rectangle2D layoutBounds,
+                      final double stringBoundsWidth,
+                      final double stringBoundsHeight,
+                      final int stringWidth,
+                      final int charWidth,
+                      final float ascent,
+                      final float descent,
+                      final float leading ) {
+            this.layoutBounds = layoutBounds;
+            this.stringBoundsWidth = stringBoundsWidth;
+            this.stringBoundsHeight = stringBoundsHeight;
+            this.stringWidth = stringWidth;
+            this.charWidth = charWidth;
+            this.ascent = ascent;
+            this.descent = descent;
+            this.leading = leading;
+        }
+    }
+}
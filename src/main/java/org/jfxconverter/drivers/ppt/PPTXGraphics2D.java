@@ -0,0 +1,1129 @@
+/**
+ * Copyright (c) 2011, 2013, 2014, 2015, 2016 Dassault Aviation.
+ * Copyright (c) 2017 Herve Girod.
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+ * FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * The views and conclusions contained in the software and documentation are
+ * those
+ * of the authors and should not be interpreted as representing official
+ * policies,
+ * either expressed or implied, of the FreeBSD Project.
+ * Please contact Dassault Aviation, 9 Rond-Point des Champs Elysees, 75008
+ * Paris,
+ * France if you need additional information.
+ * Alternatively if you have any questions about this project, you can visit
+ * the project website at the project page on http://j661.sourceforge.net
+ */
+package org.jfxconverter.drivers.ppt;
+
+import org.apache.commons.math3.util.FastMath;
+import org.apache.poi.sl.usermodel.Insets2D;
+import org.apache.poi.sl.usermodel.PictureData;
+import org.apache.poi.sl.usermodel.ShapeType;
+import org.apache.poi.sl.usermodel.StrokeStyle.LineCap;
+import org.apache.poi.sl.usermodel.StrokeStyle.LineDash;
+import org.apache.poi.sl.usermodel.TextRun;
+import org.apache.poi.sl.usermodel.TextShape.TextAutofit;
+import org.apache.poi.sl.usermodel.VerticalAlignment;
+import org.apache.poi.xslf.usermodel.XMLSlideShow;
+import org.apache.poi.xslf.usermodel.XSLFAutoShape;
+import org.apache.poi.xslf.usermodel.XSLFFreeformShape;
+import org.apache.poi.xslf.usermodel.XSLFPictureData;
+import org.apache.poi.xslf.usermodel.XSLFPictureShape;
+import org.apache.poi.xslf.usermodel.XSLFShapeContainer;
+import org.apache.poi.xslf.usermodel.XSLFSimpleShape;
+import org.apache.poi.xslf.usermodel.XSLFSlide;
+import org.apache.poi.xslf.usermodel.XSLFTextBox;
+import org.apache.xmlbeans.XmlObject;
+import org.mdiutil.geom.ShapeUtilities;
+import org.openxmlformats.schemas.drawingml.x2006.main.CTGradientFillProperties;
+import org.openxmlformats.schemas.drawingml.x2006.main.CTGradientStop;
+import org.openxmlformats.schemas.drawingml.x2006.main.CTGradientStopList;
+import org.openxmlformats.schemas.drawingml.x2006.main.CTPathShadeProperties;
+import org.openxmlformats.schemas.drawingml.x2006.main.CTRelativeRect;
+import org.openxmlformats.schemas.drawingml.x2006.main.CTSRgbColor;
+import org.openxmlformats.schemas.drawingml.x2006.main.CTShapeProperties;
+import org.openxmlformats.schemas.drawingml.x2006.main.STPathShadeType;
+import org.openxmlformats.schemas.presentationml.x2006.main.CTPicture;
+import org.openxmlformats.schemas.presentationml.x2006.main.CTShape;
+
+import javax.imageio.ImageIO;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Composite;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.Paint;
+import java.awt.Polygon;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.Stroke;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.font.TextLayout;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Arc2D;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.GeneralPath;
+import java.awt.geom.Line2D;
+import java.awt.geom.NoninvertibleTransformException;
+import java.awt.geom.Path2D;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.geom.RoundRectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.BufferedImageOp;
+import java.awt.image.ImageObserver;
+import java.awt.image.RenderedImage;
+import java.awt.image.renderable.RenderableImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.text.AttributedCharacterIterator;
+import java.text.CharacterIterator;
+import java.util.Map;
+
+/**
+ * This implementation of the java.awt.Graphics2D abstract class allows users to
+ * generate PowerPoint OOXML (.pptx) content from Java code, through the XSLF
+ * API of POI. It is the counterpart of {@link PPTGraphics2D} for the binary
+ * format, and all graphic orders will paint in the slide.
+ *
+ * Compared to the binary format, everything is written natively in DrawingML:
+ * <ul>
+ * <li>rectangles and ellipses use preset geometries, and other shapes custom
+ * geometries</li>
+ * <li>gradients are DrawingML gradient fills, built from the same
+ * {@link PPTGradientFill.Shade} as for the binary format</li>
+ * <li>texts are text boxes whose font size and rotation follow the
+ * transform</li>
+ * <li>images and shapes under a rotated or sheared transform are rotated
+ * natively rather than by their bounds</li>
+ * </ul>
+ * Only images, and paints with no native equivalent, are written as PNG
+ * pictures.
+ *
+ * @version 0.20
+ */
+public class PPTXGraphics2D extends Graphics2D {
+    /**
+     * The number of DrawingML angle units in a degree.
+     */
+    private static final int    ANGLE_UNITS      = 60000;
+    /**
+     * The number of DrawingML percentage units for 100%.
+     */
+    private static final int    PERCENT_UNITS    = 100000;
+    private static final double ASSUME_ZERO      = 0.01d;
+    /**
+     * The extra width given to the text boxes, as a ratio of the font size,
+     * so that PowerPoint does not break a line whose width is a little larger
+     * than the one measured by Java.
+     */
+    private static final float  TEXT_WIDTH_SLACK = 0.5f;
+    private BufferedImage       img;
+    private Graphics2D          g2D;
+    protected AffineTransform   trans;
+    private Font                font;
+    private PPTClip             deviceclip;
+    private Paint               paint;
+    /*
+     * The last Color, or null if the current Paint is not a Color.
+     */
+    protected Color             color;
+    protected BasicStroke       basicStroke;
+    private Color               background       = Color.WHITE;
+    /**
+     * The slide width.
+     */
+    public float                width;
+    /**
+     * The slide height.
+     */
+    public float                height;
+    protected XSLFSlide         slide            = null;
+
+    /**
+     * Create a Graphics2D which will paint in a PPTX Slide context. It will use
+     * a white background, a default black foreground, and a default stroke
+     * width of 1 pixel.
+     *
+     * @param pptSlide
+     *            the slide
+     * @param imWidth
+     *            the slide width
+     * @param imHeight
+     *            the slide height
+     */
+    public PPTXGraphics2D( final XSLFSlide pptSlide, final float imWidth, final float imHeight ) {
+        this( pptSlide, imWidth, imHeight, Color.WHITE, Color.BLACK );
+    }
+
+    /**
+     * Create a Graphics2D which will paint in a PPTX Slide context.
+     *
+     * @param pptSlide
+     *            the slide
+     * @param imWidth
+     *            the slide width
+     * @param imHeight
+     *            the slide height
+     * @param background
+     *            the slide background, or null for no background
+     * @param foreground
+     *            the slide foreground
+     */
+    public PPTXGraphics2D( final XSLFSlide pptSlide,
+                           final float imWidth,
+                           final float imHeight,
+                           final Color background,
+                           final Color foreground ) {
+        width = imWidth;
+        height = imHeight;
+        slide = pptSlide;
+        trans = new AffineTransform();
+        img = new BufferedImage( 1, 1, BufferedImage.TYPE_INT_ARGB );
+        g2D = img.createGraphics();
+        basicStroke = new BasicStroke( 1f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND );
+        font = g2D.getFont();
+        if ( background != null ) {
+            // the background is the native background of the slide, rather
+            // than a rectangle Shape
+            this.background = background;
+            slide.getBackground().setFillColor( background );
+        }
+        setColor( ( foreground == null ) ? Color.BLACK : foreground );
+    }
+
+    /**
+     * Copy constructor.
+     *
+     * @param pptxG2d
+     *            the Graphics2D used for the PPTX conversion
+     */
+    public PPTXGraphics2D( final PPTXGraphics2D pptxG2d ) {
+        trans = ( AffineTransform ) pptxG2d.trans.clone();
+        basicStroke = pptxG2d.basicStroke;
+        paint = pptxG2d.paint;
+        color = pptxG2d.color;
+        background = pptxG2d.background;
+        slide = pptxG2d.slide;
+        deviceclip = pptxG2d.deviceclip;
+        width = pptxG2d.width;
+        height = pptxG2d.height;
+        g2D = ( Graphics2D ) pptxG2d.g2D.create();
+        img = pptxG2d.img;
+        font = pptxG2d.font;
+    }
+
+    /**
+     * Return the Slide.
+     *
+     * @return the Slide
+     */
+    public XSLFSlide getSlide() {
+        return slide;
+    }
+
+    /**
+     * Return the container in which the Shapes are created. By default this is
+     * the Slide.
+     *
+     * @return the container
+     */
+    protected XSLFShapeContainer getShapeContainer() {
+        return slide;
+    }
+
+    /**
+     * This method will be called after the Shape properties has been set by
+     * this class, to add other user properties to the Shape. Do nothing by
+     * default.
+     *
+     * @param shape
+     *            the Shape
+     */
+    protected void setShapeFillingAdditionalProperties( final XSLFSimpleShape shape ) {}
+
+    /**
+     * Return the shape properties of a Shape created by this class.
+     *
+     * @param shape
+     *            the Shape
+     * @return the shape properties, or null if the Shape has none
+     */
+    protected static CTShapeProperties getShapeProperties( final XSLFSimpleShape shape ) {
+        final XmlObject xml = shape.getXmlObject();
+        if ( xml instanceof CTShape ) {
+            return ( ( CTShape ) xml ).getSpPr();
+        }
+        else if ( xml instanceof CTPicture ) {
+            return ( ( CTPicture ) xml ).getSpPr();
+        }
+        else {
+            return null;
+        }
+    }
+
+    /**
+     * Return the scale of the current transform, used for the stroke widths.
+     */
+    private double getTransformScale() {
+        return FastMath.sqrt( FastMath.abs( trans.getDeterminant() ) );
+    }
+
+    /**
+     * Transform a Shape to device coordinates and clip it.
+     *
+     * @param shape
+     *            the Shape
+     * @param asArea
+     *            true if the Shape is clipped as a filled area, false if it is
+     *            clipped as an outline
+     * @return the transformed and clipped Shape, or null if it is entirely
+     *         outside the clip
+     */
+    protected Shape transformShape( final Shape shape, final boolean asArea ) {
+        final Shape transformed = ShapeUtilities.createTransformedShape( shape, trans );
+        if ( ( deviceclip == null ) || ( transformed == null ) ) {
+            return transformed;
+        }
+        final Rectangle2D bounds = transformed.getBounds2D();
+        // a horizontal or vertical line has empty bounds, which intersect
+        // nothing
+        bounds.setRect( bounds.getX(),
+                        bounds.getY(),
+                        FastMath.max( 0.1, bounds.getWidth() ),
+                        FastMath.max( 0.1, bounds.getHeight() ) );
+        return deviceclip.clip( transformed, bounds, asArea );
+    }
+
+    /**
+     * Create the Shape for a device Shape: a preset geometry for rectangles
+     * and ellipses, and a custom geometry otherwise.
+     */
+    private XSLFSimpleShape createShape( final Shape shape ) {
+        final XSLFShapeContainer container = getShapeContainer();
+        if ( ( shape instanceof Rectangle2D ) || ( shape instanceof Ellipse2D ) ) {
+            final XSLFAutoShape auto = container.createAutoShape();
+            auto.setShapeType( ( shape instanceof Rectangle2D ) ? ShapeType.RECT : ShapeType.ELLIPSE );
+            auto.setAnchor( shape.getBounds2D() );
+            return auto;
+        }
+        else {
+            final XSLFFreeformShape free = container.createFreeform();
+            free.setPath( ( shape instanceof Path2D ) ? ( Path2D ) shape : new Path2D.Double( shape ) );
+            return free;
+        }
+    }
+
+    @Override
+    public void draw( final Shape shape ) {
+        final Shape devShape = transformShape( shape, false );
+        if ( ( devShape == null ) || ( slide == null ) ) {
+            return;
+        }
+        final XSLFSimpleShape xshape = createShape( devShape );
+        xshape.setFillColor( null );
+        setShapeDrawProperties( xshape );
+        setShapeFillingAdditionalProperties( xshape );
+    }
+
+    @Override
+    public void fill( final Shape shape ) {
+        final Shape devShape = transformShape( shape, true );
+        if ( ( devShape == null ) || ( slide == null ) ) {
+            return;
+        }
+        final Rectangle2D bounds = devShape.getBounds2D();
+        if ( color != null ) {
+            final XSLFSimpleShape xshape = createShape( devShape );
+            xshape.setFillColor( color );
+            xshape.setLineColor( null );
+            setShapeFillingAdditionalProperties( xshape );
+            return;
+        }
+        final PPTGradientFill.Shade shade = PPTGradientFill.getShade( paint, trans, bounds );
+        if ( shade != null ) {
+            final XSLFSimpleShape xshape = createShape( devShape );
+            setGradientFill( xshape, shade );
+            xshape.setLineColor( null );
+            setShapeFillingAdditionalProperties( xshape );
+        }
+        else {
+            fillWithPicture( devShape, bounds );
+        }
+    }
+
+    private void setShapeDrawProperties( final XSLFSimpleShape shape ) {
+        if ( color != null ) {
+            shape.setLineColor( color );
+        }
+        else {
+            // a paint has no native equivalent for lines, so use the color
+            // of the paint at its start, if any
+            final PPTGradientFill.Shade shade = PPTGradientFill
+                    .getShade( paint, trans, new Rectangle2D.Double( 0, 0, 1, 1 ) );
+            shape.setLineColor( ( shade != null ) ? shade.getStartColor() : Color.BLACK );
+        }
+        shape.setLineWidth( basicStroke.getLineWidth() * getTransformScale() );
+        shape.setLineDash( getLineDash( basicStroke ) );
+        switch ( basicStroke.getEndCap() ) {
+        case BasicStroke.CAP_BUTT:
+            shape.setLineCap( LineCap.FLAT );
+            break;
+        case BasicStroke.CAP_SQUARE:
+            shape.setLineCap( LineCap.SQUARE );
+            break;
+        default:
+            shape.setLineCap( LineCap.ROUND );
+            break;
+        }
+    }
+
+    /**
+     * Return the preset dash which is the closest to the dash of a stroke,
+     * relative to the stroke width.
+     */
+    private static LineDash getLineDash( final BasicStroke stroke ) {
+        final float[] dash = stroke.getDashArray();
+        if ( ( dash == null ) || ( dash.length < 2 ) ) {
+            return LineDash.SOLID;
+        }
+        final float ratio = dash[ 0 ] / FastMath.max( stroke.getLineWidth(), 1f );
+        if ( dash.length < 4 ) {
+            if ( ratio <= 1.5f ) {
+                return LineDash.SYS_DOT;
+            }
+            else if ( ratio <= 4f ) {
+                return LineDash.DASH;
+            }
+            else {
+                return LineDash.LG_DASH;
+            }
+        }
+        else if ( dash.length < 6 ) {
+            return ( ratio <= 4f ) ? LineDash.DASH_DOT : LineDash.LG_DASH_DOT;
+        }
+        else {
+            return LineDash.LG_DASH_DOT_DOT;
+        }
+    }
+
+    /**
+     * Set the fill of a Shape to a DrawingML gradient fill.
+     */
+    private static void setGradientFill( final XSLFSimpleShape shape, final PPTGradientFill.Shade shade ) {
+        final CTShapeProperties spPr = getShapeProperties( shape );
+        if ( spPr.isSetNoFill() ) {
+            spPr.unsetNoFill();
+        }
+        if ( spPr.isSetSolidFill() ) {
+            spPr.unsetSolidFill();
+        }
+        final CTGradientFillProperties gradFill = spPr.addNewGradFill();
+        gradFill.setRotWithShape( true );
+        final CTGradientStopList stops = gradFill.addNewGsLst();
+        for ( int i = 0; i < shade.colors.length; i++ ) {
+            final Color col = shade.colors[ i ];
+            final CTGradientStop stop = stops.addNewGs();
+            stop.setPos( ( int ) FastMath.round( shade.positions[ i ] * PERCENT_UNITS ) );
+            final CTSRgbColor rgb = stop.addNewSrgbClr();
+            rgb.setVal( new byte[] { ( byte ) col.getRed(), ( byte ) col.getGreen(), ( byte ) col.getBlue() } );
+            if ( col.getAlpha() != 255 ) {
+                rgb.addNewAlpha().setVal( ( col.getAlpha() * PERCENT_UNITS ) / 255 );
+            }
+        }
+        if ( shade.radial ) {
+            final CTPathShadeProperties path = gradFill.addNewPath();
+            path.setPath( STPathShadeType.CIRCLE );
+            final CTRelativeRect focus = path.addNewFillToRect();
+            focus.setL( ( int ) FastMath.round( shade.focusX * PERCENT_UNITS ) );
+            focus.setT( ( int ) FastMath.round( shade.focusY * PERCENT_UNITS ) );
+            focus.setR( ( int ) FastMath.round( ( 1 - shade.focusX ) * PERCENT_UNITS ) );
+            focus.setB( ( int ) FastMath.round( ( 1 - shade.focusY ) * PERCENT_UNITS ) );
+        }
+        else {
+            double angle = shade.angle % 360d;
+            if ( angle < 0 ) {
+                angle += 360d;
+            }
+            gradFill.addNewLin().setAng( ( int ) FastMath.round( angle * ANGLE_UNITS ) % ( 360 * ANGLE_UNITS ) );
+            gradFill.getLin().setScaled( false );
+        }
+    }
+
+    /**
+     * Fill a Shape with a paint which has no native equivalent, by drawing the
+     * paint in an image of the Shape bounds.
+     */
+    private void fillWithPicture( final Shape devShape, final Rectangle2D bounds ) {
+        final Rectangle rec = bounds.getBounds();
+        if ( ( rec.width <= 0 ) || ( rec.height <= 0 ) || ( paint == null ) ) {
+            return;
+        }
+        final AffineTransform inverse;
+        try {
+            inverse = trans.createInverse();
+        }
+        catch ( final NoninvertibleTransformException e ) {
+            return;
+        }
+        final BufferedImage bimg = new BufferedImage( rec.width, rec.height, BufferedImage.TYPE_INT_ARGB );
+        final Graphics2D g2d = bimg.createGraphics();
+        g2d.translate( -rec.x, -rec.y );
+        g2d.transform( trans );
+        g2d.setPaint( paint );
+        g2d.fill( inverse.createTransformedShape( devShape ) );
+        g2d.dispose();
+        addPicture( bimg, rec, 0, false );
+    }
+
+    /**
+     * Add a picture to the slide.
+     *
+     * @param image
+     *            the image
+     * @param anchor
+     *            the anchor of the picture, before its rotation
+     * @param rotation
+     *            the clockwise rotation of the picture around its center, in
+     *            degrees
+     * @param flipVertical
+     *            true if the picture is flipped vertically
+     */
+    private void addPicture( final BufferedImage image,
+                             final Rectangle2D anchor,
+                             final double rotation,
+                             final boolean flipVertical ) {
+        try {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write( image, "png", out ); //$NON-NLS-1$
+            final XMLSlideShow show = slide.getSlideShow();
+            // the SlideShow shares the picture data of identical images
+            final XSLFPictureData data = show.addPicture( out.toByteArray(), PictureData.PictureType.PNG );
+            final XSLFPictureShape pict = getShapeContainer().createPicture( data );
+            pict.setAnchor( anchor );
+            if ( FastMath.abs( rotation ) > ASSUME_ZERO ) {
+                pict.setRotation( rotation );
+            }
+            if ( flipVertical ) {
+                pict.setFlipVertical( true );
+            }
+            setShapeFillingAdditionalProperties( pict );
+        }
+        catch ( final IOException e ) {}
+    }
+
+    /**
+     * Draw an image in a rectangle of user space. The picture is rotated
+     * natively if the transform rotates.
+     */
+    private void addImage( final Image image,
+                           final double x,
+                           final double y,
+                           final double iWidth,
+                           final double iHeight,
+                           final Color bgcolor,
+                           final ImageObserver observer ) {
+        if ( ( iWidth <= 0 ) || ( iHeight <= 0 ) || ( slide == null ) ) {
+            return;
+        }
+        final Rectangle2D rec = new Rectangle2D.Double( x, y, iWidth, iHeight );
+        final Rectangle2D devBounds = ShapeUtilities.createTransformedShape( rec, trans ).getBounds2D();
+        if ( ( deviceclip != null ) && !deviceclip.intersects( devBounds ) ) {
+            return;
+        }
+        final int imgWidth = FastMath.max( 1, image.getWidth( observer ) );
+        final int imgHeight = FastMath.max( 1, image.getHeight( observer ) );
+        final BufferedImage bimg = new BufferedImage( imgWidth, imgHeight, BufferedImage.TYPE_INT_ARGB );
+        final Graphics2D g2d = bimg.createGraphics();
+        if ( bgcolor != null ) {
+            g2d.setColor( bgcolor );
+            g2d.fillRect( 0, 0, imgWidth, imgHeight );
+        }
+        g2d.drawImage( image, 0, 0, observer );
+        g2d.dispose();
+
+        // the picture is placed unrotated around its transformed center, and
+        // then rotated around it
+        final double scaleX = FastMath.hypot( trans.getScaleX(), trans.getShearY() );
+        final double scaleY = FastMath.hypot( trans.getShearX(), trans.getScaleY() );
+        final double rotation = FastMath.toDegrees( FastMath.atan2( trans.getShearY(), trans.getScaleX() ) );
+        final Point2D center = trans.transform( new Point2D.Double( rec.getCenterX(), rec.getCenterY() ), null );
+        final double w = iWidth * scaleX;
+        final double h = iHeight * scaleY;
+        addPicture( bimg,
+                    new Rectangle2D.Double( center.getX() - ( w / 2 ), center.getY() - ( h / 2 ), w, h ),
+                    rotation,
+                    trans.getDeterminant() < 0 );
+    }
+
+    @Override
+    public void drawString( final String s, final float x, final float y ) {
+        if ( ( s == null ) || s.isEmpty() || ( slide == null ) ) {
+            return;
+        }
+        // the font size follows the vertical scale of the transform, and the
+        // text box its rotation
+        final double scale = FastMath.hypot( trans.getShearX(), trans.getScaleY() );
+        if ( scale < ASSUME_ZERO ) {
+            return;
+        }
+        final float fontSize = ( float ) ( font.getSize2D() * scale );
+        final Font devFont = font.deriveFont( fontSize );
+        final TextLayout layout = new TextLayout( s, devFont, new FontRenderContext( null, true, true ) );
+        final double boxWidth = layout.getAdvance() + ( fontSize * TEXT_WIDTH_SLACK );
+        final double boxHeight = layout.getAscent() + layout.getDescent();
+        final double angle = FastMath.atan2( trans.getShearY(), trans.getScaleX() );
+        final Point2D origin = trans.transform( new Point2D.Float( x, y ), null );
+        // the center of the box, relative to the origin of the text before
+        // its rotation
+        final double cx = boxWidth / 2;
+        final double cy = ( boxHeight / 2 ) - layout.getAscent();
+        final double cos = FastMath.cos( angle );
+        final double sin = FastMath.sin( angle );
+        final double centerX = origin.getX() + ( ( cx * cos ) - ( cy * sin ) );
+        final double centerY = origin.getY() + ( cx * sin ) + ( cy * cos );
+        final Rectangle2D anchor = new Rectangle2D.Double( centerX - ( boxWidth / 2 ),
+                                                           centerY - ( boxHeight / 2 ),
+                                                           boxWidth,
+                                                           boxHeight );
+        if ( ( deviceclip != null ) && !deviceclip.intersects( anchor ) ) {
+            return;
+        }
+
+        final XSLFTextBox txt = getShapeContainer().createTextBox();
+        txt.setAnchor( anchor );
+        if ( FastMath.abs( angle ) > ASSUME_ZERO ) {
+            txt.setRotation( FastMath.toDegrees( angle ) );
+        }
+        txt.setInsets( new Insets2D( 0, 0, 0, 0 ) );
+        txt.setWordWrap( false );
+        txt.setTextAutofit( TextAutofit.NONE );
+        txt.setVerticalAlignment( VerticalAlignment.TOP );
+        // the run is used through the common API, which is the same for the
+        // binary and the OOXML formats
+        final TextRun rt = txt.setText( s );
+        rt.setFontSize( ( double ) fontSize );
+        rt.setFontFamily( font.getFamily() );
+        rt.setBold( font.isBold() );
+        rt.setItalic( font.isItalic() );
+        final PPTGradientFill.Shade shade = ( color == null )
+            ? PPTGradientFill.getShade( paint, trans, anchor )
+            : null;
+        rt.setFontColor( ( color != null ) ? color : ( shade != null ) ? shade.getStartColor() : Color.BLACK );
+    }
+
+    @Override
+    public void drawString( final String s, final int x, final int y ) {
+        drawString( s, ( float ) x, ( float ) y );
+    }
+
+    @Override
+    public void drawString( final AttributedCharacterIterator ati, final float x, final float y ) {
+        // draw each run in turn, after the previous one
+        final FontRenderContext frc = new FontRenderContext( null, true, true );
+        float runX = x;
+        ati.first();
+        while ( ati.current() != CharacterIterator.DONE ) {
+            final StringBuilder buf = new StringBuilder();
+            final int limit = ati.getRunLimit();
+            while ( ati.getIndex() < limit ) {
+                buf.append( ati.current() );
+                ati.next();
+            }
+            final String s = buf.toString();
+            drawString( s, runX, y );
+            runX += ( float ) font.getStringBounds( s, frc ).getWidth();
+        }
+    }
+
+    @Override
+    public void drawString( final AttributedCharacterIterator ati, final int x, final int y ) {
+        drawString( ati, ( float ) x, ( float ) y );
+    }
+
+    @Override
+    public void drawGlyphVector( final GlyphVector vec, final float x, final float y ) {
+        fill( vec.getOutline( x, y ) );
+    }
+
+    @Override
+    public boolean drawImage( final Image image,
+                              final AffineTransform tr,
+                              final ImageObserver observer ) {
+        final AffineTransform saved = ( AffineTransform ) trans.clone();
+        trans.concatenate( tr );
+        addImage( image, 0, 0, image.getWidth( observer ), image.getHeight( observer ), null, observer );
+        trans = saved;
+        return true;
+    }
+
+    @Override
+    public void drawImage( final BufferedImage image,
+                           final BufferedImageOp imageOp,
+                           final int x,
+                           final int y ) {
+        final BufferedImage filtered = ( imageOp == null ) ? image : imageOp.filter( image, null );
+        drawImage( filtered, AffineTransform.getTranslateInstance( x, y ), null );
+    }
+
+    @Override
+    public void drawRenderedImage( final RenderedImage image, final AffineTransform transform ) {
+        final BufferedImage bufferedimage = new BufferedImage( image.getColorModel(),
+                                                               image.getData()
+                                                                       .createCompatibleWritableRaster(),
+                                                               false,
+                                                               null );
+        bufferedimage.setData( image.getData() );
+        drawImage( bufferedimage, transform, null );
+    }
+
+    @Override
+    public void drawRenderableImage( final RenderableImage image, final AffineTransform transform ) {
+        drawRenderedImage( image.createDefaultRendering(), transform );
+    }
+
+    @Override
+    public boolean drawImage( final Image image, final int x, final int y, final ImageObserver observer ) {
+        return drawImage( image, x, y, null, observer );
+    }
+
+    @Override
+    public boolean drawImage( final Image image,
+                              final int x,
+                              final int y,
+                              final Color bgcolor,
+                              final ImageObserver observer ) {
+        return drawImage( image,
+                          x,
+                          y,
+                          image.getWidth( observer ),
+                          image.getHeight( observer ),
+                          bgcolor,
+                          observer );
+    }
+
+    @Override
+    public boolean drawImage( final Image image,
+                              final int x,
+                              final int y,
+                              final int iWidth,
+                              final int iHeight,
+                              final ImageObserver observer ) {
+        return drawImage( image, x, y, iWidth, iHeight, null, observer );
+    }
+
+    @Override
+    public boolean drawImage( final Image image,
+                              final int x,
+                              final int y,
+                              final int iWidth,
+                              final int iHeight,
+                              final Color bgcolor,
+                              final ImageObserver observer ) {
+        addImage( image, x, y, iWidth, iHeight, bgcolor, observer );
+        return true;
+    }
+
+    @Override
+    public boolean drawImage( final Image image,
+                              final int dx1,
+                              final int dy1,
+                              final int dx2,
+                              final int dy2,
+                              final int sx1,
+                              final int sy1,
+                              final int sx2,
+                              final int sy2,
+                              final ImageObserver observer ) {
+        return drawImage( image, dx1, dy1, dx2, dy2, sx1, sy1, sx2, sy2, null, observer );
+    }
+
+    @Override
+    public boolean drawImage( final Image image,
+                              final int dx1,
+                              final int dy1,
+                              final int dx2,
+                              final int dy2,
+                              final int sx1,
+                              final int sy1,
+                              final int sx2,
+                              final int sy2,
+                              final Color bgcolor,
+                              final ImageObserver observer ) {
+        final int sw = FastMath.abs( sx2 - sx1 );
+        final int sh = FastMath.abs( sy2 - sy1 );
+        if ( ( sw == 0 ) || ( sh == 0 ) ) {
+            return true;
+        }
+        // crop the source rectangle, the destination rectangle is then a
+        // plain image drawing
+        final BufferedImage cropped = new BufferedImage( sw, sh, BufferedImage.TYPE_INT_ARGB );
+        final Graphics2D g2d = cropped.createGraphics();
+        g2d.drawImage( image, 0, 0, sw, sh, sx1, sy1, sx2, sy2, bgcolor, observer );
+        g2d.dispose();
+        addImage( cropped,
+                  FastMath.min( dx1, dx2 ),
+                  FastMath.min( dy1, dy2 ),
+                  FastMath.abs( dx2 - dx1 ),
+                  FastMath.abs( dy2 - dy1 ),
+                  null,
+                  observer );
+        return true;
+    }
+
+    @Override
+    public void drawLine( final int x1, final int y1, final int x2, final int y2 ) {
+        draw( new Line2D.Float( x1, y1, x2, y2 ) );
+    }
+
+    @Override
+    public void drawOval( final int x, final int y, final int aWidth, final int aHeight ) {
+        draw( new Ellipse2D.Float( x, y, aWidth, aHeight ) );
+    }
+
+    @Override
+    public void fillOval( final int x, final int y, final int aWidth, final int aHeight ) {
+        fill( new Ellipse2D.Float( x, y, aWidth, aHeight ) );
+    }
+
+    @Override
+    public void drawArc( final int x,
+                         final int y,
+                         final int aWidth,
+                         final int aHeight,
+                         final int startAngle,
+                         final int arcAngle ) {
+        draw( new Arc2D.Float( x, y, aWidth, aHeight, startAngle, arcAngle, Arc2D.OPEN ) );
+    }
+
+    @Override
+    public void fillArc( final int x,
+                         final int y,
+                         final int aWidth,
+                         final int aHeight,
+                         final int startAngle,
+                         final int arcAngle ) {
+        fill( new Arc2D.Float( x, y, aWidth, aHeight, startAngle, arcAngle, Arc2D.PIE ) );
+    }
+
+    @Override
+    public void drawPolygon( final int[] xPoints, final int[] yPoints, final int nPoints ) {
+        draw( new Polygon( xPoints, yPoints, nPoints ) );
+    }
+
+    @Override
+    public void fillPolygon( final int[] xPoints, final int[] yPoints, final int nPoints ) {
+        fill( new Polygon( xPoints, yPoints, nPoints ) );
+    }
+
+    @Override
+    public void drawPolyline( final int[] xPoints, final int[] yPoints, final int nPoints ) {
+        if ( nPoints > 0 ) {
+            final GeneralPath path = new GeneralPath();
+            path.moveTo( xPoints[ 0 ], yPoints[ 0 ] );
+            for ( int j = 1; j < nPoints; j++ ) {
+                path.lineTo( xPoints[ j ], yPoints[ j ] );
+            }
+            draw( path );
+        }
+    }
+
+    @Override
+    public void drawRect( final int x, final int y, final int aWidth, final int aHeight ) {
+        draw( new Rectangle( x, y, aWidth, aHeight ) );
+    }
+
+    @Override
+    public void fillRect( final int x, final int y, final int aWidth, final int aHeight ) {
+        fill( new Rectangle( x, y, aWidth, aHeight ) );
+    }
+
+    @Override
+    public void clearRect( final int x, final int y, final int aWidth, final int aHeight ) {
+        final Paint savedPaint = getPaint();
+        setColor( background );
+        fillRect( x, y, aWidth, aHeight );
+        setPaint( savedPaint );
+    }
+
+    @Override
+    public void drawRoundRect( final int x,
+                               final int y,
+                               final int aWidth,
+                               final int aHeight,
+                               final int arcWidth,
+                               final int arcHeight ) {
+        draw( new RoundRectangle2D.Float( x, y, aWidth, aHeight, arcWidth, arcHeight ) );
+    }
+
+    @Override
+    public void fillRoundRect( final int x,
+                               final int y,
+                               final int aWidth,
+                               final int aHeight,
+                               final int arcWidth,
+                               final int arcHeight ) {
+        fill( new RoundRectangle2D.Float( x, y, aWidth, aHeight, arcWidth, arcHeight ) );
+    }
+
+    @Override
+    public void copyArea( final int x,
+                          final int y,
+                          final int aWidth,
+                          final int aHeight,
+                          final int dx,
+                          final int dy ) {}
+
+    @Override
+    public Graphics create() {
+        return new PPTXGraphics2D( this );
+    }
+
+    @Override
+    public void dispose() {
+        g2D.dispose();
+    }
+
+    @Override
+    public void clip( final Shape shape ) {
+        if ( shape == null ) {
+            return;
+        }
+        final Shape devShape = ShapeUtilities.createTransformedShape( shape, trans );
+        deviceclip = ( deviceclip != null ) ? deviceclip.intersect( devShape ) : PPTClip.create( devShape );
+    }
+
+    @Override
+    public void clipRect( final int x, final int y, final int aWidth, final int aHeight ) {
+        clip( new Rectangle( x, y, aWidth, aHeight ) );
+    }
+
+    @Override
+    public void setClip( final int x, final int y, final int aWidth, final int aHeight ) {
+        setClip( new Rectangle( x, y, aWidth, aHeight ) );
+    }
+
+    @Override
+    public void setClip( final Shape shape ) {
+        deviceclip = ( shape != null )
+            ? PPTClip.create( ShapeUtilities.createTransformedShape( shape, trans ) )
+            : null;
+    }
+
+    @Override
+    public Shape getClip() {
+        if ( deviceclip == null ) {
+            return null;
+        }
+        try {
+            return ShapeUtilities.createTransformedShape( deviceclip.getShape(), trans.createInverse() );
+        }
+        catch ( final NoninvertibleTransformException e ) {
+            return null;
+        }
+    }
+
+    @Override
+    public Rectangle getClipBounds() {
+        final Shape clip = getClip();
+        return ( clip != null ) ? clip.getBounds() : null;
+    }
+
+    @Override
+    public boolean hit( final Rectangle rectangle, final Shape shape, final boolean onStroke ) {
+        g2D.setTransform( trans );
+        g2D.setStroke( basicStroke );
+        g2D.setClip( getClip() );
+        return g2D.hit( rectangle, shape, onStroke );
+    }
+
+    @Override
+    public GraphicsConfiguration getDeviceConfiguration() {
+        return g2D.getDeviceConfiguration();
+    }
+
+    @Override
+    public void setComposite( final Composite composite ) {
+        g2D.setComposite( composite );
+    }
+
+    @Override
+    public Composite getComposite() {
+        return g2D.getComposite();
+    }
+
+    @Override
+    public void setPaint( final Paint paint ) {
+        if ( paint instanceof Color ) {
+            color = ( Color ) paint;
+            this.paint = paint;
+        }
+        else if ( paint != null ) {
+            color = null;
+            this.paint = paint;
+        }
+    }
+
+    @Override
+    public Paint getPaint() {
+        return paint;
+    }
+
+    @Override
+    public void setColor( final Color col ) {
+        setPaint( col );
+    }
+
+    @Override
+    public Color getColor() {
+        return color;
+    }
+
+    @Override
+    public void setBackground( final Color aColor ) {
+        if ( aColor != null ) {
+            background = aColor;
+        }
+    }
+
+    @Override
+    public Color getBackground() {
+        return background;
+    }
+
+    @Override
+    public void setPaintMode() {}
+
+    @Override
+    public void setXORMode( final Color aColor ) {}
+
+    @Override
+    public void setStroke( final Stroke stroke ) {
+        basicStroke = ( stroke instanceof BasicStroke ) ? ( BasicStroke ) stroke : new BasicStroke();
+    }
+
+    @Override
+    public Stroke getStroke() {
+        return basicStroke;
+    }
+
+    @Override
+    public void setFont( final Font font ) {
+        if ( font != null ) {
+            g2D.setFont( font );
+            this.font = font;
+        }
+    }
+
+    @Override
+    public Font getFont() {
+        return font;
+    }
+
+    @Override
+    public FontMetrics getFontMetrics( final Font font ) {
+        return g2D.getFontMetrics( font );
+    }
+
+    @Override
+    public FontRenderContext getFontRenderContext() {
+        g2D.setTransform( trans );
+        return g2D.getFontRenderContext();
+    }
+
+    @Override
+    public void setRenderingHint( final RenderingHints.Key key, final Object value ) {
+        g2D.setRenderingHint( key, value );
+    }
+
+    @Override
+    public Object getRenderingHint( final RenderingHints.Key key ) {
+        return g2D.getRenderingHint( key );
+    }
+
+    @Override
+    public void setRenderingHints( final Map< ?, ? > hints ) {
+        g2D.setRenderingHints( hints );
+    }
+
+    @Override
+    public void addRenderingHints( final Map< ?, ? > hints ) {
+        g2D.addRenderingHints( hints );
+    }
+
+    @Override
+    public RenderingHints getRenderingHints() {
+        return g2D.getRenderingHints();
+    }
+
+    @Override
+    public void translate( final int x, final int y ) {
+        trans.translate( x, y );
+    }
+
+    @Override
+    public void translate( final double x, final double y ) {
+        trans.translate( x, y );
+    }
+
+    @Override
+    public void rotate( final double theta ) {
+        trans.rotate( theta );
+    }
+
+    @Override
+    public void rotate( final double theta, final double x, final double y ) {
+        trans.rotate( theta, x, y );
+    }
+
+    @Override
+    public void scale( final double sx, final double sy ) {
+        trans.scale( sx, sy );
+    }
+
+    @Override
+    public void shear( final double shx, final double shy ) {
+        trans.shear( shx, shy );
+    }
+
+    @Override
+    public void transform( final AffineTransform tr ) {
+        trans.concatenate( tr );
+    }
+
+    @Override
+    public void setTransform( final AffineTransform tr ) {
+        trans = ( AffineTransform ) tr.clone();
+    }
+
+    @Override
+    public AffineTransform getTransform() {
+        return ( AffineTransform ) trans.clone();
+    }
+}
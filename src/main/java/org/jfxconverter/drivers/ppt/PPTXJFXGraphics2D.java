@@ -0,0 +1,375 @@
+/**
+ * Copyright (c) 2011, 2013, 2014, 2015, 2016 Dassault Aviation.
+ * Copyright (c) 2017 Herve Girod.
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+ * FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * The views and conclusions contained in the software and documentation are
+ * those
+ * of the authors and should not be interpreted as representing official
+ * policies,
+ * either expressed or implied, of the FreeBSD Project.
+ * Please contact Dassault Aviation, 9 Rond-Point des Champs Elysees, 75008
+ * Paris,
+ * France if you need additional information.
+ * Alternatively if you have any questions about this project, you can visit
+ * the project website at the project page on http://j661.sourceforge.net
+ */
+package org.jfxconverter.drivers.ppt;
+
+import javafx.geometry.Bounds;
+import javafx.scene.Node;
+import javafx.scene.effect.DropShadow;
+import javafx.scene.effect.Effect;
+import javafx.scene.effect.InnerShadow;
+import org.apache.commons.math3.util.FastMath;
+import org.apache.poi.util.Units;
+import org.apache.poi.xslf.usermodel.XSLFGroupShape;
+import org.apache.poi.xslf.usermodel.XSLFShapeContainer;
+import org.apache.poi.xslf.usermodel.XSLFSimpleShape;
+import org.apache.poi.xslf.usermodel.XSLFSlide;
+import org.apache.xmlbeans.XmlCursor;
+import org.jfxconverter.utils.ExtendedGraphics2D;
+import org.mdiutil.geom.ShapeUtilities;
+import org.openxmlformats.schemas.drawingml.x2006.main.CTEffectList;
+import org.openxmlformats.schemas.drawingml.x2006.main.CTOuterShadowEffect;
+import org.openxmlformats.schemas.drawingml.x2006.main.CTSRgbColor;
+import org.openxmlformats.schemas.drawingml.x2006.main.CTShapeProperties;
+import org.openxmlformats.schemas.drawingml.x2006.main.STRectAlignment;
+
+import javax.xml.namespace.QName;
+import java.awt.Color;
+import java.awt.geom.Rectangle2D;
+import java.util.Stack;
+
+/**
+ * A PPTXGraphics2D which is also an ExtendedGraphics2D. Compared to a
+ * {@link PPTXGraphics2D}, the following behavior is supported:
+ * <ul>
+ * <li>Grouping of Shapes</li>
+ * <li>Conversions of Node Shadows, as DrawingML shadow effects</li>
+ * </ul>
+ * Grouping and shadows are also supported without a live Node, through the
+ * {@link GroupingGraphics} contract.
+ *
+ * @version 0.20
+ */
+public class PPTXJFXGraphics2D extends PPTXGraphics2D
+        implements ExtendedGraphics2D< Node, Effect >, GroupingGraphics {
+    private static final String           DRAWINGML_NS  = "http://schemas.openxmlformats.org/drawingml/2006/main"; //$NON-NLS-1$
+    private static final int              ANGLE_UNITS   = 60000;
+    private static final int              PERCENT_UNITS = 100000;
+    private boolean                       supportGroups = false;
+    private final Stack< XSLFGroupShape > groups        = new Stack<>();
+    private DropShadow                    dshadow       = null;
+    private InnerShadow                   ishadow       = null;
+
+    /**
+     * Create a Graphics2D which will paint in a PPTX Slide context. It will
+     * use a white background, a default black foreground, and a default
+     * stroke width of 1 pixel.
+     *
+     * @param pptSlide
+     *            the slide
+     * @param imWidth
+     *            the slide width
+     * @param imHeight
+     *            the slide height
+     */
+    public PPTXJFXGraphics2D( final XSLFSlide pptSlide, final float imWidth, final float imHeight ) {
+        super( pptSlide, imWidth, imHeight );
+    }
+
+    /**
+     * Create a Graphics2D which will paint in a PPTX Slide context.
+     *
+     * @param pptSlide
+     *            the slide
+     * @param imWidth
+     *            the slide width
+     * @param imHeight
+     *            the slide height
+     * @param background
+     *            the slide background
+     * @param foreground
+     *            the slide foreground
+     */
+    public PPTXJFXGraphics2D( final XSLFSlide pptSlide,
+                              final float imWidth,
+                              final float imHeight,
+                              final Color background,
+                              final Color foreground ) {
+        super( pptSlide, imWidth, imHeight, background, foreground );
+    }
+
+    /**
+     * Copy constructor.
+     *
+     * @param pptxG2d
+     *            the Graphics2D used for the PPTX conversion
+     */
+    public PPTXJFXGraphics2D( final PPTXGraphics2D pptxG2d ) {
+        super( pptxG2d );
+    }
+
+    /**
+     * Set if grouping is supported. If supported, a
+     * {@link org.apache.poi.xslf.usermodel.XSLFGroupShape} will be created
+     * when the method {@link #startGroup(java.lang.String, javafx.scene.Node)}
+     * is called.
+     *
+     * @param b
+     *            true if grouping is supported
+     */
+    public void supportGroups( final boolean b ) {
+        supportGroups = b;
+    }
+
+    /**
+     * Return true if grouping is supported.
+     *
+     * @return true if grouping is supported
+     */
+    public boolean isSupportingGroups() {
+        return supportGroups;
+    }
+
+    /**
+     * Return the current Group, or the Slide if there is no current Group.
+     *
+     * @return the container
+     */
+    @Override
+    protected XSLFShapeContainer getShapeContainer() {
+        return groups.isEmpty() ? slide : groups.peek();
+    }
+
+    /**
+     * Start a Group.
+     *
+     * @param name
+     *            the group name
+     * @param node
+     *            the Node
+     */
+    @Override
+    public void startGroup( final String name, final Node node ) {
+        startGroup( name, node.getBoundsInParent() );
+    }
+
+    /**
+     * Start a Group.
+     *
+     * @param name
+     *            the group name
+     * @param bounds
+     *            the bounds in parent of the grouped Node
+     */
+    @Override
+    public void startGroup( final String name, final Bounds bounds ) {
+        if ( supportGroups ) {
+            // We support groups of groups
+            final XSLFGroupShape group = getShapeContainer().createGroup();
+            final Rectangle2D rec = ShapeUtilities
+                    .createTransformedShape( new Rectangle2D.Double( bounds.getMinX(),
+                                                                     bounds.getMinY(),
+                                                                     bounds.getWidth(),
+                                                                     bounds.getHeight() ),
+                                             trans )
+                    .getBounds2D();
+            // the interior anchor is the same as the anchor, so that the
+            // children Shapes keep their Slide coordinates
+            group.setAnchor( rec );
+            group.setInteriorAnchor( rec );
+            groups.push( group );
+        }
+    }
+
+    /**
+     * End a Group.
+     *
+     * @param node
+     *            the Node
+     */
+    @Override
+    public void endGroup( final Node node ) {
+        endGroup();
+    }
+
+    /**
+     * End a Group.
+     */
+    @Override
+    public void endGroup() {
+        if ( supportGroups && !groups.isEmpty() ) {
+            groups.pop();
+        }
+    }
+
+    /**
+     * Apply an Effect on the next graphics object to be rendered. For the
+     * moment, only the following Effects are handled:
+     * <ul>
+     * <li>{@link javafx.scene.effect.DropShadow}</li>
+     * <li>{@link javafx.scene.effect.InnerShadow}</li>
+     * </ul>
+     *
+     * @param node
+     *            the Node on which the effect must be applied
+     * @param effect
+     *            the Effect
+     */
+    @Override
+    public void applyEffect( final Node node, final Effect effect ) {
+        applyEffect( effect );
+    }
+
+    /**
+     * Apply an Effect on the next graphics object to be rendered. See
+     * {@link #applyEffect(Node, Effect)} for the supported Effects.
+     *
+     * @param effect
+     *            the Effect, or null to clear the current Effect
+     */
+    @Override
+    public void applyEffect( final Effect effect ) {
+        dshadow = null;
+        ishadow = null;
+        if ( effect instanceof DropShadow ) {
+            dshadow = ( DropShadow ) effect;
+        }
+        else if ( effect instanceof InnerShadow ) {
+            ishadow = ( InnerShadow ) effect;
+        }
+    }
+
+    /**
+     * Add a shadow effect to a Shape if the associated Node has a Shadow
+     * Effect.
+     *
+     * @param shape
+     *            the Shape
+     */
+    @Override
+    protected void setShapeFillingAdditionalProperties( final XSLFSimpleShape shape ) {
+        if ( ( dshadow == null ) && ( ishadow == null ) ) {
+            return;
+        }
+        final CTShapeProperties spPr = getShapeProperties( shape );
+        if ( spPr == null ) {
+            return;
+        }
+        final CTEffectList effects = spPr.isSetEffectLst() ? spPr.getEffectLst() : spPr.addNewEffectLst();
+        final double scale = FastMath.sqrt( FastMath.abs( trans.getDeterminant() ) );
+        if ( dshadow != null ) {
+            setDropShadow( effects, scale );
+        }
+        else {
+            setInnerShadow( effects, scale );
+        }
+    }
+
+    /**
+     * Add a Drop Shadow to an effect list.
+     *
+     * @param effects
+     *            the effect list
+     * @param scale
+     *            the scale of the current transform
+     */
+    private void setDropShadow( final CTEffectList effects, final double scale ) {
+        final CTOuterShadowEffect shadow = effects.addNewOuterShdw();
+        shadow.setBlurRad( Units.toEMU( dshadow.getRadius() * scale ) );
+        final double offsetX = dshadow.getOffsetX() * scale;
+        final double offsetY = dshadow.getOffsetY() * scale;
+        shadow.setDist( Units.toEMU( FastMath.hypot( offsetX, offsetY ) ) );
+        shadow.setDir( getDirection( offsetX, offsetY ) );
+        shadow.setAlgn( STRectAlignment.CTR );
+        shadow.setRotWithShape( false );
+        final javafx.scene.paint.Color jfxColor = dshadow.getColor();
+        final CTSRgbColor rgb = shadow.addNewSrgbClr();
+        rgb.setVal( getRGB( jfxColor ) );
+        if ( jfxColor.getOpacity() < 1d ) {
+            rgb.addNewAlpha().setVal( ( int ) FastMath.round( jfxColor.getOpacity() * PERCENT_UNITS ) );
+        }
+    }
+
+    /**
+     * Add an Inner Shadow to an effect list. The schemas used by POI do not
+     * contain the inner shadow type, so the element is written directly.
+     *
+     * @param effects
+     *            the effect list
+     * @param scale
+     *            the scale of the current transform
+     */
+    private void setInnerShadow( final CTEffectList effects, final double scale ) {
+        final double offsetX = ishadow.getOffsetX() * scale;
+        final double offsetY = ishadow.getOffsetY() * scale;
+        final javafx.scene.paint.Color jfxColor = ishadow.getColor();
+        final byte[] rgb = getRGB( jfxColor );
+        try ( final XmlCursor cursor = effects.newCursor() ) {
+            // the inner shadow comes before the outer shadow in the effect
+            // list sequence
+            if ( !cursor.toChild( new QName( DRAWINGML_NS, "outerShdw" ) ) ) { //$NON-NLS-1$
+                cursor.toEndToken();
+            }
+            cursor.beginElement( new QName( DRAWINGML_NS, "innerShdw", "a" ) ); //$NON-NLS-1$ //$NON-NLS-2$
+            cursor.insertAttributeWithValue( "blurRad", //$NON-NLS-1$
+                                             Long.toString( Units.toEMU( ishadow.getRadius() * scale ) ) );
+            cursor.insertAttributeWithValue( "dist", //$NON-NLS-1$
+                                             Long.toString( Units
+                                                     .toEMU( FastMath.hypot( offsetX, offsetY ) ) ) );
+            cursor.insertAttributeWithValue( "dir", //$NON-NLS-1$
+                                             Integer.toString( getDirection( offsetX, offsetY ) ) );
+            cursor.beginElement( new QName( DRAWINGML_NS, "srgbClr", "a" ) ); //$NON-NLS-1$ //$NON-NLS-2$
+            cursor.insertAttributeWithValue( "val", //$NON-NLS-1$
+                                             String.format( "%02X%02X%02X", //$NON-NLS-1$
+                                                            rgb[ 0 ] & 0xff,
+                                                            rgb[ 1 ] & 0xff,
+                                                            rgb[ 2 ] & 0xff ) );
+            if ( jfxColor.getOpacity() < 1d ) {
+                cursor.beginElement( new QName( DRAWINGML_NS, "alpha", "a" ) ); //$NON-NLS-1$ //$NON-NLS-2$
+                cursor.insertAttributeWithValue( "val", //$NON-NLS-1$
+                                                 Long.toString( FastMath.round( jfxColor.getOpacity()
+                                                         * PERCENT_UNITS ) ) );
+            }
+        }
+    }
+
+    /**
+     * Return the DrawingML direction of a shadow offset, clockwise from the x
+     * axis.
+     */
+    private static int getDirection( final double offsetX, final double offsetY ) {
+        double angle = FastMath.toDegrees( FastMath.atan2( offsetY, offsetX ) );
+        if ( angle < 0 ) {
+            angle += 360d;
+        }
+        return ( int ) FastMath.round( angle * ANGLE_UNITS ) % ( 360 * ANGLE_UNITS );
+    }
+
+    private static byte[] getRGB( final javafx.scene.paint.Color jfxColor ) {
+        return new byte[] { ( byte ) FastMath.round( 255 * jfxColor.getRed() ),
+                            ( byte ) FastMath.round( 255 * jfxColor.getGreen() ),
+                            ( byte ) FastMath.round( 255 * jfxColor.getBlue() ) };
+    }
+}